@@ -0,0 +1,153 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jbpm.workbench.cm.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.jboss.errai.common.client.api.annotations.Portable;
+import org.jbpm.workbench.cm.util.Actions;
+
+import static java.util.Optional.ofNullable;
+
+/**
+ * Everything the case overview panels display for a single case instance, fetched in one call.
+ */
+@Portable
+public class CaseInstanceSnapshot {
+
+    /**
+     * Number of comments of a snapshot, the first page of the case comments panel.
+     */
+    public static final int COMMENTS_PAGE_SIZE = 20;
+
+    private CaseInstanceSummary caseInstance;
+    private CaseDefinitionSummary caseDefinition;
+    private List<CaseStageSummary> stages = new ArrayList<>();
+    private List<CaseMilestoneSummary> milestones = new ArrayList<>();
+    private List<CaseCommentSummary> comments = new ArrayList<>();
+    private Actions actions;
+
+    public CaseInstanceSnapshot() {
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public CaseInstanceSummary getCaseInstance() {
+        return caseInstance;
+    }
+
+    public void setCaseInstance(final CaseInstanceSummary caseInstance) {
+        this.caseInstance = caseInstance;
+    }
+
+    public CaseDefinitionSummary getCaseDefinition() {
+        return caseDefinition;
+    }
+
+    public void setCaseDefinition(final CaseDefinitionSummary caseDefinition) {
+        this.caseDefinition = caseDefinition;
+    }
+
+    public List<CaseStageSummary> getStages() {
+        return stages;
+    }
+
+    public void setStages(final List<CaseStageSummary> stages) {
+        this.stages = ofNullable(stages).orElse(new ArrayList<>());
+    }
+
+    public List<CaseMilestoneSummary> getMilestones() {
+        return milestones;
+    }
+
+    public void setMilestones(final List<CaseMilestoneSummary> milestones) {
+        this.milestones = ofNullable(milestones).orElse(new ArrayList<>());
+    }
+
+    /**
+     * First page of the case comments, in the order returned by the server.
+     */
+    public List<CaseCommentSummary> getComments() {
+        return comments;
+    }
+
+    public void setComments(final List<CaseCommentSummary> comments) {
+        this.comments = ofNullable(comments).orElse(new ArrayList<>());
+    }
+
+    public Actions getActions() {
+        return actions;
+    }
+
+    public void setActions(final Actions actions) {
+        this.actions = actions;
+    }
+
+    @Override
+    public String toString() {
+        return "CaseInstanceSnapshot{" +
+                "caseInstance=" + caseInstance +
+                ", caseDefinition=" + caseDefinition +
+                ", stages=" + stages +
+                ", milestones=" + milestones +
+                ", comments=" + comments +
+                '}';
+    }
+
+    public static class Builder {
+
+        private CaseInstanceSnapshot snapshot = new CaseInstanceSnapshot();
+
+        public CaseInstanceSnapshot build() {
+            return snapshot;
+        }
+
+        public Builder caseInstance(final CaseInstanceSummary caseInstance) {
+            snapshot.setCaseInstance(caseInstance);
+            return this;
+        }
+
+        public Builder caseDefinition(final CaseDefinitionSummary caseDefinition) {
+            snapshot.setCaseDefinition(caseDefinition);
+            return this;
+        }
+
+        public Builder stages(final List<CaseStageSummary> stages) {
+            snapshot.setStages(stages);
+            return this;
+        }
+
+        public Builder milestones(final List<CaseMilestoneSummary> milestones) {
+            snapshot.setMilestones(milestones);
+            return this;
+        }
+
+        public Builder comments(final List<CaseCommentSummary> comments) {
+            snapshot.setComments(comments);
+            return this;
+        }
+
+        public Builder actions(final Actions actions) {
+            snapshot.setActions(actions);
+            return this;
+        }
+    }
+}
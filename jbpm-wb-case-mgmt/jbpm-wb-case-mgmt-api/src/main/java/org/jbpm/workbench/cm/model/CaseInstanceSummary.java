@@ -41,6 +41,7 @@ public class CaseInstanceSummary {
     private String caseDefinitionId;
     private List<CaseRoleAssignmentSummary> roleAssignments = new ArrayList<>();
     private List<CaseStageSummary> stages = new ArrayList<>();
+    private List<CaseMilestoneSummary> milestones = new ArrayList<>();
 
     public CaseInstanceSummary() {
     }
@@ -121,6 +122,14 @@ public class CaseInstanceSummary {
         this.stages = ofNullable(stages).orElse(new ArrayList<>());
     }
 
+    public List<CaseMilestoneSummary> getMilestones() {
+        return milestones;
+    }
+
+    public void setMilestones(final List<CaseMilestoneSummary> milestones) {
+        this.milestones = ofNullable(milestones).orElse(new ArrayList<>());
+    }
+
     public String getCaseDefinitionId() {
         return caseDefinitionId;
     }
@@ -165,6 +174,7 @@ public class CaseInstanceSummary {
                 ", caseDefinitionId='" + caseDefinitionId + '\'' +
                 ", roleAssignments=" + roleAssignments + '\'' +
                 ", stages=" + stages +
+                ", milestones=" + milestones +
                 '}';
     }
 
@@ -225,5 +235,10 @@ public class CaseInstanceSummary {
             caseInstance.setStages(stages);
             return this;
         }
+
+        public Builder milestones(final List<CaseMilestoneSummary> milestones) {
+            caseInstance.setMilestones(milestones);
+            return this;
+        }
     }
 }
\ No newline at end of file
@@ -46,6 +46,11 @@ public interface CaseManagementService {
                                         String containerId,
                                         String caseId);
 
+    CaseInstanceSnapshot getCaseInstanceSnapshot(String serverTemplateId,
+                                                 String containerId,
+                                                 String caseId,
+                                                 Integer commentsPageSize);
+
     void cancelCaseInstance(String serverTemplateId,
                             String containerId,
                             String caseId);
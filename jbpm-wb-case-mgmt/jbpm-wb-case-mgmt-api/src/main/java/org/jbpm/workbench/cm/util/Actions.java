@@ -18,13 +18,19 @@ package org.jbpm.workbench.cm.util;
 
 import java.util.List;
 
+import org.jboss.errai.common.client.api.annotations.Portable;
 import org.jbpm.workbench.cm.model.CaseActionSummary;
+import org.jbpm.workbench.cm.model.CaseMilestoneSummary;
+import org.jbpm.workbench.cm.model.CaseStageSummary;
 
+@Portable
 public class Actions {
 
     private List<CaseActionSummary> availableActions;
     private List<CaseActionSummary> inProgressAction;
     private List<CaseActionSummary> completeActions;
+    private List<CaseStageSummary> stages;
+    private List<CaseMilestoneSummary> milestones;
 
     public List<CaseActionSummary> getAvailableActions() {
         return availableActions;
@@ -49,4 +55,26 @@ public class Actions {
     public void setCompleteActions(List<CaseActionSummary> completeActions) {
         this.completeActions = completeActions;
     }
+
+    /**
+     * Stages of the case instance snapshot the actions were computed from.
+     */
+    public List<CaseStageSummary> getStages() {
+        return stages;
+    }
+
+    public void setStages(List<CaseStageSummary> stages) {
+        this.stages = stages;
+    }
+
+    /**
+     * Milestones of the case instance snapshot the actions were computed from.
+     */
+    public List<CaseMilestoneSummary> getMilestones() {
+        return milestones;
+    }
+
+    public void setMilestones(List<CaseMilestoneSummary> milestones) {
+        this.milestones = milestones;
+    }
 }
\ No newline at end of file
@@ -29,6 +29,10 @@ public class CaseInstanceSearchRequest {
 
     private Boolean sortByAsc = true;
 
+    private Integer page = 0;
+
+    private Integer pageSize = 10;
+
     public CaseInstanceSearchRequest() {
     }
 
@@ -56,12 +60,30 @@ public class CaseInstanceSearchRequest {
         this.sortByAsc = sortByAsc;
     }
 
+    public Integer getPage() {
+        return page;
+    }
+
+    public void setPage(final Integer page) {
+        this.page = page;
+    }
+
+    public Integer getPageSize() {
+        return pageSize;
+    }
+
+    public void setPageSize(final Integer pageSize) {
+        this.pageSize = pageSize;
+    }
+
     @Override
     public String toString() {
         return "CaseInstanceSearchRequest{" +
                 "status=" + status +
                 ", sortBy=" + sortBy +
                 ", sortByAsc=" + sortByAsc +
+                ", page=" + page +
+                ", pageSize=" + pageSize +
                 '}';
     }
 }
@@ -53,6 +53,11 @@ public class CaseInstanceMapper implements Function<CaseInstance, CaseInstanceSu
                                 .stream()
                                 .map(new CaseStageMapper())
                                 .collect(toList())).
+                milestones(
+                        ofNullable(ci.getMilestones()).orElse(emptyList())
+                                .stream()
+                                .map(new CaseMilestoneMapper())
+                                .collect(toList())).
                 build();
     }
 }
\ No newline at end of file
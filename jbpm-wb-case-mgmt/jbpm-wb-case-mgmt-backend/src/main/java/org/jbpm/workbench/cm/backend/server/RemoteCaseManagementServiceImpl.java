@@ -16,11 +16,25 @@
 
 package org.jbpm.workbench.cm.backend.server;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.function.BiPredicate;
 import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Event;
 import javax.inject.Inject;
 
 import org.jboss.errai.bus.server.annotations.Service;
@@ -34,6 +48,10 @@ import org.jbpm.workbench.cm.util.CaseInstanceSearchRequest;
 import org.jbpm.workbench.cm.util.CaseInstanceSortBy;
 import org.jbpm.workbench.cm.util.CaseMilestoneSearchRequest;
 import org.jbpm.workbench.cm.util.CaseStageStatus;
+import org.jbpm.workbench.ks.events.KieServerDataModified;
+import org.jbpm.workbench.ks.utils.KieServerUtils;
+import org.kie.internal.identity.IdentityProvider;
+import org.kie.server.api.exception.KieServicesException;
 import org.kie.server.api.model.cases.CaseComment;
 import org.kie.server.api.model.cases.CaseDefinition;
 import org.kie.server.api.model.cases.CaseFile;
@@ -41,9 +59,16 @@ import org.kie.server.api.model.cases.CaseInstance;
 import org.kie.server.api.model.cases.CaseMilestone;
 import org.kie.server.api.model.cases.CaseStage;
 import org.kie.server.api.model.definition.ProcessDefinition;
+import org.kie.server.api.model.definition.QueryDefinition;
+import org.kie.server.api.model.definition.QueryFilterSpec;
+import org.kie.server.api.model.definition.QueryParam;
 import org.kie.server.api.model.instance.NodeInstance;
 import org.kie.server.client.CaseServicesClient;
+import org.kie.server.client.QueryServicesClient;
 import org.kie.server.client.UserTaskServicesClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.uberfire.commons.concurrent.Managed;
 
 import static java.util.Collections.singletonList;
 import static java.util.Comparator.comparing;
@@ -57,12 +82,78 @@ public class RemoteCaseManagementServiceImpl implements CaseManagementService {
     public static final int PAGE_SIZE_UNLIMITED = Integer.MAX_VALUE;
     public static final String CASE_OWNER_ROLE = "owner";
 
+    public static final String TASK_OWNERS_QUERY = "jbpmCaseTaskOwners";
+    public static final String TASK_OWNERS_CACHE_SIZE = "org.jbpm.wb.case.task.owners.cache.size";
+    public static final String CASE_DATA_TIMEOUT = "org.jbpm.wb.case.data.timeout";
+
+    protected static final String QUERY_SOURCE = "${org.kie.server.persistence.ds}";
+    protected static final String TASK_OWNERS_QUERY_EXPRESSION = "select t.workItemId, t.actualOwner from AuditTaskImpl t";
+    protected static final String TASK_OWNERS_WORK_ITEM_ID = "workItemId";
+    protected static final int TASK_OWNERS_BATCH_SIZE = 500;
+
+    public static final String CASE_INSTANCES_QUERY = "jbpmCaseInstances";
+
+    protected static final String CASE_INSTANCES_QUERY_EXPRESSION = "select log.processInstanceId, log.correlationKey, log.processInstanceDescription, log.processId, log.externalId, " +
+            "(select min(o.entityId) from CaseRoleAssignmentLog o where o.processInstanceId = log.processInstanceId and o.roleName = '" + CASE_OWNER_ROLE + "') as caseOwner, " +
+            "log.status, log.start_date, log.end_date, r.entityId from ProcessInstanceLog log " +
+            "inner join CaseRoleAssignmentLog r on r.processInstanceId = log.processInstanceId";
+    protected static final String CASE_INSTANCES_PROCESS_INSTANCE_ID = "processInstanceId";
+    protected static final String CASE_INSTANCES_STATUS = "status";
+    protected static final String CASE_INSTANCES_CASE_ID = "correlationKey";
+    protected static final String CASE_INSTANCES_START_DATE = "start_date";
+    protected static final String CASE_INSTANCES_ENTITY_ID = "entityId";
+    protected static final String[] CASE_INSTANCES_COLUMNS = {
+            CASE_INSTANCES_PROCESS_INSTANCE_ID,
+            CASE_INSTANCES_CASE_ID,
+            "processInstanceDescription",
+            "processId",
+            "externalId",
+            "caseOwner",
+            CASE_INSTANCES_STATUS,
+            CASE_INSTANCES_START_DATE,
+            "end_date"
+    };
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RemoteCaseManagementServiceImpl.class);
+
     @Inject
     private CaseServicesClient client;
 
     @Inject
     private UserTaskServicesClient userTaskServicesClient;
 
+    @Inject
+    private QueryServicesClient queryServicesClient;
+
+    @Inject
+    private IdentityProvider identityProvider;
+
+    @Inject
+    @Managed
+    private ExecutorService executorService;
+
+    @Inject
+    private Event<KieServerDataModified> dataModifiedEvent;
+
+    private volatile boolean taskOwnersQueryRegistered = false;
+
+    private volatile boolean caseInstancesQueryRegistered = false;
+
+    protected long caseDataTimeout = Long.getLong(CASE_DATA_TIMEOUT,
+                                                  30000L);
+
+    private final int taskOwnersCacheSize = Integer.getInteger(TASK_OWNERS_CACHE_SIZE,
+                                                               50);
+
+    private final Map<String, Map<Long, String>> completedTaskOwners = Collections.synchronizedMap(new LinkedHashMap<String, Map<Long, String>>(16,
+                                                                                                                                                  0.75f,
+                                                                                                                                                  true) {
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<String, Map<Long, String>> eldest) {
+            return size() > taskOwnersCacheSize;
+        }
+    });
+
     @Override
     public List<CaseDefinitionSummary> getCaseDefinitions() {
         final List<CaseDefinition> caseDefinitions = client.getCaseDefinitions(0,
@@ -80,13 +171,116 @@ public class RemoteCaseManagementServiceImpl implements CaseManagementService {
                                                    caseDefinitionId)).map(new CaseDefinitionMapper()).orElse(null);
     }
 
+    /**
+     * Returns the requested page of case instances. Filtering, sorting and paging are done by KIE Server through a
+     * query over the process instance log, cases are only loaded in full and sorted here when the query can't be
+     * registered. As with the case list of KIE Server, only cases in which the user or one of its groups holds a role
+     * are returned.
+     */
     @Override
     public List<CaseInstanceSummary> getCaseInstances(final CaseInstanceSearchRequest request) {
+        final int page = ofNullable(request.getPage()).orElse(0);
+        final int pageSize = ofNullable(request.getPageSize()).orElse(PAGE_SIZE_UNLIMITED);
+        if (registerCaseInstancesQuery()) {
+            try {
+                return queryCaseInstances(request,
+                                          page,
+                                          pageSize);
+            } catch (KieServicesException e) {
+                LOGGER.debug("Unable to query case instances, loading all of them: {}",
+                             e.getMessage());
+                caseInstancesQueryRegistered = false;
+            }
+        }
+
         final List<CaseInstance> caseInstances = client.getCaseInstances(singletonList(request.getStatus().getName()),
                                                                          0,
                                                                          PAGE_SIZE_UNLIMITED);
         final Comparator<CaseInstanceSummary> comparator = getCaseInstanceSummaryComparator(request);
-        return caseInstances.stream().map(new CaseInstanceMapper()).sorted(comparator).collect(toList());
+        return caseInstances.stream()
+                .map(new CaseInstanceMapper())
+                .sorted(comparator)
+                .skip((long) page * pageSize)
+                .limit(pageSize)
+                .collect(toList());
+    }
+
+    protected List<CaseInstanceSummary> queryCaseInstances(final CaseInstanceSearchRequest request,
+                                                           final int page,
+                                                           final int pageSize) {
+        final List<String> entities = new ArrayList<>(identityProvider.getRoles());
+        entities.add(identityProvider.getName());
+        final List<QueryParam> parameters = new ArrayList<>();
+        parameters.add(new QueryParam(CASE_INSTANCES_STATUS,
+                                      "EQUALS_TO",
+                                      singletonList(request.getStatus().getId())));
+        parameters.add(new QueryParam(CASE_INSTANCES_ENTITY_ID,
+                                      "IN",
+                                      entities));
+        // a row per role assignment of the user or one of its groups, grouped back into one row per case
+        parameters.add(new QueryParam(CASE_INSTANCES_PROCESS_INSTANCE_ID,
+                                      "group",
+                                      singletonList(CASE_INSTANCES_PROCESS_INSTANCE_ID)));
+        for (String column : CASE_INSTANCES_COLUMNS) {
+            parameters.add(new QueryParam(column,
+                                          null,
+                                          singletonList(column)));
+        }
+        final QueryFilterSpec filterSpec = new QueryFilterSpec();
+        filterSpec.setParameters(parameters.toArray(new QueryParam[parameters.size()]));
+        filterSpec.setOrderBy(ofNullable(request.getSortBy()).orElse(CaseInstanceSortBy.CASE_ID) == CaseInstanceSortBy.START_TIME ?
+                                      CASE_INSTANCES_START_DATE :
+                                      CASE_INSTANCES_CASE_ID);
+        filterSpec.setAscending(ofNullable(request.getSortByAsc()).orElse(true));
+        final List<List> rows = queryServicesClient.query(CASE_INSTANCES_QUERY,
+                                                          QueryServicesClient.QUERY_MAP_RAW,
+                                                          filterSpec,
+                                                          page,
+                                                          pageSize,
+                                                          List.class);
+        return rows.stream()
+                .map(row -> CaseInstance.builder()
+                        .caseId(toString(row.get(1)))
+                        .caseDescription(toString(row.get(2)))
+                        .caseDefinitionId(toString(row.get(3)))
+                        .containerId(toString(row.get(4)))
+                        .caseOwner(toString(row.get(5)))
+                        .caseStatus(row.get(6) == null ? null : ((Number) row.get(6)).intValue())
+                        .startedAt(toDate(row.get(7)))
+                        .completedAt(toDate(row.get(8)))
+                        .build())
+                .map(new CaseInstanceMapper())
+                .collect(toList());
+    }
+
+    protected boolean registerCaseInstancesQuery() {
+        if (!caseInstancesQueryRegistered) {
+            try {
+                queryServicesClient.replaceQuery(QueryDefinition.builder()
+                                                         .name(CASE_INSTANCES_QUERY)
+                                                         .source(QUERY_SOURCE)
+                                                         .expression(CASE_INSTANCES_QUERY_EXPRESSION)
+                                                         .target("CUSTOM")
+                                                         .build());
+                caseInstancesQueryRegistered = true;
+            } catch (KieServicesException e) {
+                LOGGER.debug("Unable to register query {}: {}",
+                             CASE_INSTANCES_QUERY,
+                             e.getMessage());
+            }
+        }
+        return caseInstancesQueryRegistered;
+    }
+
+    private static String toString(final Object value) {
+        return value == null ? null : value.toString();
+    }
+
+    private static Date toDate(final Object value) {
+        if (value instanceof Number) {
+            return new Date(((Number) value).longValue());
+        }
+        return value instanceof Date ? (Date) value : null;
     }
 
     protected Comparator<CaseInstanceSummary> getCaseInstanceSummaryComparator(final CaseInstanceSearchRequest request) {
@@ -117,9 +311,11 @@ public class RemoteCaseManagementServiceImpl implements CaseManagementService {
             a.getUsers().forEach(u -> builder.addUserAssignments(a.getName(),
                                                                  u));
         });
-        return client.startCase(containerId,
-                                caseDefinitionId,
-                                builder.build());
+        final String caseId = client.startCase(containerId,
+                                               caseDefinitionId,
+                                               builder.build());
+        dataModifiedEvent.fire(new KieServerDataModified(serverTemplateId));
+        return caseId;
     }
 
     @Override
@@ -128,6 +324,7 @@ public class RemoteCaseManagementServiceImpl implements CaseManagementService {
                                    final String caseId) {
         client.cancelCaseInstance(containerId,
                                   caseId);
+        dataModifiedEvent.fire(new KieServerDataModified(serverTemplateId));
     }
 
     @Override
@@ -137,7 +334,7 @@ public class RemoteCaseManagementServiceImpl implements CaseManagementService {
         client.closeCaseInstance(containerId,
                                  caseId,
                                  comment);
-
+        dataModifiedEvent.fire(new KieServerDataModified(null));
     }
 
     @Override
@@ -164,6 +361,7 @@ public class RemoteCaseManagementServiceImpl implements CaseManagementService {
                                 caseId,
                                 roleName,
                                 user);
+        dataModifiedEvent.fire(new KieServerDataModified(serverTemplateId));
     }
 
     @Override
@@ -176,6 +374,7 @@ public class RemoteCaseManagementServiceImpl implements CaseManagementService {
                                  caseId,
                                  roleName,
                                  group);
+        dataModifiedEvent.fire(new KieServerDataModified(serverTemplateId));
     }
 
     @Override
@@ -188,6 +387,7 @@ public class RemoteCaseManagementServiceImpl implements CaseManagementService {
                                   caseId,
                                   roleName,
                                   user);
+        dataModifiedEvent.fire(new KieServerDataModified(serverTemplateId));
     }
 
     @Override
@@ -200,6 +400,7 @@ public class RemoteCaseManagementServiceImpl implements CaseManagementService {
                                    caseId,
                                    roleName,
                                    group);
+        dataModifiedEvent.fire(new KieServerDataModified(serverTemplateId));
     }
 
     @Override
@@ -281,43 +482,178 @@ public class RemoteCaseManagementServiceImpl implements CaseManagementService {
         return stages.stream().map(new CaseStageMapper()).collect(toList());
     }
 
+    /**
+     * Fetches the ad hoc fragments, the case instance and the active and completed nodes concurrently, so the
+     * latency is roughly that of the slowest call. The case instance is returned along with the actions so its
+     * stages and milestones don't need to be fetched again. Fails if the calls don't complete within
+     * {@link #CASE_DATA_TIMEOUT}.
+     */
     @Override
     public Actions getCaseActions(String serverTemplateId,
                                   String container,
                                   String caseId,
                                   String userId) {
+        final long deadline = System.currentTimeMillis() + caseDataTimeout;
+        final List<Future<?>> calls = new ArrayList<>();
+        final Future<CaseInstanceSummary> caseInstance = submit(calls,
+                                                                () -> getCaseInstance(serverTemplateId,
+                                                                                      container,
+                                                                                      caseId));
+        final CaseActionsCalls actionsCalls = submitCaseActions(calls,
+                                                                container,
+                                                                caseId);
+        try {
+            return getCaseActions(await(caseInstance,
+                                        deadline),
+                                  actionsCalls,
+                                  deadline);
+        } finally {
+            calls.forEach(call -> call.cancel(true));
+        }
+    }
+
+    /**
+     * Fetches the case instance together with its definition, stages, milestones, first page of comments and
+     * actions, issuing the underlying KIE Server calls concurrently. Fails if the calls don't complete within
+     * {@link #CASE_DATA_TIMEOUT}.
+     */
+    @Override
+    public CaseInstanceSnapshot getCaseInstanceSnapshot(final String serverTemplateId,
+                                                        final String containerId,
+                                                        final String caseId,
+                                                        final Integer commentsPageSize) {
+        final long deadline = System.currentTimeMillis() + caseDataTimeout;
+        final List<Future<?>> calls = new ArrayList<>();
+        final Future<CaseInstanceSummary> caseInstance = submit(calls,
+                                                                () -> getCaseInstance(serverTemplateId,
+                                                                                      containerId,
+                                                                                      caseId));
+        final Future<List<CaseStageSummary>> stages = submit(calls,
+                                                             () -> getCaseStages(containerId,
+                                                                                 caseId));
+        final Future<List<CaseMilestoneSummary>> milestones = submit(calls,
+                                                                     () -> getCaseMilestones(containerId,
+                                                                                             caseId,
+                                                                                             new CaseMilestoneSearchRequest()));
+        final Future<List<CaseCommentSummary>> comments = submit(calls,
+                                                                 () -> getComments(serverTemplateId,
+                                                                                   containerId,
+                                                                                   caseId,
+                                                                                   0,
+                                                                                   commentsPageSize));
+        final CaseActionsCalls actionsCalls = submitCaseActions(calls,
+                                                                containerId,
+                                                                caseId);
+        try {
+            final CaseInstanceSummary caseInstanceSummary = await(caseInstance,
+                                                                  deadline);
+            if (caseInstanceSummary == null) {
+                return null;
+            }
+            final CaseDefinitionSummary caseDefinition = caseInstanceSummary.getCaseDefinitionId() == null ? null : getCaseDefinition(serverTemplateId,
+                                                                                                                                       containerId,
+                                                                                                                                       caseInstanceSummary.getCaseDefinitionId());
+            return CaseInstanceSnapshot.builder()
+                    .caseInstance(caseInstanceSummary)
+                    .caseDefinition(caseDefinition)
+                    .stages(await(stages,
+                                  deadline))
+                    .milestones(await(milestones,
+                                      deadline))
+                    .comments(await(comments,
+                                    deadline))
+                    .actions(getCaseActions(caseInstanceSummary,
+                                            actionsCalls,
+                                            deadline))
+                    .build();
+        } finally {
+            calls.forEach(call -> call.cancel(true));
+        }
+    }
+
+    protected CaseActionsCalls submitCaseActions(final List<Future<?>> calls,
+                                                 final String containerId,
+                                                 final String caseId) {
+        return new CaseActionsCalls(submit(calls,
+                                           () -> getAdHocFragments(containerId,
+                                                                   caseId)),
+                                    submit(calls,
+                                           () -> getInProgressActions(containerId,
+                                                                      caseId)),
+                                    submit(calls,
+                                           () -> getCompletedActions(containerId,
+                                                                     caseId)));
+    }
+
+    protected Actions getCaseActions(final CaseInstanceSummary caseInstanceSummary,
+                                     final CaseActionsCalls actionsCalls,
+                                     final long deadline) {
+        final List<CaseActionSummary> adHocActions = getAdHocActions(await(actionsCalls.adHocFragments,
+                                                                           deadline),
+                                                                     caseInstanceSummary);
+        final List<CaseActionSummary> inProgressActions = await(actionsCalls.inProgress,
+                                                                deadline);
+        final List<CaseActionSummary> completedActions = await(actionsCalls.completed,
+                                                               deadline);
+
+        final Set<String> startedMilestones = new HashSet<>();
+        final Set<String> inProgressHumanTasks = new HashSet<>();
+        final MilestoneNodePredicate milestonePredicate = new MilestoneNodePredicate();
+        final HumanTaskNodePredicate humanTaskPredicate = new HumanTaskNodePredicate();
+        for (CaseActionSummary action : inProgressActions) {
+            startedMilestones.add(action.getName());
+            if (humanTaskPredicate.test(action.getType())) {
+                inProgressHumanTasks.add(action.getType() + "|" + action.getName());
+            }
+        }
+        for (CaseActionSummary action : completedActions) {
+            startedMilestones.add(action.getName());
+        }
+
         final Actions actions = new Actions();
-        final List<CaseActionSummary> adHocActions = getAdHocActions(serverTemplateId,
-                                                                     container,
-                                                                     caseId);
-        final List<CaseActionSummary> inProgressActions = getInProgressActions(container,
-                                                                               caseId);
-        final List<CaseActionSummary> completedActions = getCompletedActions(container,
-                                                                             caseId);
         actions.setInProgressAction(inProgressActions);
         actions.setCompleteActions(completedActions);
         actions.setAvailableActions(
                 adHocActions.stream()
-                        .filter(action -> {
-                            if (new MilestoneNodePredicate().negate().test(action.getType())) {
-                                return true;
-                            }
-                            if (findMilestone(inProgressActions,
-                                              action.getName())) {
-                                return false;
-                            }
-                            if (findMilestone(completedActions,
-                                              action.getName())) {
-                                return false;
-                            }
-                            return true;
-                        })
-                        .filter(action -> new InProgressHumanTaskPredicate().negate().test(action,
-                                                                                           inProgressActions))
+                        .filter(action -> !milestonePredicate.test(action.getType()) || !startedMilestones.contains(action.getName()))
+                        .filter(action -> !humanTaskPredicate.test(action.getType()) || !inProgressHumanTasks.contains(action.getType() + "|" + action.getName()))
                         .collect(toList()));
+        actions.setStages(caseInstanceSummary.getStages());
+        actions.setMilestones(caseInstanceSummary.getMilestones());
         return actions;
     }
 
+    protected <T> Future<T> submit(final List<Future<?>> calls,
+                                   final Callable<T> call) {
+        final Future<T> future = executorService.submit(KieServerUtils.withCurrentCredentials(call));
+        calls.add(future);
+        return future;
+    }
+
+    /**
+     * Waits for a remote call until the deadline of the request, rethrowing its failure.
+     */
+    protected <T> T await(final Future<T> future,
+                          final long deadline) {
+        try {
+            return future.get(Math.max(0,
+                                       deadline - System.currentTimeMillis()),
+                              TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while loading case data",
+                                            e);
+        } catch (TimeoutException e) {
+            throw new IllegalStateException("Timed out loading case data",
+                                            e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new RuntimeException(e.getCause());
+        }
+    }
+
     protected boolean findMilestone(final List<CaseActionSummary> actions,
                                     final String name) {
         return actions.stream().filter(action -> name.equals(action.getName())).findAny().isPresent();
@@ -329,10 +665,13 @@ public class RemoteCaseManagementServiceImpl implements CaseManagementService {
                                                                caseId,
                                                                0,
                                                                PAGE_SIZE_UNLIMITED);
+        final Map<Long, String> owners = getActualOwners(caseId,
+                                                         activeNodes,
+                                                         false);
         return activeNodes.stream()
                 .map(s -> new CaseActionNodeInstanceMapper(
                         (new HumanTaskNodePredicate().test(s.getNodeType()) ?
-                                userTaskServicesClient.findTaskByWorkItemId(s.getWorkItemId()).getActualOwner() :
+                                owners.get(s.getWorkItemId()) :
                                 ""),
                         CaseActionStatus.IN_PROGRESS).apply(s))
                 .collect(toList());
@@ -350,15 +689,114 @@ public class RemoteCaseManagementServiceImpl implements CaseManagementService {
                                                        String caseId) {
         List<NodeInstance> activeNodes = getCaseCompletedNodes(containerId,
                                                                caseId);
+        final Map<Long, String> owners = getActualOwners(caseId,
+                                                         activeNodes,
+                                                         true);
         return activeNodes.stream()
                 .map(s -> new CaseActionNodeInstanceMapper(
                         (new HumanTaskNodePredicate().test(s.getNodeType()) ?
-                                userTaskServicesClient.findTaskByWorkItemId(s.getWorkItemId()).getActualOwner() :
+                                owners.get(s.getWorkItemId()) :
                                 ""),
                         CaseActionStatus.COMPLETED).apply(s))
                 .collect(toList());
     }
 
+    /**
+     * Resolves the actual owners of the human task nodes by work item id. Owners of completed tasks don't change so
+     * they are kept per case and only the tasks completed since the last call are looked up.
+     */
+    protected Map<Long, String> getActualOwners(final String caseId,
+                                                final List<NodeInstance> nodes,
+                                                final boolean completed) {
+        final Map<Long, String> owners = new HashMap<>();
+        final Map<Long, String> cached = completed ? completedTaskOwners.get(caseId) : null;
+        final List<Long> missing = new ArrayList<>();
+        nodes.stream()
+                .filter(node -> new HumanTaskNodePredicate().test(node.getNodeType()))
+                .map(NodeInstance::getWorkItemId)
+                .distinct()
+                .forEach(workItemId -> {
+                    if (cached != null && cached.containsKey(workItemId)) {
+                        owners.put(workItemId,
+                                   cached.get(workItemId));
+                    } else {
+                        missing.add(workItemId);
+                    }
+                });
+        if (missing.isEmpty()) {
+            return owners;
+        }
+
+        final Map<Long, String> found = findActualOwners(missing);
+        owners.putAll(found);
+        if (completed) {
+            completedTaskOwners.computeIfAbsent(caseId,
+                                                id -> Collections.synchronizedMap(new HashMap<>()))
+                    .putAll(found);
+        }
+        return owners;
+    }
+
+    /**
+     * Looks up the owners of the given work items in the task audit log in batches. Work items that can't be found
+     * there, e.g. when the query can't be registered on KIE Server, are looked up one by one.
+     */
+    protected Map<Long, String> findActualOwners(final List<Long> workItemIds) {
+        final Map<Long, String> owners = new HashMap<>();
+        if (registerTaskOwnersQuery()) {
+            try {
+                for (int from = 0; from < workItemIds.size(); from += TASK_OWNERS_BATCH_SIZE) {
+                    final List<Long> batch = workItemIds.subList(from,
+                                                                 Math.min(from + TASK_OWNERS_BATCH_SIZE,
+                                                                          workItemIds.size()));
+                    final QueryFilterSpec filterSpec = new QueryFilterSpec();
+                    filterSpec.setParameters(new QueryParam[]{new QueryParam(TASK_OWNERS_WORK_ITEM_ID,
+                                                                             "EQUALS_TO",
+                                                                             new ArrayList<>(batch))});
+                    final List<List> rows = queryServicesClient.query(TASK_OWNERS_QUERY,
+                                                                      QueryServicesClient.QUERY_MAP_RAW,
+                                                                      filterSpec,
+                                                                      0,
+                                                                      batch.size(),
+                                                                      List.class);
+                    for (List row : rows) {
+                        owners.put(((Number) row.get(0)).longValue(),
+                                   row.get(1) == null ? null : row.get(1).toString());
+                    }
+                }
+            } catch (KieServicesException e) {
+                LOGGER.debug("Unable to query task owners, looking them up by work item: {}",
+                             e.getMessage());
+                taskOwnersQueryRegistered = false;
+            }
+        }
+
+        workItemIds.stream()
+                .filter(workItemId -> !owners.containsKey(workItemId))
+                .forEach(workItemId -> owners.put(workItemId,
+                                                  userTaskServicesClient.findTaskByWorkItemId(workItemId).getActualOwner()));
+        return owners;
+    }
+
+    protected boolean registerTaskOwnersQuery() {
+        if (!taskOwnersQueryRegistered) {
+            try {
+                queryServicesClient.replaceQuery(QueryDefinition.builder()
+                                                         .name(TASK_OWNERS_QUERY)
+                                                         .source(QUERY_SOURCE)
+                                                         .expression(TASK_OWNERS_QUERY_EXPRESSION)
+                                                         .target("CUSTOM")
+                                                         .build());
+                taskOwnersQueryRegistered = true;
+            } catch (KieServicesException e) {
+                LOGGER.debug("Unable to register query {}: {}",
+                             TASK_OWNERS_QUERY,
+                             e.getMessage());
+            }
+        }
+        return taskOwnersQueryRegistered;
+    }
+
     public List<CaseActionSummary> getAdHocFragments(String containerId,
                                                      String caseId) {
         return client.getAdHocFragments(containerId,
@@ -371,19 +809,19 @@ public class RemoteCaseManagementServiceImpl implements CaseManagementService {
     public List<CaseActionSummary> getAdHocActions(String serverTemplateId,
                                                    String containerId,
                                                    String caseId) {
-        List<CaseActionSummary> adHocActions = getAdHocFragments(containerId,
-                                                                 caseId);
-        CaseInstanceSummary caseInstanceSummary = getCaseInstance(serverTemplateId,
-                                                                  containerId,
-                                                                  caseId);
+        return getAdHocActions(getAdHocFragments(containerId,
+                                                 caseId),
+                               getCaseInstance(serverTemplateId,
+                                               containerId,
+                                               caseId));
+    }
+
+    protected List<CaseActionSummary> getAdHocActions(final List<CaseActionSummary> adHocFragments,
+                                                      final CaseInstanceSummary caseInstanceSummary) {
+        final List<CaseActionSummary> adHocActions = new ArrayList<>(adHocFragments);
         caseInstanceSummary.getStages().stream()
                 .filter(s -> s.getStatus().equals(CaseStageStatus.ACTIVE.getStatus()))
-                .forEach(ah -> {
-                    if (ah.getAdHocActions().size() > 0) {
-                        adHocActions.addAll(ah.getAdHocActions());
-                    }
-                    return;
-                });
+                .forEach(ah -> adHocActions.addAll(ah.getAdHocActions()));
         return adHocActions;
     }
 
@@ -401,6 +839,7 @@ public class RemoteCaseManagementServiceImpl implements CaseManagementService {
                                   actors,
                                   groups,
                                   data);
+        dataModifiedEvent.fire(new KieServerDataModified(null));
     }
 
     public void addDynamicUserTaskToStage(String containerId,
@@ -419,6 +858,7 @@ public class RemoteCaseManagementServiceImpl implements CaseManagementService {
                                          actors,
                                          groups,
                                          data);
+        dataModifiedEvent.fire(new KieServerDataModified(null));
     }
 
     public void addDynamicSubProcess(String containerId,
@@ -429,6 +869,7 @@ public class RemoteCaseManagementServiceImpl implements CaseManagementService {
                                     caseId,
                                     processId,
                                     data);
+        dataModifiedEvent.fire(new KieServerDataModified(null));
     }
 
     public void addDynamicSubProcessToStage(String containerId,
@@ -441,6 +882,7 @@ public class RemoteCaseManagementServiceImpl implements CaseManagementService {
                                            stageId,
                                            processId,
                                            data);
+        dataModifiedEvent.fire(new KieServerDataModified(null));
     }
 
     @Override
@@ -454,6 +896,7 @@ public class RemoteCaseManagementServiceImpl implements CaseManagementService {
                                            stageId,
                                            adHocName,
                                            data);
+        dataModifiedEvent.fire(new KieServerDataModified(null));
     }
 
     @Override
@@ -465,6 +908,7 @@ public class RemoteCaseManagementServiceImpl implements CaseManagementService {
                                     caseId,
                                     adHocName,
                                     data);
+        dataModifiedEvent.fire(new KieServerDataModified(null));
     }
 
     @Override
@@ -475,6 +919,21 @@ public class RemoteCaseManagementServiceImpl implements CaseManagementService {
         return processDefinitions.stream().map(new ProcessDefinitionMapper()).collect(toList());
     }
 
+    protected static class CaseActionsCalls {
+
+        private final Future<List<CaseActionSummary>> adHocFragments;
+        private final Future<List<CaseActionSummary>> inProgress;
+        private final Future<List<CaseActionSummary>> completed;
+
+        CaseActionsCalls(final Future<List<CaseActionSummary>> adHocFragments,
+                         final Future<List<CaseActionSummary>> inProgress,
+                         final Future<List<CaseActionSummary>> completed) {
+            this.adHocFragments = adHocFragments;
+            this.inProgress = inProgress;
+            this.completed = completed;
+        }
+    }
+
     public static class InProgressHumanTaskPredicate implements BiPredicate<CaseActionSummary, List<CaseActionSummary>> {
 
         @Override
@@ -17,16 +17,19 @@
 package org.jbpm.workbench.cm.backend.server;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
 import java.util.List;
 
 import org.jbpm.workbench.cm.model.CaseActionSummary;
 import org.jbpm.workbench.cm.model.CaseInstanceSummary;
+import org.jbpm.workbench.cm.model.CaseMilestoneSummary;
 import org.jbpm.workbench.cm.model.CaseStageSummary;
 import org.jbpm.workbench.cm.util.CaseActionType;
 import org.junit.Test;
 import org.kie.server.api.model.cases.CaseAdHocFragment;
 import org.kie.server.api.model.cases.CaseInstance;
+import org.kie.server.api.model.cases.CaseMilestone;
 import org.kie.server.api.model.cases.CaseStage;
 
 import static org.junit.Assert.*;
@@ -54,6 +57,8 @@ public class CaseInstanceMapperTest {
                      cis.getCaseDefinitionId());
         assertCaseStages(ci.getStages(),
                          cis.getStages());
+        assertCaseMilestones(ci.getMilestones(),
+                             cis.getMilestones());
     }
 
     public static void assertCaseStages(final List<CaseStage> csl,
@@ -84,6 +89,22 @@ public class CaseInstanceMapperTest {
         }
     }
 
+    public static void assertCaseMilestones(final List<CaseMilestone> cml,
+                                            final List<CaseMilestoneSummary> cmsl) {
+        assertNotNull(cmsl);
+        if (cml == null) {
+            assertEquals(0,
+                         cmsl.size());
+        } else {
+            assertEquals(cml.size(),
+                         cmsl.size());
+            for (int i = 0; i < cml.size(); i++) {
+                CaseMilestoneMapperTest.assertCaseMilestone(cml.get(i),
+                                                            cmsl.get(i));
+            }
+        }
+    }
+
     private static void assertCaseStageAdHocFragments(final List<CaseAdHocFragment> cahfl,
                                                       final List<CaseActionSummary> casl,
                                                       final String stageId) {
@@ -122,6 +143,12 @@ public class CaseInstanceMapperTest {
         stagesList.add(CaseStage.builder().name("stage1").status("Available").id("stage1").adHocFragments(stageAdHocFragments).build());
         stagesList.add(CaseStage.builder().name("stage2").status("Completed").id("stage2").build());
         ci.setStages(stagesList);
+        final CaseMilestone milestone = new CaseMilestone();
+        milestone.setIdentifier("milestone1");
+        milestone.setName("milestone1");
+        milestone.setAchieved(true);
+        milestone.setStatus("Completed");
+        ci.setMilestones(Collections.singletonList(milestone));
 
         final CaseInstanceSummary cis = new CaseInstanceMapper().apply(ci);
 
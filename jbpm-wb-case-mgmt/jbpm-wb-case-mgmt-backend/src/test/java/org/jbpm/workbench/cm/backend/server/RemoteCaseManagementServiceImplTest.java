@@ -20,6 +20,10 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.Date;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeoutException;
+import javax.enterprise.event.Event;
 
 import org.assertj.core.api.SoftAssertions;
 import org.jbpm.workbench.cm.model.*;
@@ -30,12 +34,20 @@ import org.jbpm.workbench.cm.util.CaseInstanceSearchRequest;
 import org.jbpm.workbench.cm.util.CaseInstanceSortBy;
 import org.jbpm.workbench.cm.util.CaseMilestoneSearchRequest;
 import org.jbpm.workbench.cm.util.CaseStageStatus;
+import org.jbpm.workbench.cm.util.CaseStatus;
+import org.jbpm.workbench.ks.events.KieServerDataModified;
+import org.junit.After;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.kie.internal.identity.IdentityProvider;
+import org.kie.server.api.exception.KieServicesException;
 import org.kie.server.api.model.cases.*;
+import org.kie.server.api.model.definition.QueryDefinition;
+import org.kie.server.api.model.definition.QueryFilterSpec;
 import org.kie.server.api.model.instance.NodeInstance;
 import org.kie.server.api.model.instance.TaskInstance;
 import org.kie.server.client.CaseServicesClient;
+import org.kie.server.client.QueryServicesClient;
 import org.kie.server.client.UserTaskServicesClient;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
@@ -84,10 +96,27 @@ public class RemoteCaseManagementServiceImplTest {
     @Mock
     private UserTaskServicesClient userTaskServicesClient;
 
+    @Mock
+    private QueryServicesClient queryServicesClient;
+
+    @Mock
+    private IdentityProvider identityProvider;
+
+    @Mock
+    private Event<KieServerDataModified> dataModifiedEvent;
+
+    @Spy
+    private ExecutorService executorService = Executors.newCachedThreadPool();
+
     @Spy
     @InjectMocks
     private RemoteCaseManagementServiceImpl testedService;
 
+    @After
+    public void tearDown() {
+        executorService.shutdownNow();
+    }
+
     @Test
     public void testGetCaseDefinitions_singleCaseDefinition() {
         final CaseDefinition definition = createTestDefinition();
@@ -146,6 +175,7 @@ public class RemoteCaseManagementServiceImplTest {
     public void getCaseInstances_singleCaseInstance() {
         final CaseInstanceSearchRequest request = new CaseInstanceSearchRequest();
         final CaseInstance instance = createTestInstance(caseId);
+        when(queryServicesClient.replaceQuery(any(QueryDefinition.class))).thenThrow(new KieServicesException("Forbidden"));
         when(clientMock.getCaseInstances(eq(singletonList(request.getStatus().getName())),
                                          anyInt(),
                                          anyInt())).thenReturn(singletonList(instance));
@@ -161,6 +191,7 @@ public class RemoteCaseManagementServiceImplTest {
     @Test
     public void getCaseInstances_emptyList() {
         final CaseInstanceSearchRequest request = new CaseInstanceSearchRequest();
+        when(queryServicesClient.replaceQuery(any(QueryDefinition.class))).thenThrow(new KieServicesException("Forbidden"));
         when(clientMock.getCaseInstances(eq(singletonList(request.getStatus().getName())),
                                          anyInt(),
                                          anyInt())).thenReturn(emptyList());
@@ -178,6 +209,7 @@ public class RemoteCaseManagementServiceImplTest {
         CaseInstance c2 = createTestInstance("id2");
         c2.setStartedAt(new Date(10));
 
+        when(queryServicesClient.replaceQuery(any(QueryDefinition.class))).thenThrow(new KieServicesException("Forbidden"));
         when(clientMock.getCaseInstances(anyList(),
                                          anyInt(),
                                          anyInt())).thenReturn(Arrays.asList(c1,
@@ -221,6 +253,103 @@ public class RemoteCaseManagementServiceImplTest {
                      sortedInstances.get(1).getCaseId());
     }
 
+    @Test
+    public void getCaseInstances_pageCaseInstanceList() {
+        when(queryServicesClient.replaceQuery(any(QueryDefinition.class))).thenThrow(new KieServicesException("Forbidden"));
+        when(clientMock.getCaseInstances(anyList(),
+                                         anyInt(),
+                                         anyInt())).thenReturn(Arrays.asList(createTestInstance("id3"),
+                                                                             createTestInstance("id1"),
+                                                                             createTestInstance("id2")));
+
+        final CaseInstanceSearchRequest request = new CaseInstanceSearchRequest();
+        request.setPage(1);
+        request.setPageSize(2);
+        final List<CaseInstanceSummary> instances = testedService.getCaseInstances(request);
+
+        assertEquals(1,
+                     instances.size());
+        assertEquals("id3",
+                     instances.get(0).getCaseId());
+    }
+
+    @Test
+    public void getCaseInstances_queryCaseInstances() {
+        when(identityProvider.getName()).thenReturn(userId);
+        when(identityProvider.getRoles()).thenReturn(singletonList("managers"));
+        when(queryServicesClient.query(eq(CASE_INSTANCES_QUERY),
+                                       eq(QueryServicesClient.QUERY_MAP_RAW),
+                                       any(QueryFilterSpec.class),
+                                       anyInt(),
+                                       anyInt(),
+                                       eq(List.class))).thenReturn(singletonList(Arrays.asList(1,
+                                                                                               caseId,
+                                                                                               caseDescription,
+                                                                                               caseDefinitionId,
+                                                                                               containerId,
+                                                                                               userId,
+                                                                                               2,
+                                                                                               10000L,
+                                                                                               null)));
+
+        final CaseInstanceSearchRequest request = new CaseInstanceSearchRequest();
+        request.setStatus(CaseStatus.CLOSED);
+        request.setSortBy(CaseInstanceSortBy.START_TIME);
+        request.setSortByAsc(false);
+        request.setPage(2);
+        request.setPageSize(10);
+        final List<CaseInstanceSummary> instances = testedService.getCaseInstances(request);
+
+        assertEquals(1,
+                     instances.size());
+        final CaseInstanceSummary instance = instances.get(0);
+        assertEquals(caseId,
+                     instance.getCaseId());
+        assertEquals(caseDescription,
+                     instance.getDescription());
+        assertEquals(caseDefinitionId,
+                     instance.getCaseDefinitionId());
+        assertEquals(containerId,
+                     instance.getContainerId());
+        assertEquals(userId,
+                     instance.getOwner());
+        assertEquals(CaseStatus.CLOSED,
+                     instance.getStatus());
+        assertEquals(new Date(10000L),
+                     instance.getStartedAt());
+        assertNull(instance.getCompletedAt());
+
+        final ArgumentCaptor<QueryFilterSpec> filterCaptor = ArgumentCaptor.forClass(QueryFilterSpec.class);
+        verify(queryServicesClient).query(eq(CASE_INSTANCES_QUERY),
+                                          eq(QueryServicesClient.QUERY_MAP_RAW),
+                                          filterCaptor.capture(),
+                                          eq(2),
+                                          eq(10),
+                                          eq(List.class));
+        final QueryFilterSpec filterSpec = filterCaptor.getValue();
+        assertEquals(singletonList(CaseStatus.CLOSED.getId()),
+                     filterSpec.getParameters()[0].getValue());
+        assertEquals(CASE_INSTANCES_ENTITY_ID,
+                     filterSpec.getParameters()[1].getColumnName());
+        assertEquals(Arrays.asList("managers",
+                                   userId),
+                     filterSpec.getParameters()[1].getValue());
+        assertEquals(CASE_INSTANCES_PROCESS_INSTANCE_ID,
+                     filterSpec.getParameters()[2].getColumnName());
+        assertEquals("group",
+                     filterSpec.getParameters()[2].getOperator());
+        assertEquals(3 + CASE_INSTANCES_COLUMNS.length,
+                     filterSpec.getParameters().length);
+        assertEquals(CASE_INSTANCES_START_DATE,
+                     filterSpec.getOrderBy());
+        assertFalse(filterSpec.isAscending());
+        verify(queryServicesClient).replaceQuery(any(QueryDefinition.class));
+        verify(clientMock,
+               never()).getCaseInstances(anyList(),
+                                         anyInt(),
+                                         anyInt());
+    }
+
     @Test
     public void testStartCaseInstance() {
         final String owner = "userx";
@@ -242,6 +371,7 @@ public class RemoteCaseManagementServiceImplTest {
                      caseFile.getUserAssignments().get(CASE_OWNER_ROLE));
         assertEquals(user,
                      caseFile.getUserAssignments().get(role));
+        verifyDataModified(serverTemplateId);
     }
 
     @Test
@@ -252,6 +382,7 @@ public class RemoteCaseManagementServiceImplTest {
 
         verify(clientMock).cancelCaseInstance(containerId,
                                               caseId);
+        verifyDataModified(serverTemplateId);
     }
 
     @Test
@@ -263,6 +394,14 @@ public class RemoteCaseManagementServiceImplTest {
         verify(clientMock).closeCaseInstance(containerId,
                                              caseId,
                                              null);
+        verifyDataModified(null);
+    }
+
+    private void verifyDataModified(final String expectedServerTemplateId) {
+        final ArgumentCaptor<KieServerDataModified> eventCaptor = ArgumentCaptor.forClass(KieServerDataModified.class);
+        verify(dataModifiedEvent).fire(eventCaptor.capture());
+        assertEquals(expectedServerTemplateId,
+                     eventCaptor.getValue().getServerTemplateId());
     }
 
     @Test
@@ -299,6 +438,124 @@ public class RemoteCaseManagementServiceImplTest {
         assertNull(cis);
     }
 
+    @Test
+    public void getCaseInstanceSnapshotTest() {
+        final CaseInstance ci = createTestInstance(caseId);
+        ci.setCaseDefinitionId(caseDefinitionId);
+        final CaseStage stage = createTestCaseStage("stage1",
+                                                    "stage1-name",
+                                                    CaseStageStatus.ACTIVE.getStatus());
+        stage.setAdHocFragments(singletonList(createTestCaseAdHocFragment("stage1-adHoc-1",
+                                                                          "adHocFragment-type-1")));
+        ci.setStages(singletonList(stage));
+        when(clientMock.getCaseInstance(containerId,
+                                        caseId,
+                                        false,
+                                        true,
+                                        true,
+                                        true)).thenReturn(ci);
+        final CaseDefinition definition = createTestDefinition();
+        when(clientMock.getCaseDefinition(containerId,
+                                          caseDefinitionId)).thenReturn(definition);
+        when(clientMock.getStages(containerId,
+                                  caseId,
+                                  false,
+                                  0,
+                                  PAGE_SIZE_UNLIMITED)).thenReturn(Arrays.asList(stage,
+                                                                                 createTestCaseStage("stage2",
+                                                                                                     "stage2-name",
+                                                                                                     CaseStageStatus.AVAILABLE.getStatus())));
+        final CaseMilestone milestone = createTestMilestone("milestone1",
+                                                            "milestone1-name",
+                                                            "Available");
+        when(clientMock.getMilestones(containerId,
+                                      caseId,
+                                      false,
+                                      0,
+                                      PAGE_SIZE_UNLIMITED)).thenReturn(singletonList(milestone));
+        final CaseComment caseComment = createTestComment();
+        when(clientMock.getComments(containerId,
+                                    caseId,
+                                    0,
+                                    20)).thenReturn(singletonList(caseComment));
+        when(clientMock.getAdHocFragments(containerId,
+                                          caseId)).thenReturn(singletonList(createTestCaseAdHocFragment("adHocFragment-name-1",
+                                                                                                        "adHocFragment-type-1")));
+
+        final CaseInstanceSnapshot snapshot = testedService.getCaseInstanceSnapshot(serverTemplateId,
+                                                                                    containerId,
+                                                                                    caseId,
+                                                                                    20);
+
+        assertCaseInstance(ci,
+                           snapshot.getCaseInstance());
+        assertCaseDefinition(definition,
+                             snapshot.getCaseDefinition());
+        assertEquals(2,
+                     snapshot.getStages().size());
+        assertEquals(1,
+                     snapshot.getMilestones().size());
+        assertEquals(1,
+                     snapshot.getComments().size());
+        assertCaseComment(caseComment,
+                          snapshot.getComments().get(0));
+        assertEquals(2,
+                     snapshot.getActions().getAvailableActions().size());
+        assertTrue(snapshot.getActions().getInProgressAction().isEmpty());
+        assertTrue(snapshot.getActions().getCompleteActions().isEmpty());
+        verify(clientMock).getCaseInstance(containerId,
+                                           caseId,
+                                           false,
+                                           true,
+                                           true,
+                                           true);
+    }
+
+    @Test
+    public void getCaseInstanceSnapshotTest_caseInstanceNotFound() {
+        when(clientMock.getCaseInstance(containerId,
+                                        caseId,
+                                        false,
+                                        true,
+                                        true,
+                                        true)).thenReturn(null);
+
+        assertNull(testedService.getCaseInstanceSnapshot(serverTemplateId,
+                                                         containerId,
+                                                         caseId,
+                                                         20));
+        verify(clientMock,
+               never()).getCaseDefinition(anyString(),
+                                          anyString());
+    }
+
+    @Test
+    public void getCaseInstanceSnapshotTest_timeout() {
+        testedService.caseDataTimeout = 100;
+        when(clientMock.getCaseInstance(containerId,
+                                        caseId,
+                                        false,
+                                        true,
+                                        true,
+                                        true)).thenAnswer(invocation -> {
+            Thread.sleep(5000);
+            return createTestInstance(caseId);
+        });
+
+        try {
+            testedService.getCaseInstanceSnapshot(serverTemplateId,
+                                                  containerId,
+                                                  caseId,
+                                                  20);
+            fail("Loading the case instance should time out");
+        } catch (IllegalStateException e) {
+            assertTrue(e.getCause() instanceof TimeoutException);
+        }
+        verify(clientMock,
+               never()).getCaseDefinition(anyString(),
+                                          anyString());
+    }
+
     @Test
     public void testGetComments_singleComment() {
         final CaseComment caseComment = createTestComment();
@@ -752,6 +1009,20 @@ public class RemoteCaseManagementServiceImplTest {
         verify(userTaskServicesClient).findTaskByWorkItemId(node5.getWorkItemId());
         verify(userTaskServicesClient,
                never()).findTaskByWorkItemId(node6.getWorkItemId());
+
+        assertEquals(2,
+                     actions.getStages().size());
+        assertEquals("stage1",
+                     actions.getStages().get(0).getIdentifier());
+        assertEquals("stage2",
+                     actions.getStages().get(1).getIdentifier());
+        assertNotNull(actions.getMilestones());
+        verify(clientMock).getCaseInstance(ci.getContainerId(),
+                                           ci.getCaseId(),
+                                           false,
+                                           true,
+                                           true,
+                                           true);
     }
 
     @Test
@@ -883,6 +1154,98 @@ public class RemoteCaseManagementServiceImplTest {
         });
     }
 
+    @Test
+    public void getCompletedActionsTest_ownersQueriedInBatch() {
+        final NodeInstance node1 = createTestNodeInstance("completed1",
+                                                          NODE_TYPE_HUMAN_TASK,
+                                                          1L);
+        final NodeInstance node2 = createTestNodeInstance("completed2",
+                                                          NODE_TYPE_HUMAN_TASK,
+                                                          2L);
+        final NodeInstance node3 = createTestNodeInstance("completed3",
+                                                          NODE_TYPE_HUMAN_TASK,
+                                                          3L);
+        when(clientMock.getCompletedNodes(containerId,
+                                          caseId,
+                                          0,
+                                          PAGE_SIZE_UNLIMITED)).thenReturn(Arrays.asList(node1,
+                                                                                         node2),
+                                                                           Arrays.asList(node1,
+                                                                                         node2,
+                                                                                         node3));
+        final List<List> firstRows = Arrays.asList(Arrays.asList(1,
+                                                                 "owner1"),
+                                                   Arrays.asList(2.0,
+                                                                 "owner2"));
+        final List<List> secondRows = singletonList(Arrays.asList(3L,
+                                                                  "owner3"));
+        when(queryServicesClient.query(eq(TASK_OWNERS_QUERY),
+                                       eq(QueryServicesClient.QUERY_MAP_RAW),
+                                       any(QueryFilterSpec.class),
+                                       eq(0),
+                                       anyInt(),
+                                       eq(List.class))).thenReturn(firstRows,
+                                                                   secondRows);
+
+        final List<CaseActionSummary> result = testedService.getCompletedActions(containerId,
+                                                                                 caseId);
+        assertEquals("owner1",
+                     result.get(0).getActualOwner());
+        assertEquals("owner2",
+                     result.get(1).getActualOwner());
+
+        // after another task completes only that one is looked up
+        final List<CaseActionSummary> refreshed = testedService.getCompletedActions(containerId,
+                                                                                    caseId);
+        assertEquals("owner1",
+                     refreshed.get(0).getActualOwner());
+        assertEquals("owner3",
+                     refreshed.get(2).getActualOwner());
+
+        final ArgumentCaptor<QueryFilterSpec> filterCaptor = ArgumentCaptor.forClass(QueryFilterSpec.class);
+        verify(queryServicesClient,
+               times(2)).query(eq(TASK_OWNERS_QUERY),
+                               eq(QueryServicesClient.QUERY_MAP_RAW),
+                               filterCaptor.capture(),
+                               eq(0),
+                               anyInt(),
+                               eq(List.class));
+        assertEquals(Arrays.asList(1L,
+                                   2L),
+                     filterCaptor.getAllValues().get(0).getParameters()[0].getValue());
+        assertEquals(singletonList(3L),
+                     filterCaptor.getAllValues().get(1).getParameters()[0].getValue());
+        verify(queryServicesClient).replaceQuery(any(QueryDefinition.class));
+        verifyZeroInteractions(userTaskServicesClient);
+    }
+
+    @Test
+    public void getInProgressActionsTest_ownersQueryNotAvailable() {
+        final NodeInstance node1 = createTestNodeInstance("active1",
+                                                          NODE_TYPE_HUMAN_TASK,
+                                                          1L);
+        when(clientMock.getActiveNodes(eq(containerId),
+                                       eq(caseId),
+                                       anyInt(),
+                                       anyInt())).thenReturn(singletonList(node1));
+        when(queryServicesClient.replaceQuery(any(QueryDefinition.class))).thenThrow(new KieServicesException("Forbidden"));
+        when(userTaskServicesClient.findTaskByWorkItemId(1L)).thenReturn(TaskInstance.builder().actualOwner("owner").build());
+
+        final List<CaseActionSummary> result = testedService.getInProgressActions(containerId,
+                                                                                  caseId);
+
+        assertEquals("owner",
+                     result.get(0).getActualOwner());
+        verify(queryServicesClient,
+               never()).query(anyString(),
+                              anyString(),
+                              any(QueryFilterSpec.class),
+                              anyInt(),
+                              anyInt(),
+                              any(Class.class));
+        verify(userTaskServicesClient).findTaskByWorkItemId(1L);
+    }
+
     @Test
     public void getCompletedActionsTest_withoutUserTasks() {
         final NodeInstance nodeInstance = createTestNodeInstance("completedNode",
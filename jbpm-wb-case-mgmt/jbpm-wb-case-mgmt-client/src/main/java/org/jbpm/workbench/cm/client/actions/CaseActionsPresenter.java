@@ -28,6 +28,7 @@ import org.jboss.errai.security.shared.api.identity.User;
 
 import org.jbpm.workbench.cm.client.util.AbstractCaseInstancePresenter;
 import org.jbpm.workbench.cm.model.CaseActionSummary;
+import org.jbpm.workbench.cm.model.CaseInstanceSnapshot;
 import org.jbpm.workbench.cm.model.CaseInstanceSummary;
 import org.jbpm.workbench.cm.model.CaseStageSummary;
 import org.jbpm.workbench.cm.model.ProcessDefinitionSummary;
@@ -82,6 +83,24 @@ public class CaseActionsPresenter extends AbstractCaseInstancePresenter<CaseActi
     protected void loadCaseInstance(final CaseInstanceSummary cis) {
         view.updateListHeaders();
         setCaseStagesList(cis.getStages());
+        loadProcessDefinitions();
+        refreshData(true);
+    }
+
+    @Override
+    protected void loadCaseSnapshot(final CaseInstanceSnapshot snapshot) {
+        if (snapshot == null || snapshot.getActions() == null) {
+            super.loadCaseSnapshot(snapshot);
+            return;
+        }
+        view.updateListHeaders();
+        setCaseStagesList(snapshot.getCaseInstance().getStages());
+        loadProcessDefinitions();
+        setCaseActions(snapshot.getActions(),
+                       true);
+    }
+
+    protected void loadProcessDefinitions() {
         processDefinitionSummaryMap.clear();
         caseService.call(
                 (List<ProcessDefinitionSummary> processDefinitionSummaries) -> {
@@ -95,7 +114,6 @@ public class CaseActionsPresenter extends AbstractCaseInstancePresenter<CaseActi
                     newActionView.setProcessDefinitions(processDefinitionNames);
                 }
         ).getProcessDefinitions(containerId);
-        refreshData(true);
     }
 
     void setCaseStagesList(final List<CaseStageSummary> caseStagesList) {
@@ -186,28 +204,36 @@ public class CaseActionsPresenter extends AbstractCaseInstancePresenter<CaseActi
     }
 
     protected void refreshData(final boolean refreshAvailableActions) {
-        caseService.call((Actions actions) -> {
-            if (refreshAvailableActions) {
-                List<CaseActionSummary> availableActions = new ArrayList<>();
-                availableActions.add(CaseActionSummary.builder()
-                                             .name(translationService.getTranslation(NEW_USER_TASK))
-                                             .actionType(DYNAMIC_USER_TASK)
-                                             .actionStatus(CaseActionStatus.AVAILABLE)
-                                             .build());
-                availableActions.add(CaseActionSummary.builder()
-                                             .name(translationService.getTranslation(NEW_PROCESS_TASK))
-                                             .actionType(DYNAMIC_SUBPROCESS_TASK)
-                                             .actionStatus(CaseActionStatus.AVAILABLE)
-                                             .build());
-                availableActions.addAll(actions.getAvailableActions());
-                view.setAvailableActionsList(availableActions);
-            }
-            view.setInProgressActionsList(actions.getInProgressAction());
-            view.setCompletedActionsList(actions.getCompleteActions());
-        }).getCaseActions(serverTemplateId,
-                          containerId,
-                          caseId,
-                          identity.getIdentifier());
+        caseService.call((Actions actions) -> setCaseActions(actions,
+                                                             refreshAvailableActions)).getCaseActions(serverTemplateId,
+                                                                                                      containerId,
+                                                                                                      caseId,
+                                                                                                      identity.getIdentifier());
+    }
+
+    protected void setCaseActions(final Actions actions,
+                                  final boolean refreshAvailableActions) {
+        if (refreshAvailableActions) {
+            List<CaseActionSummary> availableActions = new ArrayList<>();
+            availableActions.add(CaseActionSummary.builder()
+                                         .name(translationService.getTranslation(NEW_USER_TASK))
+                                         .actionType(DYNAMIC_USER_TASK)
+                                         .actionStatus(CaseActionStatus.AVAILABLE)
+                                         .build());
+            availableActions.add(CaseActionSummary.builder()
+                                         .name(translationService.getTranslation(NEW_PROCESS_TASK))
+                                         .actionType(DYNAMIC_SUBPROCESS_TASK)
+                                         .actionStatus(CaseActionStatus.AVAILABLE)
+                                         .build());
+            availableActions.addAll(actions.getAvailableActions());
+            view.setAvailableActionsList(availableActions);
+        }
+        view.setInProgressActionsList(actions.getInProgressAction());
+        view.setCompletedActionsList(actions.getCompleteActions());
+        if (actions.getStages() != null && !refreshAvailableActions) {
+            newActionView.clearAllStages();
+            setCaseStagesList(actions.getStages());
+        }
     }
 
     void setAction(final CaseActionItemView caseActionItem) {
@@ -24,6 +24,7 @@ import javax.inject.Inject;
 import org.jboss.errai.security.shared.api.identity.User;
 import org.jbpm.workbench.cm.client.util.AbstractCaseInstancePresenter;
 import org.jbpm.workbench.cm.model.CaseCommentSummary;
+import org.jbpm.workbench.cm.model.CaseInstanceSnapshot;
 import org.jbpm.workbench.cm.model.CaseInstanceSummary;
 import org.uberfire.client.annotations.WorkbenchPartTitle;
 import org.uberfire.client.annotations.WorkbenchScreen;
@@ -46,7 +47,7 @@ public class CaseCommentsPresenter extends AbstractCaseInstancePresenter<CaseCom
     boolean sortAsc = false;
 
     int currentPage = 0;
-    public static final int PAGE_SIZE = 20;
+    public static final int PAGE_SIZE = CaseInstanceSnapshot.COMMENTS_PAGE_SIZE;
 
     List<CaseCommentSummary> visibleComments = new ArrayList<CaseCommentSummary>();
     
@@ -75,20 +76,34 @@ public class CaseCommentsPresenter extends AbstractCaseInstancePresenter<CaseCom
     protected void loadCaseInstance(final CaseInstanceSummary cis) {
         refreshComments();
     }
+
+    @Override
+    protected void loadCaseSnapshot(final CaseInstanceSnapshot snapshot) {
+        // the snapshot only holds the first page of comments
+        if (snapshot == null || currentPage != 0) {
+            super.loadCaseSnapshot(snapshot);
+            return;
+        }
+        view.clearCommentInputForm();
+        visibleComments.clear();
+        addComments(snapshot.getComments());
+    }
+
+    private void addComments(final List<CaseCommentSummary> comments) {
+        visibleComments.addAll(comments);
+        if (comments.size() < PAGE_SIZE) {
+            view.hideLoadButton();
+        }
+        view.setCaseCommentList(visibleComments.stream()
+                .sorted((sortAsc ?
+                        comparing(CaseCommentSummary::getAddedAt) :
+                        comparing(CaseCommentSummary::getAddedAt).reversed()))
+                .collect(toList()));
+    }
     
     private void commentsServiceCall(int currentPage) {
         caseService.call(
-                (List<CaseCommentSummary> comments) -> {
-                    visibleComments.addAll(comments);
-                    if (comments.size() < PAGE_SIZE) {
-                        view.hideLoadButton();
-                    }
-                    view.setCaseCommentList(visibleComments.stream()
-                            .sorted((sortAsc ?
-                                    comparing(CaseCommentSummary::getAddedAt) :
-                                    comparing(CaseCommentSummary::getAddedAt).reversed()))
-                            .collect(toList()));
-                }
+                (List<CaseCommentSummary> comments) -> addComments(comments)
         ).getComments(serverTemplateId, 
                       containerId, 
                       caseId, 
@@ -48,6 +48,10 @@ public class CaseInstanceListPresenter extends AbstractPresenter<CaseInstanceLis
 
     public static final String SCREEN_ID = "Case List";
 
+    public static final int PAGE_SIZE = 10;
+
+    int currentPage = 0;
+
     private Caller<CaseManagementService> caseService;
 
     @Inject
@@ -75,10 +79,36 @@ public class CaseInstanceListPresenter extends AbstractPresenter<CaseInstanceLis
         newCaseInstancePresenter.show();
     }
 
+    /**
+     * Loads the current page only. A full page may be followed by another one, when the page turns out to be empty,
+     * e.g. after closing the last case on it, the previous page is loaded instead.
+     */
     protected void refreshData() {
+        final CaseInstanceSearchRequest request = view.getCaseInstanceSearchRequest();
+        request.setPage(currentPage);
+        request.setPageSize(PAGE_SIZE);
         caseService.call((List<CaseInstanceSummary> cases) -> {
+            if (cases.isEmpty() && currentPage > 0) {
+                currentPage--;
+                refreshData();
+                return;
+            }
             view.setCaseInstanceList(cases);
-        }).getCaseInstances(view.getCaseInstanceSearchRequest());
+            view.setPagination(currentPage > 0,
+                               cases.size() == PAGE_SIZE);
+        }).getCaseInstances(request);
+    }
+
+    protected void nextPage() {
+        currentPage++;
+        refreshData();
+    }
+
+    protected void previousPage() {
+        if (currentPage > 0) {
+            currentPage--;
+            refreshData();
+        }
     }
 
     protected void selectCaseInstance(final CaseInstanceSummary cis) {
@@ -115,6 +145,7 @@ public class CaseInstanceListPresenter extends AbstractPresenter<CaseInstanceLis
     }
 
     protected void searchCaseInstances() {
+        currentPage = 0;
         refreshData();
     }
 
@@ -127,6 +158,9 @@ public class CaseInstanceListPresenter extends AbstractPresenter<CaseInstanceLis
 
         void setCaseInstanceList(List<CaseInstanceSummary> caseInstanceList);
 
+        void setPagination(boolean hasPreviousPage,
+                           boolean hasNextPage);
+
         CaseInstanceSearchRequest getCaseInstanceSearchRequest();
     }
 }
\ No newline at end of file
@@ -126,7 +126,12 @@ public class CaseInstanceListSearchViewImpl extends AbstractView<CaseInstanceLis
 
         searchRequest.setModel(new CaseInstanceSearchRequest(),
                                StateSync.FROM_MODEL);
-        searchRequest.addPropertyChangeHandler(e -> presenter.searchCaseInstances());
+        searchRequest.addPropertyChangeHandler(e -> {
+            // paging is set by the presenter when loading a page
+            if (!"page".equals(e.getPropertyName()) && !"pageSize".equals(e.getPropertyName())) {
+                presenter.searchCaseInstances();
+            }
+        });
     }
 
     public CaseInstanceSearchRequest getCaseInstanceSearchRequest() {
@@ -20,13 +20,17 @@ import java.util.List;
 import javax.enterprise.context.Dependent;
 import javax.inject.Inject;
 
+import org.jboss.errai.common.client.dom.Button;
 import org.jboss.errai.common.client.dom.Div;
 import org.jboss.errai.common.client.dom.HTMLElement;
+import org.jboss.errai.common.client.dom.MouseEvent;
 import org.jboss.errai.databinding.client.api.DataBinder;
 import org.jboss.errai.databinding.client.components.ListComponent;
 import org.jboss.errai.ui.shared.api.annotations.AutoBound;
 import org.jboss.errai.ui.shared.api.annotations.Bound;
 import org.jboss.errai.ui.shared.api.annotations.DataField;
+import org.jboss.errai.ui.shared.api.annotations.EventHandler;
+import org.jboss.errai.ui.shared.api.annotations.ForEvent;
 import org.jboss.errai.ui.shared.api.annotations.Templated;
 import org.jbpm.workbench.cm.client.util.AbstractView;
 import org.jbpm.workbench.cm.model.CaseInstanceSummary;
@@ -47,6 +51,18 @@ public class CaseInstanceListViewImpl extends AbstractView<CaseInstanceListPrese
     @DataField("empty-list-item")
     private Div emptyContainer;
 
+    @Inject
+    @DataField("pagination")
+    private Div pagination;
+
+    @Inject
+    @DataField("prev-page")
+    private Button prevPage;
+
+    @Inject
+    @DataField("next-page")
+    private Button nextPage;
+
     @Inject
     @DataField("list-view")
     private Div viewContainer;
@@ -84,6 +100,30 @@ public class CaseInstanceListViewImpl extends AbstractView<CaseInstanceListPrese
         }
     }
 
+    @Override
+    public void setPagination(final boolean hasPreviousPage,
+                              final boolean hasNextPage) {
+        prevPage.setDisabled(!hasPreviousPage);
+        nextPage.setDisabled(!hasNextPage);
+        if (hasPreviousPage || hasNextPage) {
+            removeCSSClass(pagination,
+                           "hidden");
+        } else {
+            addCSSClass(pagination,
+                        "hidden");
+        }
+    }
+
+    @EventHandler("prev-page")
+    public void onPreviousPageClick(final @ForEvent("click") MouseEvent event) {
+        presenter.previousPage();
+    }
+
+    @EventHandler("next-page")
+    public void onNextPageClick(final @ForEvent("click") MouseEvent event) {
+        presenter.nextPage();
+    }
+
     @Override
     public HTMLElement getElement() {
         return viewContainer;
@@ -20,6 +20,7 @@ import java.util.List;
 import javax.enterprise.context.Dependent;
 
 import org.jbpm.workbench.cm.client.util.AbstractCaseInstancePresenter;
+import org.jbpm.workbench.cm.model.CaseInstanceSnapshot;
 import org.jbpm.workbench.cm.model.CaseInstanceSummary;
 import org.jbpm.workbench.cm.model.CaseMilestoneSummary;
 import org.jbpm.workbench.cm.util.CaseMilestoneSearchRequest;
@@ -51,6 +52,16 @@ public class CaseMilestoneListPresenter extends AbstractCaseInstancePresenter<Ca
         refreshData(caseId);
     }
 
+    @Override
+    protected void loadCaseSnapshot(final CaseInstanceSnapshot snapshot) {
+        // the snapshot milestones are sorted by status and then by name in ascending order
+        if (snapshot == null || !Boolean.TRUE.equals(view.getCaseMilestoneSearchRequest().getSortByAsc())) {
+            super.loadCaseSnapshot(snapshot);
+            return;
+        }
+        view.setCaseMilestoneList(snapshot.getMilestones());
+    }
+
     protected void searchCaseMilestones() {
         refreshData(caseId);
     }
@@ -16,6 +16,7 @@
 package org.jbpm.workbench.cm.client.overview;
 
 import java.util.Map;
+import java.util.Objects;
 import javax.enterprise.context.Dependent;
 import javax.enterprise.event.Event;
 import javax.inject.Inject;
@@ -36,7 +37,10 @@ import org.uberfire.client.annotations.WorkbenchPartTitle;
 import org.uberfire.client.annotations.WorkbenchScreen;
 import org.uberfire.client.mvp.PlaceManager;
 import org.uberfire.client.mvp.UberElement;
+import org.uberfire.lifecycle.OnClose;
 import org.uberfire.lifecycle.OnOpen;
+import org.uberfire.lifecycle.OnStartup;
+import org.uberfire.mvp.PlaceRequest;
 
 import static org.jbpm.workbench.cm.client.resources.i18n.Constants.CASE_OVERVIEW;
 
@@ -60,6 +64,29 @@ public class CaseOverviewPresenter extends AbstractCaseInstancePresenter<CaseOve
         return translationService.format(CASE_OVERVIEW);
     }
 
+    /**
+     * Drops the snapshot of the previous case when the overview is started again for another case.
+     */
+    @Override
+    @OnStartup
+    public void onStartup(final PlaceRequest place) {
+        final String previousServerTemplateId = serverTemplateId;
+        final String previousContainerId = containerId;
+        final String previousCaseId = caseId;
+        super.onStartup(place);
+        final boolean sameCase = Objects.equals(previousServerTemplateId,
+                                                serverTemplateId)
+                && Objects.equals(previousContainerId,
+                                  containerId)
+                && Objects.equals(previousCaseId,
+                                  caseId);
+        if (previousCaseId != null && !sameCase) {
+            snapshotStore.evict(previousServerTemplateId,
+                                previousContainerId,
+                                previousCaseId);
+        }
+    }
+
     @OnOpen
     public void onOpen() {
         view.addCaseDetails(CaseDetailsPresenter.SCREEN_ID,
@@ -76,6 +103,13 @@ public class CaseOverviewPresenter extends AbstractCaseInstancePresenter<CaseOve
                             place.getParameters());
     }
 
+    @OnClose
+    public void onClose() {
+        snapshotStore.evict(serverTemplateId,
+                            containerId,
+                            caseId);
+    }
+
     protected void refreshCase() {
         caseRefreshEvent.fire(new CaseRefreshEvent(caseId));
     }
@@ -25,6 +25,7 @@ import com.google.gwt.user.client.TakesValue;
 import org.jbpm.workbench.cm.client.util.AbstractCaseInstancePresenter;
 import org.jbpm.workbench.cm.client.util.CaseRolesValidations;
 import org.jbpm.workbench.cm.model.CaseDefinitionSummary;
+import org.jbpm.workbench.cm.model.CaseInstanceSnapshot;
 import org.jbpm.workbench.cm.model.CaseInstanceSummary;
 import org.jbpm.workbench.cm.model.CaseRoleAssignmentSummary;
 import org.uberfire.client.annotations.WorkbenchPartTitle;
@@ -76,6 +77,20 @@ public class CaseRolesPresenter extends AbstractCaseInstancePresenter<CaseRolesP
         loadCaseRoles(cis);
     }
 
+    @Override
+    protected void loadCaseSnapshot(final CaseInstanceSnapshot snapshot) {
+        if (snapshot == null || snapshot.getCaseDefinition() == null) {
+            super.loadCaseSnapshot(snapshot);
+            return;
+        }
+        final CaseInstanceSummary cis = snapshot.getCaseInstance();
+        if (cis.getCaseDefinitionId() == null || cis.getRoleAssignments().isEmpty()) {
+            return;
+        }
+        setCaseRoles(cis,
+                     snapshot.getCaseDefinition());
+    }
+
     protected void loadCaseRoles(final CaseInstanceSummary cis) {
         if (cis == null || cis.getCaseDefinitionId() == null || cis.getRoleAssignments().isEmpty()) {
             return;
@@ -85,16 +100,22 @@ public class CaseRolesPresenter extends AbstractCaseInstancePresenter<CaseRolesP
                     if (cds == null) {
                         return;
                     }
-                    caseDefinition = cds;
-                    setCaseRolesAssignments(cis.getRoleAssignments());
-                    view.setBadge(getCaseRolesAssignments().size());
-                    filterCaseRoles();
+                    setCaseRoles(cis,
+                                 cds);
                 }
         ).getCaseDefinition(serverTemplateId,
                             containerId,
                             cis.getCaseDefinitionId());
     }
 
+    protected void setCaseRoles(final CaseInstanceSummary cis,
+                                final CaseDefinitionSummary cds) {
+        caseDefinition = cds;
+        setCaseRolesAssignments(cis.getRoleAssignments());
+        view.setBadge(getCaseRolesAssignments().size());
+        filterCaseRoles();
+    }
+
     public void filterCaseRoles() {
         final List<CaseRoleAssignmentSummary> filteredCaseRoles;
 
@@ -20,6 +20,7 @@ import javax.enterprise.context.Dependent;
 
 import org.jbpm.workbench.cm.client.resources.i18n.Constants;
 import org.jbpm.workbench.cm.client.util.AbstractCaseInstancePresenter;
+import org.jbpm.workbench.cm.model.CaseInstanceSnapshot;
 import org.jbpm.workbench.cm.model.CaseInstanceSummary;
 import org.jbpm.workbench.cm.model.CaseStageSummary;
 import org.jbpm.workbench.cm.util.CaseStageStatus;
@@ -52,6 +53,16 @@ public class CaseStagesPresenter extends AbstractCaseInstancePresenter<CaseStage
                          caseId);
     }
 
+    @Override
+    protected void loadCaseSnapshot(final CaseInstanceSnapshot snapshot) {
+        if (snapshot == null) {
+            super.loadCaseSnapshot(snapshot);
+            return;
+        }
+        view.setCaseStagesList(snapshot.getStages());
+        setStages();
+    }
+
     void setStages() {
         view.getCaseStageComponentList().forEach(this::setStage);
     }
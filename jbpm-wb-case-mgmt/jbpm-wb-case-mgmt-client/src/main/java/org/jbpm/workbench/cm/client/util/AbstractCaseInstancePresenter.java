@@ -22,6 +22,7 @@ import javax.inject.Inject;
 import org.jboss.errai.common.client.api.Caller;
 import org.jboss.errai.ui.client.local.spi.TranslationService;
 import org.jbpm.workbench.cm.client.events.CaseRefreshEvent;
+import org.jbpm.workbench.cm.model.CaseInstanceSnapshot;
 import org.jbpm.workbench.cm.model.CaseInstanceSummary;
 import org.jbpm.workbench.cm.service.CaseManagementService;
 import org.uberfire.client.mvp.UberElement;
@@ -49,6 +50,8 @@ public abstract class AbstractCaseInstancePresenter<V extends UberElement> exten
 
     protected Caller<CaseManagementService> caseService;
 
+    protected CaseInstanceSnapshotStore snapshotStore;
+
     @OnStartup
     public void onStartup(final PlaceRequest place) {
         this.place = place;
@@ -63,14 +66,23 @@ public abstract class AbstractCaseInstancePresenter<V extends UberElement> exten
 
     protected abstract void loadCaseInstance(CaseInstanceSummary cis);
 
+    /**
+     * Loads the panel from the snapshot shared by all the panels of the case. Panels displaying more than the case
+     * instance itself override this to use the corresponding part of the snapshot instead of fetching it again.
+     */
+    protected void loadCaseSnapshot(final CaseInstanceSnapshot snapshot) {
+        loadCaseInstance(snapshot == null ? null : snapshot.getCaseInstance());
+    }
+
     protected abstract void clearCaseInstance();
 
     public void findCaseInstance() {
         clearCaseInstance();
         if (isCaseInstanceValid()) {
-            caseService.call((CaseInstanceSummary cis) -> loadCaseInstance(cis)).getCaseInstance(serverTemplateId,
-                                                                                                 containerId,
-                                                                                                 caseId);
+            snapshotStore.load(serverTemplateId,
+                               containerId,
+                               caseId,
+                               this::loadCaseSnapshot);
         }
     }
 
@@ -80,11 +92,23 @@ public abstract class AbstractCaseInstancePresenter<V extends UberElement> exten
     }
 
     public void onCaseRefreshEvent(@Observes CaseRefreshEvent caseRefreshEvent) {
-        findCaseInstance();
+        clearCaseInstance();
+        if (isCaseInstanceValid()) {
+            snapshotStore.reload(serverTemplateId,
+                                 containerId,
+                                 caseId,
+                                 caseRefreshEvent,
+                                 this::loadCaseSnapshot);
+        }
     }
 
     @Inject
     public void setCaseService(final Caller<CaseManagementService> caseService) {
         this.caseService = caseService;
     }
+
+    @Inject
+    public void setSnapshotStore(final CaseInstanceSnapshotStore snapshotStore) {
+        this.snapshotStore = snapshotStore;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,171 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jbpm.workbench.cm.client.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+
+import org.jboss.errai.bus.client.api.messaging.Message;
+import org.jboss.errai.common.client.api.Caller;
+import org.jbpm.workbench.cm.model.CaseInstanceSnapshot;
+import org.jbpm.workbench.cm.service.CaseManagementService;
+
+/**
+ * Client side store of case instance snapshots shared by the case overview panels. Panels of the same case asking
+ * for the snapshot while it is being fetched wait for the same call, and a reload triggered by a single event (e.g.
+ * a {@link org.jbpm.workbench.cm.client.events.CaseRefreshEvent} observed by every panel) is only fetched once.
+ * Snapshots are kept until the case overview is closed or switches to another case.
+ */
+@ApplicationScoped
+public class CaseInstanceSnapshotStore {
+
+    private final Map<String, SnapshotEntry> entries = new HashMap<>();
+
+    private Caller<CaseManagementService> caseService;
+
+    /**
+     * Passes the current snapshot of the case to the callback, fetching it only if it's neither loaded nor
+     * being loaded.
+     */
+    public void load(final String serverTemplateId,
+                     final String containerId,
+                     final String caseId,
+                     final Consumer<CaseInstanceSnapshot> callback) {
+        final SnapshotEntry entry = getEntry(serverTemplateId,
+                                             containerId,
+                                             caseId);
+        if (entry.loaded && !entry.loading) {
+            callback.accept(entry.snapshot);
+            return;
+        }
+        entry.callbacks.add(callback);
+        if (!entry.loading) {
+            fetch(entry);
+        }
+    }
+
+    /**
+     * Fetches a new snapshot of the case unless one was already requested for the same trigger, and passes it to
+     * the callback once available.
+     */
+    public void reload(final String serverTemplateId,
+                       final String containerId,
+                       final String caseId,
+                       final Object trigger,
+                       final Consumer<CaseInstanceSnapshot> callback) {
+        final SnapshotEntry entry = getEntry(serverTemplateId,
+                                             containerId,
+                                             caseId);
+        if (trigger == null || trigger != entry.trigger) {
+            entry.trigger = trigger;
+            entry.loaded = false;
+            entry.callbacks.add(callback);
+            fetch(entry);
+        } else {
+            load(serverTemplateId,
+                 containerId,
+                 caseId,
+                 callback);
+        }
+    }
+
+    public void evict(final String serverTemplateId,
+                      final String containerId,
+                      final String caseId) {
+        entries.remove(getKey(serverTemplateId,
+                              containerId,
+                              caseId));
+    }
+
+    protected void fetch(final SnapshotEntry entry) {
+        final int version = ++entry.version;
+        entry.loading = true;
+        caseService.call(
+                (CaseInstanceSnapshot snapshot) -> {
+                    if (version != entry.version) {
+                        // a newer snapshot has been requested in the meantime
+                        return;
+                    }
+                    entry.loading = false;
+                    entry.loaded = true;
+                    entry.snapshot = snapshot;
+                    final List<Consumer<CaseInstanceSnapshot>> callbacks = new ArrayList<>(entry.callbacks);
+                    entry.callbacks.clear();
+                    callbacks.forEach(callback -> callback.accept(snapshot));
+                },
+                (Message message, Throwable throwable) -> {
+                    if (version == entry.version) {
+                        entry.loading = false;
+                        entry.callbacks.clear();
+                    }
+                    return true;
+                }
+        ).getCaseInstanceSnapshot(entry.serverTemplateId,
+                                  entry.containerId,
+                                  entry.caseId,
+                                  CaseInstanceSnapshot.COMMENTS_PAGE_SIZE);
+    }
+
+    protected SnapshotEntry getEntry(final String serverTemplateId,
+                                     final String containerId,
+                                     final String caseId) {
+        return entries.computeIfAbsent(getKey(serverTemplateId,
+                                              containerId,
+                                              caseId),
+                                       key -> new SnapshotEntry(serverTemplateId,
+                                                                containerId,
+                                                                caseId));
+    }
+
+    protected String getKey(final String serverTemplateId,
+                            final String containerId,
+                            final String caseId) {
+        return serverTemplateId + "|" + containerId + "|" + caseId;
+    }
+
+    @Inject
+    public void setCaseService(final Caller<CaseManagementService> caseService) {
+        this.caseService = caseService;
+    }
+
+    protected static class SnapshotEntry {
+
+        private final String serverTemplateId;
+        private final String containerId;
+        private final String caseId;
+        private final List<Consumer<CaseInstanceSnapshot>> callbacks = new ArrayList<>();
+        private CaseInstanceSnapshot snapshot;
+        private boolean loaded = false;
+        private boolean loading = false;
+        private int version = 0;
+        private Object trigger;
+
+        SnapshotEntry(final String serverTemplateId,
+                      final String containerId,
+                      final String caseId) {
+            this.serverTemplateId = serverTemplateId;
+            this.containerId = containerId;
+            this.caseId = caseId;
+        }
+    }
+}
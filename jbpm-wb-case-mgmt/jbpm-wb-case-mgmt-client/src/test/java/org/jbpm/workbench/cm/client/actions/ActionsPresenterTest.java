@@ -24,6 +24,7 @@ import com.google.common.collect.Lists;
 import org.jboss.errai.security.shared.api.identity.User;
 import org.jbpm.workbench.cm.client.util.AbstractCaseInstancePresenterTest;
 import org.jbpm.workbench.cm.model.CaseActionSummary;
+import org.jbpm.workbench.cm.model.CaseInstanceSnapshot;
 import org.jbpm.workbench.cm.model.CaseInstanceSummary;
 import org.jbpm.workbench.cm.model.CaseStageSummary;
 import org.jbpm.workbench.cm.model.ProcessDefinitionSummary;
@@ -119,6 +120,27 @@ public class ActionsPresenterTest extends AbstractCaseInstancePresenterTest {
         verifyCaseInstanceLoaded();
     }
 
+    @Test
+    public void loadCaseSnapshotTest() {
+        setupCaseInstance(CaseInstanceSnapshot.builder()
+                                  .caseInstance(cis)
+                                  .actions(actions)
+                                  .build(),
+                          serverTemplateId);
+
+        verify(presenter).setCaseStagesList(cis.getStages());
+        verify(presenter).setCaseActions(actions,
+                                         true);
+        verify(caseAllActionsView).setInProgressActionsList(caseActionSummaryList);
+        verify(caseAllActionsView).setCompletedActionsList(caseActionSummaryList);
+        verify(caseManagementService).getProcessDefinitions(containerId);
+        verify(caseManagementService,
+               never()).getCaseActions(anyString(),
+                                       anyString(),
+                                       anyString(),
+                                       anyString());
+    }
+
     private void verifyCaseInstanceCleared() {
         verify(caseAllActionsView).removeAllTasks();
         verify(newActionViewMock).clearAllStages();
@@ -431,4 +453,23 @@ public class ActionsPresenterTest extends AbstractCaseInstancePresenterTest {
                                                          eq(adhocFragmentName),
                                                          any());
     }
+
+    @Test
+    public void testRefreshDataUpdatesStagesFromActions() {
+        setupCaseInstance(cis,
+                          serverTemplateId);
+        reset(newActionViewMock);
+        when(actions.getStages()).thenReturn(cis.getStages());
+
+        presenter.triggerAdHocAction("adhocFrag-name");
+
+        verify(presenter).refreshData(false);
+        verify(newActionViewMock).clearAllStages();
+        final ArgumentCaptor<List> captor = ArgumentCaptor.forClass(List.class);
+        verify(newActionViewMock).addStages(captor.capture());
+        assertEquals(1,
+                     captor.getValue().size());
+        assertEquals(ACTIVE.getStatus(),
+                     ((CaseStageSummary) captor.getValue().get(0)).getStatus());
+    }
 }
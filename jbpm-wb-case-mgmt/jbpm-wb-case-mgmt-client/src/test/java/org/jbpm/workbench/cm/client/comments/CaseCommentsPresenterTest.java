@@ -27,6 +27,7 @@ import org.jboss.errai.security.shared.api.identity.User;
 import org.jbpm.workbench.cm.client.util.AbstractCaseInstancePresenter;
 import org.jbpm.workbench.cm.client.util.AbstractCaseInstancePresenterTest;
 import org.jbpm.workbench.cm.model.CaseCommentSummary;
+import org.jbpm.workbench.cm.model.CaseInstanceSnapshot;
 import org.jbpm.workbench.cm.model.CaseInstanceSummary;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -38,6 +39,7 @@ import org.uberfire.mvp.PlaceRequest;
 import org.uberfire.mvp.impl.DefaultPlaceRequest;
 
 import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.anyInt;
 import static org.mockito.Matchers.anyString;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.*;
@@ -70,19 +72,19 @@ public class CaseCommentsPresenterTest extends AbstractCaseInstancePresenterTest
         final CaseInstanceSummary cis = newCaseInstanceSummary();
         final CaseCommentSummary caseComment = CaseCommentSummary.builder().id(commentId).author(author).text(text).addedAt(addedAt).build();
 
-        when(caseManagementService.getComments(serverTemplateId, 
-                                               cis.getContainerId(), 
-                                               cis.getCaseId(), 
-                                               0, 
-                                               presenter.getPageSize())).thenReturn(
-                Collections.singletonList(caseComment));
         when(identity.getIdentifier()).thenReturn(author);
 
         setupCaseInstance(cis,
-                          serverTemplateId);
+                          Collections.singletonList(caseComment));
 
         verify(caseCommentsView).setCaseCommentList(Collections.singletonList(caseComment));
         verifyClearCaseInstance(1);
+        verify(caseManagementService,
+               never()).getComments(anyString(),
+                                    anyString(),
+                                    anyString(),
+                                    anyInt(),
+                                    anyInt());
     }
 
     @Test
@@ -116,7 +118,7 @@ public class CaseCommentsPresenterTest extends AbstractCaseInstancePresenterTest
                 Collections.singletonList(caseComment));
 
         setupCaseInstance(cis,
-                          serverTemplateId);
+                          Collections.singletonList(caseComment));
         presenter.updateCaseComment(caseComment,
                                     newCommentText);
 
@@ -144,7 +146,7 @@ public class CaseCommentsPresenterTest extends AbstractCaseInstancePresenterTest
                 Collections.singletonList(caseComment));
 
         setupCaseInstance(cis,
-                          serverTemplateId);
+                          Collections.singletonList(caseComment));
 
         presenter.deleteCaseComment(caseComment);
         verify(caseManagementService).removeComment(eq(serverTemplateId),
@@ -201,9 +203,19 @@ public class CaseCommentsPresenterTest extends AbstractCaseInstancePresenterTest
         presenter.onStartup(placeRequest);
 
         verify(caseManagementService,
-               times(timesCalled)).getCaseInstance(anyString(),
-                                                   anyString(),
-                                                   anyString());
+               times(timesCalled)).getCaseInstanceSnapshot(anyString(),
+                                                           anyString(),
+                                                           anyString(),
+                                                           anyInt());
+    }
+
+    private void setupCaseInstance(final CaseInstanceSummary cis,
+                                   final List<CaseCommentSummary> comments) {
+        setupCaseInstance(CaseInstanceSnapshot.builder()
+                                  .caseInstance(cis)
+                                  .comments(comments)
+                                  .build(),
+                          serverTemplateId);
     }
 
     @Test
@@ -226,7 +238,8 @@ public class CaseCommentsPresenterTest extends AbstractCaseInstancePresenterTest
                               caseComment2));
 
         setupCaseInstance(cis,
-                          serverTemplateId);
+                          Arrays.asList(caseComment1,
+                                        caseComment2));
         final ArgumentCaptor<List> captor = ArgumentCaptor.forClass(List.class);
         verify(caseCommentsView).setCaseCommentList(captor.capture());
         assertEquals(comment2_id,
@@ -254,10 +267,7 @@ public class CaseCommentsPresenterTest extends AbstractCaseInstancePresenterTest
             caseCommentSummary.add(comment);
         }
         
-        when(caseManagementService.getComments(serverTemplateId, cis.getContainerId(), cis.getCaseId(), 0, presenter.getPageSize())).thenReturn(
-                caseCommentSummary.subList(0, 20));
-
-        setupCaseInstance(cis, serverTemplateId);
+        setupCaseInstance(cis, caseCommentSummary.subList(0, 20));
         
         presenter.loadMoreCaseComments();
         
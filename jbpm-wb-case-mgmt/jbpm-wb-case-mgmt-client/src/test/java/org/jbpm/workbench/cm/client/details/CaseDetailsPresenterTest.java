@@ -16,6 +16,7 @@
 
 package org.jbpm.workbench.cm.client.details;
 
+import org.jbpm.workbench.cm.client.comments.CaseCommentsPresenter;
 import org.jbpm.workbench.cm.client.util.AbstractCaseInstancePresenterTest;
 import org.jbpm.workbench.cm.client.events.CaseRefreshEvent;
 import org.jbpm.workbench.cm.model.CaseInstanceSummary;
@@ -56,9 +57,10 @@ public class CaseDetailsPresenterTest extends AbstractCaseInstancePresenterTest
         verify(view).setValue(new CaseInstanceSummary());
         verifyNoMoreInteractions(view);
         verify(caseManagementService,
-               never()).getCaseInstance(anyString(),
-                                        anyString(),
-                                        anyString());
+               never()).getCaseInstanceSnapshot(anyString(),
+                                                anyString(),
+                                                anyString(),
+                                                anyInt());
     }
 
     @Test
@@ -69,9 +71,10 @@ public class CaseDetailsPresenterTest extends AbstractCaseInstancePresenterTest
         verify(view).setValue(new CaseInstanceSummary());
         verify(view).setValue(cis);
         verifyNoMoreInteractions(view);
-        verify(caseManagementService).getCaseInstance(serverTemplateId,
-                                                      cis.getContainerId(),
-                                                      cis.getCaseId());
+        verify(caseManagementService).getCaseInstanceSnapshot(serverTemplateId,
+                                                              cis.getContainerId(),
+                                                              cis.getCaseId(),
+                                                              CaseCommentsPresenter.PAGE_SIZE);
     }
 
     @Test
@@ -88,8 +91,9 @@ public class CaseDetailsPresenterTest extends AbstractCaseInstancePresenterTest
 
         verifyNoMoreInteractions(view);
         verify(caseManagementService,
-               times(2)).getCaseInstance(serverTemplateId,
-                                         cis.getContainerId(),
-                                         cis.getCaseId());
+               times(2)).getCaseInstanceSnapshot(serverTemplateId,
+                                                 cis.getContainerId(),
+                                                 cis.getCaseId(),
+                                                 CaseCommentsPresenter.PAGE_SIZE);
     }
 }
\ No newline at end of file
@@ -16,6 +16,7 @@
 
 package org.jbpm.workbench.cm.client.list;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import com.google.common.collect.Lists;
@@ -36,6 +37,7 @@ import org.uberfire.client.mvp.PlaceManager;
 import org.uberfire.mocks.CallerMock;
 import org.uberfire.mvp.impl.DefaultPlaceRequest;
 
+import static java.util.Collections.emptyList;
 import static org.junit.Assert.*;
 import static org.mockito.Mockito.*;
 
@@ -116,6 +118,68 @@ public class CaseInstanceListPresenterTest {
         verify(view).setCaseInstanceList(captor.capture());
         assertEquals(caseInstanceSummaryList.size(),
                      captor.getValue().size());
+        assertEquals(Integer.valueOf(0),
+                     view.getCaseInstanceSearchRequest().getPage());
+        assertEquals(Integer.valueOf(CaseInstanceListPresenter.PAGE_SIZE),
+                     view.getCaseInstanceSearchRequest().getPageSize());
+        verify(view).setPagination(false,
+                                   false);
+    }
+
+    @Test
+    public void testNextAndPreviousPage() {
+        final List<CaseInstanceSummary> fullPage = new ArrayList<>();
+        for (int i = 0; i < CaseInstanceListPresenter.PAGE_SIZE; i++) {
+            fullPage.add(createCaseInstance());
+        }
+        when(caseManagementService.getCaseInstances(any(CaseInstanceSearchRequest.class))).thenReturn(fullPage);
+
+        presenter.nextPage();
+
+        assertEquals(Integer.valueOf(1),
+                     view.getCaseInstanceSearchRequest().getPage());
+        verify(view).setPagination(true,
+                                   true);
+
+        presenter.previousPage();
+
+        assertEquals(Integer.valueOf(0),
+                     view.getCaseInstanceSearchRequest().getPage());
+        verify(view).setPagination(false,
+                                   true);
+
+        presenter.previousPage();
+
+        verify(caseManagementService,
+               times(2)).getCaseInstances(any(CaseInstanceSearchRequest.class));
+        verify(view,
+               times(2)).setCaseInstanceList(fullPage);
+    }
+
+    @Test
+    public void testEmptyPageLoadsPreviousPage() {
+        when(caseManagementService.getCaseInstances(any(CaseInstanceSearchRequest.class))).thenReturn(emptyList(),
+                                                                                                      caseInstanceSummaryList);
+
+        presenter.nextPage();
+
+        verify(caseManagementService,
+               times(2)).getCaseInstances(any(CaseInstanceSearchRequest.class));
+        assertEquals(Integer.valueOf(0),
+                     view.getCaseInstanceSearchRequest().getPage());
+        verify(view).setCaseInstanceList(caseInstanceSummaryList);
+        verify(view).setPagination(false,
+                                   false);
+    }
+
+    @Test
+    public void testSearchCaseInstancesResetsPage() {
+        presenter.currentPage = 3;
+
+        presenter.searchCaseInstances();
+
+        assertEquals(Integer.valueOf(0),
+                     view.getCaseInstanceSearchRequest().getPage());
     }
 
     @Test
@@ -22,6 +22,7 @@ import com.google.common.collect.Lists;
 import org.jbpm.workbench.cm.client.util.AbstractCaseInstancePresenterTest;
 import org.jbpm.workbench.cm.client.util.CaseMilestoneStatus;
 import org.jbpm.workbench.cm.model.CaseDefinitionSummary;
+import org.jbpm.workbench.cm.model.CaseInstanceSnapshot;
 import org.jbpm.workbench.cm.model.CaseInstanceSummary;
 import org.jbpm.workbench.cm.model.CaseMilestoneSummary;
 import org.jbpm.workbench.cm.util.CaseMilestoneSearchRequest;
@@ -78,6 +79,7 @@ public class CaseMilestonesPresenterTest extends AbstractCaseInstancePresenterTe
                                                      any(CaseMilestoneSearchRequest.class))).thenReturn(caseMilestonesSummaryList);
         when(caseMilestoneListView.getCaseMilestoneSearchRequest()).thenReturn(new CaseMilestoneSearchRequest());
         presenter.setCaseService(caseService);
+        setupSnapshotStore();
 
         cis = CaseInstanceSummary.builder().containerId(containerId).caseId(caseId).caseDefinitionId(caseDefId).build();
         final CaseDefinitionSummary cds = CaseDefinitionSummary.builder().id(caseDefId).build();
@@ -110,11 +112,32 @@ public class CaseMilestonesPresenterTest extends AbstractCaseInstancePresenterTe
                                                      anyString(),
                                                      any(CaseMilestoneSearchRequest.class))).thenReturn(milestones);
 
-        setupCaseInstance(cis,
+        setupCaseInstance(CaseInstanceSnapshot.builder()
+                                  .caseInstance(cis)
+                                  .milestones(milestones)
+                                  .build(),
                           serverTemplateId);
 
         verifyClearCaseInstance();
         verify(caseMilestoneListView).setCaseMilestoneList(milestones);
+        verify(caseManagementService,
+               never()).getCaseMilestones(anyString(),
+                                          anyString(),
+                                          any(CaseMilestoneSearchRequest.class));
+    }
+
+    @Test
+    public void testLoadCaseInstance_sortedDescending() {
+        final CaseMilestoneSearchRequest request = new CaseMilestoneSearchRequest();
+        request.setSortByAsc(false);
+        when(caseMilestoneListView.getCaseMilestoneSearchRequest()).thenReturn(request);
+
+        setupCaseInstance(cis,
+                          serverTemplateId);
+
+        verify(caseManagementService).getCaseMilestones(cis.getContainerId(),
+                                                        cis.getCaseId(),
+                                                        request);
     }
 
     @Test
@@ -123,10 +146,9 @@ public class CaseMilestonesPresenterTest extends AbstractCaseInstancePresenterTe
                           serverTemplateId);
         presenter.searchCaseMilestones();
 
-        verify(caseManagementService,
-               times(2)).getCaseMilestones(cis.getContainerId(),
-                                           cis.getCaseId(),
-                                           caseMilestoneListView.getCaseMilestoneSearchRequest());
+        verify(caseManagementService).getCaseMilestones(cis.getContainerId(),
+                                                        cis.getCaseId(),
+                                                        caseMilestoneListView.getCaseMilestoneSearchRequest());
         final ArgumentCaptor<List> captor = ArgumentCaptor.forClass(List.class);
         verify(caseMilestoneListView,
                times(2)).setCaseMilestoneList(captor.capture());
@@ -20,6 +20,7 @@ import org.jbpm.workbench.cm.client.events.CaseCancelEvent;
 import org.jbpm.workbench.cm.client.events.CaseClosedEvent;
 import org.jbpm.workbench.cm.client.events.CaseRefreshEvent;
 import org.jbpm.workbench.cm.client.perspectives.CaseInstanceListPerspective;
+import org.jbpm.workbench.cm.client.comments.CaseCommentsPresenter;
 import org.jbpm.workbench.cm.client.util.AbstractCaseInstancePresenterTest;
 import org.jbpm.workbench.cm.model.CaseInstanceSummary;
 import org.junit.Before;
@@ -93,9 +94,10 @@ public class CaseOverviewPresenterTest extends AbstractCaseInstancePresenterTest
         verify(view).setCaseOwner("");
         verifyNoMoreInteractions(view);
         verify(caseManagementService,
-               never()).getCaseInstance(anyString(),
-                                        anyString(),
-                                        anyString());
+               never()).getCaseInstanceSnapshot(anyString(),
+                                                anyString(),
+                                                anyString(),
+                                                anyInt());
     }
 
     @Test
@@ -121,9 +123,48 @@ public class CaseOverviewPresenterTest extends AbstractCaseInstancePresenterTest
         verify(view,
                times(2)).setCaseTitle("");
         verify(caseManagementService,
-               times(2)).getCaseInstance(serverTemplateId,
-                                         cis.getContainerId(),
-                                         cis.getCaseId());
+               times(2)).getCaseInstanceSnapshot(serverTemplateId,
+                                                 cis.getContainerId(),
+                                                 cis.getCaseId(),
+                                                 CaseCommentsPresenter.PAGE_SIZE);
+    }
+
+    @Test
+    public void testOnCloseEvictsSnapshot() {
+        final CaseInstanceSummary cis = setupCaseInstance(serverTemplateId);
+
+        presenter.onClose();
+        presenter.findCaseInstance();
+
+        verify(caseManagementService,
+               times(2)).getCaseInstanceSnapshot(serverTemplateId,
+                                                 cis.getContainerId(),
+                                                 cis.getCaseId(),
+                                                 CaseCommentsPresenter.PAGE_SIZE);
+    }
+
+    @Test
+    public void testOnStartupWithAnotherCaseEvictsSnapshot() {
+        final CaseInstanceSummary cis = setupCaseInstance(serverTemplateId);
+        final CaseInstanceSummary other = newCaseInstanceSummary();
+        other.setCaseId("CASE-2");
+
+        setupCaseInstance(cis,
+                          serverTemplateId);
+        setupCaseInstance(other,
+                          serverTemplateId);
+        setupCaseInstance(cis,
+                          serverTemplateId);
+
+        verify(caseManagementService,
+               times(2)).getCaseInstanceSnapshot(serverTemplateId,
+                                                 cis.getContainerId(),
+                                                 cis.getCaseId(),
+                                                 CaseCommentsPresenter.PAGE_SIZE);
+        verify(caseManagementService).getCaseInstanceSnapshot(serverTemplateId,
+                                                              other.getContainerId(),
+                                                              other.getCaseId(),
+                                                              CaseCommentsPresenter.PAGE_SIZE);
     }
 
     @Test
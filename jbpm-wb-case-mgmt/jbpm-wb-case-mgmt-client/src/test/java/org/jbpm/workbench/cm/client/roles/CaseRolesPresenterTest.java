@@ -23,6 +23,7 @@ import java.util.List;
 import org.jbpm.workbench.cm.client.util.AbstractCaseInstancePresenterTest;
 import org.jbpm.workbench.cm.client.util.CaseRolesValidations;
 import org.jbpm.workbench.cm.model.CaseDefinitionSummary;
+import org.jbpm.workbench.cm.model.CaseInstanceSnapshot;
 import org.jbpm.workbench.cm.model.CaseInstanceSummary;
 import org.jbpm.workbench.cm.model.CaseRoleAssignmentSummary;
 import org.junit.Before;
@@ -194,6 +195,35 @@ public class CaseRolesPresenterTest extends AbstractCaseInstancePresenterTest {
                      ((CaseRoleAssignmentSummary) displayedRoleAssignments.getValue().get(0)).getGroups().get(0));
     }
 
+    @Test
+    public void testLoadCaseSnapshot() {
+        caseDefinition = CaseDefinitionSummary.builder()
+                .roles(singletonMap(CASE_ROLE,
+                                    3))
+                .build();
+        caseInstance.setRoleAssignments
+                (singletonList(CaseRoleAssignmentSummary.builder().name(CASE_ROLE).groups(singletonList(GROUP)).users(singletonList(USER)).build()));
+        setCaseDefinitionID(CASE_DEFINITION_ID,
+                            caseDefinition,
+                            caseInstance);
+        when(view.getFilterValue()).thenReturn("All");
+
+        setupCaseInstance(CaseInstanceSnapshot.builder()
+                                  .caseInstance(caseInstance)
+                                  .caseDefinition(caseDefinition)
+                                  .build(),
+                          serverTemplateId);
+
+        verify(presenter).setCaseRoles(caseInstance,
+                                       caseDefinition);
+        verify(view).setBadge(caseInstance.getRoleAssignments().size());
+        verify(view).displayCaseRolesList(caseInstance.getRoleAssignments());
+        verify(caseManagementService,
+               never()).getCaseDefinition(anyString(),
+                                          anyString(),
+                                          anyString());
+    }
+
     private void setCaseDefinitionID(String caseDefinitionID,
                                      CaseDefinitionSummary caseDefinition,
                                      CaseInstanceSummary caseInstance) {
@@ -19,6 +19,7 @@ package org.jbpm.workbench.cm.client.stages;
 import java.util.List;
 
 import org.jbpm.workbench.cm.client.util.AbstractCaseInstancePresenterTest;
+import org.jbpm.workbench.cm.model.CaseInstanceSnapshot;
 import org.jbpm.workbench.cm.model.CaseInstanceSummary;
 import org.jbpm.workbench.cm.model.CaseStageSummary;
 import org.junit.Before;
@@ -59,11 +60,11 @@ public class CaseStagesPresenterTest extends AbstractCaseInstancePresenterTest {
     public void testClearAndLoadCaseInstance() {
         final List<CaseStageSummary> stages = asList(createCaseStageSummary(AVAILABLE.getStatus()),
                                                      createCaseStageSummary(COMPLETED.getStatus()));
-        when(caseManagementService.getCaseStages(any(),
-                                                 any())).thenReturn(stages);
-
         final CaseInstanceSummary cis = newCaseInstanceSummary();
-        setupCaseInstance(cis,
+        setupCaseInstance(CaseInstanceSnapshot.builder()
+                                  .caseInstance(cis)
+                                  .stages(stages)
+                                  .build(),
                           serverTemplateId);
 
         verify(caseStagesView).removeAllStages();
@@ -71,6 +72,9 @@ public class CaseStagesPresenterTest extends AbstractCaseInstancePresenterTest {
         verify(caseStagesView).getCaseStageComponentList();
         verify(presenter).setStages();
         verifyNoMoreInteractions(caseStagesView);
+        verify(caseManagementService,
+               never()).getCaseStages(any(),
+                                      any());
     }
 
     @Test
@@ -21,6 +21,8 @@ import java.util.Date;
 
 import org.jboss.errai.common.client.api.Caller;
 import org.jboss.errai.ui.client.local.spi.TranslationService;
+import org.jbpm.workbench.cm.client.comments.CaseCommentsPresenter;
+import org.jbpm.workbench.cm.model.CaseInstanceSnapshot;
 import org.jbpm.workbench.cm.model.CaseInstanceSummary;
 import org.jbpm.workbench.cm.model.CaseStageSummary;
 import org.jbpm.workbench.cm.service.CaseManagementService;
@@ -49,6 +51,8 @@ public abstract class AbstractCaseInstancePresenterTest {
 
     protected Caller<CaseManagementService> caseService;
 
+    protected CaseInstanceSnapshotStore snapshotStore;
+
     @Mock
     protected TranslationService translationService;
 
@@ -78,9 +82,16 @@ public abstract class AbstractCaseInstancePresenterTest {
     public void init() {
         caseService = new CallerMock<>(caseManagementService);
         getPresenter().setCaseService(caseService);
+        setupSnapshotStore();
         doAnswer(im -> im.getArguments()[0]).when(translationService).format(anyString());
     }
 
+    protected void setupSnapshotStore() {
+        snapshotStore = new CaseInstanceSnapshotStore();
+        snapshotStore.setCaseService(caseService);
+        getPresenter().setSnapshotStore(snapshotStore);
+    }
+
     protected CaseInstanceSummary setupCaseInstance(final String serverTemplateId) {
         final CaseInstanceSummary cis = newCaseInstanceSummary();
         setupCaseInstance(cis,
@@ -90,6 +101,15 @@ public abstract class AbstractCaseInstancePresenterTest {
 
     protected void setupCaseInstance(final CaseInstanceSummary cis,
                                      final String serverTemplateId) {
+        setupCaseInstance(CaseInstanceSnapshot.builder()
+                                  .caseInstance(cis)
+                                  .build(),
+                          serverTemplateId);
+    }
+
+    protected void setupCaseInstance(final CaseInstanceSnapshot snapshot,
+                                     final String serverTemplateId) {
+        final CaseInstanceSummary cis = snapshot.getCaseInstance();
         final PlaceRequest placeRequest = new DefaultPlaceRequest();
         placeRequest.addParameter(PARAMETER_SERVER_TEMPLATE_ID,
                                   serverTemplateId);
@@ -97,9 +117,10 @@ public abstract class AbstractCaseInstancePresenterTest {
                                   cis.getContainerId());
         placeRequest.addParameter(PARAMETER_CASE_ID,
                                   cis.getCaseId());
-        when(caseManagementService.getCaseInstance(serverTemplateId,
-                                                   cis.getContainerId(),
-                                                   cis.getCaseId())).thenReturn(cis);
+        when(caseManagementService.getCaseInstanceSnapshot(serverTemplateId,
+                                                           cis.getContainerId(),
+                                                           cis.getCaseId(),
+                                                           CaseCommentsPresenter.PAGE_SIZE)).thenReturn(snapshot);
 
         getPresenter().onStartup(placeRequest);
     }
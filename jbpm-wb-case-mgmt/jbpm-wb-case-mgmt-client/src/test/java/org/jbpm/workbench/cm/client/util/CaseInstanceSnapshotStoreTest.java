@@ -0,0 +1,215 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jbpm.workbench.cm.client.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.jboss.errai.common.client.api.Caller;
+import org.jboss.errai.common.client.api.ErrorCallback;
+import org.jboss.errai.common.client.api.RemoteCallback;
+import org.jbpm.workbench.cm.client.comments.CaseCommentsPresenter;
+import org.jbpm.workbench.cm.model.CaseInstanceSnapshot;
+import org.jbpm.workbench.cm.model.CaseInstanceSummary;
+import org.jbpm.workbench.cm.service.CaseManagementService;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import static java.util.Collections.singletonList;
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+@RunWith(MockitoJUnitRunner.class)
+public class CaseInstanceSnapshotStoreTest {
+
+    private static final String SERVER_TEMPLATE_ID = "serverTemplateId";
+    private static final String CONTAINER_ID = "containerId";
+    private static final String CASE_ID = "caseId";
+
+    @Mock
+    private CaseManagementService caseManagementService;
+
+    @Mock
+    private Caller<CaseManagementService> caseService;
+
+    private CaseInstanceSnapshotStore store;
+
+    @Before
+    public void setup() {
+        store = new CaseInstanceSnapshotStore();
+        store.setCaseService(caseService);
+        when(caseService.call(any(RemoteCallback.class),
+                              any(ErrorCallback.class))).thenReturn(caseManagementService);
+    }
+
+    @Test
+    public void testConcurrentLoadsShareSingleCall() {
+        final List<CaseInstanceSnapshot> first = new ArrayList<>();
+        final List<CaseInstanceSnapshot> second = new ArrayList<>();
+        final CaseInstanceSnapshot snapshot = newSnapshot();
+
+        load(first);
+        load(second);
+        assertTrue(first.isEmpty());
+        getRemoteCallbacks().get(0).callback(snapshot);
+
+        assertEquals(singletonList(snapshot),
+                     first);
+        assertEquals(singletonList(snapshot),
+                     second);
+        verifySnapshotFetched(1);
+    }
+
+    @Test
+    public void testLoadUsesLoadedSnapshot() {
+        final List<CaseInstanceSnapshot> loaded = new ArrayList<>();
+        final CaseInstanceSnapshot snapshot = newSnapshot();
+        load(loaded);
+        getRemoteCallbacks().get(0).callback(snapshot);
+
+        load(loaded);
+
+        assertEquals(2,
+                     loaded.size());
+        assertSame(snapshot,
+                   loaded.get(1));
+        verifySnapshotFetched(1);
+    }
+
+    @Test
+    public void testReloadFetchedOncePerTrigger() {
+        final List<CaseInstanceSnapshot> loaded = new ArrayList<>();
+        load(loaded);
+        getRemoteCallbacks().get(0).callback(newSnapshot());
+
+        final Object trigger = new Object();
+        reload(trigger,
+               loaded);
+        reload(trigger,
+               loaded);
+        final CaseInstanceSnapshot reloaded = newSnapshot();
+        getRemoteCallbacks().get(1).callback(reloaded);
+
+        assertEquals(3,
+                     loaded.size());
+        assertSame(reloaded,
+                   loaded.get(1));
+        assertSame(reloaded,
+                   loaded.get(2));
+        verifySnapshotFetched(2);
+    }
+
+    @Test
+    public void testOutdatedSnapshotIgnored() {
+        final List<CaseInstanceSnapshot> loaded = new ArrayList<>();
+        reload(new Object(),
+               loaded);
+        reload(new Object(),
+               loaded);
+
+        final List<RemoteCallback> callbacks = getRemoteCallbacks();
+        callbacks.get(0).callback(newSnapshot());
+        assertTrue(loaded.isEmpty());
+
+        final CaseInstanceSnapshot snapshot = newSnapshot();
+        callbacks.get(1).callback(snapshot);
+        assertEquals(2,
+                     loaded.size());
+        assertSame(snapshot,
+                   loaded.get(0));
+        assertSame(snapshot,
+                   loaded.get(1));
+    }
+
+    @Test
+    public void testEvict() {
+        final List<CaseInstanceSnapshot> loaded = new ArrayList<>();
+        load(loaded);
+        getRemoteCallbacks().get(0).callback(newSnapshot());
+
+        store.evict(SERVER_TEMPLATE_ID,
+                    CONTAINER_ID,
+                    CASE_ID);
+        load(loaded);
+
+        assertEquals(1,
+                     loaded.size());
+        verifySnapshotFetched(2);
+    }
+
+    @Test
+    public void testLoadAfterError() {
+        final List<CaseInstanceSnapshot> loaded = new ArrayList<>();
+        load(loaded);
+        final ArgumentCaptor<ErrorCallback> errorCaptor = ArgumentCaptor.forClass(ErrorCallback.class);
+        verify(caseService).call(any(RemoteCallback.class),
+                                 errorCaptor.capture());
+        assertTrue(errorCaptor.getValue().error(null,
+                                                new RuntimeException()));
+
+        load(loaded);
+
+        assertTrue(loaded.isEmpty());
+        verifySnapshotFetched(2);
+    }
+
+    private void load(final List<CaseInstanceSnapshot> loaded) {
+        store.load(SERVER_TEMPLATE_ID,
+                   CONTAINER_ID,
+                   CASE_ID,
+                   loaded::add);
+    }
+
+    private void reload(final Object trigger,
+                        final List<CaseInstanceSnapshot> loaded) {
+        store.reload(SERVER_TEMPLATE_ID,
+                     CONTAINER_ID,
+                     CASE_ID,
+                     trigger,
+                     loaded::add);
+    }
+
+    private List<RemoteCallback> getRemoteCallbacks() {
+        final ArgumentCaptor<RemoteCallback> captor = ArgumentCaptor.forClass(RemoteCallback.class);
+        verify(caseService,
+               atLeastOnce()).call(captor.capture(),
+                                   any(ErrorCallback.class));
+        return captor.getAllValues();
+    }
+
+    private void verifySnapshotFetched(final int times) {
+        verify(caseManagementService,
+               times(times)).getCaseInstanceSnapshot(SERVER_TEMPLATE_ID,
+                                                     CONTAINER_ID,
+                                                     CASE_ID,
+                                                     CaseCommentsPresenter.PAGE_SIZE);
+    }
+
+    private CaseInstanceSnapshot newSnapshot() {
+        return CaseInstanceSnapshot.builder()
+                .caseInstance(CaseInstanceSummary.builder()
+                                      .caseId(CASE_ID)
+                                      .containerId(CONTAINER_ID)
+                                      .build())
+                .build();
+    }
+}
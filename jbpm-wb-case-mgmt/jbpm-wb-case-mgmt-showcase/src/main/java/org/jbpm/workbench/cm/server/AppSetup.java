@@ -28,6 +28,7 @@ import org.jboss.errai.security.shared.service.AuthenticationService;
 import org.kie.server.api.KieServerConstants;
 import org.kie.server.client.CaseServicesClient;
 import org.kie.server.client.KieServicesClient;
+import org.kie.server.client.QueryServicesClient;
 import org.kie.server.client.UserTaskServicesClient;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -75,6 +76,13 @@ public class AppSetup {
         return kieServicesClient.getServicesClient(UserTaskServicesClient.class);
     }
 
+    @Produces
+    @ApplicationScoped
+    public QueryServicesClient produceQueryServicesClient(final KieServicesClient kieServicesClient) {
+        LOGGER.info("Creating QueryServicesClient...");
+        return kieServicesClient.getServicesClient(QueryServicesClient.class);
+    }
+
     @Produces
     @RequestScoped
     public User getIdentity() {
@@ -161,6 +161,8 @@ public class MockCaseManagementService extends RemoteCaseManagementServiceImpl {
         return caseInstanceList.stream()
                 .filter(c -> c.getStatus().equals(request.getStatus()))
                 .sorted(getCaseInstanceSummaryComparator(request))
+                .skip((long) request.getPage() * request.getPageSize())
+                .limit(request.getPageSize())
                 .collect(toList());
     }
 
@@ -0,0 +1,79 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jbpm.workbench.common.events;
+
+import org.jboss.errai.common.client.api.annotations.Portable;
+import org.jboss.errai.enterprise.client.cdi.api.Conversational;
+
+/**
+ * Event fired by the server while a bulk operation is running, each time a batch of items has been processed.
+ * It is only delivered to the client that started the operation, which chooses the operation id.
+ */
+@Portable
+@Conversational
+public class BulkOperationProgress {
+
+    private String operationId;
+
+    private int processed;
+
+    private int total;
+
+    public BulkOperationProgress() {
+    }
+
+    public BulkOperationProgress(String operationId,
+                                 int processed,
+                                 int total) {
+        this.operationId = operationId;
+        this.processed = processed;
+        this.total = total;
+    }
+
+    public String getOperationId() {
+        return operationId;
+    }
+
+    public void setOperationId(String operationId) {
+        this.operationId = operationId;
+    }
+
+    public int getProcessed() {
+        return processed;
+    }
+
+    public void setProcessed(int processed) {
+        this.processed = processed;
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    public void setTotal(int total) {
+        this.total = total;
+    }
+
+    @Override
+    public String toString() {
+        return "BulkOperationProgress{" +
+                "operationId='" + operationId + '\'' +
+                ", processed=" + processed +
+                ", total=" + total +
+                '}';
+    }
+}
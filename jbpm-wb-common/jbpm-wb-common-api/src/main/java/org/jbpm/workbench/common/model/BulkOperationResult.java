@@ -0,0 +1,74 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jbpm.workbench.common.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.jboss.errai.common.client.api.annotations.Portable;
+
+/**
+ * Outcome of an operation applied on many items at once, e.g. cancelling the selected jobs.
+ */
+@Portable
+public class BulkOperationResult {
+
+    private int total;
+
+    private List<String> failedIds = new ArrayList<>();
+
+    public BulkOperationResult() {
+    }
+
+    public BulkOperationResult(int total,
+                               List<String> failedIds) {
+        this.total = total;
+        this.failedIds = failedIds;
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    public void setTotal(int total) {
+        this.total = total;
+    }
+
+    public List<String> getFailedIds() {
+        return failedIds;
+    }
+
+    public void setFailedIds(List<String> failedIds) {
+        this.failedIds = failedIds;
+    }
+
+    public int getSucceeded() {
+        return total - failedIds.size();
+    }
+
+    public boolean isSuccess() {
+        return failedIds.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return "BulkOperationResult{" +
+                "total=" + total +
+                ", failedIds=" + failedIds +
+                '}';
+    }
+}
@@ -0,0 +1,166 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jbpm.workbench.common.client.dataset;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+import org.dashbuilder.dataset.DataColumn;
+import org.dashbuilder.dataset.DataSet;
+
+import static org.jbpm.workbench.common.client.util.DataSetUtils.getColumnLongValue;
+import static org.jbpm.workbench.common.client.util.DataSetUtils.getColumnStringValue;
+
+/**
+ * Attaches domain data (variables) read from a data set to the rows of a list. The rows are indexed by id once,
+ * each variable is then attached with a single lookup, and the names of the attached variables are collected
+ * as the domain columns to display.
+ * @param <T> type of the list rows
+ */
+public class DomainDataJoin<T> {
+
+    private final Map<Long, List<T>> rowsById;
+
+    private final DomainDataConsumer<T> consumer;
+
+    private final Set<String> columns = new LinkedHashSet<String>();
+
+    public DomainDataJoin(final List<T> rows,
+                          final Function<T, Long> idFunction,
+                          final DomainDataConsumer<T> consumer) {
+        this.rowsById = new HashMap<Long, List<T>>(rows.size() * 2);
+        this.consumer = consumer;
+        for (T row : rows) {
+            final Long id = idFunction.apply(row);
+            List<T> sameId = rowsById.get(id);
+            if (sameId == null) {
+                sameId = new ArrayList<T>(1);
+                rowsById.put(id,
+                             sameId);
+            }
+            sameId.add(row);
+        }
+    }
+
+    /**
+     * Attaches the variable to the rows with the given id.
+     */
+    public void join(final Long id,
+                     final String name,
+                     final String value) {
+        final List<T> rows = rowsById.get(id);
+        if (rows == null) {
+            return;
+        }
+        for (T row : rows) {
+            if (consumer.accept(row,
+                                name,
+                                value)) {
+                columns.add(name);
+            }
+        }
+    }
+
+    /**
+     * Attaches the variables of a data set holding one variable per row, in the given id, name and value columns.
+     */
+    public DomainDataJoin<T> joinRows(final DataSet dataSet,
+                                      final String idColumn,
+                                      final String nameColumn,
+                                      final String valueColumn) {
+        for (int i = 0; i < dataSet.getRowCount(); i++) {
+            join(getColumnLongValue(dataSet,
+                                    idColumn,
+                                    i),
+                 getColumnStringValue(dataSet,
+                                      nameColumn,
+                                      i),
+                 getColumnStringValue(dataSet,
+                                      valueColumn,
+                                      i));
+        }
+        return this;
+    }
+
+    /**
+     * Attaches the variables of a pivoted data set, holding the id column followed by one column per variable.
+     * Null values are skipped.
+     */
+    public DomainDataJoin<T> joinColumns(final DataSet dataSet,
+                                         final String idColumn) {
+        return joinColumns(dataSet,
+                           idColumn,
+                           Collections.<String>emptySet());
+    }
+
+    /**
+     * Attaches the variables of a data set holding the rows together with their variables as columns, the
+     * columns of the rows themselves are given and skipped.
+     */
+    public DomainDataJoin<T> joinColumns(final DataSet dataSet,
+                                         final String idColumn,
+                                         final Set<String> rowColumns) {
+        final List<DataColumn> dataColumns = dataSet.getColumns();
+        for (int i = 0; i < dataSet.getRowCount(); i++) {
+            final Long id = getColumnLongValue(dataSet,
+                                               idColumn,
+                                               i);
+            if (!rowsById.containsKey(id)) {
+                continue;
+            }
+            for (DataColumn column : dataColumns) {
+                final String name = column.getId();
+                if (idColumn.equals(name) || rowColumns.contains(name)) {
+                    continue;
+                }
+                final String value = getColumnStringValue(dataSet,
+                                                          name,
+                                                          i);
+                if (value != null) {
+                    join(id,
+                         name,
+                         value);
+                }
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Names of the variables attached to at least one row, in order of discovery.
+     */
+    public Set<String> getColumns() {
+        return columns;
+    }
+
+    public interface DomainDataConsumer<T> {
+
+        /**
+         * Attaches the variable to the row.
+         * @return false when the variable was ignored for the row
+         */
+        boolean accept(T row,
+                       String name,
+                       String value);
+    }
+}
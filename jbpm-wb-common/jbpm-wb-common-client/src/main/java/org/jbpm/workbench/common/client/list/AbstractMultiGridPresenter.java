@@ -27,6 +27,7 @@ import javax.inject.Inject;
 
 import com.google.gwt.user.cellview.client.ColumnSortList;
 import com.google.gwt.view.client.Range;
+import org.dashbuilder.dataset.DataSetLookup;
 import org.dashbuilder.dataset.client.DataSetReadyCallback;
 import org.dashbuilder.dataset.filter.ColumnFilter;
 import org.dashbuilder.dataset.sort.SortOrder;
@@ -170,6 +171,7 @@ public abstract class AbstractMultiGridPresenter<T extends GenericSummary, V ext
 
             dataSetQueryHelper.setCurrentTableSettings(currentTableSettings);
             dataSetQueryHelper.setDataSetHandler(currentTableSettings);
+            dataSetQueryHelper.setKeysetColumn(getKeysetColumn());
             dataSetQueryHelper.lookupDataSet(visibleRange.getStart(),
                                              getDataSetReadyCallback(visibleRange.getStart(),
                                                                      currentTableSettings));
@@ -179,9 +181,25 @@ public abstract class AbstractMultiGridPresenter<T extends GenericSummary, V ext
         }
     }
 
+    /**
+     * Lookup selecting all the rows matching the active filters, not only the ones loaded in the grid, so that bulk
+     * operations can be run on the server for everything the filters match.
+     */
+    protected DataSetLookup getFilteredSelection() {
+        return dataSetQueryHelper.getCurrentTableSettings().getDataSetLookup().cloneInstance();
+    }
+
     protected abstract DataSetReadyCallback getDataSetReadyCallback(final Integer startRange,
                                                                     final FilterSettings tableSettings);
 
+    /**
+     * Unique column the list data set uses for keyset paging, null when the data set only supports offset paging.
+     * Moving to the next page then asks for the rows after the last row shown instead of skipping offset rows.
+     */
+    protected String getKeysetColumn() {
+        return null;
+    }
+
     protected <T extends Object> void addActiveFilter(final ColumnFilter columnFilter,
                                                       final String labelKey,
                                                       final String labelValue,
@@ -0,0 +1,167 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jbpm.workbench.common.client.dataset;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+import org.dashbuilder.dataset.ColumnType;
+import org.dashbuilder.dataset.DataSet;
+import org.dashbuilder.dataset.DataSetFactory;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class DomainDataJoinTest {
+
+    @Test
+    public void testJoinRows() {
+        final List<Row> rows = Arrays.asList(new Row(1L),
+                                             new Row(2L));
+        final DataSet dataSet = DataSetFactory.newEmptyDataSet();
+        dataSet.addColumn("id",
+                          ColumnType.NUMBER,
+                          Arrays.asList(1L,
+                                        2L,
+                                        1L,
+                                        3L));
+        dataSet.addColumn("name",
+                          ColumnType.LABEL,
+                          Arrays.asList("orderId",
+                                        "orderId",
+                                        "amount",
+                                        "unknown"));
+        dataSet.addColumn("value",
+                          ColumnType.LABEL,
+                          Arrays.asList("A1",
+                                        "B2",
+                                        "10",
+                                        "x"));
+
+        final DomainDataJoin<Row> join = newJoin(rows).joinRows(dataSet,
+                                                                 "id",
+                                                                 "name",
+                                                                 "value");
+
+        assertEquals(new LinkedHashSet<>(Arrays.asList("orderId",
+                                                       "amount")),
+                     join.getColumns());
+        assertEquals("A1",
+                     rows.get(0).data.get("orderId"));
+        assertEquals("10",
+                     rows.get(0).data.get("amount"));
+        assertEquals("B2",
+                     rows.get(1).data.get("orderId"));
+        assertFalse(rows.get(1).data.containsKey("amount"));
+    }
+
+    @Test
+    public void testJoinColumns() {
+        final List<Row> rows = Arrays.asList(new Row(1L),
+                                             new Row(2L));
+        final DataSet dataSet = DataSetFactory.newEmptyDataSet();
+        dataSet.addColumn("id",
+                          ColumnType.NUMBER,
+                          Arrays.asList(2L,
+                                        1L));
+        dataSet.addColumn("orderId",
+                          ColumnType.LABEL,
+                          Arrays.asList("B2",
+                                        "A1"));
+        dataSet.addColumn("amount",
+                          ColumnType.LABEL,
+                          Arrays.asList(null,
+                                        "10"));
+
+        final DomainDataJoin<Row> join = newJoin(rows).joinColumns(dataSet,
+                                                                    "id");
+
+        assertEquals(new LinkedHashSet<>(Arrays.asList("orderId",
+                                                       "amount")),
+                     join.getColumns());
+        assertEquals("A1",
+                     rows.get(0).data.get("orderId"));
+        assertEquals("10",
+                     rows.get(0).data.get("amount"));
+        assertEquals("B2",
+                     rows.get(1).data.get("orderId"));
+        assertFalse(rows.get(1).data.containsKey("amount"));
+    }
+
+    @Test
+    public void testJoinColumnsSkipsRowColumns() {
+        final List<Row> rows = Arrays.asList(new Row(1L));
+        final DataSet dataSet = DataSetFactory.newEmptyDataSet();
+        dataSet.addColumn("id",
+                          ColumnType.NUMBER,
+                          Arrays.asList(1L));
+        dataSet.addColumn("status",
+                          ColumnType.NUMBER,
+                          Arrays.asList(1L));
+        dataSet.addColumn("orderId",
+                          ColumnType.LABEL,
+                          Arrays.asList("A1"));
+
+        final DomainDataJoin<Row> join = newJoin(rows).joinColumns(dataSet,
+                                                                    "id",
+                                                                    Collections.singleton("status"));
+
+        assertEquals(Collections.singleton("orderId"),
+                     join.getColumns());
+        assertEquals("A1",
+                     rows.get(0).data.get("orderId"));
+        assertFalse(rows.get(0).data.containsKey("status"));
+    }
+
+    @Test
+    public void testRejectedValuesDoNotAddColumns() {
+        final List<Row> rows = Arrays.asList(new Row(1L));
+        final DomainDataJoin<Row> join = new DomainDataJoin<Row>(rows,
+                                                                 row -> row.id,
+                                                                 (row, name, value) -> false);
+
+        join.join(1L,
+                  "initiator",
+                  "admin");
+
+        assertTrue(join.getColumns().isEmpty());
+    }
+
+    protected DomainDataJoin<Row> newJoin(final List<Row> rows) {
+        return new DomainDataJoin<Row>(rows,
+                                       row -> row.id,
+                                       (row, name, value) -> {
+                                           row.data.put(name,
+                                                        value);
+                                           return true;
+                                       });
+    }
+
+    private static class Row {
+
+        private final Long id;
+        private final Map<String, String> data = new HashMap<>();
+
+        private Row(final Long id) {
+            this.id = id;
+        }
+    }
+}
@@ -15,6 +15,8 @@
  */
 package org.jbpm.workbench.df.client.list;
 
+import java.util.ArrayList;
+import java.util.List;
 import javax.enterprise.context.Dependent;
 import javax.enterprise.event.Event;
 import javax.inject.Inject;
@@ -22,6 +24,8 @@ import javax.inject.Inject;
 import org.dashbuilder.common.client.StringUtils;
 import org.dashbuilder.common.client.error.ClientRuntimeError;
 import org.dashbuilder.dataset.DataSet;
+import org.dashbuilder.dataset.DataSetLookup;
+import org.dashbuilder.dataset.DataSetOp;
 import org.dashbuilder.dataset.client.DataSetClientServices;
 import org.dashbuilder.dataset.client.DataSetReadyCallback;
 import org.dashbuilder.dataset.sort.SortOrder;
@@ -42,6 +46,22 @@ public class DataSetQueryHelper {
 
     protected DataSet dataSet;
 
+    /**
+     * Unique column of the data set used for keyset paging, see {@link #setKeysetColumn(String)}.
+     */
+    protected String keysetColumn;
+
+    /**
+     * Pivoted variables lookup joined to the rows, see {@link #setVariablesLookup(ConsoleDataSetLookup, String)}.
+     */
+    protected ConsoleDataSetLookup variablesLookup;
+
+    protected String variablesJoinColumn;
+
+    protected Integer dataSetOffset;
+
+    protected List<DataSetOp> dataSetOperations;
+
     protected DataSetHandler dataSetHandler;
 
     protected DataSetClientServices dataSetClientServices;
@@ -77,6 +97,10 @@ public class DataSetQueryHelper {
             // Lookup only the target rows
             dataSetHandler.limitDataSetRows(offset,
                                             currentTableSetting.getTablePageSize());
+            final List<DataSetOp> operations = getOperations(dataSetHandler.getCurrentDataSetLookup());
+            joinVariables();
+            seekAfterPreviousPage(offset,
+                                  operations);
 
             // Do the lookup
             dataSetHandler.lookupDataSet(
@@ -84,6 +108,8 @@ public class DataSetQueryHelper {
 
                         public void callback(DataSet dataSet) {
                             DataSetQueryHelper.this.dataSet = dataSet;
+                            DataSetQueryHelper.this.dataSetOffset = offset;
+                            DataSetQueryHelper.this.dataSetOperations = operations;
                             callback.callback(dataSet);
                             event.fire(new DataSetReadyEvent(currentTableSetting));
                         }
@@ -104,6 +130,103 @@ public class DataSetQueryHelper {
         }
     }
 
+    /**
+     * When the requested rows directly follow the previously read page of the same lookup, asks for the rows after
+     * the sort key of its last row instead of skipping offset rows, so KIE Server doesn't read all preceding rows.
+     * Other lookups, e.g. jumping to the last page or a changed filter, keep using the offset.
+     */
+    protected void seekAfterPreviousPage(final Integer offset,
+                                         final List<DataSetOp> operations) {
+        final DataSetLookup lookup = dataSetHandler.getCurrentDataSetLookup();
+        if (!(lookup instanceof ConsoleDataSetLookup)) {
+            return;
+        }
+        if (variablesLookup != null) {
+            // rows with variables are paged by offset on the server
+            ((ConsoleDataSetLookup) lookup).setSeekValues(null);
+            return;
+        }
+        final List<Comparable> seekValues = getSeekValues(offset,
+                                                          operations);
+        ((ConsoleDataSetLookup) lookup).setSeekValues(seekValues);
+    }
+
+    /**
+     * Asks for the variables of the rows in the same lookup, see {@link ConsoleDataSetLookup#withVariables}.
+     */
+    protected void joinVariables() {
+        final DataSetLookup lookup = dataSetHandler.getCurrentDataSetLookup();
+        if (lookup instanceof ConsoleDataSetLookup) {
+            ((ConsoleDataSetLookup) lookup).withVariables(variablesLookup == null ? null : (ConsoleDataSetLookup) variablesLookup.cloneInstance(),
+                                                          variablesLookup == null ? null : variablesJoinColumn);
+        }
+    }
+
+    protected List<Comparable> getSeekValues(final Integer offset,
+                                             final List<DataSetOp> operations) {
+        final List<Comparable> values = new ArrayList<Comparable>();
+        final int pageSize = currentTableSetting.getTablePageSize();
+        if (StringUtils.isBlank(keysetColumn) || StringUtils.isBlank(lastOrderedColumn) || dataSet == null || dataSetOffset == null
+                || pageSize <= 0 || dataSet.getRowCount() != pageSize || offset != dataSetOffset + pageSize
+                || !operations.equals(dataSetOperations)
+                || dataSet.getColumnById(lastOrderedColumn) == null || dataSet.getColumnById(keysetColumn) == null) {
+            return values;
+        }
+        final int lastRow = dataSet.getRowCount() - 1;
+        values.add(toSeekValue(dataSet.getValueAt(lastRow,
+                                                  lastOrderedColumn)));
+        if (!keysetColumn.equals(lastOrderedColumn)) {
+            values.add(toSeekValue(dataSet.getValueAt(lastRow,
+                                                      keysetColumn)));
+        }
+        // rows without a value can't be positioned with a comparison
+        return values.contains(null) ? new ArrayList<Comparable>() : values;
+    }
+
+    protected Comparable toSeekValue(final Object value) {
+        if (value instanceof Double && ((Double) value) == Math.floor((Double) value)) {
+            // numeric columns arrive as doubles, ids are compared as integers on the server
+            return ((Double) value).longValue();
+        }
+        return value instanceof Comparable ? (Comparable) value : null;
+    }
+
+    protected List<DataSetOp> getOperations(final DataSetLookup lookup) {
+        final List<DataSetOp> operations = new ArrayList<DataSetOp>();
+        if (lookup != null) {
+            for (DataSetOp operation : lookup.getOperationList()) {
+                operations.add(operation.cloneInstance());
+            }
+        }
+        return operations;
+    }
+
+    public String getKeysetColumn() {
+        return keysetColumn;
+    }
+
+    /**
+     * Enables keyset paging for data sets with the given unique keyset column, see {@link ConsoleDataSetLookup#seekAfter}.
+     */
+    public void setKeysetColumn(String keysetColumn) {
+        this.keysetColumn = keysetColumn;
+    }
+
+    public ConsoleDataSetLookup getVariablesLookup() {
+        return variablesLookup;
+    }
+
+    /**
+     * Returns the rows together with their variables, read by the given pivoted lookup and joined on the join
+     * column, in a single lookup. Variable columns can then be filtered on, and sorted on when the rows are filtered.
+     * A null lookup reads the rows only.
+     */
+    public void setVariablesLookup(final ConsoleDataSetLookup variablesLookup,
+                                   final String joinColumn) {
+        this.variablesLookup = variablesLookup;
+        this.variablesJoinColumn = joinColumn;
+    }
+
     public FilterSettings getCurrentTableSettings() {
         return currentTableSetting;
     }
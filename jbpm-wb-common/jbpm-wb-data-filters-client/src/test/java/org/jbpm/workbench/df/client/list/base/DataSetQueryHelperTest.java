@@ -18,6 +18,7 @@ package org.jbpm.workbench.df.client.list.base;
 import javax.enterprise.event.Event;
 
 import org.dashbuilder.common.client.error.ClientRuntimeError;
+import org.dashbuilder.dataset.DataColumn;
 import org.dashbuilder.dataset.DataSet;
 import org.dashbuilder.dataset.DataSetLookup;
 import org.dashbuilder.dataset.client.DataSetClientServices;
@@ -26,6 +27,7 @@ import org.dashbuilder.displayer.client.DataSetHandler;
 import org.jbpm.workbench.df.client.events.DataSetReadyEvent;
 import org.jbpm.workbench.df.client.filter.FilterSettings;
 import org.jbpm.workbench.df.client.list.DataSetQueryHelper;
+import org.jbpm.workbench.ks.integration.ConsoleDataSetLookup;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -37,6 +39,7 @@ import org.mockito.invocation.InvocationOnMock;
 import org.mockito.runners.MockitoJUnitRunner;
 import org.mockito.stubbing.Answer;
 
+import static java.util.Arrays.asList;
 import static org.dashbuilder.dataset.sort.SortOrder.DESCENDING;
 import static org.junit.Assert.*;
 import static org.mockito.Mockito.*;
@@ -121,4 +124,103 @@ public class DataSetQueryHelperTest {
         assertEquals(currentTableSetting,
                      captor.getValue().getFilterSettings());
     }
+
+    @Test
+    public void testVariablesReadInTheSameLookup() throws Exception {
+        final ConsoleDataSetLookup lookup = new ConsoleDataSetLookup();
+        when(dataSetHandlerMock.getCurrentDataSetLookup()).thenReturn(lookup);
+        final DataSet page = mock(DataSet.class);
+        when(page.getRowCount()).thenReturn(5);
+        when(page.getColumnById(anyString())).thenReturn(mock(DataColumn.class));
+        when(page.getValueAt(anyInt(),
+                             anyString())).thenReturn(10d);
+        doAnswer(invocation -> {
+            ((DataSetReadyCallback) invocation.getArguments()[0]).callback(page);
+            return null;
+        }).when(dataSetHandlerMock).lookupDataSet(any(DataSetReadyCallback.class));
+        currentTableSetting.setTableDefaultSortColumnId(COLUMN_1);
+        currentTableSetting.setTablePageSize(5);
+        dataSetQueryHelper.setKeysetColumn("id");
+        dataSetQueryHelper.setVariablesLookup(new ConsoleDataSetLookup().pivot("id",
+                                                                               "name",
+                                                                               "value"),
+                                              "id");
+        final DataSetReadyCallback callback = mock(DataSetReadyCallback.class);
+
+        dataSetQueryHelper.lookupDataSet(0,
+                                         callback);
+        dataSetQueryHelper.lookupDataSet(5,
+                                         callback);
+
+        assertTrue(lookup.hasVariables());
+        assertTrue(lookup.getVariablesLookup().isPivot());
+        // rows with variables are paged by offset
+        assertFalse(lookup.hasSeekValues());
+
+        dataSetQueryHelper.setVariablesLookup(null,
+                                              null);
+        dataSetQueryHelper.lookupDataSet(0,
+                                         callback);
+
+        assertFalse(lookup.hasVariables());
+    }
+
+    @Test
+    public void testNextPageSeeksAfterLastRow() throws Exception {
+        final ConsoleDataSetLookup lookup = new ConsoleDataSetLookup();
+        when(dataSetHandlerMock.getCurrentDataSetLookup()).thenReturn(lookup);
+        final DataSet page = mock(DataSet.class);
+        when(page.getRowCount()).thenReturn(5);
+        when(page.getColumnById(anyString())).thenReturn(mock(DataColumn.class));
+        when(page.getValueAt(4,
+                             COLUMN_1)).thenReturn("value");
+        when(page.getValueAt(4,
+                             "id")).thenReturn(10d);
+        doAnswer(invocation -> {
+            ((DataSetReadyCallback) invocation.getArguments()[0]).callback(page);
+            return null;
+        }).when(dataSetHandlerMock).lookupDataSet(any(DataSetReadyCallback.class));
+        currentTableSetting.setTableDefaultSortColumnId(COLUMN_1);
+        currentTableSetting.setTableDefaultSortOrder(DESCENDING);
+        currentTableSetting.setTablePageSize(5);
+        dataSetQueryHelper.setKeysetColumn("id");
+        final DataSetReadyCallback callback = mock(DataSetReadyCallback.class);
+
+        dataSetQueryHelper.lookupDataSet(0,
+                                         callback);
+        assertFalse(lookup.hasSeekValues());
+
+        dataSetQueryHelper.lookupDataSet(5,
+                                         callback);
+        assertEquals(asList("value",
+                            10L),
+                     lookup.getSeekValues());
+
+        // jumping over pages keeps using the offset
+        dataSetQueryHelper.lookupDataSet(20,
+                                         callback);
+        assertFalse(lookup.hasSeekValues());
+    }
+
+    @Test
+    public void testNoSeekWithoutKeysetColumn() throws Exception {
+        final ConsoleDataSetLookup lookup = new ConsoleDataSetLookup();
+        when(dataSetHandlerMock.getCurrentDataSetLookup()).thenReturn(lookup);
+        final DataSet page = mock(DataSet.class);
+        when(page.getRowCount()).thenReturn(5);
+        doAnswer(invocation -> {
+            ((DataSetReadyCallback) invocation.getArguments()[0]).callback(page);
+            return null;
+        }).when(dataSetHandlerMock).lookupDataSet(any(DataSetReadyCallback.class));
+        currentTableSetting.setTableDefaultSortColumnId(COLUMN_1);
+        currentTableSetting.setTablePageSize(5);
+        final DataSetReadyCallback callback = mock(DataSetReadyCallback.class);
+
+        dataSetQueryHelper.lookupDataSet(0,
+                                         callback);
+        dataSetQueryHelper.lookupDataSet(5,
+                                         callback);
+
+        assertFalse(lookup.hasSeekValues());
+    }
 }
@@ -0,0 +1,79 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jbpm.dashboard.renderer.model;
+
+import org.dashbuilder.dataset.DataSet;
+import org.jboss.errai.common.client.api.annotations.Portable;
+
+/**
+ * Outcome of a single lookup of a batch, either the data set or the error that prevented it from being looked up.
+ */
+@Portable
+public class DataSetLookupResult {
+
+    private DataSet dataSet;
+
+    private String errorMessage;
+
+    public DataSetLookupResult() {
+    }
+
+    public DataSetLookupResult(final DataSet dataSet,
+                               final String errorMessage) {
+        this.dataSet = dataSet;
+        this.errorMessage = errorMessage;
+    }
+
+    public static DataSetLookupResult success(final DataSet dataSet) {
+        return new DataSetLookupResult(dataSet,
+                                       null);
+    }
+
+    public static DataSetLookupResult failure(final String errorMessage) {
+        return new DataSetLookupResult(null,
+                                       errorMessage);
+    }
+
+    public DataSet getDataSet() {
+        return dataSet;
+    }
+
+    public void setDataSet(final DataSet dataSet) {
+        this.dataSet = dataSet;
+    }
+
+    public String getErrorMessage() {
+        return errorMessage;
+    }
+
+    public void setErrorMessage(final String errorMessage) {
+        this.errorMessage = errorMessage;
+    }
+
+    public boolean isSuccess() {
+        return errorMessage == null;
+    }
+
+    @Override
+    public String toString() {
+        return "DataSetLookupResult{" +
+                "dataSet=" + dataSet +
+                ", errorMessage='" + errorMessage + '\'' +
+                '}';
+    }
+}
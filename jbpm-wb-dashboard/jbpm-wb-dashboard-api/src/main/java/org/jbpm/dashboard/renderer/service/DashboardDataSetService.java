@@ -0,0 +1,33 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jbpm.dashboard.renderer.service;
+
+import java.util.List;
+
+import org.dashbuilder.dataset.DataSetLookup;
+import org.jboss.errai.bus.server.annotations.Remote;
+import org.jbpm.dashboard.renderer.model.DataSetLookupResult;
+
+@Remote
+public interface DashboardDataSetService {
+
+    /**
+     * Looks up all the data sets needed to refresh a dashboard in a single call. Results are returned in the order
+     * of the lookups, a failed lookup doesn't prevent the others from returning their data set.
+     */
+    List<DataSetLookupResult> lookupDataSets(List<DataSetLookup> lookups);
+}
@@ -0,0 +1,178 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jbpm.dashboard.renderer.backend;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+
+import org.dashbuilder.dataset.DataSet;
+import org.dashbuilder.dataset.DataSetLookup;
+import org.dashbuilder.dataset.def.DataSetDef;
+import org.dashbuilder.dataset.def.DataSetDefRegistry;
+import org.jboss.errai.bus.server.annotations.Service;
+import org.jbpm.dashboard.renderer.model.DataSetLookupResult;
+import org.jbpm.dashboard.renderer.service.DashboardDataSetService;
+import org.jbpm.workbench.ks.integration.ConsoleDataSetLookup;
+import org.jbpm.workbench.ks.integration.KieServerDataSetCache;
+import org.jbpm.workbench.ks.integration.KieServerDataSetProvider;
+import org.jbpm.workbench.ks.integration.KieServerExecutor;
+import org.jbpm.workbench.ks.integration.RemoteDataSetDef;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Runs the data set lookups of a dashboard refresh concurrently against KIE Server. Identical lookups, e.g. the ones
+ * of displayers sharing the same filters, are executed once. Aggregate lookups are answered from the
+ * {@link DashboardRollupService} when possible. Each lookup gets its own result, so a failing lookup only affects the
+ * displayers depending on it.
+ */
+@Service
+@ApplicationScoped
+public class DashboardDataSetServiceImpl implements DashboardDataSetService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(DashboardDataSetServiceImpl.class);
+
+    private DataSetDefRegistry dataSetDefRegistry;
+
+    private KieServerDataSetProvider dataSetProvider;
+
+    private DashboardRollupService rollupService;
+
+    private KieServerExecutor kieServerExecutor;
+
+    public DashboardDataSetServiceImpl() {
+    }
+
+    @Inject
+    public DashboardDataSetServiceImpl(final DataSetDefRegistry dataSetDefRegistry,
+                                       final KieServerDataSetProvider dataSetProvider,
+                                       final DashboardRollupService rollupService,
+                                       final KieServerExecutor kieServerExecutor) {
+        this.dataSetDefRegistry = dataSetDefRegistry;
+        this.dataSetProvider = dataSetProvider;
+        this.rollupService = rollupService;
+        this.kieServerExecutor = kieServerExecutor;
+    }
+
+    @Override
+    public List<DataSetLookupResult> lookupDataSets(final List<DataSetLookup> lookups) {
+        if (lookups == null || lookups.isEmpty()) {
+            return new ArrayList<>();
+        }
+        if (lookups.size() == 1) {
+            final DataSetLookup lookup = lookups.get(0);
+            final List<DataSetLookupResult> result = new ArrayList<>(1);
+            try {
+                result.add(DataSetLookupResult.success(lookupDataSet(getDataSetDef(lookup),
+                                                                     lookup)));
+            } catch (RuntimeException e) {
+                result.add(toFailure(lookup,
+                                     e));
+            }
+            return result;
+        }
+
+        final Map<String, Future<DataSet>> executions = new HashMap<>();
+        final List<Future<DataSet>> results = new ArrayList<>(lookups.size());
+        for (DataSetLookup lookup : lookups) {
+            try {
+                final DataSetDef def = getDataSetDef(lookup);
+                results.add(executions.computeIfAbsent(getLookupKey(def,
+                                                                    lookup),
+                                                       key -> kieServerExecutor.submit(() -> lookupDataSet(def,
+                                                                                                           lookup))));
+            } catch (RuntimeException e) {
+                final CompletableFuture<DataSet> failed = new CompletableFuture<>();
+                failed.completeExceptionally(e);
+                results.add(failed);
+            }
+        }
+        LOGGER.debug("Executing {} distinct lookup(s) out of {}",
+                     executions.size(),
+                     lookups.size());
+
+        final List<DataSetLookupResult> dataSets = new ArrayList<>(results.size());
+        try {
+            for (int i = 0; i < results.size(); i++) {
+                try {
+                    dataSets.add(DataSetLookupResult.success(results.get(i).get()));
+                } catch (ExecutionException e) {
+                    dataSets.add(toFailure(lookups.get(i),
+                                           e.getCause()));
+                }
+            }
+        } catch (InterruptedException e) {
+            executions.values().forEach(execution -> execution.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while looking up data sets",
+                                            e);
+        }
+        return dataSets;
+    }
+
+    protected DataSetLookupResult toFailure(final DataSetLookup lookup,
+                                            final Throwable error) {
+        LOGGER.warn("Unable to look up data set {}: {}",
+                    lookup.getDataSetUUID(),
+                    error.getMessage());
+        LOGGER.debug("Data set lookup failed",
+                     error);
+        return DataSetLookupResult.failure(error.getMessage() == null ? error.getClass().getName() : error.getMessage());
+    }
+
+    protected DataSet lookupDataSet(final DataSetDef def,
+                                    final DataSetLookup lookup) {
+        final DataSet rolledUp = rollupService.lookupDataSet(def,
+                                                             lookup);
+        if (rolledUp != null) {
+            return rolledUp;
+        }
+        try {
+            return dataSetProvider.lookupDataSet(def,
+                                                 lookup);
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    protected DataSetDef getDataSetDef(final DataSetLookup lookup) {
+        final DataSetDef def = dataSetDefRegistry.getDataSetDef(lookup.getDataSetUUID());
+        if (!(def instanceof RemoteDataSetDef)) {
+            throw new IllegalArgumentException("Data set " + lookup.getDataSetUUID() + " is not a KIE Server data set");
+        }
+        return def;
+    }
+
+    protected String getLookupKey(final DataSetDef def,
+                                  final DataSetLookup lookup) {
+        final ConsoleDataSetLookup consoleLookup = lookup instanceof ConsoleDataSetLookup ?
+                (ConsoleDataSetLookup) lookup :
+                (ConsoleDataSetLookup) ConsoleDataSetLookup.fromInstance(lookup,
+                                                                         ((RemoteDataSetDef) def).getServerTemplateId());
+        return consoleLookup.getServerTemplateId() + "|" + KieServerDataSetCache.buildKey(consoleLookup,
+                                                                                          null);
+    }
+}
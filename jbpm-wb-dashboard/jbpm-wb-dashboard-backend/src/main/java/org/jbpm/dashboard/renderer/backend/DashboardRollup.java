@@ -0,0 +1,330 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jbpm.dashboard.renderer.backend;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * Aggregates (count, number and sum of durations) of the rows of a dashboard data set, kept by the key columns of
+ * its {@link DashboardRollupDefinition}. Rows are added as they are read from KIE Server, in id order above the high
+ * water mark. Rows in an open status are remembered so that their contribution can be replaced when they are read
+ * again, rows in a final status are only counted once.
+ * <p>
+ * Not thread safe, callers synchronize on the instance.
+ */
+public class DashboardRollup {
+
+    private static final long DAY = 24 * 60 * 60 * 1000L;
+
+    private final DashboardRollupDefinition definition;
+    private final int idIndex;
+    private final int statusIndex;
+    private final int durationIndex;
+    private final int[] keyIndexes;
+    private final boolean[] dateKeys;
+
+    private final Map<List<Object>, Cell> cells = new HashMap<>();
+    private final Map<Long, Contribution> openRows = new HashMap<>();
+    // ids of closed rows close to the high water mark, read again in case rows were committed out of id order
+    private final Set<Long> recentIds = new HashSet<>();
+
+    private final long createdAt = System.currentTimeMillis();
+    private Long highWaterMark;
+    private volatile long lastRefresh;
+
+    public DashboardRollup(final DashboardRollupDefinition definition,
+                           final List<String> columns) {
+        this.definition = definition;
+        this.idIndex = getIndex(columns,
+                                definition.getIdColumn());
+        this.statusIndex = getIndex(columns,
+                                    definition.getStatusColumn());
+        this.durationIndex = columns.indexOf(definition.getDurationColumn());
+        final List<String> keyColumns = definition.getKeyColumns();
+        this.keyIndexes = new int[keyColumns.size()];
+        this.dateKeys = new boolean[keyColumns.size()];
+        for (int i = 0; i < keyIndexes.length; i++) {
+            keyIndexes[i] = getIndex(columns,
+                                     keyColumns.get(i));
+            dateKeys[i] = definition.isDateColumn(keyColumns.get(i));
+        }
+    }
+
+    private static int getIndex(final List<String> columns,
+                                final String column) {
+        final int index = columns.indexOf(column);
+        if (index < 0) {
+            throw new IllegalArgumentException("Column " + column + " not found in " + columns);
+        }
+        return index;
+    }
+
+    /**
+     * Adds a row read from KIE Server, replacing the contribution of the same row if it was open.
+     */
+    public void update(final List<?> row) {
+        final Long id = toLong(row.get(idIndex));
+        if (id == null) {
+            return;
+        }
+        final Contribution previous = openRows.remove(id);
+        if (previous != null) {
+            retract(previous);
+        } else if (recentIds.contains(id)) {
+            return;
+        }
+        final Contribution contribution = new Contribution(buildKey(row),
+                                                           durationIndex < 0 ? null : toDouble(row.get(durationIndex)));
+        add(contribution);
+        if (definition.isOpen(row.get(statusIndex))) {
+            openRows.put(id,
+                         contribution);
+        } else {
+            recentIds.add(id);
+        }
+        if (highWaterMark == null || id > highWaterMark) {
+            highWaterMark = id;
+        }
+    }
+
+    /**
+     * Removes an open row that is no longer returned by KIE Server.
+     */
+    public void remove(final Long id) {
+        final Contribution contribution = openRows.remove(id);
+        if (contribution != null) {
+            retract(contribution);
+        }
+    }
+
+    /**
+     * Forgets the ids of closed rows that are not going to be read again.
+     */
+    public void pruneRecentIds(final long lookback) {
+        if (highWaterMark != null) {
+            final long limit = highWaterMark - lookback;
+            recentIds.removeIf(id -> id <= limit);
+        }
+    }
+
+    /**
+     * Sums the cells matching the filter by the value of the key column at the given index, or into a single
+     * entry with a null key when the index is negative. Groups are sorted by value, nulls last.
+     */
+    public Map<Object, Cell> aggregate(final Predicate<List<Object>> filter,
+                                       final int groupIndex) {
+        final Map<Object, Cell> groups = new HashMap<>();
+        if (groupIndex < 0) {
+            groups.put(null,
+                       new Cell());
+        }
+        for (Map.Entry<List<Object>, Cell> cell : cells.entrySet()) {
+            if (filter.test(cell.getKey())) {
+                groups.computeIfAbsent(groupIndex < 0 ? null : cell.getKey().get(groupIndex),
+                                       key -> new Cell())
+                        .add(cell.getValue());
+            }
+        }
+        final List<Object> keys = new ArrayList<>(groups.keySet());
+        keys.sort(DashboardRollup::compare);
+        final Map<Object, Cell> sorted = new LinkedHashMap<>();
+        for (Object key : keys) {
+            sorted.put(key,
+                       groups.get(key));
+        }
+        return sorted;
+    }
+
+    public int getIdIndex() {
+        return idIndex;
+    }
+
+    public List<Long> getOpenIds() {
+        return new ArrayList<>(openRows.keySet());
+    }
+
+    public Long getHighWaterMark() {
+        return highWaterMark;
+    }
+
+    public long getCreatedAt() {
+        return createdAt;
+    }
+
+    public long getLastRefresh() {
+        return lastRefresh;
+    }
+
+    public void setLastRefresh(final long lastRefresh) {
+        this.lastRefresh = lastRefresh;
+    }
+
+    public int getCellCount() {
+        return cells.size();
+    }
+
+    protected List<Object> buildKey(final List<?> row) {
+        final Object[] key = new Object[keyIndexes.length];
+        for (int i = 0; i < keyIndexes.length; i++) {
+            final Object value = row.get(keyIndexes[i]);
+            key[i] = dateKeys[i] ? toDay(value) : normalize(value);
+        }
+        return Collections.unmodifiableList(Arrays.asList(key));
+    }
+
+    private void add(final Contribution contribution) {
+        cells.computeIfAbsent(contribution.key,
+                              key -> new Cell()).add(1,
+                                                     contribution.duration);
+    }
+
+    private void retract(final Contribution contribution) {
+        final Cell cell = cells.get(contribution.key);
+        if (cell != null) {
+            cell.add(-1,
+                     contribution.duration == null ? null : -contribution.duration);
+            if (cell.getCount() <= 0) {
+                cells.remove(contribution.key);
+            }
+        }
+    }
+
+    /**
+     * Canonical text of a value, whole numbers are written without decimals whatever their type.
+     */
+    public static String canonical(final Object value) {
+        final Object normalized = normalize(value);
+        return normalized == null ? null : normalized.toString();
+    }
+
+    protected static Object normalize(final Object value) {
+        if (value instanceof Number) {
+            final double number = ((Number) value).doubleValue();
+            if (number == Math.rint(number) && !Double.isInfinite(number)) {
+                return ((Number) value).longValue();
+            }
+            return number;
+        }
+        return value;
+    }
+
+    protected static int compare(final Object first,
+                                 final Object second) {
+        if (first == null || second == null) {
+            return first == second ? 0 : first == null ? 1 : -1;
+        }
+        if (first instanceof Number && second instanceof Number) {
+            return Double.compare(((Number) first).doubleValue(),
+                                  ((Number) second).doubleValue());
+        }
+        return first.toString().compareTo(second.toString());
+    }
+
+    protected static Long toDay(final Object value) {
+        final Long time;
+        if (value instanceof Date) {
+            time = ((Date) value).getTime();
+        } else if (value instanceof Number) {
+            time = ((Number) value).longValue();
+        } else {
+            return null;
+        }
+        return Math.floorDiv(time,
+                             DAY);
+    }
+
+    protected static Long toLong(final Object value) {
+        if (value instanceof Number) {
+            return ((Number) value).longValue();
+        }
+        if (value != null) {
+            try {
+                return Long.valueOf(value.toString().trim());
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+        return null;
+    }
+
+    protected static Double toDouble(final Object value) {
+        if (value instanceof Number) {
+            return ((Number) value).doubleValue();
+        }
+        return null;
+    }
+
+    private static class Contribution {
+
+        private final List<Object> key;
+        private final Double duration;
+
+        private Contribution(final List<Object> key,
+                             final Double duration) {
+            this.key = key;
+            this.duration = duration;
+        }
+    }
+
+    public static class Cell {
+
+        private long count;
+        private long durationCount;
+        private double durationSum;
+
+        void add(final long count,
+                 final Double duration) {
+            this.count += count;
+            if (duration != null) {
+                this.durationCount += count;
+                this.durationSum += duration;
+            }
+        }
+
+        void add(final Cell cell) {
+            this.count += cell.count;
+            this.durationCount += cell.durationCount;
+            this.durationSum += cell.durationSum;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public long getDurationCount() {
+            return durationCount;
+        }
+
+        public double getDurationSum() {
+            return durationSum;
+        }
+
+        public Double getDurationAverage() {
+            return durationCount == 0 ? null : durationSum / durationCount;
+        }
+    }
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jbpm.dashboard.renderer.backend;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.jbpm.dashboard.renderer.model.DashboardData.*;
+
+/**
+ * Describes how the rows of a dashboard data set are rolled up: the id column used as high water mark, the status
+ * telling whether a row can still change, the duration to average and the columns the aggregates are kept by.
+ * Date columns are kept by day.
+ */
+public class DashboardRollupDefinition {
+
+    public static final DashboardRollupDefinition PROCESS_INSTANCES = new DashboardRollupDefinition(DATASET_PROCESS_INSTANCES,
+                                                                                                    COLUMN_PROCESS_INSTANCE_ID,
+                                                                                                    COLUMN_PROCESS_STATUS,
+                                                                                                    COLUMN_PROCESS_DURATION,
+                                                                                                    Arrays.asList(COLUMN_PROCESS_ID,
+                                                                                                                  COLUMN_PROCESS_NAME,
+                                                                                                                  COLUMN_PROCESS_VERSION,
+                                                                                                                  COLUMN_PROCESS_USER_ID,
+                                                                                                                  COLUMN_PROCESS_EXTERNAL_ID,
+                                                                                                                  COLUMN_PROCESS_STATUS),
+                                                                                                    Arrays.asList(COLUMN_PROCESS_START_DATE,
+                                                                                                                  COLUMN_PROCESS_END_DATE),
+                                                                                                    // pending, active and suspended
+                                                                                                    Arrays.asList(0,
+                                                                                                                  1,
+                                                                                                                  4));
+
+    public static final DashboardRollupDefinition HUMAN_TASKS = new DashboardRollupDefinition(DATASET_HUMAN_TASKS,
+                                                                                              COLUMN_TASK_ID,
+                                                                                              COLUMN_TASK_STATUS,
+                                                                                              COLUMN_TASK_DURATION,
+                                                                                              Arrays.asList(COLUMN_PROCESS_NAME,
+                                                                                                            COLUMN_PROCESS_EXTERNAL_ID,
+                                                                                                            COLUMN_TASK_NAME,
+                                                                                                            COLUMN_TASK_OWNER_ID,
+                                                                                                            COLUMN_TASK_STATUS),
+                                                                                              Arrays.asList(COLUMN_TASK_CREATED_DATE,
+                                                                                                            COLUMN_TASK_START_DATE,
+                                                                                                            COLUMN_TASK_END_DATE),
+                                                                                              Arrays.asList(TASK_STATUS_CREATED,
+                                                                                                            TASK_STATUS_READY,
+                                                                                                            TASK_STATUS_RESERVED,
+                                                                                                            TASK_STATUS_IN_PROGRESS,
+                                                                                                            TASK_STATUS_SUSPENDED));
+
+    private final String dataSetUUID;
+    private final String idColumn;
+    private final String statusColumn;
+    private final String durationColumn;
+    private final List<String> dimensionColumns;
+    private final List<String> dateColumns;
+    private final List<String> keyColumns;
+    private final Set<String> openStatuses = new HashSet<>();
+
+    public DashboardRollupDefinition(final String dataSetUUID,
+                                     final String idColumn,
+                                     final String statusColumn,
+                                     final String durationColumn,
+                                     final List<String> dimensionColumns,
+                                     final List<String> dateColumns,
+                                     final List<?> openStatuses) {
+        this.dataSetUUID = dataSetUUID;
+        this.idColumn = idColumn;
+        this.statusColumn = statusColumn;
+        this.durationColumn = durationColumn;
+        this.dimensionColumns = Collections.unmodifiableList(dimensionColumns);
+        this.dateColumns = Collections.unmodifiableList(dateColumns);
+        final List<String> keyColumns = new ArrayList<>(dimensionColumns);
+        keyColumns.addAll(dateColumns);
+        this.keyColumns = Collections.unmodifiableList(keyColumns);
+        for (Object status : openStatuses) {
+            this.openStatuses.add(DashboardRollup.canonical(status));
+        }
+    }
+
+    public static DashboardRollupDefinition forDataSet(final String dataSetUUID) {
+        if (PROCESS_INSTANCES.getDataSetUUID().equals(dataSetUUID)) {
+            return PROCESS_INSTANCES;
+        } else if (HUMAN_TASKS.getDataSetUUID().equals(dataSetUUID)) {
+            return HUMAN_TASKS;
+        }
+        return null;
+    }
+
+    public String getDataSetUUID() {
+        return dataSetUUID;
+    }
+
+    public String getIdColumn() {
+        return idColumn;
+    }
+
+    public String getStatusColumn() {
+        return statusColumn;
+    }
+
+    public String getDurationColumn() {
+        return durationColumn;
+    }
+
+    public List<String> getDimensionColumns() {
+        return dimensionColumns;
+    }
+
+    public List<String> getDateColumns() {
+        return dateColumns;
+    }
+
+    /**
+     * Columns the aggregates are kept by, dimensions followed by dates.
+     */
+    public List<String> getKeyColumns() {
+        return keyColumns;
+    }
+
+    public int getKeyIndex(final String column) {
+        return keyColumns.indexOf(column);
+    }
+
+    public boolean isDateColumn(final String column) {
+        return dateColumns.contains(column);
+    }
+
+    /**
+     * Rows in an open status can still change and are read again on every refresh.
+     */
+    public boolean isOpen(final Object status) {
+        return status != null && openStatuses.contains(DashboardRollup.canonical(status));
+    }
+}
@@ -0,0 +1,576 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jbpm.dashboard.renderer.backend;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Predicate;
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Observes;
+import javax.inject.Inject;
+
+import org.dashbuilder.dataset.ColumnType;
+import org.dashbuilder.dataset.DataSet;
+import org.dashbuilder.dataset.DataSetFactory;
+import org.dashbuilder.dataset.DataSetLookup;
+import org.dashbuilder.dataset.DataSetOp;
+import org.dashbuilder.dataset.def.DataColumnDef;
+import org.dashbuilder.dataset.def.DataSetDef;
+import org.dashbuilder.dataset.events.DataSetDefModifiedEvent;
+import org.dashbuilder.dataset.events.DataSetDefRemovedEvent;
+import org.dashbuilder.dataset.filter.ColumnFilter;
+import org.dashbuilder.dataset.filter.CoreFunctionFilter;
+import org.dashbuilder.dataset.filter.CoreFunctionType;
+import org.dashbuilder.dataset.filter.DataSetFilter;
+import org.dashbuilder.dataset.filter.FilterFactory;
+import org.dashbuilder.dataset.group.ColumnGroup;
+import org.dashbuilder.dataset.group.DataSetGroup;
+import org.dashbuilder.dataset.group.GroupFunction;
+import org.dashbuilder.dataset.group.Interval;
+import org.jbpm.dashboard.renderer.backend.DashboardRollup.Cell;
+import org.jbpm.workbench.ks.integration.AbstractKieServerService;
+import org.jbpm.workbench.ks.integration.ConsoleDataSetLookup;
+import org.jbpm.workbench.ks.utils.KieServerUtils;
+import org.kie.server.api.model.definition.QueryFilterSpec;
+import org.kie.server.api.model.definition.QueryParam;
+import org.kie.server.client.QueryServicesClient;
+import org.kie.server.controller.api.model.events.ServerTemplateDeleted;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.uberfire.commons.concurrent.Managed;
+
+/**
+ * Answers the count, average and sum lookups of the process and task dashboards from {@link DashboardRollup}s kept
+ * per server template, instead of aggregating the audit tables on KIE Server for every lookup. Rollups are refreshed
+ * incrementally before being used: rows above the id high water mark are added and open rows are read again.
+ * Rollups are built, refreshed and rebuilt in the background, lookups aggregate the rollup as last refreshed. Until
+ * a rollup is built, or when it grows past the cell limit, its lookups are left to KIE Server.
+ * Lookups the rollups cannot answer (raw rows, sorting, date groups or unsupported filters) are left to the
+ * KIE Server data set provider.
+ */
+@ApplicationScoped
+public class DashboardRollupService extends AbstractKieServerService {
+
+    public static final String ROLLUP_ENABLED = "org.jbpm.wb.dashboard.rollup.enabled";
+    public static final String ROLLUP_REFRESH_INTERVAL = "org.jbpm.wb.dashboard.rollup.refreshInterval";
+    public static final String ROLLUP_REBUILD_INTERVAL = "org.jbpm.wb.dashboard.rollup.rebuildInterval";
+    public static final String ROLLUP_MAX_CELLS = "org.jbpm.wb.dashboard.rollup.maxCells";
+
+    protected static final int PAGE_SIZE = 5000;
+    protected static final int IDS_PER_QUERY = 500;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(DashboardRollupService.class);
+
+    private final ConcurrentMap<String, DashboardRollup> rollups = new ConcurrentHashMap<>();
+
+    // running builds and refreshes, at most one per rollup, a build only stores its rollup if it is still registered
+    // once done
+    private final ConcurrentMap<String, Object> tasks = new ConcurrentHashMap<>();
+
+    // rollups that grew past the cell limit, by the time they were dropped, not built again before the rebuild interval
+    private final ConcurrentMap<String, Long> tooLarge = new ConcurrentHashMap<>();
+
+    @Inject
+    @Managed
+    protected ExecutorService executorService;
+
+    protected boolean enabled = Boolean.parseBoolean(System.getProperty(ROLLUP_ENABLED,
+                                                                        "true"));
+
+    protected long refreshInterval = Long.getLong(ROLLUP_REFRESH_INTERVAL,
+                                                  30000L);
+
+    // rebuilt from scratch from time to time to drop rows removed from the audit log
+    protected long rebuildInterval = Long.getLong(ROLLUP_REBUILD_INTERVAL,
+                                                  3600000L);
+
+    // the cell key covers every key column and day buckets, so the number of cells may come close to the number of rows
+    protected int maxCells = Integer.getInteger(ROLLUP_MAX_CELLS,
+                                                100000);
+
+    // closed rows this close to the high water mark are read again, rows are not always committed in id order
+    protected long lookback = 100;
+
+    /**
+     * @return the data set answered from the rollups, or null when the lookup can't be served from them
+     */
+    public DataSet lookupDataSet(final DataSetDef def,
+                                 final DataSetLookup lookup) {
+        if (!enabled || !(lookup instanceof ConsoleDataSetLookup) || def.getColumns() == null) {
+            return null;
+        }
+        final DashboardRollupDefinition definition = DashboardRollupDefinition.forDataSet(def.getUUID());
+        if (definition == null) {
+            return null;
+        }
+        final ConsoleDataSetLookup consoleLookup = (ConsoleDataSetLookup) lookup;
+        final String serverTemplateId = consoleLookup.getServerTemplateId();
+        if (serverTemplateId == null || serverTemplateId.isEmpty()) {
+            return null;
+        }
+        final RollupQuery query = toRollupQuery(definition,
+                                                consoleLookup);
+        if (query == null) {
+            return null;
+        }
+
+        final DashboardRollup rollup = getRollup(serverTemplateId,
+                                                 def,
+                                                 definition);
+        if (rollup == null) {
+            // not built yet or too large
+            return null;
+        }
+        final Map<Object, Cell> groups;
+        synchronized (rollup) {
+            groups = rollup.aggregate(query.filter,
+                                      query.groupColumn == null ? -1 : definition.getKeyIndex(query.groupColumn));
+        }
+        return buildDataSet(def,
+                            definition,
+                            query,
+                            groups);
+    }
+
+    /**
+     * Schedules a build when the rollup doesn't exist or is due for a rebuild, and a refresh when it is stale.
+     * @return the rollup of the data set on the server template, or null while it is being built for the first time
+     * or when it is too large
+     */
+    protected DashboardRollup getRollup(final String serverTemplateId,
+                                        final DataSetDef def,
+                                        final DashboardRollupDefinition definition) {
+        final String key = serverTemplateId + "|" + def.getUUID();
+        final long now = System.currentTimeMillis();
+        final Long droppedAt = tooLarge.get(key);
+        if (droppedAt != null) {
+            if (now - droppedAt < rebuildInterval) {
+                return null;
+            }
+            tooLarge.remove(key,
+                            droppedAt);
+        }
+        final DashboardRollup rollup = rollups.get(key);
+        if (rollup == null || now - rollup.getCreatedAt() >= rebuildInterval) {
+            // the current rollup, if any, keeps answering lookups until its replacement is built
+            schedule(key,
+                     serverTemplateId,
+                     def,
+                     definition,
+                     null);
+        } else if (now - rollup.getLastRefresh() >= refreshInterval) {
+            schedule(key,
+                     serverTemplateId,
+                     def,
+                     definition,
+                     rollup);
+        }
+        return rollups.get(key);
+    }
+
+    /**
+     * Builds the rollup from scratch, or refreshes the current one, on the managed executor with the credentials of
+     * the current user, unless a build or refresh of the same rollup is already running.
+     * @param current rollup to refresh, null to build a new one
+     */
+    protected void schedule(final String key,
+                            final String serverTemplateId,
+                            final DataSetDef def,
+                            final DashboardRollupDefinition definition,
+                            final DashboardRollup current) {
+        final Object task = new Object();
+        if (tasks.putIfAbsent(key,
+                              task) != null) {
+            return;
+        }
+        try {
+            executorService.submit(KieServerUtils.withCurrentCredentials(() -> {
+                final DashboardRollup rollup = current == null ? newRollup(def,
+                                                                           definition) : current;
+                try {
+                    refresh(serverTemplateId,
+                            definition,
+                            rollup);
+                    // dropped when the data set or the server template went away during the build
+                    if (tasks.remove(key,
+                                     task) && current == null) {
+                        rollups.put(key,
+                                    rollup);
+                    }
+                } catch (Exception e) {
+                    if (isTooLarge(rollup)) {
+                        LOGGER.warn("Rollup of data set {} on server template {} exceeds {} cells ({}), using the raw query",
+                                    def.getUUID(),
+                                    serverTemplateId,
+                                    maxCells,
+                                    ROLLUP_MAX_CELLS);
+                        tooLarge.put(key,
+                                     System.currentTimeMillis());
+                        rollups.remove(key);
+                    } else {
+                        LOGGER.warn("Unable to {} rollup of data set {} on server template {}: {}",
+                                    current == null ? "build" : "refresh",
+                                    def.getUUID(),
+                                    serverTemplateId,
+                                    e.getMessage());
+                        LOGGER.debug("Rollup refresh failure",
+                                     e);
+                    }
+                } finally {
+                    tasks.remove(key,
+                                 task);
+                }
+                return null;
+            }));
+        } catch (RejectedExecutionException e) {
+            tasks.remove(key,
+                         task);
+            LOGGER.debug("Rollup refresh of data set {} on server template {} rejected",
+                         def.getUUID(),
+                         serverTemplateId);
+        }
+    }
+
+    protected boolean isTooLarge(final DashboardRollup rollup) {
+        synchronized (rollup) {
+            return rollup.getCellCount() > maxCells;
+        }
+    }
+
+    protected DashboardRollup newRollup(final DataSetDef def,
+                                        final DashboardRollupDefinition definition) {
+        final List<String> columns = new ArrayList<>(def.getColumns().size());
+        for (DataColumnDef column : def.getColumns()) {
+            columns.add(column.getId());
+        }
+        return new DashboardRollup(definition,
+                                   columns);
+    }
+
+    /**
+     * Reads again the rows that were open at the last refresh, then the rows above the high water mark, in id order.
+     * KIE Server is queried without holding the lock of the rollup, which is only held to apply the rows read, so
+     * that lookups keep aggregating the rollup meanwhile. Callers make sure a single refresh of a rollup runs at once.
+     * @throws IllegalStateException when the rollup grows past the cell limit
+     */
+    protected void refresh(final String serverTemplateId,
+                           final DashboardRollupDefinition definition,
+                           final DashboardRollup rollup) {
+        final String idColumn = definition.getIdColumn();
+        final List<Long> openIds;
+        synchronized (rollup) {
+            openIds = rollup.getOpenIds();
+        }
+        for (int i = 0; i < openIds.size(); i += IDS_PER_QUERY) {
+            final List<Long> ids = openIds.subList(i,
+                                                   Math.min(i + IDS_PER_QUERY,
+                                                            openIds.size()));
+            final List<List> rows = queryRows(serverTemplateId,
+                                              definition.getDataSetUUID(),
+                                              new QueryParam(idColumn,
+                                                             CoreFunctionType.EQUALS_TO.toString(),
+                                                             new ArrayList<>(ids)),
+                                              ids.size());
+            synchronized (rollup) {
+                final Set<Long> found = new HashSet<>();
+                for (List row : rows) {
+                    rollup.update(row);
+                    found.add(DashboardRollup.toLong(row.get(rollup.getIdIndex())));
+                }
+                for (Long id : ids) {
+                    if (!found.contains(id)) {
+                        rollup.remove(id);
+                    }
+                }
+            }
+        }
+
+        int read = 0;
+        List<List> rows;
+        Long highWaterMark;
+        synchronized (rollup) {
+            highWaterMark = rollup.getHighWaterMark();
+        }
+        do {
+            final QueryParam since = highWaterMark == null ? null : new QueryParam(idColumn,
+                                                                                   CoreFunctionType.GREATER_THAN.toString(),
+                                                                                   Collections.singletonList(Math.max(highWaterMark - lookback,
+                                                                                                                      0L)));
+            rows = queryRows(serverTemplateId,
+                             definition.getDataSetUUID(),
+                             since,
+                             PAGE_SIZE);
+            final Long previousHighWaterMark = highWaterMark;
+            synchronized (rollup) {
+                rows.forEach(rollup::update);
+                highWaterMark = rollup.getHighWaterMark();
+                if (rollup.getCellCount() > maxCells) {
+                    throw new IllegalStateException("Rollup of data set " + definition.getDataSetUUID() + " exceeds " + maxCells + " cells");
+                }
+            }
+            read += rows.size();
+            if (previousHighWaterMark != null && previousHighWaterMark.equals(highWaterMark)) {
+                // only rows already known were returned
+                break;
+            }
+        } while (rows.size() == PAGE_SIZE);
+        synchronized (rollup) {
+            rollup.pruneRecentIds(lookback);
+            rollup.setLastRefresh(System.currentTimeMillis());
+            LOGGER.debug("Refreshed rollup of data set {} on server template {}: {} row(s) read, {} open, {} cell(s)",
+                         definition.getDataSetUUID(),
+                         serverTemplateId,
+                         read + openIds.size(),
+                         rollup.getOpenIds().size(),
+                         rollup.getCellCount());
+        }
+    }
+
+    protected List<List> queryRows(final String serverTemplateId,
+                                   final String dataSetUUID,
+                                   final QueryParam filter,
+                                   final int pageSize) {
+        final QueryServicesClient queryClient = getClient(serverTemplateId,
+                                                          QueryServicesClient.class);
+        final DashboardRollupDefinition definition = DashboardRollupDefinition.forDataSet(dataSetUUID);
+        final QueryFilterSpec filterSpec = new QueryFilterSpec();
+        filterSpec.setOrderBy(definition.getIdColumn());
+        filterSpec.setAscending(true);
+        if (filter != null) {
+            filterSpec.setParameters(new QueryParam[]{filter});
+        }
+        return queryClient.query(dataSetUUID,
+                                 QueryServicesClient.QUERY_MAP_RAW,
+                                 filterSpec,
+                                 0,
+                                 pageSize,
+                                 List.class);
+    }
+
+    /**
+     * Translates the lookup into a filter on the rollup cells, a group column and the functions to compute.
+     * @return null when the lookup can't be answered from the rollup
+     */
+    protected RollupQuery toRollupQuery(final DashboardRollupDefinition definition,
+                                        final ConsoleDataSetLookup lookup) {
+        if (lookup.isPivot() || lookup.hasVariables() || lookup.hasSeekValues()) {
+            return null;
+        }
+        final RollupQuery query = new RollupQuery();
+        DataSetGroup aggregation = null;
+        for (DataSetOp op : lookup.getOperationList()) {
+            if (op instanceof DataSetFilter) {
+                for (ColumnFilter columnFilter : ((DataSetFilter) op).getColumnFilterList()) {
+                    if (!addFilter(definition,
+                                   query,
+                                   columnFilter)) {
+                        return null;
+                    }
+                }
+            } else if (op instanceof DataSetGroup && ((DataSetGroup) op).isSelect()) {
+                // intervals selected on another displayer of the dashboard
+                if (!addSelection(definition,
+                                  query,
+                                  (DataSetGroup) op)) {
+                    return null;
+                }
+            } else if (op instanceof DataSetGroup && aggregation == null) {
+                aggregation = (DataSetGroup) op;
+            } else {
+                return null;
+            }
+        }
+        if (aggregation == null || aggregation.getGroupFunctions().isEmpty()) {
+            return null;
+        }
+
+        final ColumnGroup columnGroup = aggregation.getColumnGroup();
+        if (columnGroup != null) {
+            if (!definition.getDimensionColumns().contains(columnGroup.getSourceId())) {
+                return null;
+            }
+            query.groupColumn = columnGroup.getSourceId();
+        }
+        for (GroupFunction function : aggregation.getGroupFunctions()) {
+            if (function.getFunction() == null) {
+                if (query.groupColumn == null || !query.groupColumn.equals(function.getSourceId())) {
+                    return null;
+                }
+            } else {
+                switch (function.getFunction()) {
+                    case COUNT:
+                        if (!definition.getIdColumn().equals(function.getSourceId()) && !definition.getDurationColumn().equals(function.getSourceId())) {
+                            return null;
+                        }
+                        break;
+                    case AVERAGE:
+                    case SUM:
+                        if (!definition.getDurationColumn().equals(function.getSourceId())) {
+                            return null;
+                        }
+                        break;
+                    default:
+                        return null;
+                }
+            }
+            query.functions.add(function);
+        }
+        return query;
+    }
+
+    protected boolean addFilter(final DashboardRollupDefinition definition,
+                                final RollupQuery query,
+                                final ColumnFilter columnFilter) {
+        if (!(columnFilter instanceof CoreFunctionFilter)) {
+            return false;
+        }
+        final CoreFunctionFilter filter = (CoreFunctionFilter) columnFilter;
+        final String column = filter.getColumnId();
+        final CoreFunctionType type = filter.getType();
+        if (definition.getIdColumn().equals(column)) {
+            return type == CoreFunctionType.NOT_NULL;
+        }
+        if (definition.getDurationColumn().equals(column)) {
+            if (type == CoreFunctionType.NOT_NULL) {
+                query.withDuration = true;
+                return true;
+            }
+            return false;
+        }
+        final int index = definition.getKeyIndex(column);
+        if (index < 0) {
+            return false;
+        }
+        switch (type) {
+            case NOT_NULL:
+                query.and(key -> key.get(index) != null);
+                return true;
+            case IS_NULL:
+                query.and(key -> key.get(index) == null);
+                return true;
+            case EQUALS_TO:
+            case NOT_EQUALS_TO:
+                if (definition.isDateColumn(column)) {
+                    return false;
+                }
+                final Set<String> values = new HashSet<>();
+                for (Object parameter : filter.getParameters()) {
+                    values.add(DashboardRollup.canonical(parameter));
+                }
+                final boolean equals = type == CoreFunctionType.EQUALS_TO;
+                query.and(key -> key.get(index) != null && values.contains(DashboardRollup.canonical(key.get(index))) == equals);
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    protected boolean addSelection(final DashboardRollupDefinition definition,
+                                   final RollupQuery query,
+                                   final DataSetGroup selection) {
+        final ColumnGroup columnGroup = selection.getColumnGroup();
+        if (columnGroup == null || !definition.getDimensionColumns().contains(columnGroup.getSourceId()) || selection.getSelectedIntervalList() == null) {
+            return false;
+        }
+        final List<Comparable> names = new ArrayList<>();
+        for (Interval interval : selection.getSelectedIntervalList()) {
+            if (interval.getMinValue() != null || interval.getMaxValue() != null) {
+                return false;
+            }
+            names.add(interval.getName());
+        }
+        return addFilter(definition,
+                         query,
+                         FilterFactory.equalsTo(columnGroup.getSourceId(),
+                                                names));
+    }
+
+    protected DataSet buildDataSet(final DataSetDef def,
+                                   final DashboardRollupDefinition definition,
+                                   final RollupQuery query,
+                                   final Map<Object, Cell> groups) {
+        final DataSet dataSet = DataSetFactory.newEmptyDataSet();
+        dataSet.setUUID(def.getUUID());
+        dataSet.setDefinition(def);
+        for (GroupFunction function : query.functions) {
+            final List<Object> values = new ArrayList<>(groups.size());
+            for (Map.Entry<Object, Cell> group : groups.entrySet()) {
+                final Cell cell = group.getValue();
+                if (function.getFunction() == null) {
+                    values.add(group.getKey());
+                } else {
+                    switch (function.getFunction()) {
+                        case COUNT:
+                            values.add(query.withDuration || definition.getDurationColumn().equals(function.getSourceId()) ? cell.getDurationCount() : cell.getCount());
+                            break;
+                        case AVERAGE:
+                            values.add(cell.getDurationAverage());
+                            break;
+                        default:
+                            values.add(cell.getDurationSum());
+                    }
+                }
+            }
+            dataSet.addColumn(function.getSourceId(),
+                              function.getFunction() == null ? def.getColumnById(function.getSourceId()).getColumnType() : ColumnType.NUMBER,
+                              values);
+        }
+        dataSet.setRowCountNonTrimmed(groups.size());
+        return dataSet;
+    }
+
+    public void onServerTemplateDeleted(@Observes ServerTemplateDeleted event) {
+        rollups.keySet().removeIf(key -> key.startsWith(event.getServerTemplateId() + "|"));
+        tasks.keySet().removeIf(key -> key.startsWith(event.getServerTemplateId() + "|"));
+        tooLarge.keySet().removeIf(key -> key.startsWith(event.getServerTemplateId() + "|"));
+    }
+
+    public void onDataSetDefModifiedEvent(@Observes DataSetDefModifiedEvent event) {
+        invalidate(event.getOldDataSetDef().getUUID());
+        invalidate(event.getNewDataSetDef().getUUID());
+    }
+
+    public void onDataSetDefRemovedEvent(@Observes DataSetDefRemovedEvent event) {
+        invalidate(event.getDataSetDef().getUUID());
+    }
+
+    protected void invalidate(final String dataSetUUID) {
+        rollups.keySet().removeIf(key -> key.endsWith("|" + dataSetUUID));
+        tasks.keySet().removeIf(key -> key.endsWith("|" + dataSetUUID));
+        tooLarge.keySet().removeIf(key -> key.endsWith("|" + dataSetUUID));
+    }
+
+    protected static class RollupQuery {
+
+        private Predicate<List<Object>> filter = key -> true;
+        private String groupColumn;
+        private boolean withDuration;
+        private final List<GroupFunction> functions = new ArrayList<>();
+
+        private void and(final Predicate<List<Object>> predicate) {
+            filter = filter.and(predicate);
+        }
+    }
+}
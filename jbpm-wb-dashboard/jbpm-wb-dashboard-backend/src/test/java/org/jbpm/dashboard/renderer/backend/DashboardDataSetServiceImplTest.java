@@ -0,0 +1,185 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jbpm.dashboard.renderer.backend;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+import org.dashbuilder.dataset.DataSet;
+import org.dashbuilder.dataset.DataSetLookup;
+import org.dashbuilder.dataset.def.DataSetDefRegistry;
+import org.jbpm.dashboard.renderer.model.DataSetLookupResult;
+import org.jbpm.workbench.ks.integration.ConsoleDataSetLookup;
+import org.jbpm.workbench.ks.integration.KieServerDataSetProvider;
+import org.jbpm.workbench.ks.integration.KieServerExecutor;
+import org.jbpm.workbench.ks.integration.RemoteDataSetDef;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import static org.jbpm.dashboard.renderer.model.DashboardData.DATASET_HUMAN_TASKS;
+import static org.jbpm.dashboard.renderer.model.DashboardData.DATASET_PROCESS_INSTANCES;
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+@RunWith(MockitoJUnitRunner.class)
+public class DashboardDataSetServiceImplTest {
+
+    @Mock
+    DataSetDefRegistry dataSetDefRegistry;
+
+    @Mock
+    KieServerDataSetProvider dataSetProvider;
+
+    @Mock
+    DashboardRollupService rollupService;
+
+    @Mock
+    RemoteDataSetDef processesDef;
+
+    @Mock
+    RemoteDataSetDef tasksDef;
+
+    @Mock
+    DataSet processesDataSet;
+
+    @Mock
+    DataSet tasksDataSet;
+
+    ExecutorService executorService;
+
+    DashboardDataSetServiceImpl service;
+
+    @Before
+    public void setUp() {
+        when(dataSetDefRegistry.getDataSetDef(DATASET_PROCESS_INSTANCES)).thenReturn(processesDef);
+        when(dataSetDefRegistry.getDataSetDef(DATASET_HUMAN_TASKS)).thenReturn(tasksDef);
+        executorService = Executors.newCachedThreadPool();
+        service = new DashboardDataSetServiceImpl(dataSetDefRegistry,
+                                                  dataSetProvider,
+                                                  rollupService,
+                                                  new KieServerExecutor(executorService,
+                                                                        6));
+    }
+
+    @After
+    public void tearDown() {
+        executorService.shutdownNow();
+    }
+
+    @Test
+    public void testIdenticalLookupsExecutedOnce() throws Exception {
+        final DataSetLookup processes = createLookup(DATASET_PROCESS_INSTANCES);
+        final DataSetLookup tasks = createLookup(DATASET_HUMAN_TASKS);
+        when(dataSetProvider.lookupDataSet(processesDef,
+                                           processes)).thenReturn(processesDataSet);
+        when(dataSetProvider.lookupDataSet(tasksDef,
+                                           tasks)).thenReturn(tasksDataSet);
+
+        final List<DataSetLookupResult> results = service.lookupDataSets(Arrays.asList(processes,
+                                                                                       tasks,
+                                                                                       createLookup(DATASET_PROCESS_INSTANCES)));
+
+        assertEquals(Arrays.asList(processesDataSet,
+                                   tasksDataSet,
+                                   processesDataSet),
+                     getDataSets(results));
+        verify(dataSetProvider).lookupDataSet(processesDef,
+                                              processes);
+        verify(dataSetProvider).lookupDataSet(tasksDef,
+                                              tasks);
+        verifyNoMoreInteractions(dataSetProvider);
+    }
+
+    @Test
+    public void testLookupFailureOnlyAffectsItsLookup() throws Exception {
+        final DataSetLookup processes = createLookup(DATASET_PROCESS_INSTANCES);
+        final DataSetLookup tasks = createLookup(DATASET_HUMAN_TASKS);
+        when(dataSetProvider.lookupDataSet(processesDef,
+                                           processes)).thenReturn(processesDataSet);
+        when(dataSetProvider.lookupDataSet(tasksDef,
+                                           tasks)).thenThrow(new IllegalStateException("KIE Server unavailable"));
+
+        final List<DataSetLookupResult> results = service.lookupDataSets(Arrays.asList(processes,
+                                                                                       tasks));
+
+        assertEquals(2,
+                     results.size());
+        assertTrue(results.get(0).isSuccess());
+        assertEquals(processesDataSet,
+                     results.get(0).getDataSet());
+        assertFalse(results.get(1).isSuccess());
+        assertNull(results.get(1).getDataSet());
+        assertEquals("KIE Server unavailable",
+                     results.get(1).getErrorMessage());
+    }
+
+    @Test
+    public void testRolledUpLookupSkipsProvider() throws Exception {
+        final DataSetLookup processes = createLookup(DATASET_PROCESS_INSTANCES);
+        when(rollupService.lookupDataSet(processesDef,
+                                         processes)).thenReturn(processesDataSet);
+
+        final List<DataSetLookupResult> results = service.lookupDataSets(Arrays.asList(processes));
+
+        assertEquals(Arrays.asList(processesDataSet),
+                     getDataSets(results));
+        verify(dataSetProvider,
+               never()).lookupDataSet(any(),
+                                      any());
+    }
+
+    @Test
+    public void testUnknownDataSet() {
+        final List<DataSetLookupResult> results = service.lookupDataSets(Arrays.asList(createLookup("unknown")));
+
+        assertEquals(1,
+                     results.size());
+        assertFalse(results.get(0).isSuccess());
+    }
+
+    @Test
+    public void testUnknownDataSetInBatch() throws Exception {
+        final DataSetLookup processes = createLookup(DATASET_PROCESS_INSTANCES);
+        when(dataSetProvider.lookupDataSet(processesDef,
+                                           processes)).thenReturn(processesDataSet);
+
+        final List<DataSetLookupResult> results = service.lookupDataSets(Arrays.asList(createLookup("unknown"),
+                                                                                       processes));
+
+        assertFalse(results.get(0).isSuccess());
+        assertEquals(processesDataSet,
+                     results.get(1).getDataSet());
+    }
+
+    private List<DataSet> getDataSets(final List<DataSetLookupResult> results) {
+        return results.stream().map(DataSetLookupResult::getDataSet).collect(Collectors.toList());
+    }
+
+    private DataSetLookup createLookup(final String dataSetUUID) {
+        final ConsoleDataSetLookup lookup = new ConsoleDataSetLookup();
+        lookup.setDataSetUUID(dataSetUUID);
+        lookup.setServerTemplateId("serverTemplateId");
+        return lookup;
+    }
+}
@@ -0,0 +1,372 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jbpm.dashboard.renderer.backend;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+
+import org.dashbuilder.dataset.ColumnType;
+import org.dashbuilder.dataset.DataSet;
+import org.dashbuilder.dataset.DataSetLookup;
+import org.dashbuilder.dataset.DataSetLookupFactory;
+import org.dashbuilder.dataset.def.DataSetDef;
+import org.dashbuilder.dataset.filter.DataSetFilter;
+import org.jbpm.workbench.ks.integration.ConsoleDataSetLookup;
+import org.junit.Before;
+import org.junit.Test;
+import org.kie.server.api.model.definition.QueryParam;
+import org.mockito.ArgumentCaptor;
+
+import static org.dashbuilder.dataset.filter.FilterFactory.equalsTo;
+import static org.dashbuilder.dataset.filter.FilterFactory.notNull;
+import static org.dashbuilder.dataset.group.AggregateFunctionType.AVERAGE;
+import static org.dashbuilder.dataset.group.AggregateFunctionType.COUNT;
+import static org.jbpm.dashboard.renderer.model.DashboardData.*;
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class DashboardRollupServiceTest {
+
+    private static final String SERVER_TEMPLATE_ID = "serverTemplateId";
+
+    private DashboardRollupService service;
+
+    private DataSetDef processesDef;
+
+    private List<List> rows;
+
+    @Before
+    public void setUp() {
+        processesDef = new DataSetDef();
+        processesDef.setUUID(DATASET_PROCESS_INSTANCES);
+        processesDef.addColumn(COLUMN_PROCESS_INSTANCE_ID,
+                               ColumnType.NUMBER);
+        processesDef.addColumn(COLUMN_PROCESS_ID,
+                               ColumnType.LABEL);
+        processesDef.addColumn(COLUMN_PROCESS_START_DATE,
+                               ColumnType.DATE);
+        processesDef.addColumn(COLUMN_PROCESS_END_DATE,
+                               ColumnType.DATE);
+        processesDef.addColumn(COLUMN_PROCESS_STATUS,
+                               ColumnType.NUMBER);
+        processesDef.addColumn(COLUMN_PROCESS_DURATION,
+                               ColumnType.NUMBER);
+        processesDef.addColumn(COLUMN_PROCESS_USER_ID,
+                               ColumnType.LABEL);
+        processesDef.addColumn(COLUMN_PROCESS_VERSION,
+                               ColumnType.LABEL);
+        processesDef.addColumn(COLUMN_PROCESS_NAME,
+                               ColumnType.LABEL);
+        processesDef.addColumn(COLUMN_PROCESS_EXTERNAL_ID,
+                               ColumnType.LABEL);
+
+        rows = new ArrayList<>();
+        rows.add(processInstance(1,
+                                 "A",
+                                 2,
+                                 1000.0));
+        rows.add(processInstance(2,
+                                 "A",
+                                 1,
+                                 null));
+        rows.add(processInstance(3,
+                                 "B",
+                                 2,
+                                 3000.0));
+
+        service = spy(new DashboardRollupService());
+        service.refreshInterval = 0;
+        // rollups are built on the calling thread
+        service.executorService = mock(ExecutorService.class);
+        doAnswer(invocation -> {
+            ((Callable) invocation.getArguments()[0]).call();
+            return null;
+        }).when(service.executorService).submit(any(Callable.class));
+        doAnswer(invocation -> {
+            final QueryParam filter = (QueryParam) invocation.getArguments()[2];
+            final List<List> result = new ArrayList<>();
+            for (List row : rows) {
+                final long id = ((Number) row.get(0)).longValue();
+                if (filter == null
+                        || ("EQUALS_TO".equals(filter.getOperator()) && filter.getValue().contains(id))
+                        || ("GREATER_THAN".equals(filter.getOperator()) && id > ((Number) filter.getValue().get(0)).longValue())) {
+                    result.add(row);
+                }
+            }
+            return result;
+        }).when(service).queryRows(anyString(),
+                                   anyString(),
+                                   any(),
+                                   anyInt());
+    }
+
+    @Test
+    public void testGroupLookupAnsweredFromRollup() {
+        final DataSet dataSet = service.lookupDataSet(processesDef,
+                                                      byProcessName(null));
+
+        assertEquals(2,
+                     dataSet.getRowCount());
+        assertEquals("A",
+                     dataSet.getValueAt(0,
+                                        0));
+        assertEquals(2L,
+                     dataSet.getValueAt(0,
+                                        1));
+        assertEquals(1000.0,
+                     dataSet.getValueAt(0,
+                                        2));
+        assertEquals("B",
+                     dataSet.getValueAt(1,
+                                        0));
+        assertEquals(1L,
+                     dataSet.getValueAt(1,
+                                        1));
+        assertEquals(3000.0,
+                     dataSet.getValueAt(1,
+                                        2));
+    }
+
+    @Test
+    public void testLookupNotServedWhileRollupIsBuilt() {
+        final ExecutorService executorService = mock(ExecutorService.class);
+        service.executorService = executorService;
+
+        assertNull(service.lookupDataSet(processesDef,
+                                         byProcessName(null)));
+        assertNull(service.lookupDataSet(processesDef,
+                                         byProcessName(null)));
+
+        // a single build is started and no query is run on the request thread
+        verify(executorService).submit(any(Callable.class));
+        verify(service,
+               never()).queryRows(anyString(),
+                                  anyString(),
+                                  any(),
+                                  anyInt());
+    }
+
+    @Test
+    public void testBuildDroppedWhenDataSetIsModified() throws Exception {
+        final ExecutorService executorService = mock(ExecutorService.class);
+        service.executorService = executorService;
+        service.lookupDataSet(processesDef,
+                              byProcessName(null));
+        final ArgumentCaptor<Callable> build = ArgumentCaptor.forClass(Callable.class);
+        verify(executorService).submit(build.capture());
+
+        service.invalidate(DATASET_PROCESS_INSTANCES);
+        build.getValue().call();
+
+        assertNull(service.lookupDataSet(processesDef,
+                                         byProcessName(null)));
+        verify(executorService,
+               times(2)).submit(any(Callable.class));
+    }
+
+    @Test
+    public void testRollupRefreshedIncrementally() {
+        service.lookupDataSet(processesDef,
+                              byProcessName(null));
+
+        // the active instance completes and a new one is started and completed
+        rows.set(1,
+                 processInstance(2,
+                                 "A",
+                                 2,
+                                 5000.0));
+        rows.add(processInstance(4,
+                                 "B",
+                                 2,
+                                 2000.0));
+
+        final DataSet dataSet = service.lookupDataSet(processesDef,
+                                                      byProcessName(2));
+
+        assertEquals(2,
+                     dataSet.getRowCount());
+        assertEquals(2L,
+                     dataSet.getValueAt(0,
+                                        1));
+        assertEquals(3000.0,
+                     dataSet.getValueAt(0,
+                                        2));
+        assertEquals(2L,
+                     dataSet.getValueAt(1,
+                                        1));
+        assertEquals(2500.0,
+                     dataSet.getValueAt(1,
+                                        2));
+        // the first refresh reads all rows, the second one the open instance and the rows from the high water mark
+        final ArgumentCaptor<QueryParam> filters = ArgumentCaptor.forClass(QueryParam.class);
+        verify(service,
+               times(3)).queryRows(eq(SERVER_TEMPLATE_ID),
+                                   eq(DATASET_PROCESS_INSTANCES),
+                                   filters.capture(),
+                                   anyInt());
+        assertNull(filters.getAllValues().get(0));
+        assertEquals("EQUALS_TO",
+                     filters.getAllValues().get(1).getOperator());
+        assertEquals(Arrays.asList(2L),
+                     filters.getAllValues().get(1).getValue());
+        assertEquals("GREATER_THAN",
+                     filters.getAllValues().get(2).getOperator());
+    }
+
+    @Test
+    public void testLastRefreshedRollupUsedWhenRefreshFails() {
+        service.lookupDataSet(processesDef,
+                              byProcessName(null));
+        doThrow(new RuntimeException("unavailable")).when(service).queryRows(anyString(),
+                                                                             anyString(),
+                                                                             any(),
+                                                                             anyInt());
+
+        final DataSet dataSet = service.lookupDataSet(processesDef,
+                                                      byProcessName(null));
+
+        assertEquals(2,
+                     dataSet.getRowCount());
+        assertEquals(2L,
+                     dataSet.getValueAt(0,
+                                        1));
+    }
+
+    @Test
+    public void testRollupOverCellLimitNotServed() {
+        service.maxCells = 1;
+
+        assertNull(service.lookupDataSet(processesDef,
+                                         byProcessName(null)));
+        assertNull(service.lookupDataSet(processesDef,
+                                         byProcessName(null)));
+
+        // not built again before the rebuild interval
+        verify(service.executorService).submit(any(Callable.class));
+    }
+
+    @Test
+    public void testMetricCountWithDuration() {
+        final DataSetLookup lookup = DataSetLookupFactory.newDataSetLookupBuilder()
+                .dataset(DATASET_PROCESS_INSTANCES)
+                .filter(notNull(COLUMN_PROCESS_DURATION))
+                .column(COLUMN_PROCESS_INSTANCE_ID,
+                        COUNT,
+                        "Processes")
+                .buildLookup();
+
+        final DataSet dataSet = service.lookupDataSet(processesDef,
+                                                      ConsoleDataSetLookup.fromInstance(lookup,
+                                                                                        SERVER_TEMPLATE_ID));
+
+        assertEquals(1,
+                     dataSet.getRowCount());
+        assertEquals(2L,
+                     dataSet.getValueAt(0,
+                                        0));
+    }
+
+    @Test
+    public void testRawRowsLookupNotServed() {
+        final DataSetLookup lookup = DataSetLookupFactory.newDataSetLookupBuilder()
+                .dataset(DATASET_PROCESS_INSTANCES)
+                .buildLookup();
+
+        assertNull(service.lookupDataSet(processesDef,
+                                         ConsoleDataSetLookup.fromInstance(lookup,
+                                                                           SERVER_TEMPLATE_ID)));
+        verify(service,
+               never()).queryRows(anyString(),
+                                  anyString(),
+                                  any(),
+                                  anyInt());
+    }
+
+    @Test
+    public void testSeekLookupNotServed() {
+        final ConsoleDataSetLookup lookup = (ConsoleDataSetLookup) byProcessName(null);
+        lookup.setSeekValues(Arrays.asList("A"));
+
+        assertNull(service.lookupDataSet(processesDef,
+                                         lookup));
+        verify(service,
+               never()).queryRows(anyString(),
+                                  anyString(),
+                                  any(),
+                                  anyInt());
+    }
+
+    @Test
+    public void testDateGroupLookupNotServed() {
+        final DataSetLookup lookup = DataSetLookupFactory.newDataSetLookupBuilder()
+                .dataset(DATASET_PROCESS_INSTANCES)
+                .group(COLUMN_PROCESS_START_DATE)
+                .column(COLUMN_PROCESS_START_DATE)
+                .column(COLUMN_PROCESS_INSTANCE_ID,
+                        COUNT,
+                        "Processes")
+                .buildLookup();
+
+        assertNull(service.lookupDataSet(processesDef,
+                                         ConsoleDataSetLookup.fromInstance(lookup,
+                                                                           SERVER_TEMPLATE_ID)));
+    }
+
+    private DataSetLookup byProcessName(final Integer status) {
+        final DataSetLookup lookup = DataSetLookupFactory.newDataSetLookupBuilder()
+                .dataset(DATASET_PROCESS_INSTANCES)
+                .group(COLUMN_PROCESS_NAME)
+                .column(COLUMN_PROCESS_NAME)
+                .column(COLUMN_PROCESS_INSTANCE_ID,
+                        COUNT,
+                        "Processes")
+                .column(COLUMN_PROCESS_DURATION,
+                        AVERAGE,
+                        COLUMN_PROCESS_DURATION)
+                .buildLookup();
+        if (status != null) {
+            final DataSetFilter filter = new DataSetFilter();
+            filter.addFilterColumn(equalsTo(COLUMN_PROCESS_STATUS,
+                                            status));
+            lookup.addOperation(0,
+                                filter);
+        }
+        return ConsoleDataSetLookup.fromInstance(lookup,
+                                                 SERVER_TEMPLATE_ID);
+    }
+
+    private List<Object> processInstance(final long id,
+                                         final String processName,
+                                         final int status,
+                                         final Double duration) {
+        final long now = new Date().getTime();
+        return Arrays.asList(id,
+                             "process",
+                             now,
+                             duration == null ? null : now,
+                             status,
+                             duration,
+                             "user",
+                             "1",
+                             processName,
+                             "deployment");
+    }
+}
@@ -27,6 +27,7 @@ import org.dashbuilder.dataset.DataSetLookup;
 import org.dashbuilder.dataset.client.DataSetClientServices;
 import org.dashbuilder.displayer.DisplayerSettings;
 import org.dashbuilder.displayer.client.AbstractDisplayer;
+import org.dashbuilder.displayer.client.DataSetHandler;
 import org.dashbuilder.displayer.client.DataSetHandlerImpl;
 import org.dashbuilder.displayer.client.DisplayerCoordinator;
 import org.dashbuilder.displayer.client.DisplayerLocator;
@@ -36,6 +37,8 @@ import org.jbpm.workbench.common.client.PerspectiveIds;
 import org.jbpm.workbench.common.client.menu.PrimaryActionMenuBuilder;
 import org.jbpm.workbench.ks.integration.ConsoleDataSetLookup;
 import org.jbpm.workbench.common.client.menu.ServerTemplateSelectorMenuBuilder;
+import org.jbpm.dashboard.renderer.client.panel.dataset.BatchedDataSetHandler;
+import org.jbpm.dashboard.renderer.client.panel.dataset.DataSetLookupBatcher;
 import org.jbpm.dashboard.renderer.client.panel.formatter.DurationFormatter;
 import org.jbpm.dashboard.renderer.client.panel.i18n.DashboardI18n;
 import org.jbpm.dashboard.renderer.client.panel.widgets.ProcessBreadCrumb;
@@ -65,6 +68,8 @@ public abstract class AbstractDashboard {
 
     protected ServerTemplateSelectorMenuBuilder serverTemplateSelectorMenuBuilder;
 
+    protected DataSetLookupBatcher dataSetLookupBatcher;
+
     UberfireBreadcrumbs breadcrumbs;
 
     protected Event<NotificationEvent> notificationEvent;
@@ -78,6 +83,11 @@ public abstract class AbstractDashboard {
         this.notificationEvent = notificationEvent;
     }
 
+    @Inject
+    public void setDataSetLookupBatcher(final DataSetLookupBatcher dataSetLookupBatcher) {
+        this.dataSetLookupBatcher = dataSetLookupBatcher;
+    }
+
     public String getPerspectiveId() {
         return perspectiveManager.getCurrentPerspective().getIdentifier();
     }
@@ -206,11 +216,23 @@ public abstract class AbstractDashboard {
                      settings);
         MetricDisplayer metricDisplayer = (MetricDisplayer) displayerLocator.lookupDisplayer(settings);
         metricDisplayer.setDisplayerSettings(settings);
-        metricDisplayer.setDataSetHandler(new DataSetHandlerImpl(dataSetClientServices,
-                                                                 getDataSetLookup(settings)));
+        metricDisplayer.setDataSetHandler(createDataSetHandler(settings));
         return metricDisplayer;
     }
 
+    /**
+     * Lookups of all the displayers are sent to the server in a single request when a batcher is available.
+     */
+    protected DataSetHandler createDataSetHandler(final DisplayerSettings settings) {
+        if (dataSetLookupBatcher == null) {
+            return new DataSetHandlerImpl(dataSetClientServices,
+                                          getDataSetLookup(settings));
+        }
+        return new BatchedDataSetHandler(dataSetClientServices,
+                                         getDataSetLookup(settings),
+                                         dataSetLookupBatcher);
+    }
+
     private DataSetLookup getDataSetLookup(final DisplayerSettings settings) {
         return ConsoleDataSetLookup.fromInstance(settings.getDataSetLookup(),
                                                  serverTemplateSelectorMenuBuilder.getSelectedServerTemplate());
@@ -223,8 +245,7 @@ public abstract class AbstractDashboard {
                      settings);
         final TableDisplayer tableDisplayer = (TableDisplayer) displayerLocator.lookupDisplayer(settings);
         tableDisplayer.setDisplayerSettings(settings);
-        tableDisplayer.setDataSetHandler(new DataSetHandlerImpl(dataSetClientServices,
-                                                                getDataSetLookup(settings)));
+        tableDisplayer.setDataSetHandler(createDataSetHandler(settings));
         tableDisplayer.addFormatter(columnId,
                                     durationFormatter);
         tableDisplayer.addOnCellSelectedCommand(new Command() {
@@ -290,8 +311,7 @@ public abstract class AbstractDashboard {
         checkNotNull("displayerSettings",
                      settings);
         AbstractDisplayer displayer = (AbstractDisplayer) displayerLocator.lookupDisplayer(settings);
-        displayer.setDataSetHandler(new DataSetHandlerImpl(dataSetClientServices,
-                                                           getDataSetLookup(settings)));
+        displayer.setDataSetHandler(createDataSetHandler(settings));
         return displayer;
     }
 
@@ -0,0 +1,63 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jbpm.dashboard.renderer.client.panel.dataset;
+
+import org.dashbuilder.common.client.error.ClientRuntimeError;
+import org.dashbuilder.dataset.DataSet;
+import org.dashbuilder.dataset.DataSetLookup;
+import org.dashbuilder.dataset.client.DataSetClientServices;
+import org.dashbuilder.dataset.client.DataSetReadyCallback;
+import org.dashbuilder.displayer.client.DataSetHandlerImpl;
+
+/**
+ * Data set handler sending its lookups through a {@link DataSetLookupBatcher}, so that all the displayers of a
+ * dashboard are refreshed with a single request.
+ */
+public class BatchedDataSetHandler extends DataSetHandlerImpl {
+
+    private final DataSetLookupBatcher batcher;
+
+    public BatchedDataSetHandler(final DataSetClientServices clientServices,
+                                 final DataSetLookup lookup,
+                                 final DataSetLookupBatcher batcher) {
+        super(clientServices,
+              lookup);
+        this.batcher = batcher;
+    }
+
+    @Override
+    public void lookupDataSet(final DataSetReadyCallback callback) throws Exception {
+        batcher.lookupDataSet(lookupCurrent,
+                              new DataSetReadyCallback() {
+                                  @Override
+                                  public void callback(final DataSet dataSet) {
+                                      lastLookedUpDataSet = dataSet;
+                                      callback.callback(dataSet);
+                                  }
+
+                                  @Override
+                                  public void notFound() {
+                                      callback.notFound();
+                                  }
+
+                                  @Override
+                                  public boolean onError(final ClientRuntimeError error) {
+                                      return callback.onError(error);
+                                  }
+                              });
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jbpm.dashboard.renderer.client.panel.dataset;
+
+import java.util.ArrayList;
+import java.util.List;
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+
+import com.google.gwt.core.client.Scheduler;
+import org.dashbuilder.common.client.error.ClientRuntimeError;
+import org.dashbuilder.dataset.DataSetLookup;
+import org.dashbuilder.dataset.client.DataSetReadyCallback;
+import org.jboss.errai.bus.client.api.messaging.Message;
+import org.jboss.errai.common.client.api.Caller;
+import org.jboss.errai.common.client.api.ErrorCallback;
+import org.jbpm.dashboard.renderer.model.DataSetLookupResult;
+import org.jbpm.dashboard.renderer.service.DashboardDataSetService;
+
+/**
+ * Collects the data set lookups issued while a dashboard is being drawn, e.g. by the {@link
+ * org.dashbuilder.displayer.client.DisplayerCoordinator} redrawing all of its displayers, and sends them to the
+ * server in a single request once the current event loop finishes. A failed lookup is only reported to its own
+ * callback.
+ */
+@ApplicationScoped
+public class DataSetLookupBatcher {
+
+    private Caller<DashboardDataSetService> dashboardDataSetService;
+
+    private final List<DataSetLookup> lookups = new ArrayList<>();
+
+    private final List<DataSetReadyCallback> callbacks = new ArrayList<>();
+
+    public DataSetLookupBatcher() {
+    }
+
+    @Inject
+    public DataSetLookupBatcher(final Caller<DashboardDataSetService> dashboardDataSetService) {
+        this.dashboardDataSetService = dashboardDataSetService;
+    }
+
+    public void lookupDataSet(final DataSetLookup lookup,
+                              final DataSetReadyCallback callback) {
+        if (lookups.isEmpty()) {
+            scheduleFlush();
+        }
+        lookups.add(lookup);
+        callbacks.add(callback);
+    }
+
+    protected void scheduleFlush() {
+        Scheduler.get().scheduleDeferred(this::flush);
+    }
+
+    public void flush() {
+        if (lookups.isEmpty()) {
+            return;
+        }
+        final List<DataSetLookup> batch = new ArrayList<>(lookups);
+        final List<DataSetReadyCallback> batchCallbacks = new ArrayList<>(callbacks);
+        lookups.clear();
+        callbacks.clear();
+
+        dashboardDataSetService.call((List<DataSetLookupResult> results) -> {
+                                         for (int i = 0; i < batchCallbacks.size(); i++) {
+                                             final DataSetLookupResult result = i < results.size() ? results.get(i) : null;
+                                             if (result != null && !result.isSuccess()) {
+                                                 batchCallbacks.get(i).onError(new ClientRuntimeError(result.getErrorMessage()));
+                                             } else if (result == null || result.getDataSet() == null) {
+                                                 batchCallbacks.get(i).notFound();
+                                             } else {
+                                                 batchCallbacks.get(i).callback(result.getDataSet());
+                                             }
+                                         }
+                                     },
+                                     (ErrorCallback<Message>) (message, throwable) -> {
+                                         final ClientRuntimeError error = new ClientRuntimeError(throwable);
+                                         boolean handled = false;
+                                         for (DataSetReadyCallback callback : batchCallbacks) {
+                                             handled |= callback.onError(error);
+                                         }
+                                         return handled;
+                                     }).lookupDataSets(batch);
+    }
+
+    public int getPendingLookups() {
+        return lookups.size();
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jbpm.dashboard.renderer.client.panel.dataset;
+
+import java.util.Arrays;
+import java.util.List;
+
+import com.google.gwtmockito.GwtMockitoTestRunner;
+import org.dashbuilder.common.client.error.ClientRuntimeError;
+import org.dashbuilder.dataset.DataSet;
+import org.dashbuilder.dataset.DataSetLookup;
+import org.dashbuilder.dataset.client.DataSetReadyCallback;
+import org.jbpm.dashboard.renderer.model.DataSetLookupResult;
+import org.jbpm.dashboard.renderer.service.DashboardDataSetService;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.uberfire.mocks.CallerMock;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+@RunWith(GwtMockitoTestRunner.class)
+public class DataSetLookupBatcherTest {
+
+    @Mock
+    DashboardDataSetService dashboardDataSetService;
+
+    @Mock
+    DataSetReadyCallback firstCallback;
+
+    @Mock
+    DataSetReadyCallback secondCallback;
+
+    @Mock
+    DataSet firstDataSet;
+
+    @Mock
+    DataSet secondDataSet;
+
+    DataSetLookupBatcher batcher;
+
+    @Before
+    public void setUp() {
+        batcher = spy(new DataSetLookupBatcher(new CallerMock<>(dashboardDataSetService)));
+        doNothing().when(batcher).scheduleFlush();
+    }
+
+    @Test
+    public void testLookupsSentInSingleRequest() {
+        final DataSetLookup firstLookup = new DataSetLookup("first");
+        final DataSetLookup secondLookup = new DataSetLookup("second");
+        final List<DataSetLookup> lookups = Arrays.asList(firstLookup,
+                                                          secondLookup);
+        when(dashboardDataSetService.lookupDataSets(lookups)).thenReturn(Arrays.asList(DataSetLookupResult.success(firstDataSet),
+                                                                                       DataSetLookupResult.success(secondDataSet)));
+
+        batcher.lookupDataSet(firstLookup,
+                              firstCallback);
+        batcher.lookupDataSet(secondLookup,
+                              secondCallback);
+        assertEquals(2,
+                     batcher.getPendingLookups());
+        verify(batcher).scheduleFlush();
+
+        batcher.flush();
+
+        assertEquals(0,
+                     batcher.getPendingLookups());
+        verify(dashboardDataSetService).lookupDataSets(lookups);
+        verify(firstCallback).callback(firstDataSet);
+        verify(secondCallback).callback(secondDataSet);
+    }
+
+    @Test
+    public void testFailedLookupNotifiedToItsCallback() {
+        when(dashboardDataSetService.lookupDataSets(anyList())).thenReturn(Arrays.asList(DataSetLookupResult.failure("error"),
+                                                                                         DataSetLookupResult.success(secondDataSet)));
+
+        batcher.lookupDataSet(new DataSetLookup("first"),
+                              firstCallback);
+        batcher.lookupDataSet(new DataSetLookup("second"),
+                              secondCallback);
+        batcher.flush();
+
+        final ArgumentCaptor<ClientRuntimeError> errorCaptor = ArgumentCaptor.forClass(ClientRuntimeError.class);
+        verify(firstCallback).onError(errorCaptor.capture());
+        assertEquals("error",
+                     errorCaptor.getValue().getMessage());
+        verify(firstCallback,
+               never()).callback(any());
+        verify(secondCallback).callback(secondDataSet);
+        verify(secondCallback,
+               never()).onError(any());
+    }
+
+    @Test
+    public void testErrorNotifiedToAllCallbacks() {
+        when(dashboardDataSetService.lookupDataSets(anyList())).thenThrow(new RuntimeException("error"));
+
+        batcher.lookupDataSet(new DataSetLookup("first"),
+                              firstCallback);
+        batcher.lookupDataSet(new DataSetLookup("second"),
+                              secondCallback);
+        batcher.flush();
+
+        verify(firstCallback).onError(any(ClientRuntimeError.class));
+        verify(secondCallback).onError(any(ClientRuntimeError.class));
+        verify(firstCallback,
+               never()).callback(any());
+    }
+
+    @Test
+    public void testFlushWithoutLookups() {
+        batcher.flush();
+
+        verify(dashboardDataSetService,
+               never()).lookupDataSets(anyList());
+    }
+}
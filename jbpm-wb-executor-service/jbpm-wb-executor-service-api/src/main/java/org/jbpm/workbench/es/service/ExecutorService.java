@@ -17,9 +17,12 @@
 package org.jbpm.workbench.es.service;
 
 import java.util.Date;
+import java.util.List;
 import java.util.Map;
 
+import org.dashbuilder.dataset.DataSetLookup;
 import org.jboss.errai.bus.server.annotations.Remote;
+import org.jbpm.workbench.common.model.BulkOperationResult;
 import org.jbpm.workbench.es.model.ExecutionErrorSummary;
 import org.jbpm.workbench.es.model.RequestDetails;
 
@@ -47,6 +50,42 @@ public interface ExecutorService {
                           String deploymentId,
                           String... errorId);
 
+    BulkOperationResult cancelRequests(String serverTemplateId,
+                                       String operationId,
+                                       List<String> deploymentIds,
+                                       List<Long> requestIds);
+
+    BulkOperationResult requeueRequests(String serverTemplateId,
+                                        String operationId,
+                                        List<String> deploymentIds,
+                                        List<Long> requestIds);
+
+    BulkOperationResult acknowledgeErrors(String serverTemplateId,
+                                          String operationId,
+                                          List<String> deploymentIds,
+                                          List<String> errorIds);
+
+    /**
+     * Cancels all the queued, retrying and running jobs matching the filters of the job list lookup.
+     */
+    BulkOperationResult cancelMatchingRequests(String serverTemplateId,
+                                               String operationId,
+                                               DataSetLookup selection);
+
+    /**
+     * Requeues all the failed and running jobs matching the filters of the job list lookup.
+     */
+    BulkOperationResult requeueMatchingRequests(String serverTemplateId,
+                                                String operationId,
+                                                DataSetLookup selection);
+
+    /**
+     * Acknowledges all the errors not acknowledged yet that match the filters of the error list lookup.
+     */
+    BulkOperationResult acknowledgeMatchingErrors(String serverTemplateId,
+                                                  String operationId,
+                                                  DataSetLookup selection);
+
     ExecutionErrorSummary getError(String serverTemplateId,
                                    String deploymentId,
                                    String errorId);
@@ -31,7 +31,8 @@ public class DataSetDefsBootstrap extends AbstractDataSetDefsBootstrap {
         if (event.getDefinition().getName().equals(REQUEST_LIST_DATASET)) {
             registerDataSetDefinition(event.getDefinition(),
                                       builder ->
-                                              builder.number(COLUMN_ID)
+                                              builder.keysetColumn(COLUMN_ID)
+                                                      .number(COLUMN_ID)
                                                       .date(COLUMN_TIMESTAMP)
                                                       .label(COLUMN_STATUS)
                                                       .label(COLUMN_COMMANDNAME)
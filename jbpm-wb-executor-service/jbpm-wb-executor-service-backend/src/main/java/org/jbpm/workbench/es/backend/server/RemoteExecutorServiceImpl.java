@@ -16,15 +16,30 @@
 
 package org.jbpm.workbench.es.backend.server;
 
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.function.BiConsumer;
+import java.util.stream.Collectors;
 import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Event;
+import javax.inject.Inject;
 
+import org.dashbuilder.dataset.DataSetLookup;
+import org.dashbuilder.dataset.filter.ColumnFilter;
+import org.dashbuilder.dataset.filter.DataSetFilter;
 import org.jboss.errai.bus.server.annotations.Service;
+import org.jbpm.workbench.common.events.BulkOperationProgress;
+import org.jbpm.workbench.common.model.BulkOperationResult;
 import org.jbpm.workbench.es.model.ExecutionErrorSummary;
+import org.jbpm.workbench.es.util.RequestStatus;
 import org.jbpm.workbench.ks.integration.AbstractKieServerService;
+import org.jbpm.workbench.ks.integration.DataSetSelectionReader;
+import org.jbpm.workbench.ks.integration.KieServerBulkExecutor;
+import org.jbpm.workbench.ks.integration.KieServerDataSetCache;
 import org.jbpm.workbench.es.model.RequestDetails;
 import org.jbpm.workbench.es.service.ExecutorService;
 import org.kie.server.api.model.admin.ExecutionErrorInstance;
@@ -34,11 +49,31 @@ import org.kie.server.client.JobServicesClient;
 import org.kie.server.client.admin.ProcessAdminServicesClient;
 
 import static java.util.Optional.ofNullable;
+import static org.dashbuilder.dataset.filter.FilterFactory.OR;
+import static org.dashbuilder.dataset.filter.FilterFactory.equalsTo;
+import static org.jbpm.workbench.es.model.ExecutionErrorDataSetConstants.COLUMN_DEPLOYMENT_ID;
+import static org.jbpm.workbench.es.model.ExecutionErrorDataSetConstants.COLUMN_ERROR_ACK;
+import static org.jbpm.workbench.es.model.ExecutionErrorDataSetConstants.COLUMN_ERROR_ID;
+import static org.jbpm.workbench.es.model.RequestDataSetConstants.COLUMN_ID;
+import static org.jbpm.workbench.es.model.RequestDataSetConstants.COLUMN_JOB_DEPLOYMENT_ID;
+import static org.jbpm.workbench.es.model.RequestDataSetConstants.COLUMN_STATUS;
 
 @Service
 @ApplicationScoped
 public class RemoteExecutorServiceImpl extends AbstractKieServerService implements ExecutorService {
 
+    @Inject
+    private KieServerBulkExecutor bulkExecutor;
+
+    @Inject
+    private Event<BulkOperationProgress> bulkOperationProgressEvent;
+
+    @Inject
+    private KieServerDataSetCache dataSetCache;
+
+    @Inject
+    private DataSetSelectionReader selectionReader;
+
     @Override
     public RequestDetails getRequestDetails(String serverTemplateId,
                                             String deploymentId,
@@ -76,7 +111,10 @@ public class RemoteExecutorServiceImpl extends AbstractKieServerService implemen
                 .data(data)
                 .scheduledDate(date)
                 .build();
-        return jobClient.scheduleRequest((String)data.get("containerId"), jobRequest);
+        final Long requestId = jobClient.scheduleRequest((String) data.get("containerId"),
+                                                         jobRequest);
+        dataSetCache.invalidate(serverTemplateId);
+        return requestId;
     }
 
     @Override
@@ -88,7 +126,7 @@ public class RemoteExecutorServiceImpl extends AbstractKieServerService implemen
                                                 JobServicesClient.class);
         
         jobClient.cancelRequest(deploymentId, requestId);
-    
+        dataSetCache.invalidate(serverTemplateId);
     }
 
     @Override
@@ -98,7 +136,7 @@ public class RemoteExecutorServiceImpl extends AbstractKieServerService implemen
         JobServicesClient jobClient = getClient(serverTemplateId,
                                                     JobServicesClient.class);
         jobClient.requeueRequest(deploymentId, requestId);
-        
+        dataSetCache.invalidate(serverTemplateId);
     }
 
     @Override
@@ -109,6 +147,160 @@ public class RemoteExecutorServiceImpl extends AbstractKieServerService implemen
                                                                           ProcessAdminServicesClient.class);
         processAdminServicesClient.acknowledgeError(deploymentId,
                                                     errorId);
+        dataSetCache.invalidate(serverTemplateId);
+    }
+
+    @Override
+    public BulkOperationResult cancelRequests(String serverTemplateId,
+                                              String operationId,
+                                              List<String> deploymentIds,
+                                              List<Long> requestIds) {
+        JobServicesClient jobClient = getClient(serverTemplateId,
+                                                JobServicesClient.class);
+        return toBulkOperationResult(serverTemplateId,
+                                     requestIds,
+                                     bulkExecutor.executeEach(deploymentIds,
+                                                              requestIds,
+                                                              jobClient::cancelRequest,
+                                                              progress(operationId)));
+    }
+
+    @Override
+    public BulkOperationResult requeueRequests(String serverTemplateId,
+                                               String operationId,
+                                               List<String> deploymentIds,
+                                               List<Long> requestIds) {
+        JobServicesClient jobClient = getClient(serverTemplateId,
+                                                JobServicesClient.class);
+        return toBulkOperationResult(serverTemplateId,
+                                     requestIds,
+                                     bulkExecutor.executeEach(deploymentIds,
+                                                              requestIds,
+                                                              jobClient::requeueRequest,
+                                                              progress(operationId)));
+    }
+
+    @Override
+    public BulkOperationResult acknowledgeErrors(String serverTemplateId,
+                                                 String operationId,
+                                                 List<String> deploymentIds,
+                                                 List<String> errorIds) {
+        ProcessAdminServicesClient processAdminServicesClient = getClient(serverTemplateId,
+                                                                          ProcessAdminServicesClient.class);
+        return toBulkOperationResult(serverTemplateId,
+                                     errorIds,
+                                     bulkExecutor.execute(deploymentIds,
+                                                          errorIds,
+                                                          (deploymentId, batch) -> processAdminServicesClient.acknowledgeError(deploymentId,
+                                                                                                                               batch.toArray(new String[batch.size()])),
+                                                          progress(operationId)));
+    }
+
+    @Override
+    public BulkOperationResult cancelMatchingRequests(String serverTemplateId,
+                                                      String operationId,
+                                                      DataSetLookup selection) {
+        final List<String> deploymentIds = new ArrayList<>();
+        final List<Long> requestIds = new ArrayList<>();
+        readRequests(serverTemplateId,
+                     selection,
+                     deploymentIds,
+                     requestIds,
+                     RequestStatus.QUEUED,
+                     RequestStatus.RETRYING,
+                     RequestStatus.RUNNING);
+        return cancelRequests(serverTemplateId,
+                              operationId,
+                              deploymentIds,
+                              requestIds);
+    }
+
+    @Override
+    public BulkOperationResult requeueMatchingRequests(String serverTemplateId,
+                                                       String operationId,
+                                                       DataSetLookup selection) {
+        final List<String> deploymentIds = new ArrayList<>();
+        final List<Long> requestIds = new ArrayList<>();
+        readRequests(serverTemplateId,
+                     selection,
+                     deploymentIds,
+                     requestIds,
+                     RequestStatus.ERROR,
+                     RequestStatus.RUNNING);
+        return requeueRequests(serverTemplateId,
+                               operationId,
+                               deploymentIds,
+                               requestIds);
+    }
+
+    @Override
+    public BulkOperationResult acknowledgeMatchingErrors(String serverTemplateId,
+                                                         String operationId,
+                                                         DataSetLookup selection) {
+        final List<String> deploymentIds = new ArrayList<>();
+        final List<String> errorIds = new ArrayList<>();
+        final List<List<Object>> errors = selectionReader.readSelection(serverTemplateId,
+                                                                        restrict(selection,
+                                                                                 equalsTo(COLUMN_ERROR_ACK,
+                                                                                          0)),
+                                                                        COLUMN_ERROR_ID,
+                                                                        COLUMN_DEPLOYMENT_ID);
+        for (List<Object> error : errors) {
+            errorIds.add(String.valueOf(error.get(0)));
+            deploymentIds.add((String) error.get(1));
+        }
+        return acknowledgeErrors(serverTemplateId,
+                                 operationId,
+                                 deploymentIds,
+                                 errorIds);
+    }
+
+    protected void readRequests(String serverTemplateId,
+                                DataSetLookup selection,
+                                List<String> deploymentIds,
+                                List<Long> requestIds,
+                                RequestStatus... statuses) {
+        final ColumnFilter[] statusFilters = new ColumnFilter[statuses.length];
+        for (int i = 0; i < statuses.length; i++) {
+            statusFilters[i] = equalsTo(COLUMN_STATUS,
+                                        statuses[i].name());
+        }
+        final List<List<Object>> requests = selectionReader.readSelection(serverTemplateId,
+                                                                          restrict(selection,
+                                                                                   OR(statusFilters)),
+                                                                          COLUMN_ID,
+                                                                          COLUMN_JOB_DEPLOYMENT_ID);
+        for (List<Object> request : requests) {
+            requestIds.add(((Number) request.get(0)).longValue());
+            deploymentIds.add((String) request.get(1));
+        }
+    }
+
+    /**
+     * Narrows the selection down to the rows the bulk operation applies to, on top of the filters of the list.
+     */
+    protected DataSetLookup restrict(DataSetLookup selection,
+                                     ColumnFilter columnFilter) {
+        final DataSetLookup restricted = selection.cloneInstance();
+        final DataSetFilter filter = new DataSetFilter();
+        filter.addFilterColumn(columnFilter);
+        restricted.addOperation(filter);
+        return restricted;
+    }
+
+    protected BiConsumer<Integer, Integer> progress(String operationId) {
+        // called on the request thread, so the conversational event only reaches the calling client
+        return (processed, total) -> bulkOperationProgressEvent.fire(new BulkOperationProgress(operationId,
+                                                                                               processed,
+                                                                                               total));
+    }
+
+    protected <T> BulkOperationResult toBulkOperationResult(String serverTemplateId,
+                                                            List<T> items,
+                                                            Map<T, Throwable> failures) {
+        dataSetCache.invalidate(serverTemplateId);
+        return new BulkOperationResult(items.size(),
+                                       failures.keySet().stream().map(String::valueOf).collect(Collectors.toList()));
     }
 
     @Override
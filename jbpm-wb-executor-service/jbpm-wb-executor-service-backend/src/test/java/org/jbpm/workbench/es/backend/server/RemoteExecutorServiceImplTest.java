@@ -20,27 +20,55 @@ import static org.jbpm.workbench.es.backend.server.ExecutionErrorSummaryMapperTe
 import static org.jbpm.workbench.es.backend.server.ExecutionErrorSummaryMapperTest.createTestError;
 import static org.jbpm.workbench.es.backend.server.RequestDetailsMapperTest.assertRequestDetails;
 import static org.jbpm.workbench.es.backend.server.RequestSummaryMapperTest.newRequestInfoInstance;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import javax.enterprise.event.Event;
+
+import org.dashbuilder.dataset.DataSetLookup;
+import org.dashbuilder.dataset.filter.ColumnFilter;
+import org.dashbuilder.dataset.filter.CoreFunctionFilter;
+import org.dashbuilder.dataset.filter.DataSetFilter;
+import org.dashbuilder.dataset.filter.LogicalExprFilter;
+import org.jbpm.workbench.common.events.BulkOperationProgress;
+import org.jbpm.workbench.common.model.BulkOperationResult;
 import org.jbpm.workbench.es.model.ExecutionErrorSummary;
 import org.jbpm.workbench.es.model.RequestDetails;
+import org.jbpm.workbench.ks.integration.DataSetSelectionReader;
+import org.jbpm.workbench.ks.integration.KieServerBulkExecutor;
+import org.jbpm.workbench.ks.integration.KieServerDataSetCache;
+import org.jbpm.workbench.ks.integration.KieServerExecutor;
 import org.jbpm.workbench.ks.integration.KieServerIntegration;
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.kie.server.api.exception.KieServicesException;
 import org.kie.server.api.model.admin.ExecutionErrorInstance;
 import org.kie.server.api.model.instance.RequestInfoInstance;
 import org.kie.server.client.JobServicesClient;
 import org.kie.server.client.KieServicesClient;
 import org.kie.server.client.admin.ProcessAdminServicesClient;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.runners.MockitoJUnitRunner;
 
 @RunWith(MockitoJUnitRunner.class)
@@ -55,6 +83,21 @@ public class RemoteExecutorServiceImplTest {
     @Mock
     ProcessAdminServicesClient processAdminServicesClient;
 
+    @Mock
+    Event<BulkOperationProgress> bulkOperationProgressEvent;
+
+    @Mock
+    KieServerDataSetCache dataSetCache;
+
+    @Mock
+    DataSetSelectionReader selectionReader;
+
+    ExecutorService threadPool = Executors.newCachedThreadPool();
+
+    @Spy
+    KieServerBulkExecutor bulkExecutor = new KieServerBulkExecutor(new KieServerExecutor(threadPool,
+                                                                                         8));
+
     @InjectMocks
     RemoteExecutorServiceImpl executorService;
 
@@ -66,6 +109,11 @@ public class RemoteExecutorServiceImplTest {
         when(kieServerIntegration.getServerClient(anyString())).thenReturn(servicesClient);
     }
 
+    @After
+    public void tearDown() {
+        threadPool.shutdownNow();
+    }
+
     @Test
     public void testGetRequestDetails() {
         final RequestInfoInstance ri = newRequestInfoInstance();
@@ -120,6 +168,7 @@ public class RemoteExecutorServiceImplTest {
         verify(kieServerIntegration).getServerClient(serverTemplateId);
         verify(processAdminServicesClient).acknowledgeError(deploymentId,
                                                             errorId);
+        verify(dataSetCache).invalidate(serverTemplateId);
     }
 
     @Test
@@ -142,4 +191,170 @@ public class RemoteExecutorServiceImplTest {
         assertExecutionErrorSummary(errorInstance,
                                     errorSummary);
     }
+
+    @Test
+    public void testCancelRequests() {
+        doThrow(new KieServicesException("Not found")).when(jobServicesClient).cancelRequest("deployment2",
+                                                                                             3L);
+
+        final BulkOperationResult result = executorService.cancelRequests("serverTemplateId",
+                                                                          "operationId",
+                                                                          Arrays.asList("deployment1",
+                                                                                        "deployment2",
+                                                                                        "deployment2"),
+                                                                          Arrays.asList(1L,
+                                                                                        2L,
+                                                                                        3L));
+
+        verify(jobServicesClient).cancelRequest("deployment1",
+                                                1L);
+        verify(jobServicesClient).cancelRequest("deployment2",
+                                                2L);
+        verify(jobServicesClient).cancelRequest("deployment2",
+                                                3L);
+        assertEquals(3,
+                     result.getTotal());
+        assertEquals(2,
+                     result.getSucceeded());
+        assertEquals(singletonList("3"),
+                     result.getFailedIds());
+        verify(bulkOperationProgressEvent,
+               times(2)).fire(any(BulkOperationProgress.class));
+        verify(dataSetCache).invalidate("serverTemplateId");
+    }
+
+    @Test
+    public void testRequeueRequests() {
+        final BulkOperationResult result = executorService.requeueRequests("serverTemplateId",
+                                                                           "operationId",
+                                                                           singletonList("deployment1"),
+                                                                           singletonList(1L));
+
+        verify(jobServicesClient).requeueRequest("deployment1",
+                                                 1L);
+        assertTrue(result.isSuccess());
+        final ArgumentCaptor<BulkOperationProgress> captor = ArgumentCaptor.forClass(BulkOperationProgress.class);
+        verify(bulkOperationProgressEvent).fire(captor.capture());
+        assertEquals("operationId",
+                     captor.getValue().getOperationId());
+        assertEquals(1,
+                     captor.getValue().getProcessed());
+        assertEquals(1,
+                     captor.getValue().getTotal());
+    }
+
+    @Test
+    public void testAcknowledgeErrors() {
+        doThrow(new KieServicesException("Forbidden")).when(processAdminServicesClient).acknowledgeError("deployment2",
+                                                                                                         "error3");
+
+        final BulkOperationResult result = executorService.acknowledgeErrors("serverTemplateId",
+                                                                             "operationId",
+                                                                             Arrays.asList("deployment1",
+                                                                                           "deployment2",
+                                                                                           "deployment1"),
+                                                                             Arrays.asList("error1",
+                                                                                           "error3",
+                                                                                           "error2"));
+
+        verify(processAdminServicesClient).acknowledgeError("deployment1",
+                                                            "error1",
+                                                            "error2");
+        verify(processAdminServicesClient).acknowledgeError("deployment2",
+                                                            "error3");
+        assertEquals(singletonList("error3"),
+                     result.getFailedIds());
+        verify(dataSetCache).invalidate("serverTemplateId");
+    }
+
+    @Test
+    public void testAcknowledgeMatchingErrors() {
+        final DataSetLookup selection = new DataSetLookup();
+        selection.setDataSetUUID("jbpmExecutionErrorList");
+        when(selectionReader.readSelection(eq("serverTemplateId"),
+                                           any(DataSetLookup.class),
+                                           eq("ERROR_ID"),
+                                           eq("DEPLOYMENT_ID"))).thenReturn(Arrays.asList(Arrays.<Object>asList("error1",
+                                                                                                                "deployment1"),
+                                                                                          Arrays.<Object>asList("error2",
+                                                                                                                "deployment1")));
+
+        final BulkOperationResult result = executorService.acknowledgeMatchingErrors("serverTemplateId",
+                                                                                     "operationId",
+                                                                                     selection);
+
+        verify(processAdminServicesClient).acknowledgeError("deployment1",
+                                                            "error1",
+                                                            "error2");
+        assertEquals(2,
+                     result.getSucceeded());
+        final ArgumentCaptor<DataSetLookup> captor = ArgumentCaptor.forClass(DataSetLookup.class);
+        verify(selectionReader).readSelection(eq("serverTemplateId"),
+                                              captor.capture(),
+                                              eq("ERROR_ID"),
+                                              eq("DEPLOYMENT_ID"));
+        // errors acknowledged already are left out, the lookup of the list is not changed
+        final CoreFunctionFilter ackFilter = (CoreFunctionFilter) getLastFilter(captor.getValue());
+        assertEquals("ERROR_ACK",
+                     ackFilter.getColumnId());
+        assertEquals(0,
+                     ackFilter.getParameters().get(0));
+        assertTrue(selection.getOperationList().isEmpty());
+        verify(dataSetCache).invalidate("serverTemplateId");
+    }
+
+    @Test
+    public void testCancelMatchingRequests() {
+        when(selectionReader.readSelection(eq("serverTemplateId"),
+                                           any(DataSetLookup.class),
+                                           eq("id"),
+                                           eq("deploymentId"))).thenReturn(Arrays.asList(Arrays.<Object>asList(1d,
+                                                                                                               "deployment1"),
+                                                                                         Arrays.<Object>asList(2d,
+                                                                                                               "deployment2")));
+
+        final BulkOperationResult result = executorService.cancelMatchingRequests("serverTemplateId",
+                                                                                  "operationId",
+                                                                                  new DataSetLookup());
+
+        verify(jobServicesClient).cancelRequest("deployment1",
+                                                1L);
+        verify(jobServicesClient).cancelRequest("deployment2",
+                                                2L);
+        assertTrue(result.isSuccess());
+        final ArgumentCaptor<DataSetLookup> captor = ArgumentCaptor.forClass(DataSetLookup.class);
+        verify(selectionReader).readSelection(eq("serverTemplateId"),
+                                              captor.capture(),
+                                              eq("id"),
+                                              eq("deploymentId"));
+        final List<ColumnFilter> statusFilters = ((LogicalExprFilter) getLastFilter(captor.getValue())).getLogicalTerms();
+        assertEquals(3,
+                     statusFilters.size());
+        assertEquals("QUEUED",
+                     ((CoreFunctionFilter) statusFilters.get(0)).getParameters().get(0));
+    }
+
+    @Test
+    public void testRequeueNoMatchingRequests() {
+        when(selectionReader.readSelection(eq("serverTemplateId"),
+                                           any(DataSetLookup.class),
+                                           eq("id"),
+                                           eq("deploymentId"))).thenReturn(emptyList());
+
+        final BulkOperationResult result = executorService.requeueMatchingRequests("serverTemplateId",
+                                                                                   "operationId",
+                                                                                   new DataSetLookup());
+
+        assertEquals(0,
+                     result.getTotal());
+        verify(jobServicesClient,
+               times(0)).requeueRequest(anyString(),
+                                        any(Long.class));
+    }
+
+    private static ColumnFilter getLastFilter(final DataSetLookup lookup) {
+        final List<DataSetFilter> filters = lookup.getOperationList(DataSetFilter.class);
+        final List<ColumnFilter> columnFilters = filters.get(filters.size() - 1).getColumnFilterList();
+        return columnFilters.get(columnFilters.size() - 1);
+    }
 }
@@ -21,16 +21,20 @@ import java.util.Optional;
 import java.util.function.Predicate;
 import javax.enterprise.context.Dependent;
 import javax.enterprise.event.Event;
+import javax.enterprise.event.Observes;
 import javax.inject.Inject;
 
 import org.dashbuilder.dataset.DataSet;
 import org.dashbuilder.dataset.client.DataSetReadyCallback;
 import org.jboss.errai.common.client.api.Caller;
+import org.jboss.errai.common.client.api.RemoteCallback;
 import org.jbpm.workbench.common.client.PerspectiveIds;
 import org.jbpm.workbench.common.client.dataset.AbstractDataSetReadyCallback;
 import org.jbpm.workbench.common.client.list.AbstractMultiGridPresenter;
 import org.jbpm.workbench.common.client.list.MultiGridView;
 import org.jbpm.workbench.common.client.menu.RefreshMenuBuilder;
+import org.jbpm.workbench.common.events.BulkOperationProgress;
+import org.jbpm.workbench.common.model.BulkOperationResult;
 import org.jbpm.workbench.df.client.filter.FilterSettings;
 import org.jbpm.workbench.es.client.editors.errordetails.ExecutionErrorDetailsPresenter;
 import org.jbpm.workbench.es.client.editors.events.ExecutionErrorSelectedEvent;
@@ -41,6 +45,7 @@ import org.jbpm.workbench.es.util.ExecutionErrorType;
 import org.uberfire.client.annotations.WorkbenchMenu;
 import org.uberfire.client.annotations.WorkbenchScreen;
 import org.uberfire.client.workbench.widgets.common.ErrorPopupPresenter;
+import org.uberfire.commons.uuid.UUID;
 import org.uberfire.workbench.model.menu.MenuFactory;
 import org.uberfire.workbench.model.menu.Menus;
 
@@ -65,6 +70,8 @@ public class ExecutionErrorListPresenter extends AbstractMultiGridPresenter<Exec
     @Inject
     private Event<ExecutionErrorSelectedEvent> executionErrorSelectedEvent;
 
+    private String bulkOperationId;
+
     public void createListBreadcrumb() {
         setupListBreadcrumb(placeManager,
                             commonConstants.Manage_ExecutionErrors());
@@ -202,16 +209,54 @@ public class ExecutionErrorListPresenter extends AbstractMultiGridPresenter<Exec
         if (execErrorsSelected == null || execErrorsSelected.isEmpty()) {
             return;
         }
+        final List<String> deploymentIds = new ArrayList<>();
+        final List<String> errorIds = new ArrayList<>();
         for (ExecutionErrorSummary selected : execErrorsSelected) {
             if (selected.isAcknowledged()) {
                 //TODO i18n
                 view.displayNotification("Error " + selected.getErrorId() + "is already acknowledge");
-                continue;
             } else {
-                acknowledgeExecutionError(selected.getErrorId(),
-                                          selected.getDeploymentId());
+                deploymentIds.add(selected.getDeploymentId());
+                errorIds.add(selected.getErrorId());
             }
         }
+        if (errorIds.isEmpty()) {
+            return;
+        }
+        bulkOperationId = UUID.uuid();
+        executorService.call(getAcknowledgedCallback()).acknowledgeErrors(getSelectedServerTemplate(),
+                                                                          bulkOperationId,
+                                                                          deploymentIds,
+                                                                          errorIds);
+    }
+
+    /**
+     * Acknowledges all the errors matching the active filters, including the ones not loaded in the grid.
+     */
+    public void bulkAcknowledgeMatching() {
+        bulkOperationId = UUID.uuid();
+        executorService.call(getAcknowledgedCallback()).acknowledgeMatchingErrors(getSelectedServerTemplate(),
+                                                                                  bulkOperationId,
+                                                                                  getFilteredSelection());
+    }
+
+    protected RemoteCallback<BulkOperationResult> getAcknowledgedCallback() {
+        return (BulkOperationResult result) -> {
+            bulkOperationId = null;
+            view.displayNotification(constants.ExecutionErrors_Acknowledged(result.getSucceeded()));
+            if (!result.isSuccess()) {
+                view.displayNotification(constants.Bulk_Operation_Failed(String.join(", ",
+                                                                                     result.getFailedIds())));
+            }
+            refreshGrid();
+        };
+    }
+
+    public void onBulkOperationProgress(@Observes BulkOperationProgress progress) {
+        if (bulkOperationId != null && bulkOperationId.equals(progress.getOperationId())) {
+            view.displayNotification(constants.Bulk_Operation_Progress(progress.getProcessed(),
+                                                                       progress.getTotal()));
+        }
     }
 
     @WorkbenchMenu
@@ -92,6 +92,7 @@ public class ExecutionErrorListViewImpl extends AbstractMultiGridView<ExecutionE
     public List<AnchorListItem> getBulkActionsItems(ExtendedPagedTable<ExecutionErrorSummary> extendedPagedTable) {
         List<AnchorListItem> bulkActionsItems = new ArrayList<>();
         bulkActionsItems.add(getBulkAck(extendedPagedTable));
+        bulkActionsItems.add(getBulkAckMatching(extendedPagedTable));
         return bulkActionsItems;
     }
 
@@ -112,6 +113,23 @@ public class ExecutionErrorListViewImpl extends AbstractMultiGridView<ExecutionE
         return bulkAckNavLink;
     }
 
+    protected AnchorListItem getBulkAckMatching(final ExtendedPagedTable<ExecutionErrorSummary> extendedPagedTable) {
+        final AnchorListItem bulkAckMatchingNavLink = GWT.create(AnchorListItem.class);
+        bulkAckMatchingNavLink.setText(constants.Bulk_Ack_Matching());
+        bulkAckMatchingNavLink.setIcon(IconType.BAN);
+        bulkAckMatchingNavLink.setIconFixedWidth(true);
+        bulkAckMatchingNavLink.addClickHandler((ClickEvent event) -> {
+            confirmPopup.show(constants.Bulk_Ack_Matching(),
+                              constants.Acknowledge(),
+                              constants.Bulk_Ack_Matching_confirm(),
+                              () -> {
+                                  presenter.bulkAcknowledgeMatching();
+                                  extendedPagedTable.deselectAllItems();
+                              });
+        });
+        return bulkAckMatchingNavLink;
+    }
+
     @Override
     public void initColumns(final ListTable<ExecutionErrorSummary> extendedPagedTable) {
         final ColumnMeta<ExecutionErrorSummary> checkColumnMeta = initChecksColumn(extendedPagedTable);
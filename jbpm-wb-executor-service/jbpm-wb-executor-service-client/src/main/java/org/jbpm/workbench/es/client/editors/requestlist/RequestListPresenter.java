@@ -35,6 +35,8 @@ import org.jbpm.workbench.common.client.list.AbstractMultiGridPresenter;
 import org.jbpm.workbench.common.client.list.MultiGridView;
 import org.jbpm.workbench.common.client.menu.PrimaryActionMenuBuilder;
 import org.jbpm.workbench.common.client.menu.RefreshMenuBuilder;
+import org.jbpm.workbench.common.events.BulkOperationProgress;
+import org.jbpm.workbench.common.model.BulkOperationResult;
 import org.jbpm.workbench.df.client.filter.FilterSettings;
 import org.jbpm.workbench.df.client.list.DataSetQueryHelper;
 import org.jbpm.workbench.es.client.editors.events.JobSelectedEvent;
@@ -48,6 +50,7 @@ import org.uberfire.client.annotations.WorkbenchMenu;
 import org.uberfire.client.annotations.WorkbenchScreen;
 import org.uberfire.client.mvp.PlaceManager;
 import org.uberfire.client.workbench.widgets.common.ErrorPopupPresenter;
+import org.uberfire.commons.uuid.UUID;
 import org.uberfire.mvp.Command;
 import org.uberfire.workbench.model.menu.MenuFactory;
 import org.uberfire.workbench.model.menu.Menus;
@@ -68,6 +71,8 @@ public class RequestListPresenter extends AbstractMultiGridPresenter<RequestSumm
 
     private Command newJobCommand;
 
+    private String bulkOperationId;
+
     @Inject
     private Caller<ExecutorService> executorServices;
 
@@ -121,6 +126,11 @@ public class RequestListPresenter extends AbstractMultiGridPresenter<RequestSumm
                               PerspectiveIds.JOB_DETAILS_SCREEN);
     }
 
+    @Override
+    protected String getKeysetColumn() {
+        return COLUMN_ID;
+    }
+
     @Override
     protected DataSetReadyCallback getDataSetReadyCallback(final Integer startRange,
                                                            final FilterSettings tableSettings) {
@@ -329,30 +339,101 @@ public class RequestListPresenter extends AbstractMultiGridPresenter<RequestSumm
         if (jobsSelected == null || jobsSelected.isEmpty()) {
             return;
         }
+        final List<String> deploymentIds = new ArrayList<>();
+        final List<Long> jobIds = new ArrayList<>();
         for (RequestSummary selected : jobsSelected) {
             if (!getCancelActionCondition().test(selected)) {
                 view.displayNotification(constants.Job_Can_Not_Be_Cancelled(selected.getJobId()));
-                continue;
             } else {
-                cancelRequest(selected.getDeploymentId(),
-                              selected.getJobId());
+                deploymentIds.add(selected.getDeploymentId());
+                jobIds.add(selected.getJobId());
             }
         }
+        if (jobIds.isEmpty()) {
+            return;
+        }
+        final String operationId = startBulkOperation();
+        executorServices.call((BulkOperationResult result) -> {
+            view.displayNotification(constants.Requests_Canceled(result.getSucceeded()));
+            onBulkOperationCompleted(result);
+        }).cancelRequests(getSelectedServerTemplate(),
+                          operationId,
+                          deploymentIds,
+                          jobIds);
     }
 
     public void bulkRequeue(List<RequestSummary> jobsSelected) {
         if (jobsSelected == null || jobsSelected.isEmpty()) {
             return;
         }
+        final List<String> deploymentIds = new ArrayList<>();
+        final List<Long> jobIds = new ArrayList<>();
         for (RequestSummary selected : jobsSelected) {
             if (!getRequeueActionCondition().test(selected)) {
                 view.displayNotification(constants.Job_Can_Not_Be_Requeued(selected.getJobId()));
-                continue;
             } else {
-                requeueRequest(selected.getDeploymentId(),
-                               selected.getJobId());
+                deploymentIds.add(selected.getDeploymentId());
+                jobIds.add(selected.getJobId());
             }
         }
+        if (jobIds.isEmpty()) {
+            return;
+        }
+        final String operationId = startBulkOperation();
+        executorServices.call((BulkOperationResult result) -> {
+            view.displayNotification(constants.Requests_Requeued(result.getSucceeded()));
+            onBulkOperationCompleted(result);
+        }).requeueRequests(getSelectedServerTemplate(),
+                           operationId,
+                           deploymentIds,
+                           jobIds);
+    }
+
+    /**
+     * Cancels the jobs matching the active filters that can be cancelled, including the ones not loaded in the grid.
+     */
+    public void bulkCancelMatching() {
+        final String operationId = startBulkOperation();
+        executorServices.call((BulkOperationResult result) -> {
+            view.displayNotification(constants.Requests_Canceled(result.getSucceeded()));
+            onBulkOperationCompleted(result);
+        }).cancelMatchingRequests(getSelectedServerTemplate(),
+                                  operationId,
+                                  getFilteredSelection());
+    }
+
+    /**
+     * Requeues the jobs matching the active filters that can be requeued, including the ones not loaded in the grid.
+     */
+    public void bulkRequeueMatching() {
+        final String operationId = startBulkOperation();
+        executorServices.call((BulkOperationResult result) -> {
+            view.displayNotification(constants.Requests_Requeued(result.getSucceeded()));
+            onBulkOperationCompleted(result);
+        }).requeueMatchingRequests(getSelectedServerTemplate(),
+                                   operationId,
+                                   getFilteredSelection());
+    }
+
+    protected String startBulkOperation() {
+        bulkOperationId = UUID.uuid();
+        return bulkOperationId;
+    }
+
+    protected void onBulkOperationCompleted(final BulkOperationResult result) {
+        bulkOperationId = null;
+        if (!result.isSuccess()) {
+            view.displayNotification(constants.Bulk_Operation_Failed(String.join(", ",
+                                                                                 result.getFailedIds())));
+        }
+        refreshGrid();
+    }
+
+    public void onBulkOperationProgress(@Observes BulkOperationProgress progress) {
+        if (bulkOperationId != null && bulkOperationId.equals(progress.getOperationId())) {
+            view.displayNotification(constants.Bulk_Operation_Progress(progress.getProcessed(),
+                                                                       progress.getTotal()));
+        }
     }
 
     public interface RequestListView extends MultiGridView<RequestSummary, RequestListPresenter> {
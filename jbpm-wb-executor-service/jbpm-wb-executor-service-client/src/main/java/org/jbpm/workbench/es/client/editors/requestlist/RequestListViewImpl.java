@@ -133,6 +133,8 @@ public class RequestListViewImpl extends AbstractMultiGridView<RequestSummary, R
         List<AnchorListItem> bulkActionsItems = new ArrayList<>();
         bulkActionsItems.add(getBulkCancel(extendedPagedTable));
         bulkActionsItems.add(getBulkRequeue(extendedPagedTable));
+        bulkActionsItems.add(getBulkCancelMatching(extendedPagedTable));
+        bulkActionsItems.add(getBulkRequeueMatching(extendedPagedTable));
         return bulkActionsItems;
     }
 
@@ -206,6 +208,40 @@ public class RequestListViewImpl extends AbstractMultiGridView<RequestSummary, R
         return bulkAbortNavLink;
     }
 
+    protected AnchorListItem getBulkCancelMatching(final ExtendedPagedTable<RequestSummary> extendedPagedTable) {
+        final AnchorListItem bulkCancelMatchingNavLink = GWT.create(AnchorListItem.class);
+        bulkCancelMatchingNavLink.setText(constants.Bulk_Cancel_Matching_jobs());
+        bulkCancelMatchingNavLink.setIcon(IconType.TIMES_CIRCLE_O);
+
+        bulkCancelMatchingNavLink.setIconFixedWidth(true);
+        bulkCancelMatchingNavLink.addClickHandler(event -> confirmPopup.show(constants.Cancel_Jobs_Confirmation(),
+                                                                             constants.Cancel_Jobs(),
+                                                                             constants.Cancel_Matching_Jobs_Sure(),
+                                                                             () -> {
+                                                                                 presenter.bulkCancelMatching();
+                                                                                 extendedPagedTable.deselectAllItems();
+                                                                             })
+        );
+        return bulkCancelMatchingNavLink;
+    }
+
+    protected AnchorListItem getBulkRequeueMatching(final ExtendedPagedTable<RequestSummary> extendedPagedTable) {
+        final AnchorListItem bulkRequeueMatchingNavLink = GWT.create(AnchorListItem.class);
+        bulkRequeueMatchingNavLink.setText(constants.Bulk_Requeue_Matching_jobs());
+        bulkRequeueMatchingNavLink.setIcon(IconType.HISTORY);
+
+        bulkRequeueMatchingNavLink.setIconFixedWidth(true);
+        bulkRequeueMatchingNavLink.addClickHandler(event -> confirmPopup.show(constants.Requeue_Jobs_Confirmation(),
+                                                                              constants.Requeue_Jobs(),
+                                                                              constants.Requeue_Matching_Jobs_Sure(),
+                                                                              () -> {
+                                                                                  presenter.bulkRequeueMatching();
+                                                                                  extendedPagedTable.deselectAllItems();
+                                                                              })
+        );
+        return bulkRequeueMatchingNavLink;
+    }
+
     protected Command getCancelCommand(final ExtendedPagedTable<RequestSummary> extendedPagedTable) {
         return () -> {
             presenter.bulkCancel(extendedPagedTable.getSelectedItems());
@@ -205,6 +205,10 @@ public interface Constants extends Messages {
 
     String Bulk_Ack_confirm();
 
+    String Bulk_Ack_Matching();
+
+    String Bulk_Ack_Matching_confirm();
+
     String Process();
 
     String Task();
@@ -260,4 +264,23 @@ public interface Constants extends Messages {
     String Requeue_Jobs_Confirmation();
 
     String Job_Can_Not_Be_Requeued(Long jobId);
+
+    String Bulk_Cancel_Matching_jobs();
+
+    String Cancel_Matching_Jobs_Sure();
+
+    String Bulk_Requeue_Matching_jobs();
+
+    String Requeue_Matching_Jobs_Sure();
+
+    String Bulk_Operation_Progress(int processed,
+                                   int total);
+
+    String Requests_Canceled(int count);
+
+    String Requests_Requeued(int count);
+
+    String ExecutionErrors_Acknowledged(int count);
+
+    String Bulk_Operation_Failed(String ids);
 }
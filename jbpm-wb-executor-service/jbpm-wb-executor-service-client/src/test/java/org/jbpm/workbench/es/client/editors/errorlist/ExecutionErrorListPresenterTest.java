@@ -18,6 +18,7 @@ package org.jbpm.workbench.es.client.editors.errorlist;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Date;
+import java.util.List;
 
 import com.google.gwt.view.client.Range;
 import com.google.gwtmockito.GwtMockitoTestRunner;
@@ -25,6 +26,7 @@ import org.dashbuilder.dataset.DataSet;
 import org.dashbuilder.dataset.DataSetLookup;
 import org.dashbuilder.dataset.client.DataSetReadyCallback;
 import org.dashbuilder.dataset.filter.ColumnFilter;
+import org.dashbuilder.dataset.filter.DataSetFilter;
 import org.jboss.errai.security.shared.api.identity.User;
 import org.jbpm.workbench.common.client.PerspectiveIds;
 import org.jbpm.workbench.common.client.filters.active.ActiveFilterItem;
@@ -32,6 +34,7 @@ import org.jbpm.workbench.common.client.filters.basic.BasicFilterAddEvent;
 import org.jbpm.workbench.common.client.filters.basic.BasicFilterRemoveEvent;
 import org.jbpm.workbench.common.client.list.ListTable;
 import org.jbpm.workbench.common.client.menu.ServerTemplateSelectorMenuBuilder;
+import org.jbpm.workbench.common.model.BulkOperationResult;
 import org.jbpm.workbench.df.client.filter.FilterSettings;
 import org.jbpm.workbench.df.client.list.DataSetQueryHelper;
 import org.jbpm.workbench.es.client.editors.errordetails.ExecutionErrorDetailsPresenter;
@@ -61,6 +64,7 @@ import org.uberfire.mvp.PlaceRequest;
 import org.uberfire.security.ResourceRef;
 import org.uberfire.security.authz.AuthorizationManager;
 
+import static org.dashbuilder.dataset.filter.FilterFactory.equalsTo;
 import static org.jbpm.workbench.common.client.PerspectiveIds.SEARCH_PARAMETER_PROCESS_INSTANCE_ID;
 import static org.jbpm.workbench.es.model.ExecutionErrorDataSetConstants.*;
 import static org.junit.Assert.*;
@@ -186,15 +190,56 @@ public class ExecutionErrorListPresenterTest {
                                 ExecutionErrorSummary.builder().errorId(error3_ID).deploymentId(error3_deploymentId).acknowledged(true).build()
                         ));
 
+        when(executorServiceMock.acknowledgeErrors(anyString(),
+                                                   anyString(),
+                                                   anyList(),
+                                                   anyList())).thenReturn(new BulkOperationResult(2,
+                                                                                                  new ArrayList<>()));
+
         presenter.bulkAcknowledge(testErrors);
 
-        verify(executorServiceMock).acknowledgeError(anyString(),
-                                                     eq(error1_deploymentId),
-                                                     eq(error1_ID));
-        verify(executorServiceMock).acknowledgeError(anyString(),
-                                                     eq(error2_deploymentId),
-                                                     eq(error2_ID));
+        verify(executorServiceMock).acknowledgeErrors(anyString(),
+                                                      anyString(),
+                                                      eq(Arrays.asList(error1_deploymentId,
+                                                                       error2_deploymentId)),
+                                                      eq(Arrays.asList(error1_ID,
+                                                                       error2_ID)));
         verifyNoMoreInteractions(executorServiceMock);
+        verify(viewMock).displayNotification(Constants.INSTANCE.ExecutionErrors_Acknowledged(2));
+        verify(extendedPagedTable).setVisibleRangeAndClearData(any(Range.class),
+                                                               eq(true));
+    }
+
+    @Test
+    public void bulkAcknowledgeMatchingTest() {
+        final ColumnFilter columnFilter = equalsTo(COLUMN_ERROR_TYPE,
+                                                   "Process");
+        final DataSetFilter filter = new DataSetFilter();
+        filter.addFilterColumn(columnFilter);
+        dataSetLookup.addOperation(filter);
+        when(executorServiceMock.acknowledgeMatchingErrors(anyString(),
+                                                           anyString(),
+                                                           any(DataSetLookup.class))).thenReturn(new BulkOperationResult(3,
+                                                                                                                         Arrays.asList("error3")));
+
+        presenter.bulkAcknowledgeMatching();
+
+        final ArgumentCaptor<DataSetLookup> captor = ArgumentCaptor.forClass(DataSetLookup.class);
+        verify(executorServiceMock).acknowledgeMatchingErrors(anyString(),
+                                                              anyString(),
+                                                              captor.capture());
+        assertNotSame(dataSetLookup,
+                      captor.getValue());
+        // the filters of the list select the errors, the lookup of the grid is not shared
+        final List<ColumnFilter> columnFilters = captor.getValue().getFirstFilterOp().getColumnFilterList();
+        assertEquals(1,
+                     columnFilters.size());
+        assertEquals(COLUMN_ERROR_TYPE,
+                     columnFilters.get(0).getColumnId());
+        verify(viewMock).displayNotification(Constants.INSTANCE.ExecutionErrors_Acknowledged(2));
+        verify(viewMock).displayNotification(Constants.INSTANCE.Bulk_Operation_Failed("error3"));
+        verify(extendedPagedTable).setVisibleRangeAndClearData(any(Range.class),
+                                                               eq(true));
     }
 
     @Test
@@ -32,6 +32,8 @@ import org.jbpm.workbench.common.client.filters.basic.BasicFilterAddEvent;
 import org.jbpm.workbench.common.client.filters.basic.BasicFilterRemoveEvent;
 import org.jbpm.workbench.common.client.list.ListTable;
 import org.jbpm.workbench.common.client.menu.ServerTemplateSelectorMenuBuilder;
+import org.jbpm.workbench.common.events.BulkOperationProgress;
+import org.jbpm.workbench.common.model.BulkOperationResult;
 import org.jbpm.workbench.df.client.filter.FilterSettings;
 import org.jbpm.workbench.df.client.list.DataSetQueryHelper;
 import org.jbpm.workbench.es.client.editors.events.JobSelectedEvent;
@@ -160,6 +162,7 @@ public class RequestListPresenterTest {
         presenter.getData(new Range(0,
                                     5));
 
+        verify(dataSetQueryHelper).setKeysetColumn(COLUMN_ID);
         verify(dataSetQueryHelper).lookupDataSet(anyInt(),
                                                  any(DataSetReadyCallback.class));
         verify(viewMock).hideBusyIndicator();
@@ -541,21 +544,72 @@ public class RequestListPresenterTest {
                                                   deploymentId,
                                                   RequestStatus.ERROR));
 
+        when(executorServiceMock.cancelRequests(anyString(),
+                                                anyString(),
+                                                anyList(),
+                                                anyList())).thenReturn(new BulkOperationResult(2,
+                                                                                               new ArrayList<>()));
+
         presenter.bulkCancel(requestSummaries);
 
-        verify(executorServiceMock).cancelRequest(anyString(),
-                                                  anyString(),
-                                                  eq(jobId_1));
-        verify(executorServiceMock).cancelRequest(anyString(),
-                                                  anyString(),
-                                                  eq(jobId_2));
+        verify(executorServiceMock).cancelRequests(eq(serverTemplateTest),
+                                                   anyString(),
+                                                   eq(Arrays.asList(deploymentId,
+                                                                    deploymentId)),
+                                                   eq(Arrays.asList(jobId_1,
+                                                                    jobId_2)));
         verify(executorServiceMock,
                never()).cancelRequest(anyString(),
                                       anyString(),
-                                      eq(jobId_3));
-        verify(viewMock).displayNotification(Constants.INSTANCE.RequestCanceled(jobId_1));
-        verify(viewMock).displayNotification(Constants.INSTANCE.RequestCanceled(jobId_2));
+                                      anyLong());
+        verify(viewMock).displayNotification(Constants.INSTANCE.Requests_Canceled(2));
         verify(viewMock).displayNotification(Constants.INSTANCE.Job_Can_Not_Be_Cancelled(jobId_3));
+        verify(extendedPagedTable).setVisibleRangeAndClearData(any(Range.class),
+                                                               eq(true));
+    }
+
+    @Test
+    public void bulkCancelReportsFailedJobsTest() {
+        presenter.setSelectedServerTemplate("serverTemplateTest");
+        final ArrayList<RequestSummary> requestSummaries = new ArrayList<>();
+        requestSummaries.add(createRequestSummary(1L,
+                                                  "key",
+                                                  "deploymentId",
+                                                  RequestStatus.QUEUED));
+        requestSummaries.add(createRequestSummary(2L,
+                                                  "key",
+                                                  "deploymentId",
+                                                  RequestStatus.QUEUED));
+        when(executorServiceMock.cancelRequests(anyString(),
+                                                anyString(),
+                                                anyList(),
+                                                anyList())).thenReturn(new BulkOperationResult(2,
+                                                                                               Arrays.asList("2")));
+
+        presenter.bulkCancel(requestSummaries);
+
+        verify(viewMock).displayNotification(Constants.INSTANCE.Requests_Canceled(1));
+        verify(viewMock).displayNotification(Constants.INSTANCE.Bulk_Operation_Failed("2"));
+        verify(extendedPagedTable).setVisibleRangeAndClearData(any(Range.class),
+                                                               eq(true));
+    }
+
+    @Test
+    public void bulkOperationProgressTest() {
+        final String operationId = presenter.startBulkOperation();
+
+        presenter.onBulkOperationProgress(new BulkOperationProgress("otherOperationId",
+                                                                    1,
+                                                                    10));
+        presenter.onBulkOperationProgress(new BulkOperationProgress(operationId,
+                                                                    5,
+                                                                    10));
+
+        verify(viewMock).displayNotification(Constants.INSTANCE.Bulk_Operation_Progress(5,
+                                                                                        10));
+        verify(viewMock,
+               never()).displayNotification(Constants.INSTANCE.Bulk_Operation_Progress(1,
+                                                                                       10));
     }
 
     @Test
@@ -582,22 +636,65 @@ public class RequestListPresenterTest {
                                                   deploymentId,
                                                   RequestStatus.QUEUED));
 
+        when(executorServiceMock.requeueRequests(anyString(),
+                                                 anyString(),
+                                                 anyList(),
+                                                 anyList())).thenReturn(new BulkOperationResult(2,
+                                                                                                new ArrayList<>()));
+
         presenter.bulkRequeue(requestSummaries);
 
-        verify(executorServiceMock).requeueRequest(anyString(),
-                                                   anyString(),
-                                                   eq(jobId_1));
-        verify(executorServiceMock).requeueRequest(anyString(),
-                                                   anyString(),
-                                                   eq(jobId_2));
+        verify(executorServiceMock).requeueRequests(eq(serverTemplateTest),
+                                                    anyString(),
+                                                    eq(Arrays.asList(deploymentId,
+                                                                     deploymentId)),
+                                                    eq(Arrays.asList(jobId_1,
+                                                                     jobId_2)));
         verify(executorServiceMock,
                never()).requeueRequest(anyString(),
                                        anyString(),
-                                       eq(jobId_3));
-        verify(viewMock).displayNotification(Constants.INSTANCE.RequestRequeued(jobId_1));
-        verify(viewMock).displayNotification(Constants.INSTANCE.RequestRequeued(jobId_2));
+                                       anyLong());
+        verify(viewMock).displayNotification(Constants.INSTANCE.Requests_Requeued(2));
         verify(viewMock).displayNotification(Constants.INSTANCE.Job_Can_Not_Be_Requeued(jobId_3));
+        verify(extendedPagedTable).setVisibleRangeAndClearData(any(Range.class),
+                                                               eq(true));
     }
 
+    @Test
+    public void bulkCancelMatchingTest() {
+        presenter.setSelectedServerTemplate("serverTemplateTest");
+        when(executorServiceMock.cancelMatchingRequests(anyString(),
+                                                        anyString(),
+                                                        any(DataSetLookup.class))).thenReturn(new BulkOperationResult(5,
+                                                                                                                      new ArrayList<>()));
+
+        presenter.bulkCancelMatching();
+
+        final ArgumentCaptor<DataSetLookup> captor = ArgumentCaptor.forClass(DataSetLookup.class);
+        verify(executorServiceMock).cancelMatchingRequests(eq("serverTemplateTest"),
+                                                           anyString(),
+                                                           captor.capture());
+        assertNotSame(dataSetLookup,
+                      captor.getValue());
+        verify(viewMock).displayNotification(Constants.INSTANCE.Requests_Canceled(5));
+        verify(extendedPagedTable).setVisibleRangeAndClearData(any(Range.class),
+                                                               eq(true));
+    }
 
-}
\ No newline at end of file
+    @Test
+    public void bulkRequeueMatchingTest() {
+        presenter.setSelectedServerTemplate("serverTemplateTest");
+        when(executorServiceMock.requeueMatchingRequests(anyString(),
+                                                         anyString(),
+                                                         any(DataSetLookup.class))).thenReturn(new BulkOperationResult(2,
+                                                                                                                       Arrays.asList("7")));
+
+        presenter.bulkRequeueMatching();
+
+        verify(executorServiceMock).requeueMatchingRequests(eq("serverTemplateTest"),
+                                                            anyString(),
+                                                            any(DataSetLookup.class));
+        verify(viewMock).displayNotification(Constants.INSTANCE.Requests_Requeued(1));
+        verify(viewMock).displayNotification(Constants.INSTANCE.Bulk_Operation_Failed("7"));
+    }
+}
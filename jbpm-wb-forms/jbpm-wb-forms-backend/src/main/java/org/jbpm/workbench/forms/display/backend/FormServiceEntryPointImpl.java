@@ -16,10 +16,19 @@
 
 package org.jbpm.workbench.forms.display.backend;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 import javax.enterprise.context.ApplicationScoped;
 import javax.enterprise.inject.Instance;
@@ -37,6 +46,8 @@ import org.jbpm.workbench.forms.service.providing.TaskRenderingSettings;
 import org.jbpm.workbench.forms.service.providing.model.TaskDefinition;
 import org.jbpm.workbench.forms.service.shared.FormServiceEntryPoint;
 import org.jbpm.workbench.ks.integration.AbstractKieServerService;
+import org.jbpm.workbench.ks.integration.KieServerExecutor;
+import org.jbpm.workbench.ks.integration.ProcessDefinitionCache;
 import org.kie.internal.task.api.ContentMarshallerContext;
 import org.kie.server.api.exception.KieServicesException;
 import org.kie.server.api.exception.KieServicesHttpException;
@@ -56,118 +67,241 @@ import org.slf4j.LoggerFactory;
 @ApplicationScoped
 public class FormServiceEntryPointImpl extends AbstractKieServerService implements FormServiceEntryPoint {
 
+    public static final String TASK_FORM_TIMEOUT = "org.jbpm.wb.forms.task.timeout";
+
     private static final Logger logger = LoggerFactory.getLogger(FormServiceEntryPointImpl.class);
 
     private final FormProvider<? extends FormRenderingSettings> defaultFormProvider;
 
+    private final ProcessDefinitionCache definitionCache;
+
     private Set<FormProvider<? extends FormRenderingSettings>> providers = new TreeSet<>((o1, o2) -> o1.getPriority() - o2.getPriority());
 
+    protected long taskFormTimeout = Long.getLong(TASK_FORM_TIMEOUT,
+                                                  30000L);
+
+    private final KieServerExecutor kieServerExecutor;
+
     @Inject
     public FormServiceEntryPointImpl(Instance<FormProvider<? extends FormRenderingSettings>> providersInjected,
-                                     @DefaultFormProvider FormProvider<? extends FormRenderingSettings> defaultFormProvider) {
+                                     @DefaultFormProvider FormProvider<? extends FormRenderingSettings> defaultFormProvider,
+                                     ProcessDefinitionCache definitionCache,
+                                     KieServerExecutor kieServerExecutor) {
         for (FormProvider provider : providersInjected) {
             providers.add(provider);
         }
 
         this.defaultFormProvider = defaultFormProvider;
+        this.definitionCache = definitionCache;
+        this.kieServerExecutor = kieServerExecutor;
     }
 
     @Override
     public FormRenderingSettings getFormDisplayTask(String serverTemplateId,
                                                     String domainId,
                                                     long taskId) {
+        final long started = System.nanoTime();
+        final long deadline = System.currentTimeMillis() + taskFormTimeout;
+        final Map<String, Long> timings = Collections.synchronizedMap(new LinkedHashMap<>());
+        final List<Future<?>> calls = new ArrayList<>();
+
         String registrationKey = serverTemplateId + "@" + domainId + "@" + System.currentTimeMillis();
 
         DocumentServicesClient documentClient = getClient(serverTemplateId,
                                                           domainId,
                                                           DocumentServicesClient.class);
 
-        // get form content
+        // get form content, it doesn't depend on the task so it is fetched while the task is being loaded
         UIServicesClient uiServicesClient = getClient(serverTemplateId,
                                                       domainId,
                                                       UIServicesClient.class);
+        Future<String> formContent = submit(calls,
+                                            timings,
+                                            "form",
+                                            () -> uiServicesClient.getTaskRawForm(domainId,
+                                                                                  taskId));
 
-        // get task with inputs and outputs
-        UserTaskServicesClient taskClient = getClient(serverTemplateId,
-                                                      domainId,
-                                                      UserTaskServicesClient.class);
-        TaskInstance task = taskClient.getTaskInstance(domainId,
-                                                       taskId,
-                                                       true,
-                                                       true,
-                                                       false);
-        if (task == null) {
-            throw new RuntimeException("No task found for id " + taskId);
-        }
-
-        ProcessServicesClient processService = getClient(serverTemplateId,
-                                                         domainId,
-                                                         ProcessServicesClient.class);
-
-        TaskDefinition taskInstance = new TaskDefinition();
-        taskInstance.setId(task.getId());
-        taskInstance.setName(task.getName());
-        taskInstance.setDescription(task.getDescription());
-        taskInstance.setFormName(task.getFormName());
-        taskInstance.setDeploymentId(registrationKey);
-        taskInstance.setProcessId(task.getProcessId());
-
-        taskInstance.setStatus(task.getStatus());
-
-        TaskInputsDefinition inputDefinitions = processService.getUserTaskInputDefinitions(domainId,
-                                                                                           task.getProcessId(),
-                                                                                           task.getName());
-
-        taskInstance.setTaskInputDefinitions(inputDefinitions.getTaskInputs());
-
-        TaskOutputsDefinition outputDefinitions = processService.getUserTaskOutputDefinitions(domainId,
-                                                                                              task.getProcessId(),
-                                                                                              task.getName());
+        try {
+            // get task with inputs and outputs
+            UserTaskServicesClient taskClient = getClient(serverTemplateId,
+                                                          domainId,
+                                                          UserTaskServicesClient.class);
+            long taskStarted = System.nanoTime();
+            TaskInstance task = taskClient.getTaskInstance(domainId,
+                                                           taskId,
+                                                           true,
+                                                           true,
+                                                           false);
+            timings.put("task",
+                        elapsed(taskStarted));
+            if (task == null) {
+                throw new RuntimeException("No task found for id " + taskId);
+            }
 
-        taskInstance.setTaskOutputDefinitions(outputDefinitions.getTaskOutputs());
+            ProcessServicesClient processService = getClient(serverTemplateId,
+                                                             domainId,
+                                                             ProcessServicesClient.class);
+
+            // definitions and document links only depend on the task
+            Future<Map<String, String>> inputDefinitions = submit(calls,
+                                                                  timings,
+                                                                  "inputDefinitions",
+                                                                  () -> definitionCache.getUserTaskInputDefinitions(serverTemplateId,
+                                                                                                                    domainId,
+                                                                                                                    task.getProcessId(),
+                                                                                                                    task.getName(),
+                                                                                                                    () -> {
+                                                                                                                        TaskInputsDefinition definitions = processService.getUserTaskInputDefinitions(domainId,
+                                                                                                                                                                                                      task.getProcessId(),
+                                                                                                                                                                                                      task.getName());
+                                                                                                                        return definitions.getTaskInputs();
+                                                                                                                    }));
+            Future<Map<String, String>> outputDefinitions = submit(calls,
+                                                                   timings,
+                                                                   "outputDefinitions",
+                                                                   () -> definitionCache.getUserTaskOutputDefinitions(serverTemplateId,
+                                                                                                                      domainId,
+                                                                                                                      task.getProcessId(),
+                                                                                                                      task.getName(),
+                                                                                                                      () -> {
+                                                                                                                          TaskOutputsDefinition definitions = processService.getUserTaskOutputDefinitions(domainId,
+                                                                                                                                                                                                          task.getProcessId(),
+                                                                                                                                                                                                          task.getName());
+                                                                                                                          return definitions.getTaskOutputs();
+                                                                                                                      }));
+            Future<Map<String, Object>> inputData = submit(calls,
+                                                           timings,
+                                                           "inputDocuments",
+                                                           () -> processData(documentClient,
+                                                                             task.getInputData()));
+            Future<Map<String, Object>> outputData = submit(calls,
+                                                            timings,
+                                                            "outputDocuments",
+                                                            () -> processData(documentClient,
+                                                                              task.getOutputData()));
+
+            TaskDefinition taskInstance = new TaskDefinition();
+            taskInstance.setId(task.getId());
+            taskInstance.setName(task.getName());
+            taskInstance.setDescription(task.getDescription());
+            taskInstance.setFormName(task.getFormName());
+            taskInstance.setDeploymentId(registrationKey);
+            taskInstance.setProcessId(task.getProcessId());
+
+            taskInstance.setStatus(task.getStatus());
+
+            taskInstance.setTaskInputDefinitions(await(inputDefinitions,
+                                                       deadline,
+                                                       "inputDefinitions"));
+
+            taskInstance.setTaskOutputDefinitions(await(outputDefinitions,
+                                                        deadline,
+                                                        "outputDefinitions"));
+
+            // prepare render context
+            Map<String, Object> inputs = await(inputData,
+                                               deadline,
+                                               "inputDocuments");
+
+            Map<String, Object> outputs = await(outputData,
+                                                deadline,
+                                                "outputDocuments");
+
+            if (outputs != null && !outputs.isEmpty()) {
+                taskInstance.setOutputIncluded(true);
+            }
 
-        // prepare render context
-        Map<String, Object> inputs = processData(documentClient,
-                                                 task.getInputData());
+            KieServicesClient kieServicesClient = getKieServicesClient(serverTemplateId,
+                                                                       domainId);
 
-        Map<String, Object> outputs = processData(documentClient,
-                                                  task.getOutputData());
+            try {
+                TaskRenderingSettings settings = new TaskRenderingSettings(taskInstance,
+                                                                           inputs,
+                                                                           outputs,
+                                                                           serverTemplateId,
+                                                                           await(formContent,
+                                                                                 deadline,
+                                                                                 "form"),
+                                                                           new ContentMarshallerContext(null,
+                                                                                                        kieServicesClient.getClassLoader()));
+                for (FormProvider provider : providers) {
+                    FormRenderingSettings template = provider.render(settings);
+                    if (template != null) {
+                        return template;
+                    }
+                }
+            } catch (KieServicesHttpException e) {
+                if (Response.Status.UNAUTHORIZED.getStatusCode() == e.getHttpCode() || Response.Status.FORBIDDEN.getStatusCode() == e.getHttpCode()) {
+                    throw new TaskFormPermissionDeniedException();
+                }
+            } catch (Exception e) {
+                logger.debug("Unable to render form for task {} due to {}",
+                             taskId,
+                             e.getMessage());
+            }
 
-        if (outputs != null && !outputs.isEmpty()) {
-            taskInstance.setOutputIncluded(true);
+            return renderDefaultTaskForm(serverTemplateId,
+                                         taskInstance,
+                                         inputs,
+                                         outputs,
+                                         kieServicesClient);
+        } finally {
+            calls.forEach(call -> call.cancel(true));
+            logger.debug("Form of task {} prepared in {} ms, remote calls: {}",
+                         taskId,
+                         elapsed(started),
+                         timings);
         }
+    }
 
-        KieServicesClient kieServicesClient = getKieServicesClient(serverTemplateId, domainId);
+    /**
+     * Runs a remote call of the task form on the KIE Server executor with the credentials of the current user and records
+     * how long it took.
+     */
+    protected <T> Future<T> submit(List<Future<?>> calls,
+                                   Map<String, Long> timings,
+                                   String phase,
+                                   Callable<T> call) {
+        Future<T> future = kieServerExecutor.submit(() -> {
+            long phaseStarted = System.nanoTime();
+            try {
+                return call.call();
+            } finally {
+                timings.put(phase,
+                            elapsed(phaseStarted));
+            }
+        });
+        calls.add(future);
+        return future;
+    }
 
+    /**
+     * Waits for a remote call until the deadline of the task form, rethrowing its failure.
+     */
+    protected <T> T await(Future<T> future,
+                          long deadline,
+                          String phase) {
         try {
-            String formContent = uiServicesClient.getTaskRawForm(domainId, taskId);
-
-            TaskRenderingSettings settings = new TaskRenderingSettings(taskInstance,
-                                                                       inputs,
-                                                                       outputs,
-                                                                       serverTemplateId,
-                                                                       formContent,
-                                                                       new ContentMarshallerContext(null,
-                                                                                                    kieServicesClient.getClassLoader()));
-            for (FormProvider provider : providers) {
-                FormRenderingSettings template = provider.render(settings);
-                if (template != null) {
-                    return template;
-                }
+            return future.get(Math.max(0,
+                                       deadline - System.currentTimeMillis()),
+                              TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for " + phase + " of the task form",
+                                            e);
+        } catch (TimeoutException e) {
+            throw new IllegalStateException("Timed out waiting for " + phase + " of the task form",
+                                            e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
             }
-        } catch (KieServicesHttpException e) {
-            if(Response.Status.UNAUTHORIZED.getStatusCode() == e.getHttpCode() || Response.Status.FORBIDDEN.getStatusCode() == e.getHttpCode()) {
-                throw new TaskFormPermissionDeniedException();
-            }
-        } catch (Exception e) {
-            logger.debug("Unable to render form for task {} due to {}", taskId, e.getMessage());
+            throw new RuntimeException(e.getCause());
         }
+    }
 
-        return renderDefaultTaskForm(serverTemplateId,
-                                     taskInstance,
-                                     inputs,
-                                     outputs,
-                                     kieServicesClient);
+    private static long elapsed(long started) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
     }
 
     private FormRenderingSettings renderDefaultTaskForm(String serverTemplateId,
@@ -20,6 +20,8 @@ import java.io.IOException;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import javax.enterprise.inject.Instance;
 import javax.ws.rs.core.Response;
@@ -36,6 +38,9 @@ import org.jbpm.workbench.forms.display.backend.provider.util.FormContentReader;
 import org.jbpm.workbench.forms.service.providing.FormProvider;
 import org.jbpm.workbench.forms.service.providing.ProcessRenderingSettings;
 import org.jbpm.workbench.forms.service.providing.TaskRenderingSettings;
+import org.jbpm.workbench.ks.integration.KieServerExecutor;
+import org.jbpm.workbench.ks.integration.ProcessDefinitionCache;
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -74,6 +79,7 @@ import org.kie.workbench.common.forms.services.backend.serialization.impl.FormMo
 import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
@@ -118,6 +124,10 @@ public class FormServiceEntryPointImplTest {
 
     private BPMNRuntimeFormGeneratorService runtimeFormGeneratorService;
 
+    private ProcessDefinitionCache definitionCache;
+
+    private ExecutorService executorService = Executors.newCachedThreadPool();
+
     private FormServiceEntryPointImpl serviceEntryPoint;
 
     private String formContent;
@@ -173,7 +183,13 @@ public class FormServiceEntryPointImplTest {
 
         when(instance.iterator()).then(result -> Arrays.asList(kieWorkbenchFormsProvider).iterator());
 
-        serviceEntryPoint = new FormServiceEntryPointImpl(instance, defaultProvider) {
+        definitionCache = new ProcessDefinitionCache(10);
+
+        serviceEntryPoint = new FormServiceEntryPointImpl(instance,
+                                                          defaultProvider,
+                                                          definitionCache,
+                                                          new KieServerExecutor(executorService,
+                                                                                8)) {
 
             @Override
             protected <T> T getClient(String serverTemplateId,
@@ -234,6 +250,11 @@ public class FormServiceEntryPointImplTest {
                                                     anyBoolean())).thenReturn(taskInstance);
     }
 
+    @After
+    public void shutdown() {
+        executorService.shutdownNow();
+    }
+
     @Test
     public void testRenderProcessForm() {
 
@@ -463,6 +484,60 @@ public class FormServiceEntryPointImplTest {
         checkRenderingSettings(settings);
     }
 
+    @Test
+    public void testRenderTaskDefaultFormWhenFormContentTimesOut() {
+        serviceEntryPoint.taskFormTimeout = 100;
+        when(uiServicesClient.getTaskRawForm(anyString(),
+                                             anyLong())).thenAnswer(invocation -> {
+            Thread.sleep(5000);
+            return FormContentReader.getTaskForms();
+        });
+
+        FormRenderingSettings settings = serviceEntryPoint.getFormDisplayTask("template",
+                                                                              "domain",
+                                                                              12);
+
+        verify(defaultProvider).render(any(TaskRenderingSettings.class));
+
+        checkRenderingSettings(settings);
+    }
+
+    @Test
+    public void testRenderTaskFormReusesTaskDefinitions() {
+        serviceEntryPoint.getFormDisplayTask("template",
+                                             "domain",
+                                             12);
+        serviceEntryPoint.getFormDisplayTask("template",
+                                             "domain",
+                                             12);
+
+        verify(userTaskServicesClient,
+               times(2)).getTaskInstance(anyString(),
+                                         anyLong(),
+                                         anyBoolean(),
+                                         anyBoolean(),
+                                         anyBoolean());
+        verify(processServicesClient).getUserTaskInputDefinitions("domain",
+                                                                  "invoices",
+                                                                  "modify");
+        verify(processServicesClient).getUserTaskOutputDefinitions("domain",
+                                                                   "invoices",
+                                                                   "modify");
+        assertEquals(2,
+                     definitionCache.getSize());
+
+        definitionCache.invalidate("template",
+                                   "domain");
+        serviceEntryPoint.getFormDisplayTask("template",
+                                             "domain",
+                                             12);
+
+        verify(processServicesClient,
+               times(2)).getUserTaskInputDefinitions("domain",
+                                                     "invoices",
+                                                     "modify");
+    }
+
     protected void checkRenderingSettings(FormRenderingSettings settings) {
         assertNotNull("Settings cannot be null",
                       settings);
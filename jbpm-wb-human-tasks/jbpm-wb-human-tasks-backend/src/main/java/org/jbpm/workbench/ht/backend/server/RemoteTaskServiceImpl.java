@@ -32,6 +32,7 @@ import org.jbpm.workbench.ht.model.TaskSummary;
 import org.jbpm.workbench.ht.model.events.TaskCompletedEvent;
 import org.jbpm.workbench.ht.service.TaskService;
 import org.jbpm.workbench.ks.integration.AbstractKieServerService;
+import org.jbpm.workbench.ks.integration.KieServerDataSetCache;
 import org.kie.internal.identity.IdentityProvider;
 import org.kie.server.api.exception.KieServicesHttpException;
 import org.kie.server.api.model.instance.TaskComment;
@@ -54,6 +55,9 @@ public class RemoteTaskServiceImpl extends AbstractKieServerService implements T
     @Inject
     private Event<TaskCompletedEvent> taskCompletedEvent;
 
+    @Inject
+    private KieServerDataSetCache dataSetCache;
+
     @Override
     public TaskSummary getTask(String serverTemplateId,
                                String containerId,
@@ -100,6 +104,7 @@ public class RemoteTaskServiceImpl extends AbstractKieServerService implements T
         client.setTaskExpirationDate(containerId,
                                      taskId,
                                      dueDate);
+        dataSetCache.invalidate(serverTemplateId);
     }
 
     @Override
@@ -116,6 +121,7 @@ public class RemoteTaskServiceImpl extends AbstractKieServerService implements T
         client.claimTask(containerId,
                          taskId,
                          identityProvider.getName());
+        dataSetCache.invalidate(serverTemplateId);
     }
 
     @Override
@@ -132,6 +138,7 @@ public class RemoteTaskServiceImpl extends AbstractKieServerService implements T
         client.releaseTask(containerId,
                            taskId,
                            identityProvider.getName());
+        dataSetCache.invalidate(serverTemplateId);
     }
 
     @Override
@@ -148,6 +155,7 @@ public class RemoteTaskServiceImpl extends AbstractKieServerService implements T
         client.startTask(containerId,
                          taskId,
                          identityProvider.getName());
+        dataSetCache.invalidate(serverTemplateId);
     }
 
     @Override
@@ -185,6 +193,7 @@ public class RemoteTaskServiceImpl extends AbstractKieServerService implements T
         client.resumeTask(containerId,
                           taskId,
                           identityProvider.getName());
+        dataSetCache.invalidate(serverTemplateId);
     }
 
     @Override
@@ -201,6 +210,7 @@ public class RemoteTaskServiceImpl extends AbstractKieServerService implements T
         client.suspendTask(containerId,
                            taskId,
                            identityProvider.getName());
+        dataSetCache.invalidate(serverTemplateId);
     }
 
     @Override
@@ -218,6 +228,7 @@ public class RemoteTaskServiceImpl extends AbstractKieServerService implements T
         client.saveTaskContent(containerId,
                                taskId,
                                output);
+        dataSetCache.invalidate(serverTemplateId);
     }
 
     @Override
@@ -316,6 +327,7 @@ public class RemoteTaskServiceImpl extends AbstractKieServerService implements T
                             taskId,
                             identityProvider.getName(),
                             entity);
+        dataSetCache.invalidate(serverTemplateId);
     }
 
     @Override
@@ -334,6 +346,7 @@ public class RemoteTaskServiceImpl extends AbstractKieServerService implements T
                            taskId,
                            identityProvider.getName(),
                            entity);
+        dataSetCache.invalidate(serverTemplateId);
     }
 
     @Override
@@ -0,0 +1,45 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jbpm.workbench.ht.backend.server;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Observes;
+import javax.inject.Inject;
+
+import org.jbpm.workbench.ht.model.events.TaskCompletedEvent;
+import org.jbpm.workbench.ks.integration.KieServerDataSetCache;
+
+/**
+ * Drops cached data set results of a server template once a task has been completed on it.
+ */
+@ApplicationScoped
+public class TaskDataSetCacheObserver {
+
+    private KieServerDataSetCache dataSetCache;
+
+    public TaskDataSetCacheObserver() {
+    }
+
+    @Inject
+    public TaskDataSetCacheObserver(final KieServerDataSetCache dataSetCache) {
+        this.dataSetCache = dataSetCache;
+    }
+
+    public void onTaskCompleted(@Observes TaskCompletedEvent event) {
+        dataSetCache.invalidate(event.getServerTemplateId());
+    }
+}
@@ -26,6 +26,7 @@ import org.jbpm.workbench.ht.model.TaskEventSummary;
 import org.jbpm.workbench.ht.model.TaskSummary;
 import org.jbpm.workbench.ht.model.events.TaskCompletedEvent;
 import org.jbpm.workbench.ht.service.TaskService;
+import org.jbpm.workbench.ks.integration.KieServerDataSetCache;
 import org.jbpm.workbench.ks.integration.KieServerIntegration;
 import org.junit.Before;
 import org.junit.Test;
@@ -64,6 +65,9 @@ public class RemoteTaskServiceImplTest {
     @Mock
     Event<TaskCompletedEvent> taskCompletedEvent;
 
+    @Mock
+    KieServerDataSetCache dataSetCache;
+
     @InjectMocks
     RemoteTaskServiceImpl remoteTaskService;
 
@@ -161,6 +165,19 @@ public class RemoteTaskServiceImplTest {
                                                    CURRENT_USER,
                                                    userId);
         verify(kieServerIntegration).getServerClient(serverTemplateId);
+        verify(dataSetCache).invalidate(serverTemplateId);
+    }
+
+    @Test
+    public void testClaimInvalidatesDataSetCache() {
+        remoteTaskService.claimTask("serverTemplateId",
+                                    "containerId",
+                                    1L);
+
+        verify(userTaskServicesClient).claimTask("containerId",
+                                                 1L,
+                                                 CURRENT_USER);
+        verify(dataSetCache).invalidate("serverTemplateId");
     }
 
     @Test
@@ -18,7 +18,6 @@ package org.jbpm.workbench.ht.client.editors.taskslist;
 
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
@@ -42,6 +41,7 @@ import org.jboss.errai.common.client.api.RemoteCallback;
 import org.jboss.errai.ui.client.local.spi.TranslationService;
 import org.jbpm.workbench.common.client.PerspectiveIds;
 import org.jbpm.workbench.common.client.dataset.AbstractDataSetReadyCallback;
+import org.jbpm.workbench.common.client.dataset.DomainDataJoin;
 import org.jbpm.workbench.common.client.list.AbstractMultiGridPresenter;
 import org.jbpm.workbench.common.client.list.ListTable;
 import org.jbpm.workbench.common.client.list.MultiGridView;
@@ -225,26 +225,18 @@ public abstract class AbstractTaskListPresenter<V extends AbstractTaskListPresen
             @Override
             public void callback(DataSet dataSet) {
                 if (dataSet.getRowCount() > 0) {
-                    Set<String> columns = new HashSet<String>();
-                    for (int i = 0; i < dataSet.getRowCount(); i++) {
-                        Long taskId = getColumnLongValue(dataSet,
-                                                         COLUMN_TASK_ID,
-                                                         i);
-                        String variableName = getColumnStringValue(dataSet,
-                                                                   COLUMN_TASK_VARIABLE_NAME,
-                                                                   i);
-                        String variableValue = getColumnStringValue(dataSet,
-                                                                    COLUMN_TASK_VARIABLE_VALUE,
-                                                                    i);
-
-                        for (TaskSummary task : instances) {
-                            if (task.getId().equals(taskId)) {
-                                task.addDomainData(variableName,
-                                                   variableValue);
-                                columns.add(variableName);
-                            }
-                        }
-                    }
+                    final Set<String> columns = new DomainDataJoin<TaskSummary>(instances,
+                                                                                TaskSummary::getId,
+                                                                                (task, variableName, variableValue) -> {
+                                                                                    task.addDomainData(variableName,
+                                                                                                       variableValue);
+                                                                                    return true;
+                                                                                })
+                            .joinRows(dataSet,
+                                      COLUMN_TASK_ID,
+                                      COLUMN_TASK_VARIABLE_NAME,
+                                      COLUMN_TASK_VARIABLE_VALUE)
+                            .getColumns();
                     view.addDomainSpecifColumns((ListTable) view.getListGrid(),
                                                 columns);
                 }
@@ -0,0 +1,52 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jbpm.workbench.ks.events;
+
+import org.jboss.errai.common.client.api.annotations.Portable;
+
+/**
+ * Event fired after runtime data was changed on KIE Server by a service that has no direct access to the data set
+ * cache. A <code>null</code> server template id stands for any server template.
+ */
+@Portable
+public class KieServerDataModified {
+
+    private String serverTemplateId;
+
+    public KieServerDataModified() {
+    }
+
+    public KieServerDataModified(String serverTemplateId) {
+        this.serverTemplateId = serverTemplateId;
+    }
+
+    public String getServerTemplateId() {
+        return serverTemplateId;
+    }
+
+    public void setServerTemplateId(String serverTemplateId) {
+        this.serverTemplateId = serverTemplateId;
+    }
+
+    @Override
+    public String toString() {
+        return "KieServerDataModified{" +
+                "serverTemplateId='" + serverTemplateId + '\'' +
+                '}';
+    }
+}
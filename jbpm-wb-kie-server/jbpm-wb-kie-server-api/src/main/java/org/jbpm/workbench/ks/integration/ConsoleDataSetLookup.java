@@ -16,6 +16,9 @@
 
 package org.jbpm.workbench.ks.integration;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import org.dashbuilder.dataset.DataSetLookup;
 import org.dashbuilder.dataset.DataSetOp;
 import org.jboss.errai.common.client.api.annotations.Portable;
@@ -25,6 +28,27 @@ public class ConsoleDataSetLookup extends DataSetLookup {
 
     private String serverTemplateId;
 
+    /**
+     * Values of the sort columns (followed by the data set keyset column) of the last row of the previous page.
+     * When set, data sets supporting keyset paging return the rows after them instead of skipping row offset rows.
+     */
+    private List<Comparable> seekValues = new ArrayList<Comparable>();
+
+    /**
+     * When set, rows holding (row id, name, value) triples are turned on the server into one row per row id
+     * with a column per distinct name, see {@link #pivot(String, String, String)}.
+     */
+    private String pivotRowColumn;
+    private String pivotNameColumn;
+    private String pivotValueColumn;
+
+    /**
+     * When set, the rows of this lookup are returned with the variables read by the pivoted variables lookup
+     * added as columns, joined on {@link #variablesJoinColumn}. See {@link #withVariables(ConsoleDataSetLookup, String)}.
+     */
+    private ConsoleDataSetLookup variablesLookup;
+    private String variablesJoinColumn;
+
     public static DataSetLookup fromInstance(DataSetLookup orig,
                                              String serverTemplateId) {
         ConsoleDataSetLookup clone = new ConsoleDataSetLookup();
@@ -35,6 +59,9 @@ public class ConsoleDataSetLookup extends DataSetLookup {
             clone.getOperationList().add(dataSetOp.cloneInstance());
         }
         clone.setServerTemplateId(serverTemplateId);
+        if (orig instanceof ConsoleDataSetLookup) {
+            clone.copySettings((ConsoleDataSetLookup) orig);
+        }
         return clone;
     }
 
@@ -46,9 +73,116 @@ public class ConsoleDataSetLookup extends DataSetLookup {
         this.serverTemplateId = serverTemplateId;
     }
 
+    public List<Comparable> getSeekValues() {
+        return seekValues;
+    }
+
+    public void setSeekValues(List<Comparable> seekValues) {
+        this.seekValues = seekValues == null ? new ArrayList<Comparable>() : new ArrayList<Comparable>(seekValues);
+    }
+
+    /**
+     * Requests the page following the row with the given sort key values.
+     */
+    public ConsoleDataSetLookup seekAfter(Comparable... values) {
+        this.seekValues = new ArrayList<Comparable>();
+        for (Comparable value : values) {
+            this.seekValues.add(value);
+        }
+        return this;
+    }
+
+    public boolean hasSeekValues() {
+        return seekValues != null && !seekValues.isEmpty();
+    }
+
+    public String getPivotRowColumn() {
+        return pivotRowColumn;
+    }
+
+    public void setPivotRowColumn(String pivotRowColumn) {
+        this.pivotRowColumn = pivotRowColumn;
+    }
+
+    public String getPivotNameColumn() {
+        return pivotNameColumn;
+    }
+
+    public void setPivotNameColumn(String pivotNameColumn) {
+        this.pivotNameColumn = pivotNameColumn;
+    }
+
+    public String getPivotValueColumn() {
+        return pivotValueColumn;
+    }
+
+    public void setPivotValueColumn(String pivotValueColumn) {
+        this.pivotValueColumn = pivotValueColumn;
+    }
+
+    /**
+     * Requests the (row id, name, value) rows to be returned pivoted: one row per row id, with the row id column
+     * followed by a column per distinct name holding its value. The number of rows read is capped on the server.
+     */
+    public ConsoleDataSetLookup pivot(String rowColumn,
+                                      String nameColumn,
+                                      String valueColumn) {
+        this.pivotRowColumn = rowColumn;
+        this.pivotNameColumn = nameColumn;
+        this.pivotValueColumn = valueColumn;
+        return this;
+    }
+
+    public boolean isPivot() {
+        return pivotRowColumn != null && pivotNameColumn != null && pivotValueColumn != null;
+    }
+
+    public ConsoleDataSetLookup getVariablesLookup() {
+        return variablesLookup;
+    }
+
+    public void setVariablesLookup(ConsoleDataSetLookup variablesLookup) {
+        this.variablesLookup = variablesLookup;
+    }
+
+    public String getVariablesJoinColumn() {
+        return variablesJoinColumn;
+    }
+
+    public void setVariablesJoinColumn(String variablesJoinColumn) {
+        this.variablesJoinColumn = variablesJoinColumn;
+    }
+
+    /**
+     * Requests the rows together with their variables in a single lookup. The variables lookup must be a
+     * {@link #pivot(String, String, String)} lookup whose row column holds the values of the join column of this
+     * lookup. Each variable becomes a column that can be used to filter and sort this lookup.
+     */
+    public ConsoleDataSetLookup withVariables(ConsoleDataSetLookup variablesLookup,
+                                              String joinColumn) {
+        this.variablesLookup = variablesLookup;
+        this.variablesJoinColumn = joinColumn;
+        return this;
+    }
+
+    public boolean hasVariables() {
+        return variablesLookup != null && variablesJoinColumn != null;
+    }
+
+    protected void copySettings(ConsoleDataSetLookup orig) {
+        setSeekValues(orig.getSeekValues());
+        pivot(orig.getPivotRowColumn(),
+              orig.getPivotNameColumn(),
+              orig.getPivotValueColumn());
+        withVariables(orig.getVariablesLookup() == null ? null : (ConsoleDataSetLookup) orig.getVariablesLookup().cloneInstance(),
+                      orig.getVariablesJoinColumn());
+    }
+
     @Override
     public DataSetLookup cloneInstance() {
-        return fromInstance(super.cloneInstance(),
-                            getServerTemplateId());
+        ConsoleDataSetLookup clone = (ConsoleDataSetLookup) fromInstance(super.cloneInstance(),
+                                                                         getServerTemplateId());
+        clone.copySettings(this);
+        return clone;
     }
 }
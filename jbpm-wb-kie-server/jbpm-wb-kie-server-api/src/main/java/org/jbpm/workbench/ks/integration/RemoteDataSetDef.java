@@ -35,6 +35,12 @@ public class RemoteDataSetDef extends SQLDataSetDef {
     @Size(min = 1, groups = {RemoteDataSetDefValidation.class})
     protected String serverTemplateId;
 
+    /**
+     * Unique column used to resolve ties when paging by key (seek) instead of by offset, e.g. the instance id.
+     * Keyset paging is only available for data sets that define it.
+     */
+    protected String keysetColumn;
+
     public RemoteDataSetDef() {
         super.setProvider(new KieServerDataSetProviderType());
     }
@@ -55,12 +61,21 @@ public class RemoteDataSetDef extends SQLDataSetDef {
         this.serverTemplateId = serverTemplateId;
     }
 
+    public String getKeysetColumn() {
+        return keysetColumn;
+    }
+
+    public void setKeysetColumn(String keysetColumn) {
+        this.keysetColumn = keysetColumn;
+    }
+
     @Override
     public int hashCode() {
         final int prime = 31;
         int result = 1;
         result = prime * result + ((queryTarget == null) ? 0 : queryTarget.hashCode());
         result = prime * result + ((serverTemplateId == null) ? 0 : serverTemplateId.hashCode());
+        result = prime * result + ((keysetColumn == null) ? 0 : keysetColumn.hashCode());
         return result;
     }
 
@@ -83,6 +98,11 @@ public class RemoteDataSetDef extends SQLDataSetDef {
                 return false;
         } else if (!serverTemplateId.equals(other.serverTemplateId))
             return false;
+        if (keysetColumn == null) {
+            if (other.keysetColumn != null)
+                return false;
+        } else if (!keysetColumn.equals(other.keysetColumn))
+            return false;
         return true;
     }
 
@@ -92,6 +112,7 @@ public class RemoteDataSetDef extends SQLDataSetDef {
         clone(def);
         def.setQueryTarget(getQueryTarget());
         def.setServerTemplateId(getServerTemplateId()); 
+        def.setKeysetColumn(getKeysetColumn());
         def.setDbSQL(getDbSQL());
         def.setDataSource(getDataSource());
         return def;
@@ -111,6 +132,7 @@ public class RemoteDataSetDef extends SQLDataSetDef {
         out.append("Data source=").append(dataSource).append("\n");
         out.append("Query target=").append(queryTarget).append("\n");
         out.append("Server template id=").append(serverTemplateId).append("\n");
+        out.append("Keyset column=").append(keysetColumn).append("\n");
         out.append("DB SQL=").append(dbSQL).append("\n");
         out.append("Get all columns=").append(allColumnsEnabled).append("\n");
         out.append("Cache enabled=").append(cacheEnabled).append("\n");
@@ -31,6 +31,7 @@ public class RemoteDefJSONMarshaller implements DataSetDefJSONMarshallerExt<Remo
     public static final String DATA_SOURCE = "dataSource";
     public static final String DB_SCHEMA = "dbSchema";
     public static final String DB_SQL = "dbSQL";
+    public static final String KEYSET_COLUMN = "keysetColumn";
 
 
     @Override
@@ -40,6 +41,7 @@ public class RemoteDefJSONMarshaller implements DataSetDefJSONMarshallerExt<Remo
         String dataSource = json.getString(DATA_SOURCE);
         String dbSchema = json.getString(DB_SCHEMA);
         String dbSQL = json.getString(DB_SQL);
+        String keysetColumn = json.getString(KEYSET_COLUMN);
 
         if (!isBlank(queryTarget)) {
             def.setQueryTarget(queryTarget);
@@ -56,6 +58,9 @@ public class RemoteDefJSONMarshaller implements DataSetDefJSONMarshallerExt<Remo
         if (!isBlank(dbSQL)) {
             def.setDbSQL(dbSQL);
         }
+        if (!isBlank(keysetColumn)) {
+            def.setKeysetColumn(keysetColumn);
+        }
     }
 
     @Override
@@ -74,6 +79,10 @@ public class RemoteDefJSONMarshaller implements DataSetDefJSONMarshallerExt<Remo
         json.put(QUERY_TARGET, dataSetDef.getQueryTarget());
         
         json.put(SERVER_TEMPLATE_ID, dataSetDef.getServerTemplateId());
+
+        if (dataSetDef.getKeysetColumn() != null) {
+            json.put(KEYSET_COLUMN, dataSetDef.getKeysetColumn());
+        }
         
         // All columns flag.
         json.put(ALL_COLUMNS, dataSetDef.isAllColumnsEnabled());
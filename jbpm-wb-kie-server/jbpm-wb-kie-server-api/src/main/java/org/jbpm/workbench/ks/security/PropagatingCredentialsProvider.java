@@ -0,0 +1,86 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jbpm.workbench.ks.security;
+
+import java.util.concurrent.Callable;
+
+import org.kie.server.client.CredentialsProvider;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * User credentials are resolved from the current request or security subject, both bound to the thread serving
+ * the request. This provider lets tasks running on other threads, e.g. concurrent KIE Server calls, use the
+ * credentials of the thread that submitted them.
+ */
+public class PropagatingCredentialsProvider implements CredentialsProvider {
+
+    private static final Logger logger = LoggerFactory.getLogger(PropagatingCredentialsProvider.class);
+
+    private static final ThreadLocal<String> PROPAGATED_AUTHORIZATION = new ThreadLocal<>();
+
+    private final CredentialsProvider delegate;
+
+    public PropagatingCredentialsProvider(CredentialsProvider delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public String getHeaderName() {
+        return delegate.getHeaderName();
+    }
+
+    @Override
+    public String getAuthorization() {
+        final String propagated = PROPAGATED_AUTHORIZATION.get();
+        return propagated != null ? propagated : delegate.getAuthorization();
+    }
+
+    /**
+     * Resolves the credentials of the calling thread and returns a task that runs with them.
+     */
+    public <T> Callable<T> propagate(final Callable<T> task) {
+        final String authorization = getCurrentAuthorization();
+        if (authorization == null) {
+            return task;
+        }
+        return () -> {
+            final String previous = PROPAGATED_AUTHORIZATION.get();
+            PROPAGATED_AUTHORIZATION.set(authorization);
+            try {
+                return task.call();
+            } finally {
+                if (previous == null) {
+                    PROPAGATED_AUTHORIZATION.remove();
+                } else {
+                    PROPAGATED_AUTHORIZATION.set(previous);
+                }
+            }
+        };
+    }
+
+    protected String getCurrentAuthorization() {
+        try {
+            return getAuthorization();
+        } catch (RuntimeException | LinkageError e) {
+            // no request or subject bound to the calling thread
+            logger.debug("Unable to resolve credentials to propagate due to {}",
+                         e.toString());
+            return null;
+        }
+    }
+}
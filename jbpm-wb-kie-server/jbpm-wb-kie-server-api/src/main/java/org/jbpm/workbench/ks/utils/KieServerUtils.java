@@ -17,8 +17,10 @@
 package org.jbpm.workbench.ks.utils;
 
 import java.util.Arrays;
+import java.util.concurrent.Callable;
 
 import org.jbpm.workbench.ks.security.KeyCloakTokenCredentialsProvider;
+import org.jbpm.workbench.ks.security.PropagatingCredentialsProvider;
 import org.kie.server.api.KieServerConstants;
 import org.kie.server.api.marshalling.MarshallingFormat;
 import org.kie.server.client.CredentialsProvider;
@@ -120,7 +122,15 @@ public class KieServerUtils {
         }
         LOGGER.debug("{} initialized for the client.",
                      credentialsProvider.getClass().getName());
-        return credentialsProvider;
+        return new PropagatingCredentialsProvider(credentialsProvider);
+    }
+
+    /**
+     * Wraps a task to be run on another thread so that the KIE Server calls it makes use the credentials of the
+     * current user.
+     */
+    public static <T> Callable<T> withCurrentCredentials(final Callable<T> task) {
+        return CurrentCredentials.PROVIDER.propagate(task);
     }
 
     public static CredentialsProvider getAdminCredentialsProvider() {
@@ -132,4 +142,9 @@ public class KieServerUtils {
                                                   loadServerPassword());
         }
     }
+
+    private static class CurrentCredentials {
+
+        private static final PropagatingCredentialsProvider PROVIDER = (PropagatingCredentialsProvider) getCredentialsProvider();
+    }
 }
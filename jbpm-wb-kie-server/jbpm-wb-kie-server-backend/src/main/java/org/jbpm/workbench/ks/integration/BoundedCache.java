@@ -0,0 +1,176 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jbpm.workbench.ks.integration;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.BiPredicate;
+import java.util.function.ToLongFunction;
+
+/**
+ * Least recently used cache bounded by its number of entries and, optionally, by the total weight of its values.
+ * Entries may also expire after a time to live. Setting any of the limits to 0 disables the cache: nothing is
+ * stored and every lookup misses. All methods are synchronized on the cache.
+ */
+public class BoundedCache<K, V> {
+
+    private final int maxSize;
+    private final long timeToLive;
+    private final long maxWeight;
+    private final ToLongFunction<V> weigher;
+
+    private final LinkedHashMap<K, Entry<V>> entries = new LinkedHashMap<>(16,
+                                                                           0.75f,
+                                                                           true);
+    private long weight = 0;
+
+    public BoundedCache(final int maxSize) {
+        this(maxSize,
+             Long.MAX_VALUE);
+    }
+
+    public BoundedCache(final int maxSize,
+                        final long timeToLive) {
+        this(maxSize,
+             timeToLive,
+             Long.MAX_VALUE,
+             value -> 0L);
+    }
+
+    public BoundedCache(final int maxSize,
+                        final long timeToLive,
+                        final long maxWeight,
+                        final ToLongFunction<V> weigher) {
+        this.maxSize = maxSize;
+        this.timeToLive = timeToLive;
+        this.maxWeight = maxWeight;
+        this.weigher = weigher;
+    }
+
+    public boolean isEnabled() {
+        return maxSize > 0 && timeToLive > 0 && maxWeight > 0;
+    }
+
+    /**
+     * @return the value of the key or null if it is not cached or has expired
+     */
+    public synchronized V get(final K key) {
+        if (!isEnabled()) {
+            return null;
+        }
+        final Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAt <= System.currentTimeMillis()) {
+            remove(key);
+            onEvict(key,
+                    entry.value);
+            return null;
+        }
+        return entry.value;
+    }
+
+    /**
+     * Stores the value and evicts the least recently used entries over the limits. A value heavier than the whole
+     * cache is not stored and drops the previous value of the key.
+     */
+    public synchronized void put(final K key,
+                                 final V value) {
+        if (!isEnabled()) {
+            return;
+        }
+        final long valueWeight = weigher.applyAsLong(value);
+        if (valueWeight > maxWeight) {
+            remove(key);
+            return;
+        }
+        final long now = System.currentTimeMillis();
+        final Entry<V> previous = entries.put(key,
+                                              new Entry<>(value,
+                                                          valueWeight,
+                                                          timeToLive > Long.MAX_VALUE - now ? Long.MAX_VALUE : now + timeToLive));
+        weight += valueWeight - (previous == null ? 0 : previous.weight);
+
+        final Iterator<Map.Entry<K, Entry<V>>> eldest = entries.entrySet().iterator();
+        while ((entries.size() > maxSize || weight > maxWeight) && eldest.hasNext()) {
+            final Map.Entry<K, Entry<V>> evicted = eldest.next();
+            weight -= evicted.getValue().weight;
+            eldest.remove();
+            onEvict(evicted.getKey(),
+                    evicted.getValue().value);
+        }
+    }
+
+    public synchronized V remove(final K key) {
+        final Entry<V> removed = entries.remove(key);
+        if (removed == null) {
+            return null;
+        }
+        weight -= removed.weight;
+        return removed.value;
+    }
+
+    public synchronized void removeIf(final BiPredicate<? super K, ? super V> filter) {
+        final Iterator<Map.Entry<K, Entry<V>>> iterator = entries.entrySet().iterator();
+        while (iterator.hasNext()) {
+            final Map.Entry<K, Entry<V>> entry = iterator.next();
+            if (filter.test(entry.getKey(),
+                            entry.getValue().value)) {
+                weight -= entry.getValue().weight;
+                iterator.remove();
+            }
+        }
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        weight = 0;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long getWeight() {
+        return weight;
+    }
+
+    /**
+     * Called when an entry is evicted because of the limits or because it expired, not when it is removed.
+     */
+    protected void onEvict(final K key,
+                           final V value) {
+    }
+
+    private static class Entry<V> {
+
+        private final V value;
+        private final long weight;
+        private final long expiresAt;
+
+        Entry(final V value,
+              final long weight,
+              final long expiresAt) {
+            this.value = value;
+            this.weight = weight;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
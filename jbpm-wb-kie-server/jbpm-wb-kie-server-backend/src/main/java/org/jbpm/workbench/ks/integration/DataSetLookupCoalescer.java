@@ -0,0 +1,112 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jbpm.workbench.ks.integration;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.dashbuilder.dataset.DataSet;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Deduplicates data set lookups that are in flight at the same time. The first caller for a given key
+ * executes the lookup, concurrent callers with the same key wait for it and receive a copy of its result.
+ * Keys are expected to include the {@link KieServerDataSetCache#getGeneration(String) cache generation}, so lookups
+ * issued after an invalidation never join a query started before it. Callers wait for a running lookup at most the
+ * configured timeout; a lookup that doesn't complete within it is no longer joined by later callers.
+ */
+public class DataSetLookupCoalescer {
+
+    public static final String LOOKUP_TIMEOUT = "org.jbpm.wb.dataset.lookup.timeout";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(DataSetLookupCoalescer.class);
+
+    private final long timeout;
+
+    private final ConcurrentMap<String, CompletableFuture<DataSet>> inFlight = new ConcurrentHashMap<>();
+
+    private final AtomicLong issued = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+
+    public DataSetLookupCoalescer() {
+        this(Long.getLong(LOOKUP_TIMEOUT,
+                          60000L));
+    }
+
+    public DataSetLookupCoalescer(final long timeout) {
+        this.timeout = timeout;
+    }
+
+    public DataSet execute(final String key,
+                           final Callable<DataSet> lookup) throws Exception {
+        final CompletableFuture<DataSet> future = new CompletableFuture<>();
+        final CompletableFuture<DataSet> running = inFlight.putIfAbsent(key,
+                                                                        future);
+        if (running != null) {
+            coalesced.incrementAndGet();
+            LOGGER.debug("Joining in flight data set lookup {}",
+                         key);
+            try {
+                return running.get(timeout,
+                                   TimeUnit.MILLISECONDS).cloneInstance();
+            } catch (TimeoutException e) {
+                // let the next caller issue a fresh query instead of waiting on a stuck one as well
+                inFlight.remove(key,
+                                running);
+                throw new TimeoutException("Data set lookup " + key + " did not complete within " + timeout + " ms");
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof Exception) {
+                    throw (Exception) e.getCause();
+                }
+                throw new RuntimeException(e.getCause());
+            }
+        }
+
+        issued.incrementAndGet();
+        try {
+            final DataSet dataSet = lookup.call();
+            future.complete(dataSet);
+            // waiters get copies of the completed data set, so the caller gets its own copy as well
+            return dataSet.cloneInstance();
+        } catch (Throwable e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key,
+                            future);
+        }
+    }
+
+    public long getIssued() {
+        return issued.get();
+    }
+
+    public long getCoalesced() {
+        return coalesced.get();
+    }
+
+    public int getInFlight() {
+        return inFlight.size();
+    }
+}
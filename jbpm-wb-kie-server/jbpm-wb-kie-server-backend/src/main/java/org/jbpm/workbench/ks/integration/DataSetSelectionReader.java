@@ -0,0 +1,147 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jbpm.workbench.ks.integration;
+
+import java.util.ArrayList;
+import java.util.List;
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+
+import org.dashbuilder.dataset.DataSet;
+import org.dashbuilder.dataset.DataSetLookup;
+import org.dashbuilder.dataset.DataSetOpType;
+import org.dashbuilder.dataset.def.DataSetDef;
+import org.dashbuilder.dataset.def.DataSetDefRegistry;
+import org.dashbuilder.dataset.sort.ColumnSort;
+import org.dashbuilder.dataset.sort.DataSetSort;
+import org.dashbuilder.dataset.sort.SortOrder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Reads the rows selected by the filters of a list lookup, e.g. all the errors matching the filters of the error
+ * list, so that bulk operations can run on them without the client sending every id. The filters are applied the
+ * same way as for the list, through the {@link KieServerDataSetProvider}, and the matching rows are read in pages of
+ * {@link #SELECTION_PAGE_SIZE} ordered by a unique column. Paging and sorting of the given lookup are ignored.
+ */
+@ApplicationScoped
+public class DataSetSelectionReader {
+
+    public static final String SELECTION_PAGE_SIZE = "org.jbpm.wb.dataset.selection.pageSize";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(DataSetSelectionReader.class);
+
+    private int pageSize = Integer.getInteger(SELECTION_PAGE_SIZE,
+                                              500);
+
+    private DataSetDefRegistry dataSetDefRegistry;
+
+    private KieServerDataSetProvider dataSetProvider;
+
+    public DataSetSelectionReader() {
+    }
+
+    @Inject
+    public DataSetSelectionReader(final DataSetDefRegistry dataSetDefRegistry,
+                                  final KieServerDataSetProvider dataSetProvider) {
+        this.dataSetDefRegistry = dataSetDefRegistry;
+        this.dataSetProvider = dataSetProvider;
+    }
+
+    /**
+     * Reads the given columns of all the rows matching the filters of the selection.
+     * @param serverTemplateId server template the selection is read from
+     * @param selection lookup whose filters select the rows
+     * @param idColumn column uniquely identifying a row, the pages are ordered by it
+     * @param columns other columns to read
+     * @return for each matching row the value of the id column followed by the values of the other columns
+     */
+    public List<List<Object>> readSelection(final String serverTemplateId,
+                                            final DataSetLookup selection,
+                                            final String idColumn,
+                                            final String... columns) {
+        final DataSetDef def = dataSetDefRegistry.getDataSetDef(selection.getDataSetUUID());
+        if (!(def instanceof RemoteDataSetDef)) {
+            throw new IllegalArgumentException("Data set " + selection.getDataSetUUID() + " is not a KIE Server data set");
+        }
+        final ConsoleDataSetLookup lookup = (ConsoleDataSetLookup) ConsoleDataSetLookup.fromInstance(selection,
+                                                                                                     serverTemplateId);
+        lookup.setSeekValues(null);
+        lookup.removeOperations(DataSetOpType.SORT);
+        final DataSetSort sort = new DataSetSort();
+        sort.addSortColumn(new ColumnSort(idColumn,
+                                          SortOrder.ASCENDING));
+        lookup.addOperation(sort);
+        // the keyset column orders the pages by itself, the next page is read after the last id instead of by offset
+        final boolean keyset = idColumn.equals(((RemoteDataSetDef) def).getKeysetColumn()) && !lookup.hasVariables();
+
+        final List<List<Object>> rows = new ArrayList<>();
+        while (true) {
+            lookup.setRowOffset(keyset ? 0 : rows.size());
+            lookup.setNumberOfRows(pageSize);
+            final DataSet page = queryPage(def,
+                                           lookup);
+            for (int i = 0; i < page.getRowCount(); i++) {
+                final List<Object> row = new ArrayList<>(columns.length + 1);
+                row.add(page.getValueAt(i,
+                                        idColumn));
+                for (String column : columns) {
+                    row.add(page.getValueAt(i,
+                                            column));
+                }
+                rows.add(row);
+            }
+            if (page.getRowCount() < pageSize) {
+                break;
+            }
+            if (keyset) {
+                lookup.seekAfter(toSeekValue(rows.get(rows.size() - 1).get(0)));
+            }
+        }
+        LOGGER.debug("Selection of data set {} matched {} row(s)",
+                     def.getUUID(),
+                     rows.size());
+        return rows;
+    }
+
+    protected DataSet queryPage(final DataSetDef def,
+                                final ConsoleDataSetLookup lookup) {
+        try {
+            // not cached, the rows are about to be changed by the bulk operation
+            return dataSetProvider.queryDataSet(def,
+                                                lookup,
+                                                lookup);
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    protected static Comparable toSeekValue(final Object value) {
+        if (value instanceof Double && ((Double) value) == Math.floor((Double) value)) {
+            // numeric columns are read as doubles, ids are compared as integers on KIE Server
+            return ((Double) value).longValue();
+        }
+        return (Comparable) value;
+    }
+
+    protected void setPageSize(final int pageSize) {
+        this.pageSize = pageSize;
+    }
+}
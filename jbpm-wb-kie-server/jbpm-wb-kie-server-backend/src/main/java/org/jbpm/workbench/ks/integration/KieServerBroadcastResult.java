@@ -0,0 +1,86 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jbpm.workbench.ks.integration;
+
+/**
+ * Outcome of an operation broadcast to a single KIE Server instance of a server template.
+ */
+public class KieServerBroadcastResult {
+
+    private final String serverInstanceId;
+    private final String url;
+    private final Object result;
+    private final Throwable error;
+
+    protected KieServerBroadcastResult(final String serverInstanceId,
+                                       final String url,
+                                       final Object result,
+                                       final Throwable error) {
+        this.serverInstanceId = serverInstanceId;
+        this.url = url;
+        this.result = result;
+        this.error = error;
+    }
+
+    public static KieServerBroadcastResult success(final String serverInstanceId,
+                                                   final String url,
+                                                   final Object result) {
+        return new KieServerBroadcastResult(serverInstanceId,
+                                            url,
+                                            result,
+                                            null);
+    }
+
+    public static KieServerBroadcastResult failure(final String serverInstanceId,
+                                                   final String url,
+                                                   final Throwable error) {
+        return new KieServerBroadcastResult(serverInstanceId,
+                                            url,
+                                            null,
+                                            error);
+    }
+
+    public String getServerInstanceId() {
+        return serverInstanceId;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public Object getResult() {
+        return result;
+    }
+
+    public Throwable getError() {
+        return error;
+    }
+
+    public boolean isSuccess() {
+        return error == null;
+    }
+
+    @Override
+    public String toString() {
+        return "KieServerBroadcastResult{" +
+                "serverInstanceId='" + serverInstanceId + '\'' +
+                ", url='" + url + '\'' +
+                ", result=" + result +
+                ", error=" + error +
+                '}';
+    }
+}
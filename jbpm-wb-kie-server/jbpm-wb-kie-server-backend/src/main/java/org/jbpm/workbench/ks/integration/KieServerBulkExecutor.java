@@ -0,0 +1,207 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jbpm.workbench.ks.integration;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Runs an operation on many items of a server template, e.g. aborting process instances or acknowledging errors.
+ * Items are grouped by container and split into batches, each batch is a single call of the operation. Batches run
+ * on the {@link KieServerExecutor}, at most {@link #MAX_PARALLEL_BATCHES} of a single operation at a time, so that
+ * large selections neither flood KIE Server nor take every slot of the executor. A failing batch doesn't stop the
+ * others, the items of every failed batch are reported along with the error. Progress is reported on the calling
+ * thread, so that events fired from it can be routed back to the client that started the operation.
+ */
+@ApplicationScoped
+public class KieServerBulkExecutor {
+
+    public static final String BULK_BATCH_SIZE = "org.jbpm.wb.kieserver.bulk.batch.size";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(KieServerBulkExecutor.class);
+
+    protected static final int MAX_PARALLEL_BATCHES = 4;
+
+    private int batchSize = Integer.getInteger(BULK_BATCH_SIZE,
+                                               100);
+
+    private KieServerExecutor kieServerExecutor;
+
+    public KieServerBulkExecutor() {
+    }
+
+    @Inject
+    public KieServerBulkExecutor(final KieServerExecutor kieServerExecutor) {
+        this.kieServerExecutor = kieServerExecutor;
+    }
+
+    /**
+     * Applies a batched operation on the items and waits for all batches to complete. When a batch fails all of its
+     * items are reported as failed.
+     * @param containers container of each item, at the same index as the item
+     * @param items items to apply the operation on
+     * @param batchOperation operation applied on a batch of items of a single container
+     * @param progress notified on the calling thread with the number of processed and total items after each batch,
+     * may be null
+     * @return items on which the operation failed along with the error, empty when all succeeded
+     */
+    public <T> Map<T, Throwable> execute(final List<String> containers,
+                                         final List<T> items,
+                                         final BiConsumer<String, List<T>> batchOperation,
+                                         final BiConsumer<Integer, Integer> progress) {
+        return run(containers,
+                   items,
+                   (containerId, batch) -> {
+                       try {
+                           batchOperation.accept(containerId,
+                                                 batch);
+                           return Collections.emptyMap();
+                       } catch (Exception e) {
+                           LOGGER.debug("Bulk operation failed for {} items of container {} due to {}",
+                                        batch.size(),
+                                        containerId,
+                                        e.getMessage());
+                           final Map<T, Throwable> failures = new LinkedHashMap<>();
+                           batch.forEach(item -> failures.put(item,
+                                                              e));
+                           return failures;
+                       }
+                   },
+                   progress);
+    }
+
+    /**
+     * Same as {@link #execute(List, List, BiConsumer, BiConsumer)} for operations KIE Server only offers for a single
+     * item. Items of a batch are processed one after the other and a failing item doesn't stop the rest of the batch.
+     */
+    public <T> Map<T, Throwable> executeEach(final List<String> containers,
+                                             final List<T> items,
+                                             final BiConsumer<String, T> itemOperation,
+                                             final BiConsumer<Integer, Integer> progress) {
+        return run(containers,
+                   items,
+                   (containerId, batch) -> {
+                       final Map<T, Throwable> failures = new LinkedHashMap<>();
+                       for (T item : batch) {
+                           try {
+                               itemOperation.accept(containerId,
+                                                    item);
+                           } catch (Exception e) {
+                               LOGGER.debug("Bulk operation failed for item {} of container {} due to {}",
+                                            item,
+                                            containerId,
+                                            e.getMessage());
+                               failures.put(item,
+                                            e);
+                           }
+                       }
+                       return failures;
+                   },
+                   progress);
+    }
+
+    protected <T> Map<T, Throwable> run(final List<String> containers,
+                                        final List<T> items,
+                                        final BiFunction<String, List<T>, Map<T, Throwable>> batchOperation,
+                                        final BiConsumer<Integer, Integer> progress) {
+        if (containers.size() != items.size()) {
+            throw new IllegalArgumentException("Expected a container for each of the " + items.size() + " items but got " + containers.size());
+        }
+        final Map<String, List<T>> itemsByContainer = new LinkedHashMap<>();
+        for (int i = 0; i < items.size(); i++) {
+            itemsByContainer.computeIfAbsent(containers.get(i),
+                                             c -> new ArrayList<>()).add(items.get(i));
+        }
+
+        final Queue<Map.Entry<String, List<T>>> pendingBatches = new ConcurrentLinkedQueue<>();
+        itemsByContainer.forEach((containerId, containerItems) -> {
+            for (int from = 0; from < containerItems.size(); from += batchSize) {
+                pendingBatches.add(new AbstractMap.SimpleImmutableEntry<>(containerId,
+                                                                          containerItems.subList(from,
+                                                                                                 Math.min(from + batchSize,
+                                                                                                          containerItems.size()))));
+            }
+        });
+
+        final Map<T, Throwable> failures = Collections.synchronizedMap(new LinkedHashMap<>());
+        // sizes of the processed batches, handed over to the calling thread for the progress
+        final BlockingQueue<Integer> processedBatches = new LinkedBlockingQueue<>();
+        final List<Future<?>> workers = new ArrayList<>();
+        try {
+            // each worker takes the next pending batch until none is left
+            final int workerCount = Math.min(MAX_PARALLEL_BATCHES,
+                                             pendingBatches.size());
+            for (int i = 0; i < workerCount; i++) {
+                workers.add(kieServerExecutor.submit(() -> {
+                    Map.Entry<String, List<T>> batch;
+                    while ((batch = pendingBatches.poll()) != null) {
+                        failures.putAll(batchOperation.apply(batch.getKey(),
+                                                             batch.getValue()));
+                        processedBatches.add(batch.getValue().size());
+                    }
+                    return null;
+                }));
+            }
+            int processed = 0;
+            while (processed < items.size()) {
+                final Integer batch = processedBatches.poll(100,
+                                                            TimeUnit.MILLISECONDS);
+                if (batch != null) {
+                    processed += batch;
+                    if (progress != null) {
+                        progress.accept(processed,
+                                        items.size());
+                    }
+                } else if (workers.stream().allMatch(Future::isDone) && processedBatches.isEmpty()) {
+                    // a worker failed, its error is raised below
+                    break;
+                }
+            }
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while running bulk operation",
+                                            e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Unable to run bulk operation",
+                                            e.getCause());
+        } finally {
+            workers.forEach(worker -> worker.cancel(true));
+        }
+        return failures;
+    }
+}
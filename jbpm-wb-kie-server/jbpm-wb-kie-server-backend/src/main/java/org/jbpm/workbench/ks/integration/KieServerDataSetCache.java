@@ -0,0 +1,418 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jbpm.workbench.ks.integration;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Observes;
+
+import org.dashbuilder.dataset.DataSet;
+import org.dashbuilder.dataset.DataSetOp;
+import org.dashbuilder.dataset.events.DataSetDefModifiedEvent;
+import org.dashbuilder.dataset.events.DataSetDefRemovedEvent;
+import org.dashbuilder.dataset.filter.ColumnFilter;
+import org.dashbuilder.dataset.filter.DataSetFilter;
+import org.dashbuilder.dataset.group.ColumnGroup;
+import org.dashbuilder.dataset.group.DataSetGroup;
+import org.dashbuilder.dataset.group.GroupFunction;
+import org.dashbuilder.dataset.group.Interval;
+import org.dashbuilder.dataset.sort.ColumnSort;
+import org.dashbuilder.dataset.sort.DataSetSort;
+import org.jbpm.workbench.ks.events.KieServerDataModified;
+import org.jbpm.workbench.ks.events.KieServerDataSetRegistered;
+import org.kie.server.controller.api.model.events.ServerInstanceDisconnected;
+import org.kie.server.controller.api.model.events.ServerTemplateDeleted;
+import org.kie.server.controller.api.model.events.ServerTemplateUpdated;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Per server template {@link BoundedCache} of data sets and raw query pages used by {@link KieServerDataSetProvider},
+ * with a configurable time to live and number of entries per server template. Services that change
+ * runtime data on KIE Server, e.g. aborting process instances or cancelling jobs, invalidate the entries of the
+ * server template so the grids show the result of the user's own action right away. Results are only stored when no
+ * invalidation happened since the {@link #getGeneration(String) generation} captured before querying KIE Server, so a
+ * query that raced with a change never caches data older than the change.
+ */
+@ApplicationScoped
+public class KieServerDataSetCache {
+
+    public static final String CACHE_TTL = "org.jbpm.wb.dataset.cache.ttl";
+    public static final String CACHE_MAX_SIZE = "org.jbpm.wb.dataset.cache.size";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(KieServerDataSetCache.class);
+
+    private final long timeToLive;
+    private final int maxSize;
+
+    private final ConcurrentMap<String, BoundedCache<String, CacheEntry>> cachesByServerTemplate = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<String, AtomicLong> generations = new ConcurrentHashMap<>();
+    private final AtomicLong globalGeneration = new AtomicLong();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong pageHits = new AtomicLong();
+    private final AtomicLong pageMisses = new AtomicLong();
+
+    public KieServerDataSetCache() {
+        this(Long.getLong(CACHE_TTL,
+                          5000L),
+             Integer.getInteger(CACHE_MAX_SIZE,
+                                200));
+    }
+
+    public KieServerDataSetCache(final long timeToLive,
+                                 final int maxSize) {
+        this.timeToLive = timeToLive;
+        this.maxSize = maxSize;
+    }
+
+    public boolean isEnabled() {
+        return timeToLive > 0 && maxSize > 0;
+    }
+
+    /**
+     * Returns the current generation of the given server template's entries, to be captured before querying KIE Server
+     * and passed on to {@link #put(String, String, String, DataSet, long)} or
+     * {@link #putRows(String, String, String, List, long)}. Any invalidation affecting the server template changes it.
+     */
+    public long getGeneration(final String serverTemplateId) {
+        final long global = globalGeneration.get();
+        if (serverTemplateId == null) {
+            return global;
+        }
+        // both counters only grow, so their sum changes whenever either of them does
+        return global + generations.computeIfAbsent(serverTemplateId,
+                                                    id -> new AtomicLong()).get();
+    }
+
+    public DataSet get(final String serverTemplateId,
+                       final String key) {
+        final CacheEntry entry = getEntry(serverTemplateId,
+                                          key);
+        if (entry == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        LOGGER.debug("Data set {} served from cache for server template {}",
+                     entry.getDataSetUUID(),
+                     serverTemplateId);
+        return ((DataSet) entry.getValue()).cloneInstance();
+    }
+
+    public void put(final String serverTemplateId,
+                    final String key,
+                    final String dataSetUUID,
+                    final DataSet dataSet,
+                    final long generation) {
+        putEntry(serverTemplateId,
+                 key,
+                 dataSetUUID,
+                 dataSet.cloneInstance(),
+                 generation);
+    }
+
+    /**
+     * Returns the raw rows of a single query page as previously returned by KIE Server.
+     */
+    public List<List> getRows(final String serverTemplateId,
+                              final String key) {
+        final CacheEntry entry = getEntry(serverTemplateId,
+                                          key);
+        if (entry == null) {
+            pageMisses.incrementAndGet();
+            return null;
+        }
+        pageHits.incrementAndGet();
+        return (List<List>) entry.getValue();
+    }
+
+    public void putRows(final String serverTemplateId,
+                        final String key,
+                        final String dataSetUUID,
+                        final List<List> rows,
+                        final long generation) {
+        putEntry(serverTemplateId,
+                 key,
+                 dataSetUUID,
+                 Collections.unmodifiableList(new ArrayList<>(rows)),
+                 generation);
+    }
+
+    private CacheEntry getEntry(final String serverTemplateId,
+                                final String key) {
+        if (!isEnabled() || serverTemplateId == null) {
+            return null;
+        }
+        final BoundedCache<String, CacheEntry> cache = cachesByServerTemplate.get(serverTemplateId);
+        return cache == null ? null : cache.get(key);
+    }
+
+    private void putEntry(final String serverTemplateId,
+                          final String key,
+                          final String dataSetUUID,
+                          final Object value,
+                          final long generation) {
+        if (!isEnabled() || serverTemplateId == null || getGeneration(serverTemplateId) != generation) {
+            return;
+        }
+        final BoundedCache<String, CacheEntry> cache = cachesByServerTemplate.computeIfAbsent(serverTemplateId,
+                                                                                               id -> newCache());
+        cache.put(key,
+                  new CacheEntry(dataSetUUID,
+                                 value));
+        // invalidations bump the generation before dropping entries, an invalidation that ran in between may have
+        // missed the entry just stored
+        if (getGeneration(serverTemplateId) != generation) {
+            cache.remove(key);
+        }
+    }
+
+    private BoundedCache<String, CacheEntry> newCache() {
+        return new BoundedCache<String, CacheEntry>(maxSize,
+                                                    timeToLive) {
+            @Override
+            protected void onEvict(final String key,
+                                   final CacheEntry entry) {
+                evictions.incrementAndGet();
+            }
+        };
+    }
+
+    public void invalidate(final String serverTemplateId) {
+        if (serverTemplateId == null) {
+            return;
+        }
+        generations.computeIfAbsent(serverTemplateId,
+                                    id -> new AtomicLong()).incrementAndGet();
+        if (cachesByServerTemplate.remove(serverTemplateId) != null) {
+            LOGGER.debug("Data set cache invalidated for server template {}",
+                         serverTemplateId);
+        }
+    }
+
+    public void invalidateDataSet(final String dataSetUUID) {
+        if (dataSetUUID == null) {
+            return;
+        }
+        globalGeneration.incrementAndGet();
+        for (BoundedCache<String, CacheEntry> cache : cachesByServerTemplate.values()) {
+            cache.removeIf((key, entry) -> dataSetUUID.equals(entry.getDataSetUUID()));
+        }
+        LOGGER.debug("Data set cache invalidated for data set {}",
+                     dataSetUUID);
+    }
+
+    public void invalidateAll() {
+        globalGeneration.incrementAndGet();
+        cachesByServerTemplate.clear();
+        LOGGER.debug("Data set cache invalidated, hits {}, misses {}, evictions {}",
+                     getHits(),
+                     getMisses(),
+                     getEvictions());
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    public long getPageHits() {
+        return pageHits.get();
+    }
+
+    public long getPageMisses() {
+        return pageMisses.get();
+    }
+
+    public int getSize() {
+        int size = 0;
+        for (BoundedCache<String, CacheEntry> cache : cachesByServerTemplate.values()) {
+            size += cache.size();
+        }
+        return size;
+    }
+
+    public void onDataSetDefModifiedEvent(@Observes DataSetDefModifiedEvent event) {
+        invalidateDataSet(event.getOldDataSetDef().getUUID());
+    }
+
+    public void onDataSetDefRemovedEvent(@Observes DataSetDefRemovedEvent event) {
+        invalidateDataSet(event.getDataSetDef().getUUID());
+    }
+
+    public void onKieServerDataSetRegistered(@Observes KieServerDataSetRegistered event) {
+        invalidate(event.getServerTemplateId());
+    }
+
+    public void onKieServerDataModified(@Observes KieServerDataModified event) {
+        if (event.getServerTemplateId() == null) {
+            invalidateAll();
+        } else {
+            invalidate(event.getServerTemplateId());
+        }
+    }
+
+    public void onServerTemplateUpdated(@Observes ServerTemplateUpdated event) {
+        invalidate(event.getServerTemplate().getId());
+    }
+
+    public void onServerTemplateDeleted(@Observes ServerTemplateDeleted event) {
+        invalidate(event.getServerTemplateId());
+    }
+
+    public void onServerInstanceDisconnected(@Observes ServerInstanceDisconnected event) {
+        // event carries only the server instance id, drop everything rather than serving data of a gone server
+        invalidateAll();
+    }
+
+    /**
+     * Builds a key that identifies the result of the given lookup: data set, window, seek values and all operations.
+     * @param lookup lookup to be executed
+     * @param partition additional qualifier, e.g. the user for queries filtered by identity on the server
+     */
+    public static String buildKey(final ConsoleDataSetLookup lookup,
+                                  final String partition) {
+        return lookup.getRowOffset() + "|" + lookup.getNumberOfRows() + "|" + buildQueryKey(lookup,
+                                                                                           partition);
+    }
+
+    /**
+     * Builds a key that identifies the query of the given lookup regardless of the requested window, so pages
+     * of the same query can be shared between lookups. Column filters of a single filter operation are combined
+     * with AND so they are sorted to make lookups differing only in filter order share the same key.
+     * @param lookup lookup to be executed
+     * @param partition additional qualifier, e.g. the user for queries filtered by identity on the server
+     */
+    public static String buildQueryKey(final ConsoleDataSetLookup lookup,
+                                       final String partition) {
+        final StringBuilder key = new StringBuilder();
+        key.append(lookup.getDataSetUUID())
+                .append('|').append(partition == null ? "" : partition)
+                .append('|').append(lookup.getSeekValues());
+        if (lookup.isPivot()) {
+            key.append("|pivot:").append(lookup.getPivotRowColumn())
+                    .append(',').append(lookup.getPivotNameColumn())
+                    .append(',').append(lookup.getPivotValueColumn());
+        }
+        if (lookup.hasVariables()) {
+            key.append("|variables:").append(lookup.getVariablesJoinColumn())
+                    .append('[').append(buildQueryKey(lookup.getVariablesLookup(),
+                                                      partition)).append(']');
+        }
+
+        for (DataSetOp op : lookup.getOperationList()) {
+            key.append('|');
+            if (op instanceof DataSetFilter) {
+                appendFilter(key,
+                             (DataSetFilter) op);
+            } else if (op instanceof DataSetGroup) {
+                appendGroup(key,
+                            (DataSetGroup) op);
+            } else if (op instanceof DataSetSort) {
+                appendSort(key,
+                           (DataSetSort) op);
+            } else {
+                key.append(op);
+            }
+        }
+        return key.toString();
+    }
+
+    protected static void appendFilter(final StringBuilder key,
+                                       final DataSetFilter filter) {
+        final List<String> columnFilters = new ArrayList<>();
+        for (ColumnFilter columnFilter : filter.getColumnFilterList()) {
+            columnFilters.add(String.valueOf(columnFilter));
+        }
+        Collections.sort(columnFilters);
+        key.append("filter").append(columnFilters);
+    }
+
+    protected static void appendGroup(final StringBuilder key,
+                                      final DataSetGroup group) {
+        key.append("group[");
+        final ColumnGroup columnGroup = group.getColumnGroup();
+        if (columnGroup != null) {
+            key.append(columnGroup.getSourceId()).append(',')
+                    .append(columnGroup.getColumnId()).append(',')
+                    .append(columnGroup.getStrategy()).append(',')
+                    .append(columnGroup.getIntervalSize()).append(',')
+                    .append(columnGroup.getMaxIntervals());
+        }
+        key.append(";select=").append(group.isSelect());
+        if (group.getSelectedIntervalList() != null) {
+            for (Interval interval : group.getSelectedIntervalList()) {
+                key.append(';')
+                        .append(interval.getName()).append(',')
+                        .append(interval.getMinValue()).append(',')
+                        .append(interval.getMaxValue());
+            }
+        }
+        for (GroupFunction groupFunction : group.getGroupFunctions()) {
+            key.append(';')
+                    .append(groupFunction.getSourceId()).append(',')
+                    .append(groupFunction.getColumnId()).append(',')
+                    .append(groupFunction.getFunction());
+        }
+        key.append(']');
+    }
+
+    protected static void appendSort(final StringBuilder key,
+                                     final DataSetSort sort) {
+        key.append("sort[");
+        for (ColumnSort columnSort : sort.getColumnSortList()) {
+            key.append(columnSort.getColumnId()).append(' ').append(columnSort.getOrder()).append(';');
+        }
+        key.append(']');
+    }
+
+    private static class CacheEntry {
+
+        private final String dataSetUUID;
+        private final Object value;
+
+        CacheEntry(final String dataSetUUID,
+                   final Object value) {
+            this.dataSetUUID = dataSetUUID;
+            this.value = value;
+        }
+
+        String getDataSetUUID() {
+            return dataSetUUID;
+        }
+
+        Object getValue() {
+            return value;
+        }
+    }
+}
@@ -18,10 +18,22 @@ package org.jbpm.workbench.ks.integration;
 
 import static org.kie.soup.commons.validation.PortablePreconditions.checkNotNull;
 
-import java.util.Iterator;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.stream.Collectors;
 
 import javax.enterprise.context.ApplicationScoped;
@@ -42,6 +54,7 @@ import org.kie.server.api.model.definition.QueryDefinition;
 import org.kie.server.client.KieServicesClient;
 import org.kie.server.client.QueryServicesClient;
 import org.kie.server.common.rest.KieServerHttpRequestException;
+import org.kie.server.controller.api.model.events.ServerInstanceDisconnected;
 import org.kie.server.controller.api.model.runtime.ServerInstance;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -52,6 +65,10 @@ public class KieServerDataSetManager {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(KieServerDataSetManager.class);
 
+    protected static final long RETRY_INITIAL_DELAY = 250;
+    protected static final long RETRY_MAX_DELAY = 15000;
+    protected static final int QUERIES_PAGE_SIZE = 100;
+
     private ExecutorService executorService;
 
     private DataSetDefRegistry dataSetDefRegistry;
@@ -60,14 +77,25 @@ public class KieServerDataSetManager {
 
     private Event<KieServerDataSetRegistered> event;
 
+    private QueryDefinitionMetadataCache metadataCache;
+
+    private KieServerExecutor kieServerExecutor;
+
+    // digests of the query definitions known to be registered, by server instance id and query name
+    private final ConcurrentMap<String, ConcurrentMap<String, String>> registeredDigests = new ConcurrentHashMap<>();
+
     @Inject
     public KieServerDataSetManager(DataSetDefRegistry dataSetDefRegistry,
                                    KieServerIntegration kieServerIntegration,
                                    Event<KieServerDataSetRegistered> event,
+                                   QueryDefinitionMetadataCache metadataCache,
+                                   KieServerExecutor kieServerExecutor,
                                    @Managed ExecutorService executorService) {
         this.dataSetDefRegistry = dataSetDefRegistry;
         this.kieServerIntegration = kieServerIntegration;
         this.event = event;
+        this.metadataCache = metadataCache;
+        this.kieServerExecutor = kieServerExecutor;
         this.executorService = executorService;
     }
 
@@ -130,39 +158,40 @@ public class KieServerDataSetManager {
                                             String serverInstanceId,
                                             Set<QueryDefinition> queryDefinitions) throws Exception {
         long waitLimit = 5 * 60 * 1000;   // default 5 min
-        long elapsed = 0;
+        long started = System.currentTimeMillis();
         try {
             QueryServicesClient queryClient = kieServerIntegration.getAdminServerClient(serverTemplateId, serverInstanceId).getServicesClient(QueryServicesClient.class);
 
-            while (elapsed < waitLimit) {
-                try {
-                    Iterator<QueryDefinition> definitionIt = queryDefinitions.iterator();
-
-                    while (definitionIt.hasNext()) {
-                        QueryDefinition definition = definitionIt.next();
-                        queryClient.replaceQuery(definition);
-                        LOGGER.info("Query definition {} (type {}) successfully registered on kie server '{}'",
-                                    definition.getName(),
-                                    definition.getTarget(),
-                                    serverInstanceId);
-                        // remove successfully stored definition to avoid duplicated reads in case of intermediate error
-                        definitionIt.remove();
-                    }
-
+            final Set<QueryDefinition> pending = filterRegisteredQueries(queryClient,
+                                                                         serverTemplateId,
+                                                                         serverInstanceId,
+                                                                         queryDefinitions);
+            int attempt = 0;
+            while (true) {
+                final RuntimeException failure = replaceQueries(queryClient,
+                                                                serverTemplateId,
+                                                                serverInstanceId,
+                                                                pending);
+                if (failure == null) {
                     event.fire(new KieServerDataSetRegistered(serverInstanceId,
                                                               serverTemplateId));
                     return;
-                } catch (KieServicesException | KieServerHttpRequestException e) {
-                    // unable to register, might still be booting
-                    Thread.sleep(500);
-                    elapsed += 500;
-                    // get admin client with forced check of endpoints as they might have been banned (marked as failed)
-                    queryClient = kieServerIntegration.getAdminServerClientCheckEndpoints(serverTemplateId).getServicesClient(QueryServicesClient.class);
-                    LOGGER.debug("Cannot reach KIE Server, elapsed time while waiting '{}', max time '{}' error {}",
-                                 elapsed,
-                                 waitLimit,
-                                 e.getMessage());
                 }
+
+                // unable to register, might still be booting
+                final long elapsed = System.currentTimeMillis() - started;
+                if (elapsed >= waitLimit) {
+                    break;
+                }
+                Thread.sleep(Math.min(getRetryDelay(attempt++),
+                                      waitLimit - elapsed));
+                // get admin client with forced check of endpoints as they might have been banned (marked as failed)
+                queryClient = kieServerIntegration.getAdminServerClientCheckEndpoints(serverTemplateId).getServicesClient(QueryServicesClient.class);
+                LOGGER.debug("Cannot reach KIE Server, elapsed time while waiting '{}', max time '{}', {} query definitions pending, error {}",
+                             elapsed,
+                             waitLimit,
+                             pending.size(),
+                             failure.getMessage());
             }
 
             LOGGER.warn("Timeout while trying to register query definitions on '{}'",
@@ -174,7 +203,127 @@ public class KieServerDataSetManager {
                         ex.getMessage());
         }
     }
-    
+
+    /**
+     * Returns the query definitions that are not yet registered, with the same content, on the server instance.
+     * If the registered queries cannot be read all definitions are returned.
+     */
+    protected Set<QueryDefinition> filterRegisteredQueries(QueryServicesClient queryClient,
+                                                           String serverTemplateId,
+                                                           String serverInstanceId,
+                                                           Set<QueryDefinition> queryDefinitions) {
+        final Set<QueryDefinition> pending = new HashSet<>(queryDefinitions);
+        try {
+            final Map<String, String> registered = new HashMap<>();
+            int page = 0;
+            while (true) {
+                final List<QueryDefinition> queries = queryClient.getQueries(page++,
+                                                                             QUERIES_PAGE_SIZE);
+                if (queries == null) {
+                    break;
+                }
+                for (QueryDefinition query : queries) {
+                    registered.put(query.getName(),
+                                   digest(query));
+                    metadataCache.put(serverTemplateId,
+                                      query);
+                }
+                if (queries.size() < QUERIES_PAGE_SIZE) {
+                    break;
+                }
+            }
+            pending.removeIf(definition -> digest(definition).equals(registered.get(definition.getName())));
+            // what the instance reports replaces whatever was tracked for it, e.g. before a restart
+            registeredDigests.put(serverInstanceId,
+                                  new ConcurrentHashMap<>(registered));
+            LOGGER.debug("{} of {} query definitions already registered on kie server '{}'",
+                         queryDefinitions.size() - pending.size(),
+                         queryDefinitions.size(),
+                         serverInstanceId);
+        } catch (KieServicesException | KieServerHttpRequestException e) {
+            registeredDigests.remove(serverInstanceId);
+            LOGGER.debug("Unable to read query definitions registered on '{}', registering all of them, error {}",
+                         serverInstanceId,
+                         e.getMessage());
+        }
+        return pending;
+    }
+
+    /**
+     * Registers the pending query definitions in parallel. Successfully registered definitions are removed from
+     * the given set, the last failure that allows a retry is returned or null if all of them were registered.
+     */
+    protected RuntimeException replaceQueries(QueryServicesClient queryClient,
+                                              String serverTemplateId,
+                                              String serverInstanceId,
+                                              Set<QueryDefinition> pending) throws Exception {
+        final Map<QueryDefinition, Future<QueryDefinition>> tasks = new LinkedHashMap<>();
+        RuntimeException failure = null;
+        for (QueryDefinition definition : pending) {
+            try {
+                tasks.put(definition,
+                          kieServerExecutor.submitBroadcast(() -> queryClient.replaceQuery(definition)));
+            } catch (RejectedExecutionException e) {
+                // too many broadcasts waiting, the remaining definitions are registered on the next attempt
+                failure = e;
+                break;
+            }
+        }
+
+        for (Map.Entry<QueryDefinition, Future<QueryDefinition>> task : tasks.entrySet()) {
+            final QueryDefinition definition = task.getKey();
+            try {
+                metadataCache.put(serverTemplateId,
+                                  task.getValue().get());
+                LOGGER.info("Query definition {} (type {}) successfully registered on kie server '{}'",
+                            definition.getName(),
+                            definition.getTarget(),
+                            serverInstanceId);
+                // remove successfully stored definition to avoid duplicated reads in case of intermediate error
+                pending.remove(definition);
+                markRegistered(serverInstanceId,
+                               definition);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof KieServicesException || e.getCause() instanceof KieServerHttpRequestException) {
+                    failure = (RuntimeException) e.getCause();
+                } else if (e.getCause() instanceof Exception) {
+                    throw (Exception) e.getCause();
+                } else {
+                    throw e;
+                }
+            }
+        }
+        return failure;
+    }
+
+    /**
+     * Exponential backoff with jitter, so that instances coming back at the same time do not retry in lockstep.
+     */
+    protected long getRetryDelay(int attempt) {
+        final long delay = Math.min(RETRY_MAX_DELAY,
+                                    RETRY_INITIAL_DELAY << Math.min(attempt,
+                                                                    16));
+        return delay / 2 + ThreadLocalRandom.current().nextLong(delay / 2 + 1);
+    }
+
+    protected static String digest(QueryDefinition definition) {
+        try {
+            final MessageDigest messageDigest = MessageDigest.getInstance("SHA-256");
+            for (String value : new String[]{definition.getName(), definition.getSource(), definition.getTarget(), definition.getExpression()}) {
+                messageDigest.update(String.valueOf(value).getBytes(StandardCharsets.UTF_8));
+                messageDigest.update((byte) 0);
+            }
+            final StringBuilder hex = new StringBuilder();
+            for (byte b : messageDigest.digest()) {
+                hex.append(String.format("%02x",
+                                         b));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
     void onDataSetDefRegisteredEvent(@Observes DataSetDefRegisteredEvent event) {
         checkNotNull("event",
                      event);
@@ -195,17 +344,26 @@ public class KieServerDataSetManager {
 
         DataSetDef def = event.getDataSetDef();
         if (def instanceof RemoteDataSetDef) {
-            kieServerIntegration.broadcastToKieServers(((RemoteDataSetDef) def).getServerTemplateId(), (KieServicesClient client) -> {
+            kieServerIntegration.broadcastToKieServerInstances(((RemoteDataSetDef) def).getServerTemplateId(), (String serverInstanceId, KieServicesClient client) -> {
                 QueryServicesClient instanceQueryClient = client.getServicesClient(QueryServicesClient.class);
                 instanceQueryClient.unregisterQuery(def.getUUID());
+                markUnregistered(serverInstanceId,
+                                 def.getUUID());
                 return null;
-            });
+            }).thenAccept(results -> logBroadcastFailures("unregister",
+                                                          def,
+                                                          results));
             
             LOGGER.info("Data set definition {} ({}) deletion event processed", def.getUUID(), def.getName());
         }
         
     }    
 
+    void onServerInstanceDisconnected(@Observes ServerInstanceDisconnected serverInstanceDisconnected) {
+        // state of a disconnected instance is verified again with getQueries once it registers back
+        registeredDigests.remove(serverInstanceDisconnected.getServerInstanceId());
+    }
+
     protected void replaceQueryInKieServers(DataSetDef def) {
         
         if (def instanceof RemoteDataSetDef && ((RemoteDataSetDef) def).getServerTemplateId() != null) {
@@ -215,13 +373,63 @@ public class KieServerDataSetManager {
                     .target(((RemoteDataSetDef) def).getQueryTarget())
                     .expression(((RemoteDataSetDef) def).getDbSQL())
                     .build();
-            
-            kieServerIntegration.broadcastToKieServers(((RemoteDataSetDef) def).getServerTemplateId(), (KieServicesClient client) -> {
+            final String digest = digest(queryDefinition);
+
+            kieServerIntegration.broadcastToKieServerInstances(((RemoteDataSetDef) def).getServerTemplateId(), (String serverInstanceId, KieServicesClient client) -> {
+                if (isRegistered(serverInstanceId,
+                                 queryDefinition.getName(),
+                                 digest)) {
+                    LOGGER.debug("Query definition {} unchanged on kie server '{}', skipping registration",
+                                 queryDefinition.getName(),
+                                 serverInstanceId);
+                    return null;
+                }
                 QueryServicesClient instanceQueryClient = client.getServicesClient(QueryServicesClient.class);
                 QueryDefinition registered = instanceQueryClient.replaceQuery(queryDefinition);
+                metadataCache.put(((RemoteDataSetDef) def).getServerTemplateId(),
+                                  registered);
+                markRegistered(serverInstanceId,
+                               queryDefinition);
                 return registered;
-            });
+            }).thenAccept(results -> logBroadcastFailures("register",
+                                                          def,
+                                                          results));
             LOGGER.info("Data set definition {} ({}) modification event processed", def.getUUID(), def.getName());
         }
     }
+
+    protected boolean isRegistered(String serverInstanceId,
+                                   String queryName,
+                                   String digest) {
+        final Map<String, String> digests = registeredDigests.get(serverInstanceId);
+        return digests != null && digest.equals(digests.get(queryName));
+    }
+
+    protected void markRegistered(String serverInstanceId,
+                                  QueryDefinition definition) {
+        registeredDigests.computeIfAbsent(serverInstanceId,
+                                          id -> new ConcurrentHashMap<>())
+                .put(definition.getName(),
+                     digest(definition));
+    }
+
+    protected void markUnregistered(String serverInstanceId,
+                                    String queryName) {
+        final Map<String, String> digests = registeredDigests.get(serverInstanceId);
+        if (digests != null) {
+            digests.remove(queryName);
+        }
+    }
+
+    protected void logBroadcastFailures(String operation,
+                                        DataSetDef def,
+                                        List<KieServerBroadcastResult> results) {
+        results.stream()
+                .filter(result -> !result.isSuccess())
+                .forEach(result -> LOGGER.warn("Unable to {} query definition {} on '{}' due to {}",
+                                               operation,
+                                               def.getUUID(),
+                                               result.getServerInstanceId(),
+                                               result.getError().getMessage()));
+    }
 }
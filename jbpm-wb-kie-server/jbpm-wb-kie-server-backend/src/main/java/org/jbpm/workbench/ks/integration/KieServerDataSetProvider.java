@@ -18,9 +18,20 @@ package org.jbpm.workbench.ks.integration;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Set;
 import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
 
 import org.dashbuilder.dataprovider.DataSetProvider;
 import org.dashbuilder.dataprovider.DataSetProviderType;
@@ -30,10 +41,13 @@ import org.dashbuilder.dataset.DataSet;
 import org.dashbuilder.dataset.DataSetFactory;
 import org.dashbuilder.dataset.DataSetLookup;
 import org.dashbuilder.dataset.DataSetMetadata;
+import org.dashbuilder.dataset.DataSetOp;
 import org.dashbuilder.dataset.def.DataColumnDef;
 import org.dashbuilder.dataset.def.DataSetDef;
+import org.dashbuilder.dataset.def.DataSetDefRegistry;
 import org.dashbuilder.dataset.filter.ColumnFilter;
 import org.dashbuilder.dataset.filter.CoreFunctionFilter;
+import org.dashbuilder.dataset.filter.CoreFunctionType;
 import org.dashbuilder.dataset.filter.DataSetFilter;
 import org.dashbuilder.dataset.filter.FilterFactory;
 import org.dashbuilder.dataset.filter.LogicalExprFilter;
@@ -46,6 +60,7 @@ import org.dashbuilder.dataset.impl.DataSetMetadataImpl;
 import org.dashbuilder.dataset.sort.ColumnSort;
 import org.dashbuilder.dataset.sort.DataSetSort;
 import org.dashbuilder.dataset.sort.SortOrder;
+import org.kie.internal.identity.IdentityProvider;
 import org.kie.server.api.model.definition.QueryDefinition;
 import org.kie.server.api.model.definition.QueryFilterSpec;
 import org.kie.server.api.model.definition.QueryParam;
@@ -60,6 +75,28 @@ public class KieServerDataSetProvider extends AbstractKieServerService implement
     public static final DataSetProviderType TYPE = new KieServerDataSetProviderType();
     private static final Logger LOGGER = LoggerFactory.getLogger(KieServerDataSetProvider.class);
 
+    public static final String PIVOT_MAX_ROWS = "org.jbpm.wb.dataset.pivot.maxRows";
+
+    // join values sent in a single IN filter, larger sets are split across several queries
+    protected static final int JOIN_VALUES_PER_QUERY = 1000;
+
+    @Inject
+    protected KieServerDataSetCache dataSetCache;
+
+    @Inject
+    protected IdentityProvider identityProvider;
+
+    @Inject
+    protected QueryDefinitionMetadataCache metadataCache;
+
+    @Inject
+    protected DataSetDefRegistry dataSetDefRegistry;
+
+    protected final DataSetLookupCoalescer lookupCoalescer = new DataSetLookupCoalescer();
+
+    protected int pivotMaxRows = Integer.getInteger(PIVOT_MAX_ROWS,
+                                                    10000);
+
     @Override
     public DataSetProviderType getType() {
         return TYPE;
@@ -71,13 +108,21 @@ public class KieServerDataSetProvider extends AbstractKieServerService implement
         List<ColumnType> columnTypes = new ArrayList<>();
 
         if (def.getColumns() == null && def instanceof RemoteDataSetDef) {
-            final QueryServicesClient queryClient = getClient(((RemoteDataSetDef) def).getServerTemplateId(),
-                                                              QueryServicesClient.class);
+            final String serverTemplateId = ((RemoteDataSetDef) def).getServerTemplateId();
+            Map<String, String> definitionColumns = metadataCache.getColumns(serverTemplateId,
+                                                                             def.getUUID());
+            if (definitionColumns == null) {
+                final QueryServicesClient queryClient = getClient(serverTemplateId,
+                                                                  QueryServicesClient.class);
 
-            QueryDefinition definition = queryClient.getQuery(def.getUUID());
-            if (definition.getColumns() != null) {
+                QueryDefinition definition = queryClient.getQuery(def.getUUID());
+                metadataCache.put(serverTemplateId,
+                                  definition);
+                definitionColumns = definition.getColumns();
+            }
+            if (definitionColumns != null) {
 
-                for (Entry<String, String> entry : definition.getColumns().entrySet()) {
+                for (Entry<String, String> entry : definitionColumns.entrySet()) {
                     if (def.getColumnById(entry.getKey()) == null) {
                         def.addColumn(entry.getKey(),
                                       ColumnType.valueOf(entry.getValue()));
@@ -114,6 +159,44 @@ public class KieServerDataSetProvider extends AbstractKieServerService implement
                                 new ArrayList<>());
         }
 
+        if (dataSetLookup.testMode()) {
+            return queryDataSet(def,
+                                lookup,
+                                dataSetLookup);
+        }
+
+        final String serverTemplateId = dataSetLookup.getServerTemplateId();
+        final String lookupKey = KieServerDataSetCache.buildKey(dataSetLookup,
+                                                                getCachePartition(def));
+        final long generation = dataSetCache.getGeneration(serverTemplateId);
+        final DataSet cached = dataSetCache.get(serverTemplateId,
+                                                lookupKey);
+        if (cached != null) {
+            return cached;
+        }
+
+        // identical lookups running concurrently share a single query to KIE Server, as long as no invalidation happened
+        return lookupCoalescer.execute(serverTemplateId + "|" + generation + "|" + lookupKey,
+                                       () -> {
+                                           final DataSet dataSet = queryDataSet(def,
+                                                                                lookup,
+                                                                                dataSetLookup);
+                                           dataSetCache.put(serverTemplateId,
+                                                            lookupKey,
+                                                            def.getUUID(),
+                                                            dataSet,
+                                                            generation);
+                                           return dataSet;
+                                       });
+    }
+
+    protected DataSet queryDataSet(DataSetDef def,
+                                   DataSetLookup lookup,
+                                   ConsoleDataSetLookup dataSetLookup) throws Exception {
+        if (dataSetLookup.hasVariables()) {
+            return queryDataSetWithVariables(def,
+                                             dataSetLookup);
+        }
         final QueryServicesClient queryClient = getClient(dataSetLookup.getServerTemplateId(),
                                                           QueryServicesClient.class);
 
@@ -125,18 +208,9 @@ public class KieServerDataSetProvider extends AbstractKieServerService implement
             if (filter != null) {
 
                 for (ColumnFilter cFilter : filter.getColumnFilterList()) {
-                    if (cFilter instanceof CoreFunctionFilter) {
-
-                        CoreFunctionFilter coreFunctionFilter = (CoreFunctionFilter) cFilter;
-
-                        filterParams.add(new QueryParam(coreFunctionFilter.getColumnId(),
-                                                        coreFunctionFilter.getType().toString(),
-                                                        coreFunctionFilter.getParameters()));
-                    } else if (cFilter instanceof LogicalExprFilter) {
-                        LogicalExprFilter logicalExprFilter = (LogicalExprFilter) cFilter;
-                        filterParams.add(new QueryParam(logicalExprFilter.getColumnId(),
-                                                        logicalExprFilter.getLogicalOperator().toString(),
-                                                        logicalExprFilter.getLogicalTerms()));
+                    QueryParam queryParam = toQueryParam(cFilter);
+                    if (queryParam != null) {
+                        filterParams.add(queryParam);
                     }
                 }
             }
@@ -157,13 +231,25 @@ public class KieServerDataSetProvider extends AbstractKieServerService implement
                            filterParams,
                            extraColumns);
 
-        if (!filterParams.isEmpty()) {
-            filterSpec.setParameters(filterParams.toArray(new QueryParam[filterParams.size()]));
-        }
-
         // apply sorting
         DataSetSort sort = dataSetLookup.getFirstSortOp();
-        if (sort != null) {
+        if (isKeysetLookup(def,
+                           dataSetLookup) || (sort != null && isKeysetOrdered(def,
+                                                                              sort))) {
+            // pages read by offset are ordered the same way as the pages read by keyset, so they line up
+            final List<String> keysetColumns = getKeysetColumns((RemoteDataSetDef) def,
+                                                                sort);
+            final boolean ascending = sort == null || sort.getColumnSortList().isEmpty() ||
+                    SortOrder.ASCENDING.equals(sort.getColumnSortList().get(0).getOrder());
+            if (dataSetLookup.hasSeekValues()) {
+                filterParams.add(toQueryParam(buildSeekFilter(keysetColumns,
+                                                              dataSetLookup.getSeekValues(),
+                                                              ascending)));
+            }
+            filterSpec.setOrderBy(String.join(",",
+                                              keysetColumns));
+            filterSpec.setAscending(ascending);
+        } else if (sort != null) {
             SortOrder sortOrder = SortOrder.UNSPECIFIED;
             StringBuilder orderBy = new StringBuilder();
             for (ColumnSort cSort : sort.getColumnSortList()) {
@@ -176,16 +262,625 @@ public class KieServerDataSetProvider extends AbstractKieServerService implement
             filterSpec.setOrderBy(orderBy.toString());
             filterSpec.setAscending(sortOrder.equals(SortOrder.ASCENDING));
         }
-        final List<List> instances = performQuery((RemoteDataSetDef) def,
-                                                  dataSetLookup,
-                                                  queryClient,
-                                                  filterSpec);
+
+        if (!filterParams.isEmpty()) {
+            filterSpec.setParameters(filterParams.toArray(new QueryParam[filterParams.size()]));
+        }
+        final List<List> instances;
+        if (dataSetLookup.isPivot() && (dataSetLookup.getNumberOfRows() <= 0 || dataSetLookup.getNumberOfRows() > pivotMaxRows)) {
+            instances = queryPivotRows((RemoteDataSetDef) def,
+                                       dataSetLookup,
+                                       queryClient,
+                                       filterSpec);
+        } else {
+            instances = performQuery((RemoteDataSetDef) def,
+                                     dataSetLookup,
+                                     queryClient,
+                                     filterSpec);
+        }
         LOGGER.debug("Query client returned {} row(s)",
                      instances.size());
 
-        return buildDataSet(def,
-                            instances,
-                            extraColumns);
+        final DataSet dataSet = buildDataSet(def,
+                                             instances,
+                                             extraColumns);
+        if (dataSetLookup.isPivot()) {
+            return pivotDataSet(dataSet,
+                                dataSetLookup);
+        }
+        return dataSet;
+    }
+
+    /**
+     * Reads all the rows of a pivot lookup, in queries of at most the pivot limit. Lookups filtered on given values
+     * of the pivot row column, e.g. the variables of the instances on a page, are read completely as their size
+     * follows from the number of values. Other lookups fail once they need more rows than the pivot limit.
+     */
+    protected List<List> queryPivotRows(RemoteDataSetDef def,
+                                        ConsoleDataSetLookup dataSetLookup,
+                                        QueryServicesClient queryClient,
+                                        QueryFilterSpec filterSpec) {
+        final boolean scoped = isScopedToPivotRows(dataSetLookup);
+        final List<List> rows = new ArrayList<>();
+        for (int offset = 0; ; offset += pivotMaxRows) {
+            final ConsoleDataSetLookup partLookup = (ConsoleDataSetLookup) dataSetLookup.cloneInstance();
+            partLookup.setRowOffset(offset);
+            partLookup.setNumberOfRows(pivotMaxRows);
+            final List<List> part = performQuery(def,
+                                                 partLookup,
+                                                 queryClient,
+                                                 filterSpec);
+            rows.addAll(part);
+            if (!scoped && rows.size() > pivotMaxRows) {
+                throw new IllegalArgumentException("Pivot lookup on data set " + def.getUUID() + " needs more than " + pivotMaxRows + " rows (" + PIVOT_MAX_ROWS + "), narrow it down with a filter on " + dataSetLookup.getPivotRowColumn());
+            }
+            if (part.size() < pivotMaxRows) {
+                return rows;
+            }
+        }
+    }
+
+    /**
+     * Whether the lookup is filtered on given values of its pivot row column.
+     */
+    protected static boolean isScopedToPivotRows(ConsoleDataSetLookup dataSetLookup) {
+        for (DataSetFilter filter : dataSetLookup.getOperationList(DataSetFilter.class)) {
+            for (ColumnFilter columnFilter : filter.getColumnFilterList()) {
+                if (columnFilter instanceof CoreFunctionFilter &&
+                        dataSetLookup.getPivotRowColumn().equals(columnFilter.getColumnId()) &&
+                        CoreFunctionType.EQUALS_TO.equals(((CoreFunctionFilter) columnFilter).getType())) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Turns rows of (row id, name, value) into one row per row id, in order of first appearance, made of the row id
+     * column followed by a column per distinct name. Names missing for a row id get a null value.
+     */
+    protected DataSet pivotDataSet(DataSet dataSet,
+                                   ConsoleDataSetLookup dataSetLookup) {
+        final DataColumn rowColumn = dataSet.getColumnById(dataSetLookup.getPivotRowColumn());
+        final DataColumn nameColumn = dataSet.getColumnById(dataSetLookup.getPivotNameColumn());
+        final DataColumn valueColumn = dataSet.getColumnById(dataSetLookup.getPivotValueColumn());
+        if (rowColumn == null || nameColumn == null || valueColumn == null) {
+            throw new IllegalArgumentException("Data set " + dataSet.getUUID() + " does not have the pivot columns " + dataSetLookup.getPivotRowColumn() + ", " +
+                                                       dataSetLookup.getPivotNameColumn() + ", " + dataSetLookup.getPivotValueColumn());
+        }
+        final List rowIds = rowColumn.getValues();
+        final List names = nameColumn.getValues();
+        final List values = valueColumn.getValues();
+
+        final Map<Object, Integer> rowIndexes = new LinkedHashMap<>();
+        for (Object rowId : rowIds) {
+            rowIndexes.putIfAbsent(rowId,
+                                   rowIndexes.size());
+        }
+        final int rowCount = rowIndexes.size();
+
+        final Map<String, List<Object>> pivotedColumns = new LinkedHashMap<>();
+        for (int i = 0; i < rowIds.size(); i++) {
+            final Object name = names.get(i);
+            if (name == null || name.toString().equals(rowColumn.getId())) {
+                continue;
+            }
+            final List<Object> column = pivotedColumns.computeIfAbsent(name.toString(),
+                                                                       key -> new ArrayList<>(Collections.nCopies(rowCount,
+                                                                                                                  null)));
+            column.set(rowIndexes.get(rowIds.get(i)),
+                       values.get(i));
+        }
+
+        final DataSet pivoted = DataSetFactory.newEmptyDataSet();
+        pivoted.setUUID(dataSet.getUUID());
+        pivoted.setDefinition(dataSet.getDefinition());
+        pivoted.addColumn(rowColumn.getId(),
+                          rowColumn.getColumnType(),
+                          new ArrayList<>(rowIndexes.keySet()));
+        for (Map.Entry<String, List<Object>> column : pivotedColumns.entrySet()) {
+            pivoted.addColumn(column.getKey(),
+                              valueColumn.getColumnType(),
+                              column.getValue());
+        }
+        pivoted.setRowCountNonTrimmed(rowCount);
+        return pivoted;
+    }
+
+    /**
+     * Returns the page of rows together with their variables as columns. Filters and sorts on columns that are not
+     * part of the data set apply to variables: filters are resolved against the variables data set into a filter on
+     * the join column. When sorting on variables, or when the filters match more rows than fit in a single query,
+     * all the matching rows are read, up to the pivot limit, then sorted and paged here. Otherwise only the
+     * requested page is read. Either way the variables are fetched for the returned rows only, except when sorting
+     * on them. Sorting on variables is therefore limited to filtered lookups, unfiltered ones are rejected up front,
+     * and lookups that would read more rows than the pivot limit fail instead of returning partial results.
+     */
+    protected DataSet queryDataSetWithVariables(DataSetDef def,
+                                                ConsoleDataSetLookup dataSetLookup) throws Exception {
+        final ConsoleDataSetLookup variablesLookup = dataSetLookup.getVariablesLookup();
+        if (!variablesLookup.isPivot()) {
+            throw new IllegalArgumentException("Variables lookup on data set " + variablesLookup.getDataSetUUID() + " must be a pivot lookup");
+        }
+        final DataSetDef variablesDef = dataSetDefRegistry.getDataSetDef(variablesLookup.getDataSetUUID());
+        if (!(variablesDef instanceof RemoteDataSetDef)) {
+            throw new IllegalArgumentException("Data set " + variablesLookup.getDataSetUUID() + " is not a remote data set");
+        }
+        final String joinColumn = dataSetLookup.getVariablesJoinColumn();
+        final String serverTemplateId = dataSetLookup.getServerTemplateId();
+
+        final Set<String> columns = new HashSet<>();
+        if (def.getColumns() != null) {
+            for (DataColumnDef column : def.getColumns()) {
+                columns.add(column.getId());
+            }
+        }
+
+        final ConsoleDataSetLookup instancesLookup = new ConsoleDataSetLookup();
+        instancesLookup.setDataSetUUID(dataSetLookup.getDataSetUUID());
+        instancesLookup.setServerTemplateId(serverTemplateId);
+        instancesLookup.setRowOffset(dataSetLookup.getRowOffset());
+        instancesLookup.setNumberOfRows(dataSetLookup.getNumberOfRows());
+
+        final List<CoreFunctionFilter> variableFilters = new ArrayList<>();
+        final DataSetSort sort = new DataSetSort();
+        boolean sortOnVariables = false;
+        for (DataSetOp op : dataSetLookup.getOperationList()) {
+            if (op instanceof DataSetFilter) {
+                final DataSetFilter filter = new DataSetFilter();
+                for (ColumnFilter columnFilter : ((DataSetFilter) op).getColumnFilterList()) {
+                    if (columnFilter instanceof CoreFunctionFilter && !columns.contains(columnFilter.getColumnId())) {
+                        variableFilters.add((CoreFunctionFilter) columnFilter);
+                    } else {
+                        filter.addFilterColumn(columnFilter.cloneInstance());
+                    }
+                }
+                if (!filter.getColumnFilterList().isEmpty()) {
+                    instancesLookup.addOperation(filter);
+                }
+            } else if (op instanceof DataSetSort) {
+                for (ColumnSort columnSort : ((DataSetSort) op).getColumnSortList()) {
+                    sort.addSortColumn(columnSort.cloneInstance());
+                    sortOnVariables |= !columns.contains(columnSort.getColumnId());
+                }
+            } else {
+                instancesLookup.addOperation(op.cloneInstance());
+            }
+        }
+
+        if (sortOnVariables && variableFilters.isEmpty() && instancesLookup.getOperationList(DataSetFilter.class).isEmpty()) {
+            throw new IllegalArgumentException("Sorting data set " + def.getUUID() + " on variables needs a filter, up to " + pivotMaxRows + " rows (" + PIVOT_MAX_ROWS + ") are sorted");
+        }
+
+        Set<Object> joinValues = null;
+        for (CoreFunctionFilter variableFilter : variableFilters) {
+            final Set<Object> matching = queryVariableMatches((RemoteDataSetDef) variablesDef,
+                                                              variablesLookup,
+                                                              serverTemplateId,
+                                                              variableFilter);
+            if (joinValues == null) {
+                joinValues = matching;
+            } else {
+                joinValues.retainAll(matching);
+            }
+        }
+        if (joinValues != null && joinValues.isEmpty()) {
+            return buildDataSet(def,
+                                new ArrayList<>(),
+                                new ArrayList<>());
+        }
+
+        if (!sortOnVariables && (joinValues == null || joinValues.size() <= JOIN_VALUES_PER_QUERY)) {
+            if (joinValues != null) {
+                instancesLookup.addOperation(newFilter(FilterFactory.equalsTo(joinColumn,
+                                                                              new ArrayList<Comparable>((Set) joinValues))));
+            }
+            if (!sort.getColumnSortList().isEmpty()) {
+                instancesLookup.addOperation(sort);
+            }
+            final DataSet instances = queryDataSet(def,
+                                                   instancesLookup,
+                                                   instancesLookup);
+            joinVariables(instances,
+                          (RemoteDataSetDef) variablesDef,
+                          variablesLookup,
+                          serverTemplateId,
+                          joinColumn);
+            return instances;
+        }
+
+        instancesLookup.setRowOffset(0);
+        instancesLookup.setNumberOfRows(pivotMaxRows + 1);
+        DataSet instances = null;
+        for (List<Comparable> values : partition(joinValues)) {
+            final ConsoleDataSetLookup partLookup = (ConsoleDataSetLookup) instancesLookup.cloneInstance();
+            if (values != null) {
+                partLookup.addOperation(newFilter(FilterFactory.equalsTo(joinColumn,
+                                                                         values)));
+            }
+            final DataSet rows = queryDataSet(def,
+                                              partLookup,
+                                              partLookup);
+            instances = instances == null ? rows : appendRows(instances,
+                                                              rows);
+            checkRowLimit(instances,
+                          "Lookup on data set " + def.getUUID());
+        }
+        if (sortOnVariables) {
+            joinVariables(instances,
+                          (RemoteDataSetDef) variablesDef,
+                          variablesLookup,
+                          serverTemplateId,
+                          joinColumn);
+            return sortDataSet(instances,
+                               sort,
+                               dataSetLookup.getRowOffset(),
+                               dataSetLookup.getNumberOfRows());
+        }
+        final DataSet page = sortDataSet(instances,
+                                         sort,
+                                         dataSetLookup.getRowOffset(),
+                                         dataSetLookup.getNumberOfRows());
+        joinVariables(page,
+                      (RemoteDataSetDef) variablesDef,
+                      variablesLookup,
+                      serverTemplateId,
+                      joinColumn);
+        return page;
+    }
+
+    protected static DataSetFilter newFilter(ColumnFilter... columnFilters) {
+        final DataSetFilter filter = new DataSetFilter();
+        filter.addFilterColumn(columnFilters);
+        return filter;
+    }
+
+    /**
+     * Splits the values into lists small enough for a single IN filter, a null collection gives a single null list.
+     */
+    protected static List<List<Comparable>> partition(Collection<?> values) {
+        if (values == null) {
+            return Collections.singletonList(null);
+        }
+        final List<Comparable> all = new ArrayList<>((Collection) values);
+        final List<List<Comparable>> parts = new ArrayList<>();
+        for (int i = 0; i < all.size(); i += JOIN_VALUES_PER_QUERY) {
+            parts.add(all.subList(i,
+                                  Math.min(i + JOIN_VALUES_PER_QUERY,
+                                           all.size())));
+        }
+        return parts;
+    }
+
+    protected static DataSet appendRows(DataSet dataSet,
+                                        DataSet rows) {
+        for (DataColumn column : dataSet.getColumns()) {
+            column.getValues().addAll(rows.getColumnById(column.getId()).getValues());
+        }
+        dataSet.setRowCountNonTrimmed(dataSet.getRowCount());
+        return dataSet;
+    }
+
+    /**
+     * Fails lookups that read more rows than the pivot limit, lookups are read up to one row above it to find out.
+     */
+    protected void checkRowLimit(DataSet dataSet,
+                                 String description) {
+        if (dataSet.getRowCount() > pivotMaxRows) {
+            throw new IllegalArgumentException(description + " needs more than " + pivotMaxRows + " rows (" + PIVOT_MAX_ROWS + "), narrow it down with filters");
+        }
+    }
+
+    protected ConsoleDataSetLookup prepareVariablesLookup(ConsoleDataSetLookup variablesLookup,
+                                                          String serverTemplateId) {
+        final ConsoleDataSetLookup lookup = (ConsoleDataSetLookup) variablesLookup.cloneInstance();
+        lookup.setServerTemplateId(serverTemplateId);
+        lookup.setRowOffset(0);
+        lookup.setNumberOfRows(pivotMaxRows + 1);
+        lookup.pivot(null,
+                     null,
+                     null);
+        return lookup;
+    }
+
+    /**
+     * Values of the pivot row column for which the variable named after the filter column matches the filter.
+     */
+    protected Set<Object> queryVariableMatches(RemoteDataSetDef variablesDef,
+                                               ConsoleDataSetLookup variablesLookup,
+                                               String serverTemplateId,
+                                               CoreFunctionFilter variableFilter) throws Exception {
+        final ConsoleDataSetLookup lookup = prepareVariablesLookup(variablesLookup,
+                                                                   serverTemplateId);
+        final CoreFunctionFilter valueFilter = (CoreFunctionFilter) variableFilter.cloneInstance();
+        valueFilter.setColumnId(variablesLookup.getPivotValueColumn());
+        lookup.addOperation(newFilter(FilterFactory.equalsTo(variablesLookup.getPivotNameColumn(),
+                                                             variableFilter.getColumnId()),
+                                      valueFilter));
+
+        final DataSet matches = queryDataSet(variablesDef,
+                                             lookup,
+                                             lookup);
+        checkRowLimit(matches,
+                      "Filter on variable " + variableFilter.getColumnId());
+        final DataColumn rowColumn = matches.getColumnById(variablesLookup.getPivotRowColumn());
+        return rowColumn == null ? new LinkedHashSet<>() : new LinkedHashSet<>(rowColumn.getValues());
+    }
+
+    /**
+     * Reads the variables of the rows of the data set, in queries of at most {@link #JOIN_VALUES_PER_QUERY} rows,
+     * and adds them as columns.
+     */
+    protected void joinVariables(DataSet dataSet,
+                                 RemoteDataSetDef variablesDef,
+                                 ConsoleDataSetLookup variablesLookup,
+                                 String serverTemplateId,
+                                 String joinColumn) throws Exception {
+        final DataColumn joinValuesColumn = dataSet.getColumnById(joinColumn);
+        if (joinValuesColumn == null) {
+            throw new IllegalArgumentException("Data set " + dataSet.getUUID() + " does not have the join column " + joinColumn);
+        }
+        if (joinValuesColumn.getValues().isEmpty()) {
+            return;
+        }
+        DataSet variables = null;
+        for (List<Comparable> values : partition(new LinkedHashSet<>(joinValuesColumn.getValues()))) {
+            final ConsoleDataSetLookup lookup = prepareVariablesLookup(variablesLookup,
+                                                                       serverTemplateId);
+            lookup.addOperation(newFilter(FilterFactory.equalsTo(variablesLookup.getPivotRowColumn(),
+                                                                 values)));
+            final DataSet rows = queryDataSet(variablesDef,
+                                              lookup,
+                                              lookup);
+            checkRowLimit(rows,
+                          "Variables lookup on data set " + variablesDef.getUUID());
+            variables = variables == null ? rows : appendRows(variables,
+                                                              rows);
+        }
+        joinVariables(dataSet,
+                      pivotDataSet(variables,
+                                   variablesLookup),
+                      joinColumn,
+                      variablesLookup.getPivotRowColumn());
+    }
+
+    /**
+     * Adds a column per variable of the pivoted data set, aligned on the join column. Variables whose values are
+     * all whole numbers become number columns so that they sort numerically, others label columns.
+     */
+    protected void joinVariables(DataSet dataSet,
+                                 DataSet variables,
+                                 String joinColumn,
+                                 String rowColumn) {
+        final Map<Object, Integer> variableRows = new HashMap<>();
+        final List rowIds = variables.getColumnById(rowColumn).getValues();
+        for (int i = 0; i < rowIds.size(); i++) {
+            variableRows.put(getJoinKey(rowIds.get(i)),
+                             i);
+        }
+        final List joinValues = dataSet.getColumnById(joinColumn).getValues();
+        final int[] rowIndexes = new int[joinValues.size()];
+        for (int i = 0; i < rowIndexes.length; i++) {
+            final Integer variableRow = variableRows.get(getJoinKey(joinValues.get(i)));
+            rowIndexes[i] = variableRow == null ? -1 : variableRow;
+        }
+
+        for (DataColumn variable : variables.getColumns()) {
+            if (variable.getId().equals(rowColumn) || dataSet.getColumnById(variable.getId()) != null) {
+                continue;
+            }
+            final List<Object> values = new ArrayList<>(rowIndexes.length);
+            boolean numeric = true;
+            for (int rowIndex : rowIndexes) {
+                final Object value = rowIndex < 0 ? null : variable.getValues().get(rowIndex);
+                values.add(value);
+                numeric &= value == null || parseLong(value) != null;
+            }
+            if (numeric) {
+                for (int i = 0; i < values.size(); i++) {
+                    values.set(i,
+                               parseLong(values.get(i)));
+                }
+            }
+            dataSet.addColumn(variable.getId(),
+                              numeric ? ColumnType.NUMBER : ColumnType.LABEL,
+                              values);
+        }
+    }
+
+    /**
+     * Sorts the rows of the data set, nulls last, and returns the requested window of it. The row count before
+     * trimming is kept so that the rows can be paged.
+     */
+    protected DataSet sortDataSet(DataSet dataSet,
+                                  DataSetSort sort,
+                                  int rowOffset,
+                                  int numberOfRows) {
+        final int rowCount = dataSet.getRowCount();
+        final List<Integer> rows = new ArrayList<>(rowCount);
+        for (int i = 0; i < rowCount; i++) {
+            rows.add(i);
+        }
+        Comparator<Integer> comparator = null;
+        for (ColumnSort columnSort : sort.getColumnSortList()) {
+            final DataColumn column = dataSet.getColumnById(columnSort.getColumnId());
+            if (column == null) {
+                continue;
+            }
+            final List values = column.getValues();
+            final boolean descending = SortOrder.DESCENDING.equals(columnSort.getOrder());
+            final Comparator<Integer> columnComparator = (first, second) -> compareValues(values.get(first),
+                                                                                          values.get(second),
+                                                                                          descending);
+            comparator = comparator == null ? columnComparator : comparator.thenComparing(columnComparator);
+        }
+        if (comparator != null) {
+            rows.sort(comparator);
+        }
+
+        final int from = Math.min(Math.max(rowOffset,
+                                           0),
+                                  rowCount);
+        final int to = numberOfRows > 0 ? Math.min(from + numberOfRows,
+                                                   rowCount) : rowCount;
+        final List<Integer> window = rows.subList(from,
+                                                  to);
+
+        final DataSet sorted = DataSetFactory.newEmptyDataSet();
+        sorted.setUUID(dataSet.getUUID());
+        sorted.setDefinition(dataSet.getDefinition());
+        for (DataColumn column : dataSet.getColumns()) {
+            final List<Object> values = new ArrayList<>(window.size());
+            for (Integer row : window) {
+                values.add(column.getValues().get(row));
+            }
+            sorted.addColumn(column.getId(),
+                             column.getColumnType(),
+                             values);
+        }
+        sorted.setRowCountNonTrimmed(rowCount);
+        return sorted;
+    }
+
+    protected static int compareValues(Object first,
+                                       Object second,
+                                       boolean descending) {
+        if (first == null || second == null) {
+            return first == second ? 0 : first == null ? 1 : -1;
+        }
+        int result;
+        if (first instanceof Comparable && first.getClass().equals(second.getClass())) {
+            result = ((Comparable) first).compareTo(second);
+        } else {
+            result = first.toString().compareTo(second.toString());
+        }
+        return descending ? -result : result;
+    }
+
+    protected static Object getJoinKey(Object value) {
+        return value instanceof Number ? (Object) ((Number) value).longValue() : value;
+    }
+
+    protected static Long parseLong(Object value) {
+        if (value == null) {
+            return null;
+        }
+        if (value instanceof Long || value instanceof Integer || value instanceof Short) {
+            return ((Number) value).longValue();
+        }
+        try {
+            return Long.valueOf(value.toString().trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    protected QueryParam toQueryParam(ColumnFilter columnFilter) {
+        if (columnFilter instanceof CoreFunctionFilter) {
+            CoreFunctionFilter coreFunctionFilter = (CoreFunctionFilter) columnFilter;
+            return new QueryParam(coreFunctionFilter.getColumnId(),
+                                  coreFunctionFilter.getType().toString(),
+                                  coreFunctionFilter.getParameters());
+        } else if (columnFilter instanceof LogicalExprFilter) {
+            LogicalExprFilter logicalExprFilter = (LogicalExprFilter) columnFilter;
+            return new QueryParam(logicalExprFilter.getColumnId(),
+                                  logicalExprFilter.getLogicalOperator().toString(),
+                                  logicalExprFilter.getLogicalTerms());
+        }
+        return null;
+    }
+
+    /**
+     * Keyset paging only applies when all the sort columns share the same direction, the seek predicate compares
+     * every column in that direction. Other lookups fall back to offset paging.
+     */
+    protected boolean isKeysetLookup(DataSetDef def,
+                                     ConsoleDataSetLookup dataSetLookup) {
+        return def instanceof RemoteDataSetDef
+                && ((RemoteDataSetDef) def).getKeysetColumn() != null
+                && dataSetLookup.hasSeekValues()
+                && hasUniformSortOrder(dataSetLookup.getFirstSortOp());
+    }
+
+    protected boolean isKeysetOrdered(DataSetDef def,
+                                      DataSetSort sort) {
+        return def instanceof RemoteDataSetDef
+                && ((RemoteDataSetDef) def).getKeysetColumn() != null
+                && !sort.getColumnSortList().isEmpty()
+                && hasUniformSortOrder(sort);
+    }
+
+    protected boolean hasUniformSortOrder(DataSetSort sort) {
+        if (sort == null) {
+            return true;
+        }
+        return sort.getColumnSortList().stream().map(ColumnSort::getOrder).distinct().count() <= 1;
+    }
+
+    /**
+     * Columns identifying the position of a row in keyset paging: the sort columns followed by the keyset column
+     * of the data set, which makes the position unique.
+     */
+    protected List<String> getKeysetColumns(RemoteDataSetDef def,
+                                            DataSetSort sort) {
+        final List<String> columns = new ArrayList<>();
+        if (sort != null) {
+            for (ColumnSort columnSort : sort.getColumnSortList()) {
+                columns.add(columnSort.getColumnId());
+            }
+        }
+        if (!columns.contains(def.getKeysetColumn())) {
+            columns.add(def.getKeysetColumn());
+        }
+        return columns;
+    }
+
+    /**
+     * Builds the predicate selecting rows positioned after the given values, for columns (c1, c2) and values (v1, v2)
+     * in ascending order: c1 &gt; v1 OR (c1 = v1 AND c2 &gt; v2).
+     */
+    protected ColumnFilter buildSeekFilter(List<String> columns,
+                                           List<Comparable> values,
+                                           boolean ascending) {
+        if (columns.size() != values.size()) {
+            throw new IllegalArgumentException("Keyset lookup requires " + columns.size() + " seek value(s) for columns " + columns + " but got " + values.size());
+        }
+        final List<ColumnFilter> alternatives = new ArrayList<>();
+        for (int i = 0; i < columns.size(); i++) {
+            final ColumnFilter after = ascending ? FilterFactory.greaterThan(columns.get(i),
+                                                                             values.get(i)) : FilterFactory.lowerThan(columns.get(i),
+                                                                                                                      values.get(i));
+            if (i == 0) {
+                alternatives.add(after);
+            } else {
+                final List<ColumnFilter> terms = new ArrayList<>();
+                for (int j = 0; j < i; j++) {
+                    terms.add(FilterFactory.equalsTo(columns.get(j),
+                                                     values.get(j)));
+                }
+                terms.add(after);
+                alternatives.add(FilterFactory.AND(terms.toArray(new ColumnFilter[terms.size()])));
+            }
+        }
+        return alternatives.size() == 1 ? alternatives.get(0) : FilterFactory.OR(alternatives.toArray(new ColumnFilter[alternatives.size()]));
+    }
+
+    public DataSetLookupCoalescer getLookupCoalescer() {
+        return lookupCoalescer;
+    }
+
+    /**
+     * Results of queries filtered on KIE Server by the authenticated user must not be shared between users.
+     */
+    protected String getCachePartition(DataSetDef def) {
+        if (def instanceof RemoteDataSetDef) {
+            final String queryTarget = ((RemoteDataSetDef) def).getQueryTarget();
+            if (queryTarget != null && queryTarget.startsWith("FILTERED")) {
+                return identityProvider.getName();
+            }
+        }
+        return null;
     }
 
     protected ConsoleDataSetLookup adoptLookup(DataSetDef def,
@@ -241,30 +936,123 @@ public class KieServerDataSetProvider extends AbstractKieServerService implement
                                                        });
 
             try {
-                return queryClient.query(
-                        dataSetLookup.getDataSetUUID(),
-                        QueryServicesClient.QUERY_MAP_RAW,
-                        filterSpec,
-                        dataSetLookup.getRowOffset() / dataSetLookup.getNumberOfRows(),
-                        dataSetLookup.getNumberOfRows(),
-                        List.class
-                );
+                return queryWindow(def,
+                                   dataSetLookup,
+                                   queryClient,
+                                   filterSpec,
+                                   null);
             } catch (Exception e) {
                 queryClient.unregisterQuery(dataSetLookup.getDataSetUUID());
                 throw new RuntimeException(e);
             }
         } else {
-            return queryClient.query(
-                    dataSetLookup.getDataSetUUID(),
-                    QueryServicesClient.QUERY_MAP_RAW,
-                    filterSpec,
-                    dataSetLookup.getRowOffset() / dataSetLookup.getNumberOfRows(),
-                    dataSetLookup.getNumberOfRows(),
-                    List.class
-            );
+            return queryWindow(def,
+                               dataSetLookup,
+                               queryClient,
+                               filterSpec,
+                               KieServerDataSetCache.buildQueryKey(dataSetLookup,
+                                                                   getCachePartition(def)));
         }
     }
 
+    /**
+     * Returns exactly the rows of the requested window. KIE Server pages by page number so a window that does not
+     * start at a page boundary is read from the pages covering it and trimmed here.
+     * @param queryKey key of the query used to cache the fetched pages, pages are not cached when null
+     */
+    protected List<List> queryWindow(RemoteDataSetDef def,
+                                     ConsoleDataSetLookup dataSetLookup,
+                                     QueryServicesClient queryClient,
+                                     QueryFilterSpec filterSpec,
+                                     String queryKey) {
+        final int pageSize = dataSetLookup.getNumberOfRows();
+        final int offset = dataSetLookup.getRowOffset();
+        if (pageSize <= 0 || isKeysetLookup(def,
+                                            dataSetLookup)) {
+            return queryPage(def,
+                             dataSetLookup,
+                             queryClient,
+                             filterSpec,
+                             getPage(def,
+                                     dataSetLookup),
+                             queryKey);
+        }
+
+        final int firstPage = offset / pageSize;
+        final int lastPage = (offset + pageSize - 1) / pageSize;
+        if (firstPage == lastPage) {
+            return queryPage(def,
+                             dataSetLookup,
+                             queryClient,
+                             filterSpec,
+                             firstPage,
+                             queryKey);
+        }
+
+        final List<List> rows = new ArrayList<>(pageSize * (lastPage - firstPage + 1));
+        for (int page = firstPage; page <= lastPage; page++) {
+            final List<List> pageRows = queryPage(def,
+                                                  dataSetLookup,
+                                                  queryClient,
+                                                  filterSpec,
+                                                  page,
+                                                  queryKey);
+            rows.addAll(pageRows);
+            if (pageRows.size() < pageSize) {
+                // no more rows available
+                break;
+            }
+        }
+        final int from = Math.min(offset - firstPage * pageSize,
+                                  rows.size());
+        return new ArrayList<>(rows.subList(from,
+                                            Math.min(from + pageSize,
+                                                     rows.size())));
+    }
+
+    protected List<List> queryPage(RemoteDataSetDef def,
+                                   ConsoleDataSetLookup dataSetLookup,
+                                   QueryServicesClient queryClient,
+                                   QueryFilterSpec filterSpec,
+                                   int page,
+                                   String queryKey) {
+        final String pageKey = queryKey == null ? null : page + "|" + dataSetLookup.getNumberOfRows() + "|" + queryKey;
+        final long generation = dataSetCache.getGeneration(dataSetLookup.getServerTemplateId());
+        if (pageKey != null) {
+            final List<List> cached = dataSetCache.getRows(dataSetLookup.getServerTemplateId(),
+                                                           pageKey);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        final List<List> rows = queryClient.query(
+                dataSetLookup.getDataSetUUID(),
+                QueryServicesClient.QUERY_MAP_RAW,
+                filterSpec,
+                page,
+                dataSetLookup.getNumberOfRows(),
+                List.class
+        );
+        if (pageKey != null) {
+            dataSetCache.putRows(dataSetLookup.getServerTemplateId(),
+                                 pageKey,
+                                 def.getUUID(),
+                                 rows,
+                                 generation);
+        }
+        return rows;
+    }
+
+    protected int getPage(RemoteDataSetDef def,
+                          ConsoleDataSetLookup dataSetLookup) {
+        if (isKeysetLookup(def,
+                           dataSetLookup) || dataSetLookup.getNumberOfRows() <= 0) {
+            // the seek predicate already positions the query and unlimited lookups have a single page
+            return 0;
+        }
+        return dataSetLookup.getRowOffset() / dataSetLookup.getNumberOfRows();
+    }
+
     @Override
     public boolean isDataSetOutdated(DataSetDef def) {
         return false;
@@ -277,36 +1065,58 @@ public class KieServerDataSetProvider extends AbstractKieServerService implement
         dataSet.setUUID(def.getUUID());
         dataSet.setDefinition(def);
 
+        final List<DataColumn> columns;
         if (extraColumns != null && !extraColumns.isEmpty()) {
-
-            for (DataColumn extraColumn : extraColumns) {
-                dataSet.addColumn(extraColumn);
-            }
+            columns = extraColumns;
         } else {
-
+            columns = new ArrayList<>(def.getColumns().size());
             for (DataColumnDef column : def.getColumns()) {
-                DataColumn numRows = new DataColumnImpl(column.getId(),
-                                                        column.getColumnType());
-                dataSet.addColumn(numRows);
+                columns.add(new DataColumnImpl(column.getId(),
+                                               column.getColumnType()));
             }
         }
 
-        for (List<Object> row : instances) {
+        // fill the values column by column into lists sized upfront for the number of rows
+        final int columnCount = columns.size();
+        final ColumnType[] columnTypes = new ColumnType[columnCount];
+        final List<Object>[] columnValues = new List[columnCount];
+        for (int columnIndex = 0; columnIndex < columnCount; columnIndex++) {
+            columnTypes[columnIndex] = columns.get(columnIndex).getColumnType();
+            columnValues[columnIndex] = new ArrayList<>(instances.size());
+        }
 
+        for (List<Object> row : instances) {
             int columnIndex = 0;
             for (Object value : row) {
-                DataColumn intervalBuilder = dataSet.getColumnByIndex(columnIndex);
-                intervalBuilder.getValues().add(value);
-
+                columnValues[columnIndex].add(convertValue(columnTypes[columnIndex],
+                                                           value));
                 columnIndex++;
             }
         }
+
+        for (int columnIndex = 0; columnIndex < columnCount; columnIndex++) {
+            dataSet.addColumn(columns.get(columnIndex).getId(),
+                              columnTypes[columnIndex],
+                              columnValues[columnIndex]);
+        }
         // set size of the results to allow paging to be more then the actual size
 //        dataSet.setRowCountNonTrimmed(instances.size() == 0 ? 0 : instances.size() + 1);
         dataSet.setRowCountNonTrimmed(instances.size());
         return dataSet;
     }
 
+    /**
+     * Converts a raw query value into the representation expected for the given column type, dates returned
+     * as epoch milliseconds by the raw query mapper are converted to {@link Date}. Other values are kept as is.
+     */
+    protected Object convertValue(ColumnType columnType,
+                                  Object value) {
+        if (columnType == ColumnType.DATE && value instanceof Number) {
+            return new Date(((Number) value).longValue());
+        }
+        return value;
+    }
+
     protected void appendIntervalSelection(DataSetGroup intervalSel,
                                            List<QueryParam> filterParams) {
         if (intervalSel != null && intervalSel.isSelect()) {
@@ -0,0 +1,130 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jbpm.workbench.ks.integration;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Semaphore;
+import java.util.function.Function;
+
+import org.kie.server.client.KieServicesClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Keeps one client per KIE Server endpoint (url) and bounds the number of concurrent requests sent to it.
+ * Reusing the client also reuses its keep-alive connections, which the HTTP transport pools per host and port.
+ * Exposes per endpoint metrics: leased (requests in progress), idle (requests that can still be started)
+ * and pending (requests waiting for a free slot).
+ */
+public class KieServerEndpointPool {
+
+    public static final String MAX_PER_ENDPOINT = "org.jbpm.wb.kieserver.endpoint.max";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(KieServerEndpointPool.class);
+
+    private final int maxPerEndpoint;
+
+    private final ConcurrentMap<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+
+    public KieServerEndpointPool() {
+        this(Integer.getInteger(MAX_PER_ENDPOINT,
+                                10));
+    }
+
+    public KieServerEndpointPool(final int maxPerEndpoint) {
+        this.maxPerEndpoint = maxPerEndpoint;
+    }
+
+    /**
+     * Returns the client of the endpoint, creating it with the given factory the first time.
+     */
+    public KieServicesClient getClient(final String url,
+                                       final Function<String, KieServicesClient> factory) {
+        final Endpoint endpoint = getEndpoint(url);
+        KieServicesClient client = endpoint.client;
+        if (client == null) {
+            synchronized (endpoint) {
+                client = endpoint.client;
+                if (client == null) {
+                    client = factory.apply(url);
+                    endpoint.client = client;
+                    LOGGER.debug("Created client for endpoint {}",
+                                 url);
+                }
+            }
+        }
+        return client;
+    }
+
+    /**
+     * Runs the request once the endpoint has a free slot.
+     */
+    public <T> T execute(final String url,
+                         final Callable<T> request) throws Exception {
+        final Endpoint endpoint = getEndpoint(url);
+        endpoint.permits.acquire();
+        try {
+            return request.call();
+        } finally {
+            endpoint.permits.release();
+        }
+    }
+
+    public void remove(final String url) {
+        if (url != null && endpoints.remove(url) != null) {
+            LOGGER.debug("Removed client for endpoint {}",
+                         url);
+        }
+    }
+
+    public int getLeased(final String url) {
+        final Endpoint endpoint = endpoints.get(url);
+        return endpoint == null ? 0 : maxPerEndpoint - endpoint.permits.availablePermits();
+    }
+
+    public int getIdle(final String url) {
+        final Endpoint endpoint = endpoints.get(url);
+        return endpoint == null ? maxPerEndpoint : endpoint.permits.availablePermits();
+    }
+
+    public int getPending(final String url) {
+        final Endpoint endpoint = endpoints.get(url);
+        return endpoint == null ? 0 : endpoint.permits.getQueueLength();
+    }
+
+    public int getEndpointCount() {
+        return endpoints.size();
+    }
+
+    protected Endpoint getEndpoint(final String url) {
+        return endpoints.computeIfAbsent(url,
+                                         key -> new Endpoint(maxPerEndpoint));
+    }
+
+    private static class Endpoint {
+
+        private final Semaphore permits;
+        private volatile KieServicesClient client;
+
+        private Endpoint(final int maxPerEndpoint) {
+            this.permits = new Semaphore(maxPerEndpoint,
+                                         true);
+        }
+    }
+}
@@ -0,0 +1,428 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jbpm.workbench.ks.integration;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.annotation.PreDestroy;
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+
+import org.jbpm.workbench.ks.utils.KieServerUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.uberfire.commons.concurrent.Managed;
+
+/**
+ * Runs KIE Server calls concurrently on the container managed executor, e.g. the calls needed to open a task form,
+ * broadcasts to server instances or query registrations. Calls and broadcasts use separate pools, so a burst of
+ * broadcasts to slow or unreachable servers can't hold up user requests and the other way around. At most
+ * {@link #MAX_CONCURRENT_CALLS} calls and {@link #MAX_CONCURRENT_BROADCASTS} broadcasts run at the same time, the others
+ * wait in submission order. A pool with {@link #MAX_PENDING} waiting tasks rejects new ones right away rather than
+ * letting them wait for longer than anybody cares about the result.
+ * <p>
+ * Tasks run with the credentials of the user that submitted them. A task without timeout submitted by another task
+ * runs right away on the same thread, so tasks waiting for each other can't exhaust the limit.
+ */
+@ApplicationScoped
+public class KieServerExecutor {
+
+    public static final String MAX_CONCURRENT_CALLS = "org.jbpm.wb.kieserver.threads";
+    public static final String MAX_CONCURRENT_BROADCASTS = "org.jbpm.wb.kieserver.broadcast.threads";
+    public static final String MAX_PENDING = "org.jbpm.wb.kieserver.queue.size";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(KieServerExecutor.class);
+
+    private static final ThreadLocal<Boolean> RUNNING_TASK = new ThreadLocal<>();
+
+    private static final long WATCHDOG_IDLE_TIMEOUT = 1000L;
+
+    private ExecutorService executorService;
+
+    private final Pool calls;
+
+    private final Pool broadcasts;
+
+    private final DelayQueue<Deadline> deadlines = new DelayQueue<>();
+
+    private boolean watchdogRunning = false;
+
+    private volatile boolean shutdown = false;
+
+    public KieServerExecutor() {
+        this(null,
+             Integer.getInteger(MAX_CONCURRENT_CALLS,
+                                16),
+             Integer.getInteger(MAX_CONCURRENT_BROADCASTS,
+                                4),
+             Integer.getInteger(MAX_PENDING,
+                                1000));
+    }
+
+    @Inject
+    public KieServerExecutor(@Managed ExecutorService executorService) {
+        this();
+        this.executorService = executorService;
+    }
+
+    public KieServerExecutor(final ExecutorService executorService,
+                             final int maxConcurrentCalls) {
+        this(executorService,
+             maxConcurrentCalls,
+             maxConcurrentCalls,
+             Integer.getInteger(MAX_PENDING,
+                                1000));
+    }
+
+    public KieServerExecutor(final ExecutorService executorService,
+                             final int maxConcurrentCalls,
+                             final int maxConcurrentBroadcasts,
+                             final int maxPending) {
+        this.executorService = executorService;
+        this.calls = new Pool("calls",
+                              maxConcurrentCalls,
+                              maxPending);
+        this.broadcasts = new Pool("broadcasts",
+                                   maxConcurrentBroadcasts,
+                                   maxPending);
+    }
+
+    /**
+     * Submits a call made on behalf of a user request.
+     * @throws RejectedExecutionException when too many calls are already waiting
+     */
+    public <T> Future<T> submit(final Callable<T> task) {
+        return submit(calls,
+                      task);
+    }
+
+    /**
+     * Same as {@link #submit(Callable)} but the returned future fails with a {@link TimeoutException} when the call
+     * doesn't complete within the timeout, counted from submission. A rejected call fails the returned future.
+     * @see #submit(Pool, Callable, long)
+     */
+    public <T> CompletableFuture<T> submit(final Callable<T> task,
+                                           final long timeout) {
+        return submit(calls,
+                      task,
+                      timeout);
+    }
+
+    /**
+     * Submits a background call to one of the server instances, e.g. a broadcast or a query registration.
+     * @throws RejectedExecutionException when too many broadcasts are already waiting
+     */
+    public <T> Future<T> submitBroadcast(final Callable<T> task) {
+        return submit(broadcasts,
+                      task);
+    }
+
+    /**
+     * Same as {@link #submitBroadcast(Callable)} with a timeout, counted from submission.
+     * @see #submit(Pool, Callable, long)
+     */
+    public <T> CompletableFuture<T> submitBroadcast(final Callable<T> task,
+                                                    final long timeout) {
+        return submit(broadcasts,
+                      task,
+                      timeout);
+    }
+
+    protected <T> Future<T> submit(final Pool pool,
+                                   final Callable<T> task) {
+        final FutureTask<T> future = new FutureTask<>(KieServerUtils.withCurrentCredentials(task));
+        if (Boolean.TRUE.equals(RUNNING_TASK.get())) {
+            future.run();
+            return future;
+        }
+        enqueue(pool,
+                new Job(pool,
+                        future));
+        return future;
+    }
+
+    /**
+     * Runs the task in the given pool, the returned future fails with a {@link TimeoutException} when it doesn't
+     * complete within the timeout, including the time spent waiting for a free slot. A timed out task is interrupted
+     * and gives up its slot right away: interrupting doesn't stop a blocking socket read, so the call may keep a managed
+     * thread until the connection times out, but it no longer holds up the other tasks of the pool. A task submitted by
+     * another task doesn't run on the same thread like untimed ones, it runs on a managed thread outside of the pool
+     * limit instead, the submitting task already holds a slot and the timeout couldn't be honoured otherwise.
+     */
+    protected <T> CompletableFuture<T> submit(final Pool pool,
+                                              final Callable<T> task,
+                                              final long timeout) {
+        final CompletableFuture<T> result = new CompletableFuture<>();
+        final Callable<T> call = KieServerUtils.withCurrentCredentials(task);
+        final FutureTask<Void> execution = new FutureTask<>(() -> {
+            try {
+                result.complete(call.call());
+            } catch (Exception e) {
+                result.completeExceptionally(e);
+            }
+            return null;
+        });
+        final boolean nested = Boolean.TRUE.equals(RUNNING_TASK.get());
+        final Job job = new Job(nested ? null : pool,
+                                execution);
+        final Deadline deadline = new Deadline(timeout,
+                                               result);
+        result.whenComplete((value, error) -> {
+            deadlines.remove(deadline);
+            if (error != null) {
+                job.cancel();
+            }
+        });
+        try {
+            if (nested) {
+                executorService.execute(job);
+            } else {
+                enqueue(pool,
+                        job);
+            }
+        } catch (RejectedExecutionException e) {
+            result.completeExceptionally(e);
+            return result;
+        }
+        if (!result.isDone()) {
+            addDeadline(deadline);
+        }
+        return result;
+    }
+
+    protected void enqueue(final Pool pool,
+                           final Job job) {
+        synchronized (this) {
+            if (shutdown) {
+                throw new RejectedExecutionException("KIE Server executor is shut down");
+            }
+            if (pool.pending.size() >= pool.maxPending) {
+                LOGGER.warn("Rejecting KIE Server call, {} {} already waiting",
+                            pool.pending.size(),
+                            pool.name);
+                throw new RejectedExecutionException("Too many KIE Server " + pool.name + " waiting, " + pool.pending.size());
+            }
+            pool.pending.add(job);
+        }
+        dispatch(pool);
+    }
+
+    protected void dispatch(final Pool pool) {
+        while (true) {
+            final Job next;
+            synchronized (this) {
+                if (pool.running >= pool.maxRunning || pool.pending.isEmpty()) {
+                    return;
+                }
+                next = pool.pending.poll();
+                pool.running++;
+                next.released.set(false);
+            }
+            try {
+                executorService.execute(next);
+            } catch (RuntimeException e) {
+                LOGGER.warn("Unable to run KIE Server call due to {}",
+                            e.getMessage());
+                next.task.cancel(false);
+                next.release();
+            }
+        }
+    }
+
+    protected synchronized void addDeadline(final Deadline deadline) {
+        deadlines.add(deadline);
+        if (!watchdogRunning) {
+            watchdogRunning = true;
+            try {
+                executorService.execute(this::watchDeadlines);
+            } catch (RuntimeException e) {
+                watchdogRunning = false;
+                LOGGER.warn("Unable to watch KIE Server call timeouts due to {}",
+                            e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Fails calls that passed their deadline. Runs on a managed thread as long as there are calls with a timeout.
+     */
+    protected void watchDeadlines() {
+        try {
+            while (!shutdown) {
+                final Deadline deadline = deadlines.poll(WATCHDOG_IDLE_TIMEOUT,
+                                                         TimeUnit.MILLISECONDS);
+                if (deadline != null) {
+                    deadline.expire();
+                    continue;
+                }
+                synchronized (this) {
+                    if (deadlines.isEmpty()) {
+                        watchdogRunning = false;
+                        return;
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (this) {
+            watchdogRunning = false;
+        }
+    }
+
+    public synchronized int getRunning() {
+        return calls.running;
+    }
+
+    public synchronized int getPending() {
+        return calls.pending.size();
+    }
+
+    public synchronized int getBroadcastsRunning() {
+        return broadcasts.running;
+    }
+
+    public synchronized int getBroadcastsPending() {
+        return broadcasts.pending.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        final Queue<Job> cancelled = new ArrayDeque<>();
+        synchronized (this) {
+            shutdown = true;
+            cancelled.addAll(calls.pending);
+            cancelled.addAll(broadcasts.pending);
+            calls.pending.clear();
+            broadcasts.pending.clear();
+        }
+        cancelled.forEach(job -> job.task.cancel(false));
+        deadlines.forEach(Deadline::expire);
+        deadlines.clear();
+    }
+
+    protected static class Pool {
+
+        private final String name;
+
+        private final int maxRunning;
+
+        private final int maxPending;
+
+        private final Queue<Job> pending = new ArrayDeque<>();
+
+        private int running = 0;
+
+        protected Pool(final String name,
+                       final int maxRunning,
+                       final int maxPending) {
+            this.name = name;
+            this.maxRunning = maxRunning;
+            this.maxPending = maxPending;
+        }
+    }
+
+    protected class Job implements Runnable {
+
+        private final Pool pool;
+
+        private final FutureTask<?> task;
+
+        // set while the job holds no slot of its pool, i.e. while it's waiting or once it's done
+        private final AtomicBoolean released = new AtomicBoolean(true);
+
+        protected Job(final Pool pool,
+                      final FutureTask<?> task) {
+            this.pool = pool;
+            this.task = task;
+        }
+
+        @Override
+        public void run() {
+            RUNNING_TASK.set(Boolean.TRUE);
+            try {
+                task.run();
+            } finally {
+                RUNNING_TASK.remove();
+                release();
+            }
+        }
+
+        protected void cancel() {
+            final boolean queued;
+            synchronized (KieServerExecutor.this) {
+                queued = pool != null && pool.pending.remove(this);
+            }
+            task.cancel(true);
+            if (!queued) {
+                release();
+            }
+        }
+
+        protected void release() {
+            if (released.compareAndSet(false,
+                                       true)) {
+                synchronized (KieServerExecutor.this) {
+                    pool.running--;
+                }
+                dispatch(pool);
+            }
+        }
+    }
+
+    protected static class Deadline implements Delayed {
+
+        private final long timeout;
+
+        private final long expiresAt;
+
+        private final CompletableFuture<?> result;
+
+        protected Deadline(final long timeout,
+                           final CompletableFuture<?> result) {
+            this.timeout = timeout;
+            this.expiresAt = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout);
+            this.result = result;
+        }
+
+        protected void expire() {
+            result.completeExceptionally(new TimeoutException("No result within " + timeout + " ms"));
+        }
+
+        @Override
+        public long getDelay(final TimeUnit unit) {
+            return unit.convert(expiresAt - System.nanoTime(),
+                                TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public int compareTo(final Delayed other) {
+            return Long.compare(getDelay(TimeUnit.NANOSECONDS),
+                                other.getDelay(TimeUnit.NANOSECONDS));
+        }
+    }
+}
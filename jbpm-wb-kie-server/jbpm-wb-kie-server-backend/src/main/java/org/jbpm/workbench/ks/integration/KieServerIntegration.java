@@ -26,9 +26,14 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.ServiceLoader;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeoutException;
+import java.util.function.BiFunction;
 import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import javax.annotation.PostConstruct;
 import javax.enterprise.context.ApplicationScoped;
@@ -68,21 +73,32 @@ public class KieServerIntegration {
 
     protected static final String SERVER_TEMPLATE_KEY = "_SERVER_TEMPLATE_MAIN_CLIENT_";
 
+    public static final String BROADCAST_TIMEOUT = "org.jbpm.wb.kieserver.broadcast.timeout";
+
     private KieServices kieServices;
 
     private ConcurrentMap<String, Map<String, KieServicesClient>> serverTemplatesClients = new ConcurrentHashMap<String, Map<String, KieServicesClient>>();
     private ConcurrentMap<String, KieServicesClient> adminClients = new ConcurrentHashMap<String, KieServicesClient>();
     private ConcurrentMap<String, ServerInstanceKey> serverInstancesById = new ConcurrentHashMap<String, ServerInstanceKey>();
+    private ConcurrentMap<String, KieServicesClient> adminEndpointClients = new ConcurrentHashMap<String, KieServicesClient>();
+
+    private KieServerEndpointPool endpointPool = new KieServerEndpointPool();
 
     private List<KieServicesClientProvider> clientProviders = new ArrayList<>();
     private List<KieServicesClientProvider> allClientProviders = new ArrayList<>();
 
+    private long broadcastTimeout = Long.getLong(BROADCAST_TIMEOUT,
+                                                 30000L);
+
     @Inject
     private SpecManagementService specManagementService;
 
     @Inject
     private Event<ServerInstanceRegistered> serverInstanceRegisteredEvent;
 
+    @Inject
+    private KieServerExecutor kieServerExecutor;
+
     @PostConstruct
     public void createAvailableClients() {
 
@@ -141,12 +157,13 @@ public class KieServerIntegration {
                     .findFirst()
                     .get();
             String url = instance.getUrl();
-            KieServicesClient client = clientProviders
-                    .stream()
-                    .filter(provider -> provider.supports(url))
-                    .findFirst()
-                    .get()
-                    .get(url);
+            KieServicesClient client = adminEndpointClients.computeIfAbsent(url,
+                                                                            key -> clientProviders
+                                                                                    .stream()
+                                                                                    .filter(provider -> provider.supports(key))
+                                                                                    .findFirst()
+                                                                                    .get()
+                                                                                    .get(key));
             logger.debug("Using client {}",
                          client);
             return client;
@@ -194,6 +211,11 @@ public class KieServerIntegration {
         // remove admin client
         adminClients.remove(serverTemplateDeleted.getServerTemplateId());
 
+        serverInstancesById.values()
+                .stream()
+                .filter(serverInstanceKey -> serverInstanceKey.getServerTemplateId().equals(serverTemplateDeleted.getServerTemplateId()))
+                .forEach(serverInstanceKey -> removeEndpointClients(serverInstanceKey.getUrl()));
+
         removeServerInstancesFromIndex(serverTemplateDeleted.getServerTemplateId());
     }
 
@@ -218,6 +240,7 @@ public class KieServerIntegration {
                                                     });
 
             serverInstancesById.remove(serverInstanceKey.getServerInstanceId());
+            removeEndpointClients(serverInstanceKey.getUrl());
 
             // update admin client
             KieServicesClient adminClient = adminClients.get(serverInstanceKey.getServerTemplateId());
@@ -259,39 +282,107 @@ public class KieServerIntegration {
         serverInstanceRegisteredEvent.fire(new ServerInstanceRegistered(serverInstanceConnected.getServerInstance()));
     }
 
+    /**
+     * Applies the operation on every server instance of the template and waits for all of them.
+     * @return results of the instances on which the operation succeeded
+     */
     public List<Object> broadcastToKieServers(String serverTemplateId,
                                               Function<KieServicesClient, Object> operation) {
-        List<Object> results = new ArrayList<>();
+        return broadcastToKieServersAsync(serverTemplateId,
+                                          operation)
+                .join()
+                .stream()
+                .filter(KieServerBroadcastResult::isSuccess)
+                .map(KieServerBroadcastResult::getResult)
+                .collect(Collectors.toList());
+    }
 
+    /**
+     * Applies the operation on every server instance of the template in parallel. Each instance gets at most
+     * the broadcast timeout to respond, a slow or unreachable instance does not delay the others.
+     * @return future completed once every instance either responded, failed or timed out, never completed exceptionally
+     */
+    public CompletableFuture<List<KieServerBroadcastResult>> broadcastToKieServersAsync(String serverTemplateId,
+                                                                                        Function<KieServicesClient, Object> operation) {
+        return broadcastToKieServerInstances(serverTemplateId,
+                                             (serverInstanceId, client) -> operation.apply(client));
+    }
+
+    /**
+     * Same as {@link #broadcastToKieServersAsync(String, Function)} for operations that depend on the server instance,
+     * the operation receives the server instance id along with its client.
+     */
+    public CompletableFuture<List<KieServerBroadcastResult>> broadcastToKieServerInstances(String serverTemplateId,
+                                                                                           BiFunction<String, KieServicesClient, Object> operation) {
         ServerTemplate serverTemplate = specManagementService.getServerTemplate(serverTemplateId);
 
         if (serverTemplate.getServerInstanceKeys() == null || serverTemplate.getServerInstanceKeys().isEmpty()) {
 
-            return results;
+            return CompletableFuture.completedFuture(new ArrayList<>());
         }
 
-        for (ServerInstanceKey instanceUrl : serverTemplate.getServerInstanceKeys()) {
-
-            try {
-                KieServicesClient client = getClient(instanceUrl.getUrl());
-
-                Object result = operation.apply(client);
-                results.add(result);
-                logger.debug("KIE Server at {} returned result {} for broadcast operation {}", instanceUrl, result, operation);
-            } catch (Exception e) {
-                logger.debug("Unable to send breadcast to {} due to {}", instanceUrl, e.getMessage(), e);
-            }
+        final List<CompletableFuture<KieServerBroadcastResult>> results = new ArrayList<>();
+        for (ServerInstanceKey instance : serverTemplate.getServerInstanceKeys()) {
+            results.add(broadcastToKieServer(instance,
+                                             operation));
         }
 
-        return results;
+        return CompletableFuture.allOf(results.toArray(new CompletableFuture[results.size()]))
+                .thenApply(done -> results.stream()
+                        .map(CompletableFuture::join)
+                        .collect(Collectors.toList()));
+    }
+
+    protected CompletableFuture<KieServerBroadcastResult> broadcastToKieServer(ServerInstanceKey instance,
+                                                                               BiFunction<String, KieServicesClient, Object> operation) {
+        return kieServerExecutor.submitBroadcast(() -> {
+                                                     KieServicesClient client = getClient(instance.getUrl());
+
+                                                     return endpointPool.execute(instance.getUrl(),
+                                                                                 () -> operation.apply(instance.getServerInstanceId(),
+                                                                                                       client));
+                                                 },
+                                                 broadcastTimeout)
+                .handle((value, error) -> {
+                    if (error == null) {
+                        logger.debug("KIE Server at {} returned result {} for broadcast operation {}",
+                                     instance,
+                                     value,
+                                     operation);
+                        return KieServerBroadcastResult.success(instance.getServerInstanceId(),
+                                                                instance.getUrl(),
+                                                                value);
+                    }
+                    Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+                    if (cause instanceof TimeoutException) {
+                        cause = new TimeoutException("No response from " + instance.getUrl() + " within " + broadcastTimeout + " ms");
+                    }
+                    logger.debug("Unable to send broadcast to {} due to {}",
+                                 instance,
+                                 cause.getMessage(),
+                                 cause);
+                    return KieServerBroadcastResult.failure(instance.getServerInstanceId(),
+                                                            instance.getUrl(),
+                                                            cause);
+                });
     }
 
     protected KieServicesClient getClient(String url) {
-        KieServicesClient client = allClientProviders.stream().filter(provider -> provider.supports(url)).findFirst().get().get(url);
+        KieServicesClient client = endpointPool.getClient(url,
+                                                          key -> allClientProviders.stream().filter(provider -> provider.supports(key)).findFirst().get().get(key));
         logger.debug("Using client {}", client);
         return client;
     }
 
+    protected void removeEndpointClients(String url) {
+        endpointPool.remove(url);
+        adminEndpointClients.remove(url);
+    }
+
+    public KieServerEndpointPool getEndpointPool() {
+        return endpointPool;
+    }
+
     protected void updateOrBuildClient(KieServicesClient client,
                                        ServerInstance serverInstance) {
         if (client != null) {
@@ -418,4 +509,8 @@ public class KieServerIntegration {
         this.allClientProviders = providers;
     }
 
+    protected void setBroadcastTimeout(long broadcastTimeout) {
+        this.broadcastTimeout = broadcastTimeout;
+    }
+
 }
@@ -0,0 +1,245 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jbpm.workbench.ks.integration;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Supplier;
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Observes;
+
+import org.kie.server.controller.api.model.events.ContainerSpecUpdated;
+import org.kie.server.controller.api.model.events.ServerInstanceConnected;
+import org.kie.server.controller.api.model.events.ServerTemplateDeleted;
+import org.kie.server.controller.api.model.events.ServerTemplateUpdated;
+import org.kie.server.controller.api.model.spec.ContainerSpec;
+import org.kie.server.controller.api.model.spec.ServerTemplate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * {@link BoundedCache} of process definition metadata (process variables, user task inputs and outputs) keyed by
+ * server template, container and definition. Definitions only change when a container is redeployed: entries of a
+ * container are dropped when the controller reports it with a different release id or when the container itself
+ * is updated, and all entries of a server template are dropped when a server instance (re)connects to it.
+ */
+@ApplicationScoped
+public class ProcessDefinitionCache {
+
+    public static final String CACHE_MAX_SIZE = "org.jbpm.wb.process.definition.cache.size";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ProcessDefinitionCache.class);
+
+    private static final String PROCESS_VARIABLES = "variables";
+    private static final String TASK_INPUTS = "inputs";
+    private static final String TASK_OUTPUTS = "outputs";
+
+    private final BoundedCache<DefinitionKey, Map<String, String>> definitions;
+
+    private final Map<String, Map<String, String>> releaseIdsByServerTemplate = new HashMap<>();
+
+    private long generation = 0;
+
+    public ProcessDefinitionCache() {
+        this(Integer.getInteger(CACHE_MAX_SIZE,
+                                500));
+    }
+
+    public ProcessDefinitionCache(final int maxSize) {
+        this.definitions = new BoundedCache<>(maxSize);
+    }
+
+    public boolean isEnabled() {
+        return definitions.isEnabled();
+    }
+
+    public Map<String, String> getProcessVariableDefinitions(final String serverTemplateId,
+                                                             final String containerId,
+                                                             final String processId,
+                                                             final Supplier<Map<String, String>> loader) {
+        return get(new DefinitionKey(serverTemplateId,
+                                     containerId,
+                                     PROCESS_VARIABLES,
+                                     processId,
+                                     null),
+                   loader);
+    }
+
+    public Map<String, String> getUserTaskInputDefinitions(final String serverTemplateId,
+                                                           final String containerId,
+                                                           final String processId,
+                                                           final String taskName,
+                                                           final Supplier<Map<String, String>> loader) {
+        return get(new DefinitionKey(serverTemplateId,
+                                     containerId,
+                                     TASK_INPUTS,
+                                     processId,
+                                     taskName),
+                   loader);
+    }
+
+    public Map<String, String> getUserTaskOutputDefinitions(final String serverTemplateId,
+                                                            final String containerId,
+                                                            final String processId,
+                                                            final String taskName,
+                                                            final Supplier<Map<String, String>> loader) {
+        return get(new DefinitionKey(serverTemplateId,
+                                     containerId,
+                                     TASK_OUTPUTS,
+                                     processId,
+                                     taskName),
+                   loader);
+    }
+
+    /**
+     * Returns the cached definitions or loads them outside of the lock. Exceptions thrown by the loader are
+     * propagated and nothing is cached. Definitions loaded while an invalidation happened are returned but not
+     * stored, as they may belong to the previous deployment.
+     */
+    protected Map<String, String> get(final DefinitionKey key,
+                                      final Supplier<Map<String, String>> loader) {
+        final long loadGeneration;
+        synchronized (this) {
+            final Map<String, String> cached = definitions.get(key);
+            if (cached != null) {
+                return cached;
+            }
+            loadGeneration = generation;
+        }
+
+        final Map<String, String> loaded = loader.get();
+        final Map<String, String> result = loaded == null ? Collections.emptyMap() : Collections.unmodifiableMap(new HashMap<>(loaded));
+
+        synchronized (this) {
+            if (loadGeneration == generation) {
+                definitions.put(key,
+                                result);
+            }
+        }
+        return result;
+    }
+
+    public synchronized void invalidate(final String serverTemplateId) {
+        generation++;
+        definitions.removeIf((key, definition) -> key.serverTemplateId.equals(String.valueOf(serverTemplateId)));
+        LOGGER.debug("Process definition cache invalidated for server template {}",
+                     serverTemplateId);
+    }
+
+    public synchronized void invalidate(final String serverTemplateId,
+                                        final String containerId) {
+        generation++;
+        definitions.removeIf((key, definition) -> key.serverTemplateId.equals(String.valueOf(serverTemplateId)) && key.containerId.equals(String.valueOf(containerId)));
+        LOGGER.debug("Process definition cache invalidated for container {} of server template {}",
+                     containerId,
+                     serverTemplateId);
+    }
+
+    public int getSize() {
+        return definitions.size();
+    }
+
+    public void onServerTemplateUpdated(@Observes ServerTemplateUpdated event) {
+        final ServerTemplate serverTemplate = event.getServerTemplate();
+        final Map<String, String> releaseIds = new HashMap<>();
+        if (serverTemplate.getContainersSpec() != null) {
+            for (ContainerSpec containerSpec : serverTemplate.getContainersSpec()) {
+                releaseIds.put(containerSpec.getId(),
+                               String.valueOf(containerSpec.getReleasedId()));
+            }
+        }
+
+        synchronized (this) {
+            final Map<String, String> previous = releaseIdsByServerTemplate.put(serverTemplate.getId(),
+                                                                                releaseIds);
+            if (previous == null) {
+                invalidate(serverTemplate.getId());
+                return;
+            }
+            previous.forEach((containerId, releaseId) -> {
+                if (!releaseId.equals(releaseIds.get(containerId))) {
+                    invalidate(serverTemplate.getId(),
+                               containerId);
+                }
+            });
+        }
+    }
+
+    public void onContainerSpecUpdated(@Observes ContainerSpecUpdated event) {
+        invalidate(event.getServerTemplate().getId(),
+                   event.getContainerSpec().getId());
+    }
+
+    public synchronized void onServerTemplateDeleted(@Observes ServerTemplateDeleted event) {
+        releaseIdsByServerTemplate.remove(event.getServerTemplateId());
+        invalidate(event.getServerTemplateId());
+    }
+
+    public void onServerInstanceConnected(@Observes ServerInstanceConnected event) {
+        invalidate(event.getServerInstance().getServerTemplateId());
+    }
+
+    protected static class DefinitionKey {
+
+        private final String serverTemplateId;
+        private final String containerId;
+        private final String type;
+        private final String processId;
+        private final String taskName;
+
+        DefinitionKey(final String serverTemplateId,
+                      final String containerId,
+                      final String type,
+                      final String processId,
+                      final String taskName) {
+            this.serverTemplateId = String.valueOf(serverTemplateId);
+            this.containerId = String.valueOf(containerId);
+            this.type = type;
+            this.processId = processId;
+            this.taskName = taskName;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof DefinitionKey)) {
+                return false;
+            }
+            final DefinitionKey other = (DefinitionKey) o;
+            return serverTemplateId.equals(other.serverTemplateId)
+                    && containerId.equals(other.containerId)
+                    && type.equals(other.type)
+                    && Objects.equals(processId,
+                                      other.processId)
+                    && Objects.equals(taskName,
+                                      other.taskName);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(serverTemplateId,
+                                containerId,
+                                type,
+                                processId,
+                                taskName);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jbpm.workbench.ks.integration;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Observes;
+
+import org.dashbuilder.dataset.events.DataSetDefModifiedEvent;
+import org.dashbuilder.dataset.events.DataSetDefRemovedEvent;
+import org.kie.server.api.model.definition.QueryDefinition;
+import org.kie.server.controller.api.model.events.ServerTemplateDeleted;
+
+/**
+ * Column metadata (column id to column type) of the query definitions registered on KIE Server, by server template
+ * and query name. Filled in as queries get registered by {@link KieServerDataSetManager} so that
+ * {@link KieServerDataSetProvider#getDataSetMetadata} does not need a remote call to resolve the columns.
+ */
+@ApplicationScoped
+public class QueryDefinitionMetadataCache {
+
+    private final ConcurrentMap<String, Map<String, Map<String, String>>> columnsByServerTemplate = new ConcurrentHashMap<>();
+
+    public Map<String, String> getColumns(final String serverTemplateId,
+                                          final String queryName) {
+        if (serverTemplateId == null || queryName == null) {
+            return null;
+        }
+        final Map<String, Map<String, String>> columns = columnsByServerTemplate.get(serverTemplateId);
+        return columns == null ? null : columns.get(queryName);
+    }
+
+    public void put(final String serverTemplateId,
+                    final QueryDefinition definition) {
+        if (serverTemplateId == null || definition == null || definition.getName() == null || definition.getColumns() == null || definition.getColumns().isEmpty()) {
+            return;
+        }
+        columnsByServerTemplate.computeIfAbsent(serverTemplateId,
+                                                id -> new ConcurrentHashMap<>())
+                .put(definition.getName(),
+                     Collections.unmodifiableMap(new LinkedHashMap<>(definition.getColumns())));
+    }
+
+    public void invalidate(final String queryName) {
+        if (queryName == null) {
+            return;
+        }
+        columnsByServerTemplate.values().forEach(columns -> columns.remove(queryName));
+    }
+
+    public int getSize() {
+        return columnsByServerTemplate.values().stream().mapToInt(Map::size).sum();
+    }
+
+    public void onDataSetDefModifiedEvent(@Observes DataSetDefModifiedEvent event) {
+        invalidate(event.getOldDataSetDef().getUUID());
+        invalidate(event.getNewDataSetDef().getUUID());
+    }
+
+    public void onDataSetDefRemovedEvent(@Observes DataSetDefRemovedEvent event) {
+        invalidate(event.getDataSetDef().getUUID());
+    }
+
+    public void onServerTemplateDeleted(@Observes ServerTemplateDeleted event) {
+        columnsByServerTemplate.remove(event.getServerTemplateId());
+    }
+}
@@ -41,6 +41,11 @@ public class RemoteDataSetDefBuilder extends SQLDataSetDefBuilderImpl {
         return this;
     }
 
+    public RemoteDataSetDefBuilder keysetColumn(String keysetColumn) {
+        ((RemoteDataSetDef) def).setKeysetColumn(keysetColumn);
+        return this;
+    }
+
     @Override
     public RemoteDataSetDefBuilder dataSource(String dataSource) {
         super.dataSource(dataSource);
@@ -0,0 +1,113 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jbpm.workbench.ks.integration;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class BoundedCacheTest {
+
+    @Test
+    public void testLeastRecentlyUsedEntryEvicted() {
+        final List<String> evicted = new ArrayList<>();
+        final BoundedCache<String, String> cache = new BoundedCache<String, String>(2) {
+            @Override
+            protected void onEvict(final String key,
+                                   final String value) {
+                evicted.add(key);
+            }
+        };
+        cache.put("a",
+                  "1");
+        cache.put("b",
+                  "2");
+        // touch a so that b is the least recently used one
+        assertEquals("1",
+                     cache.get("a"));
+        cache.put("c",
+                  "3");
+
+        assertNull(cache.get("b"));
+        assertEquals(2,
+                     cache.size());
+        assertEquals(1,
+                     evicted.size());
+        assertEquals("b",
+                     evicted.get(0));
+    }
+
+    @Test
+    public void testWeightLimit() {
+        final BoundedCache<String, String> cache = new BoundedCache<>(10,
+                                                                      Long.MAX_VALUE,
+                                                                      10,
+                                                                      String::length);
+        cache.put("a",
+                  "12345");
+        cache.put("b",
+                  "123");
+        cache.put("c",
+                  "1234");
+
+        assertNull(cache.get("a"));
+        assertEquals(7,
+                     cache.getWeight());
+
+        // heavier than the whole cache, not kept and the previous value is dropped
+        cache.put("b",
+                  "12345678901");
+        assertNull(cache.get("b"));
+        assertEquals(4,
+                     cache.getWeight());
+
+        cache.removeIf((key, value) -> key.equals("c"));
+        assertEquals(0,
+                     cache.size());
+        assertEquals(0,
+                     cache.getWeight());
+    }
+
+    @Test
+    public void testExpiredEntry() throws Exception {
+        final BoundedCache<String, String> cache = new BoundedCache<>(10,
+                                                                      1);
+        cache.put("a",
+                  "1");
+        Thread.sleep(10);
+
+        assertNull(cache.get("a"));
+        assertEquals(0,
+                     cache.size());
+    }
+
+    @Test
+    public void testDisabled() {
+        final BoundedCache<String, String> cache = new BoundedCache<>(0);
+        cache.put("a",
+                  "1");
+
+        assertFalse(cache.isEnabled());
+        assertNull(cache.get("a"));
+        assertEquals(0,
+                     cache.size());
+    }
+}
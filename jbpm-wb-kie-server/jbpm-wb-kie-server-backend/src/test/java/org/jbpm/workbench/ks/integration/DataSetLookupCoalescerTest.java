@@ -0,0 +1,162 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jbpm.workbench.ks.integration;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.dashbuilder.dataset.DataSet;
+import org.dashbuilder.dataset.DataSetFactory;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class DataSetLookupCoalescerTest {
+
+    private ExecutorService executorService;
+
+    private DataSetLookupCoalescer coalescer;
+
+    @Before
+    public void setup() {
+        executorService = Executors.newFixedThreadPool(4);
+        coalescer = new DataSetLookupCoalescer();
+    }
+
+    @After
+    public void cleanup() {
+        executorService.shutdownNow();
+    }
+
+    @Test
+    public void testConcurrentLookupsShareSingleQuery() throws Exception {
+        final CountDownLatch release = new CountDownLatch(1);
+        final AtomicInteger queries = new AtomicInteger();
+
+        final List<Future<DataSet>> results = new ArrayList<>();
+        results.add(executorService.submit(() -> coalescer.execute("key",
+                                                                   () -> {
+                                                                       queries.incrementAndGet();
+                                                                       release.await(5,
+                                                                                     TimeUnit.SECONDS);
+                                                                       return newDataSet();
+                                                                   })));
+        while (coalescer.getInFlight() == 0) {
+            Thread.sleep(5);
+        }
+        for (int i = 0; i < 3; i++) {
+            results.add(executorService.submit(() -> coalescer.execute("key",
+                                                                       () -> {
+                                                                           queries.incrementAndGet();
+                                                                           return newDataSet();
+                                                                       })));
+        }
+        while (coalescer.getCoalesced() < 3) {
+            Thread.sleep(5);
+        }
+        release.countDown();
+
+        for (Future<DataSet> result : results) {
+            assertEquals("uuid",
+                         result.get(5,
+                                    TimeUnit.SECONDS).getUUID());
+        }
+        assertEquals(1,
+                     queries.get());
+        assertEquals(1,
+                     coalescer.getIssued());
+        assertEquals(3,
+                     coalescer.getCoalesced());
+        assertEquals(0,
+                     coalescer.getInFlight());
+    }
+
+    @Test
+    public void testSequentialLookupsAreNotCoalesced() throws Exception {
+        coalescer.execute("key",
+                          this::newDataSet);
+        coalescer.execute("key",
+                          this::newDataSet);
+
+        assertEquals(2,
+                     coalescer.getIssued());
+        assertEquals(0,
+                     coalescer.getCoalesced());
+    }
+
+    @Test
+    public void testWaitingForStuckLookupTimesOut() throws Exception {
+        coalescer = new DataSetLookupCoalescer(50);
+        final CountDownLatch release = new CountDownLatch(1);
+        final AtomicInteger queries = new AtomicInteger();
+
+        final Future<DataSet> stuck = executorService.submit(() -> coalescer.execute("key",
+                                                                                     () -> {
+                                                                                         queries.incrementAndGet();
+                                                                                         release.await(5,
+                                                                                                       TimeUnit.SECONDS);
+                                                                                         return newDataSet();
+                                                                                     }));
+        while (coalescer.getInFlight() == 0) {
+            Thread.sleep(5);
+        }
+        try {
+            coalescer.execute("key",
+                              this::newDataSet);
+            fail("Waiting for the stuck lookup should time out");
+        } catch (TimeoutException e) {
+            // expected
+        }
+
+        // the stuck lookup is no longer joined
+        coalescer.execute("key",
+                          () -> {
+                              queries.incrementAndGet();
+                              return newDataSet();
+                          });
+        assertEquals(2,
+                     queries.get());
+
+        release.countDown();
+        assertEquals("uuid",
+                     stuck.get(5,
+                               TimeUnit.SECONDS).getUUID());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testFailureIsPropagated() throws Exception {
+        coalescer.execute("key",
+                          () -> {
+                              throw new IllegalStateException();
+                          });
+    }
+
+    protected DataSet newDataSet() {
+        final DataSet dataSet = DataSetFactory.newEmptyDataSet();
+        dataSet.setUUID("uuid");
+        return dataSet;
+    }
+}
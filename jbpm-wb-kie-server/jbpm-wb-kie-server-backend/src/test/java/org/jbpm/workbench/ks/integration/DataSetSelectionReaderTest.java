@@ -0,0 +1,184 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jbpm.workbench.ks.integration;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.dashbuilder.dataset.DataSet;
+import org.dashbuilder.dataset.DataSetLookup;
+import org.dashbuilder.dataset.def.DataSetDefRegistry;
+import org.dashbuilder.dataset.filter.DataSetFilter;
+import org.dashbuilder.dataset.sort.ColumnSort;
+import org.dashbuilder.dataset.sort.DataSetSort;
+import org.dashbuilder.dataset.sort.SortOrder;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import static org.dashbuilder.dataset.filter.FilterFactory.equalsTo;
+import static org.junit.Assert.*;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.*;
+
+@RunWith(MockitoJUnitRunner.class)
+public class DataSetSelectionReaderTest {
+
+    @Mock
+    DataSetDefRegistry dataSetDefRegistry;
+
+    @Mock
+    KieServerDataSetProvider dataSetProvider;
+
+    RemoteDataSetDef def = new RemoteDataSetDef();
+
+    DataSetSelectionReader reader;
+
+    // offset, seek values, sort column and number of filters of each queried page
+    List<Object[]> queriedPages = new ArrayList<>();
+
+    @Before
+    public void setup() throws Exception {
+        def.setUUID("jobs");
+        when(dataSetDefRegistry.getDataSetDef("jobs")).thenReturn(def);
+        reader = new DataSetSelectionReader(dataSetDefRegistry,
+                                            dataSetProvider);
+        reader.setPageSize(2);
+    }
+
+    @Test
+    public void testSelectionReadByOffset() throws Exception {
+        mockPages(Arrays.asList("a",
+                                "b"),
+                  Arrays.asList("c",
+                                "d"),
+                  Arrays.asList("e"));
+
+        final List<List<Object>> rows = reader.readSelection("template",
+                                                             newSelection(),
+                                                             "id",
+                                                             "container");
+
+        assertEquals(5,
+                     rows.size());
+        assertEquals(Arrays.asList("e",
+                                   "container-e"),
+                     rows.get(4));
+        assertEquals(3,
+                     queriedPages.size());
+        assertEquals(2,
+                     queriedPages.get(1)[0]);
+        assertEquals(4,
+                     queriedPages.get(2)[0]);
+        for (Object[] page : queriedPages) {
+            // the sort of the list is replaced by the id, the filters are kept
+            assertEquals("id",
+                         page[2]);
+            assertEquals(1,
+                         page[3]);
+            assertTrue(((List) page[1]).isEmpty());
+        }
+    }
+
+    @Test
+    public void testSelectionReadByKeyset() throws Exception {
+        def.setKeysetColumn("id");
+        mockPages(Arrays.asList(1d,
+                                2d),
+                  Arrays.asList(3d,
+                                4d),
+                  new ArrayList<>());
+
+        final List<List<Object>> rows = reader.readSelection("template",
+                                                             newSelection(),
+                                                             "id",
+                                                             "container");
+
+        assertEquals(4,
+                     rows.size());
+        assertEquals(3,
+                     queriedPages.size());
+        assertEquals(0,
+                     queriedPages.get(2)[0]);
+        assertEquals(Arrays.asList(2L),
+                     queriedPages.get(1)[1]);
+        assertEquals(Arrays.asList(4L),
+                     queriedPages.get(2)[1]);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSelectionOfOtherDataSetRejected() {
+        final DataSetLookup selection = newSelection();
+        selection.setDataSetUUID("other");
+
+        reader.readSelection("template",
+                             selection,
+                             "id");
+    }
+
+    protected DataSetLookup newSelection() {
+        final DataSetLookup selection = new DataSetLookup();
+        selection.setDataSetUUID("jobs");
+        selection.setRowOffset(20);
+        selection.setNumberOfRows(10);
+        final DataSetFilter filter = new DataSetFilter();
+        filter.addFilterColumn(equalsTo("status",
+                                        "QUEUED"));
+        selection.addOperation(filter);
+        final DataSetSort sort = new DataSetSort();
+        sort.addSortColumn(new ColumnSort("timestamp",
+                                          SortOrder.DESCENDING));
+        selection.addOperation(sort);
+        return selection;
+    }
+
+    @SafeVarargs
+    protected final void mockPages(final List<? extends Comparable>... pages) throws Exception {
+        final List<DataSet> dataSets = new ArrayList<>();
+        for (List<? extends Comparable> ids : pages) {
+            final DataSet dataSet = mock(DataSet.class);
+            when(dataSet.getRowCount()).thenReturn(ids.size());
+            for (int i = 0; i < ids.size(); i++) {
+                when(dataSet.getValueAt(i,
+                                        "id")).thenReturn(ids.get(i));
+                when(dataSet.getValueAt(i,
+                                        "container")).thenReturn("container-" + ids.get(i));
+            }
+            dataSets.add(dataSet);
+        }
+        when(dataSetProvider.queryDataSet(any(),
+                                          any(),
+                                          any())).thenAnswer(invocation -> {
+            final ConsoleDataSetLookup lookup = (ConsoleDataSetLookup) invocation.getArguments()[2];
+            assertEquals("template",
+                         lookup.getServerTemplateId());
+            assertEquals(2,
+                         lookup.getNumberOfRows());
+            queriedPages.add(new Object[]{
+                    lookup.getRowOffset(),
+                    new ArrayList<>(lookup.getSeekValues()),
+                    lookup.getFirstSortOp().getColumnSortList().get(0).getColumnId(),
+                    lookup.getOperationList(DataSetFilter.class).size()
+            });
+            return dataSets.get(queriedPages.size() - 1);
+        });
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jbpm.workbench.ks.integration;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Test;
+
+import static java.util.Collections.nCopies;
+import static java.util.Collections.singletonList;
+import static org.junit.Assert.*;
+
+public class KieServerBulkExecutorTest {
+
+    private final ExecutorService executorService = Executors.newCachedThreadPool();
+
+    private final KieServerBulkExecutor bulkExecutor = new KieServerBulkExecutor(new KieServerExecutor(executorService,
+                                                                                                       8));
+
+    @After
+    public void tearDown() {
+        executorService.shutdownNow();
+    }
+
+    @Test
+    public void testItemsAreGroupedByContainerAndBatched() {
+        final List<Long> items = new ArrayList<>();
+        final List<String> containers = new ArrayList<>();
+        for (long i = 0; i < 150; i++) {
+            items.add(i);
+            containers.add("container1");
+        }
+        items.add(150L);
+        containers.add("container2");
+
+        final List<String> batches = Collections.synchronizedList(new ArrayList<>());
+        final AtomicInteger lastProcessed = new AtomicInteger();
+        final Map<Long, Throwable> failures = bulkExecutor.execute(containers,
+                                                                   items,
+                                                                   (containerId, batch) -> batches.add(containerId + ":" + batch.size()),
+                                                                   (processed, total) -> {
+                                                                       assertEquals(151,
+                                                                                    total.intValue());
+                                                                       lastProcessed.accumulateAndGet(processed,
+                                                                                                      Math::max);
+                                                                   });
+
+        assertTrue(failures.isEmpty());
+        assertEquals(3,
+                     batches.size());
+        assertTrue(batches.containsAll(Arrays.asList("container1:100",
+                                                     "container1:50",
+                                                     "container2:1")));
+        assertEquals(151,
+                     lastProcessed.get());
+    }
+
+    @Test
+    public void testProgressReportedOnCallingThread() {
+        final Thread caller = Thread.currentThread();
+        final List<Integer> progress = new ArrayList<>();
+
+        bulkExecutor.execute(nCopies(250,
+                                     "container1"),
+                             nCopies(250,
+                                     "item"),
+                             (containerId, batch) -> assertNotSame(caller,
+                                                                   Thread.currentThread()),
+                             (processed, total) -> {
+                                 assertSame(caller,
+                                            Thread.currentThread());
+                                 progress.add(processed);
+                             });
+
+        assertEquals(3,
+                     progress.size());
+        assertEquals(250,
+                     progress.get(2).intValue());
+    }
+
+    @Test
+    public void testFailedBatchDoesNotStopOthers() {
+        final Map<String, Throwable> failures = bulkExecutor.execute(Arrays.asList("container1",
+                                                                                   "container2",
+                                                                                   "container2"),
+                                                                     Arrays.asList("item1",
+                                                                                   "item2",
+                                                                                   "item3"),
+                                                                     (containerId, batch) -> {
+                                                                         if ("container2".equals(containerId)) {
+                                                                             throw new IllegalStateException("Not found");
+                                                                         }
+                                                                     },
+                                                                     null);
+
+        assertEquals(2,
+                     failures.size());
+        assertTrue(failures.keySet().containsAll(Arrays.asList("item2",
+                                                               "item3")));
+        assertEquals("Not found",
+                     failures.get("item2").getMessage());
+    }
+
+    @Test
+    public void testFailedItemDoesNotStopBatch() {
+        final List<String> processed = Collections.synchronizedList(new ArrayList<>());
+        final Map<String, Throwable> failures = bulkExecutor.executeEach(nCopies(3,
+                                                                                 "container1"),
+                                                                         Arrays.asList("item1",
+                                                                                       "item2",
+                                                                                       "item3"),
+                                                                         (containerId, item) -> {
+                                                                             if ("item2".equals(item)) {
+                                                                                 throw new IllegalStateException("Not found");
+                                                                             }
+                                                                             processed.add(item);
+                                                                         },
+                                                                         null);
+
+        assertEquals(singletonList("item2"),
+                     new ArrayList<>(failures.keySet()));
+        assertEquals(Arrays.asList("item1",
+                                   "item3"),
+                     processed);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testContainerRequiredForEachItem() {
+        bulkExecutor.execute(singletonList("container1"),
+                             Arrays.asList(1L,
+                                           2L),
+                             (containerId, batch) -> {
+                             },
+                             null);
+    }
+}
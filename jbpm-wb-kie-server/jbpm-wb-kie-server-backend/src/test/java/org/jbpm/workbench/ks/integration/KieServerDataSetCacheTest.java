@@ -0,0 +1,302 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jbpm.workbench.ks.integration;
+
+import java.util.ArrayList;
+
+import org.dashbuilder.dataset.DataSet;
+import org.dashbuilder.dataset.DataSetFactory;
+import org.dashbuilder.dataset.DataSetLookup;
+import org.dashbuilder.dataset.filter.DataSetFilter;
+import org.dashbuilder.dataset.sort.ColumnSort;
+import org.dashbuilder.dataset.sort.DataSetSort;
+import org.dashbuilder.dataset.sort.SortOrder;
+import org.jbpm.workbench.ks.events.KieServerDataModified;
+import org.junit.Test;
+import org.kie.server.controller.api.model.events.ServerInstanceDisconnected;
+import org.kie.server.controller.api.model.events.ServerTemplateDeleted;
+
+import static org.dashbuilder.dataset.filter.FilterFactory.equalsTo;
+import static org.junit.Assert.*;
+
+public class KieServerDataSetCacheTest {
+
+    private static final String SERVER_TEMPLATE_ID = "serverTemplateId";
+
+    @Test
+    public void testHitAndMiss() {
+        final KieServerDataSetCache cache = new KieServerDataSetCache(60000,
+                                                                      10);
+
+        assertNull(cache.get(SERVER_TEMPLATE_ID,
+                             "key"));
+        cache.put(SERVER_TEMPLATE_ID,
+                  "key",
+                  "uuid",
+                  newDataSet("uuid"),
+                  cache.getGeneration(SERVER_TEMPLATE_ID));
+
+        final DataSet cached = cache.get(SERVER_TEMPLATE_ID,
+                                         "key");
+        assertNotNull(cached);
+        assertEquals("uuid",
+                     cached.getUUID());
+        assertNull(cache.get("otherServerTemplateId",
+                             "key"));
+        assertEquals(1,
+                     cache.getHits());
+        assertEquals(2,
+                     cache.getMisses());
+    }
+
+    @Test
+    public void testExpiredEntriesAreEvicted() throws Exception {
+        final KieServerDataSetCache cache = new KieServerDataSetCache(1,
+                                                                      10);
+        cache.put(SERVER_TEMPLATE_ID,
+                  "key",
+                  "uuid",
+                  newDataSet("uuid"),
+                  cache.getGeneration(SERVER_TEMPLATE_ID));
+        Thread.sleep(10);
+
+        assertNull(cache.get(SERVER_TEMPLATE_ID,
+                             "key"));
+        assertEquals(1,
+                     cache.getEvictions());
+        assertEquals(0,
+                     cache.getSize());
+    }
+
+    @Test
+    public void testLeastRecentlyUsedEntriesAreEvicted() {
+        final KieServerDataSetCache cache = new KieServerDataSetCache(60000,
+                                                                      2);
+        cache.put(SERVER_TEMPLATE_ID,
+                  "key1",
+                  "uuid",
+                  newDataSet("uuid"),
+                  cache.getGeneration(SERVER_TEMPLATE_ID));
+        cache.put(SERVER_TEMPLATE_ID,
+                  "key2",
+                  "uuid",
+                  newDataSet("uuid"),
+                  cache.getGeneration(SERVER_TEMPLATE_ID));
+        assertNotNull(cache.get(SERVER_TEMPLATE_ID,
+                                "key1"));
+        cache.put(SERVER_TEMPLATE_ID,
+                  "key3",
+                  "uuid",
+                  newDataSet("uuid"),
+                  cache.getGeneration(SERVER_TEMPLATE_ID));
+
+        assertEquals(2,
+                     cache.getSize());
+        assertEquals(1,
+                     cache.getEvictions());
+        assertNotNull(cache.get(SERVER_TEMPLATE_ID,
+                                "key1"));
+        assertNull(cache.get(SERVER_TEMPLATE_ID,
+                             "key2"));
+    }
+
+    @Test
+    public void testInvalidation() {
+        final KieServerDataSetCache cache = new KieServerDataSetCache(60000,
+                                                                      10);
+        cache.put(SERVER_TEMPLATE_ID,
+                  "key1",
+                  "uuid1",
+                  newDataSet("uuid1"),
+                  cache.getGeneration(SERVER_TEMPLATE_ID));
+        cache.put(SERVER_TEMPLATE_ID,
+                  "key2",
+                  "uuid2",
+                  newDataSet("uuid2"),
+                  cache.getGeneration(SERVER_TEMPLATE_ID));
+
+        cache.invalidateDataSet("uuid1");
+        assertNull(cache.get(SERVER_TEMPLATE_ID,
+                             "key1"));
+        assertNotNull(cache.get(SERVER_TEMPLATE_ID,
+                                "key2"));
+
+        cache.onServerTemplateDeleted(new ServerTemplateDeleted(SERVER_TEMPLATE_ID));
+        assertEquals(0,
+                     cache.getSize());
+
+        cache.put(SERVER_TEMPLATE_ID,
+                  "key1",
+                  "uuid1",
+                  newDataSet("uuid1"),
+                  cache.getGeneration(SERVER_TEMPLATE_ID));
+        cache.onServerInstanceDisconnected(new ServerInstanceDisconnected("serverInstanceId"));
+        assertEquals(0,
+                     cache.getSize());
+
+        cache.put(SERVER_TEMPLATE_ID,
+                  "key1",
+                  "uuid1",
+                  newDataSet("uuid1"),
+                  cache.getGeneration(SERVER_TEMPLATE_ID));
+        cache.put("otherServerTemplateId",
+                  "key1",
+                  "uuid1",
+                  newDataSet("uuid1"),
+                  cache.getGeneration("otherServerTemplateId"));
+        cache.onKieServerDataModified(new KieServerDataModified(SERVER_TEMPLATE_ID));
+        assertEquals(1,
+                     cache.getSize());
+        cache.onKieServerDataModified(new KieServerDataModified(null));
+        assertEquals(0,
+                     cache.getSize());
+    }
+
+    @Test
+    public void testResultOfQueryRacingWithInvalidationNotCached() {
+        final KieServerDataSetCache cache = new KieServerDataSetCache(60000,
+                                                                      10);
+        final long generation = cache.getGeneration(SERVER_TEMPLATE_ID);
+        final long otherGeneration = cache.getGeneration("otherServerTemplateId");
+
+        // the server template is invalidated while the query is running
+        cache.invalidate(SERVER_TEMPLATE_ID);
+        cache.put(SERVER_TEMPLATE_ID,
+                  "key",
+                  "uuid",
+                  newDataSet("uuid"),
+                  generation);
+        cache.putRows(SERVER_TEMPLATE_ID,
+                      "page",
+                      "uuid",
+                      new ArrayList<>(),
+                      generation);
+        cache.put("otherServerTemplateId",
+                  "key",
+                  "uuid",
+                  newDataSet("uuid"),
+                  otherGeneration);
+
+        assertNull(cache.get(SERVER_TEMPLATE_ID,
+                             "key"));
+        assertNull(cache.getRows(SERVER_TEMPLATE_ID,
+                                 "page"));
+        assertNotNull(cache.get("otherServerTemplateId",
+                                "key"));
+
+        // data set definition changes affect every server template
+        cache.invalidateDataSet("uuid2");
+        cache.put("otherServerTemplateId",
+                  "key2",
+                  "uuid",
+                  newDataSet("uuid"),
+                  otherGeneration);
+        assertNull(cache.get("otherServerTemplateId",
+                             "key2"));
+    }
+
+    @Test
+    public void testDisabledCache() {
+        final KieServerDataSetCache cache = new KieServerDataSetCache(0,
+                                                                      10);
+        cache.put(SERVER_TEMPLATE_ID,
+                  "key",
+                  "uuid",
+                  newDataSet("uuid"),
+                  cache.getGeneration(SERVER_TEMPLATE_ID));
+
+        assertFalse(cache.isEnabled());
+        assertNull(cache.get(SERVER_TEMPLATE_ID,
+                             "key"));
+        assertEquals(0,
+                     cache.getSize());
+    }
+
+    @Test
+    public void testBuildKeyIgnoresFilterOrder() {
+        final DataSetLookup lookup1 = new DataSetLookup();
+        lookup1.setDataSetUUID("uuid");
+        final DataSetFilter filter1 = new DataSetFilter();
+        filter1.addFilterColumn(equalsTo("a",
+                                         "1"));
+        filter1.addFilterColumn(equalsTo("b",
+                                         "2"));
+        lookup1.addOperation(filter1);
+
+        final DataSetLookup lookup2 = new DataSetLookup();
+        lookup2.setDataSetUUID("uuid");
+        final DataSetFilter filter2 = new DataSetFilter();
+        filter2.addFilterColumn(equalsTo("b",
+                                         "2"));
+        filter2.addFilterColumn(equalsTo("a",
+                                         "1"));
+        lookup2.addOperation(filter2);
+
+        assertEquals(buildKey(lookup1,
+                              null),
+                     buildKey(lookup2,
+                              null));
+        assertNotEquals(buildKey(lookup1,
+                                 null),
+                        buildKey(lookup1,
+                                 "user"));
+
+        lookup2.setRowOffset(10);
+        assertNotEquals(buildKey(lookup1,
+                                 null),
+                        buildKey(lookup2,
+                                 null));
+    }
+
+    @Test
+    public void testBuildKeyIncludesSortOrder() {
+        final DataSetLookup lookup1 = new DataSetLookup();
+        lookup1.setDataSetUUID("uuid");
+        lookup1.addOperation(newSort("a",
+                                     SortOrder.ASCENDING));
+        final DataSetLookup lookup2 = new DataSetLookup();
+        lookup2.setDataSetUUID("uuid");
+        lookup2.addOperation(newSort("a",
+                                     SortOrder.DESCENDING));
+
+        assertNotEquals(buildKey(lookup1,
+                                 null),
+                        buildKey(lookup2,
+                                 null));
+    }
+
+    protected DataSetSort newSort(final String columnId,
+                                  final SortOrder order) {
+        final DataSetSort sort = new DataSetSort();
+        sort.addSortColumn(new ColumnSort(columnId,
+                                          order));
+        return sort;
+    }
+
+    protected String buildKey(final DataSetLookup lookup,
+                              final String partition) {
+        return KieServerDataSetCache.buildKey((ConsoleDataSetLookup) ConsoleDataSetLookup.fromInstance(lookup,
+                                                                                                      SERVER_TEMPLATE_ID),
+                                              partition);
+    }
+
+    protected DataSet newDataSet(final String uuid) {
+        final DataSet dataSet = DataSetFactory.newEmptyDataSet();
+        dataSet.setUUID(uuid);
+        return dataSet;
+    }
+}
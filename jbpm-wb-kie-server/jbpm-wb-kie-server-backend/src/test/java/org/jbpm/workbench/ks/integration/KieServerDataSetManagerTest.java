@@ -17,15 +17,22 @@
 package org.jbpm.workbench.ks.integration;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executors;
+import java.util.function.BiFunction;
 import javax.enterprise.event.Event;
 
 import org.dashbuilder.dataset.def.DataSetDefRegistry;
+import org.dashbuilder.dataset.events.DataSetDefModifiedEvent;
 import org.jbpm.workbench.ks.events.KieServerDataSetRegistered;
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -34,6 +41,7 @@ import org.kie.server.api.model.definition.QueryDefinition;
 import org.kie.server.client.KieServicesClient;
 import org.kie.server.client.QueryServicesClient;
 import org.kie.server.common.rest.KieServerHttpRequestException;
+import org.kie.server.controller.api.model.events.ServerInstanceDisconnected;
 import org.mockito.Mockito;
 import org.mockito.runners.MockitoJUnitRunner;
 import org.uberfire.commons.async.DescriptiveThreadFactory;
@@ -59,6 +67,12 @@ public class KieServerDataSetManagerTest {
 
     private QueryServicesClient queryClient;
 
+    private QueryDefinitionMetadataCache metadataCache;
+
+    private ExecutorService executorService;
+
+    private KieServerExecutor kieServerExecutor;
+
     private KieServerDataSetManager kieServerDataSetManager;
 
     @Before
@@ -79,14 +93,26 @@ public class KieServerDataSetManagerTest {
 
         when(kieServerIntegration.getAdminServerClient(anyString(), anyString())).thenReturn(kieClient);
 
-        ExecutorService executorService = Executors.newCachedThreadPool(new DescriptiveThreadFactory());
+        this.metadataCache = new QueryDefinitionMetadataCache();
+
+        this.executorService = Executors.newCachedThreadPool(new DescriptiveThreadFactory());
+        this.kieServerExecutor = new KieServerExecutor(executorService,
+                                                       4);
 
         this.kieServerDataSetManager = new KieServerDataSetManager(dataSetDefRegistry,
                                                                    kieServerIntegration,
                                                                    event,
+                                                                   metadataCache,
+                                                                   kieServerExecutor,
                                                                    executorService);
     }
 
+    @After
+    public void cleanup() {
+        kieServerExecutor.shutdown();
+        executorService.shutdownNow();
+    }
+
     @Test
     public void testRegisterQueriesWithoutRetry() throws Exception {
 
@@ -168,4 +194,154 @@ public class KieServerDataSetManagerTest {
         assertEquals(0,
                      receivedEvents.size());
     }
+
+    @Test
+    public void testRegisterQueriesSkipsUnchangedDefinitions() throws Exception {
+        QueryDefinition unchanged = QueryDefinition.builder().name("unchanged").expression("expression").source("jbpm").target("CUSTOM").build();
+        QueryDefinition modified = QueryDefinition.builder().name("modified").expression("new expression").source("jbpm").target("CUSTOM").build();
+        QueryDefinition added = QueryDefinition.builder().name("added").expression("expression").source("jbpm").target("CUSTOM").build();
+        Set<QueryDefinition> definitions = new HashSet<>(Arrays.asList(unchanged,
+                                                                       modified,
+                                                                       added));
+
+        when(queryClient.getQueries(0,
+                                    KieServerDataSetManager.QUERIES_PAGE_SIZE)).thenReturn(Arrays.asList(
+                QueryDefinition.builder().name("unchanged").expression("expression").source("jbpm").target("CUSTOM").build(),
+                QueryDefinition.builder().name("modified").expression("expression").source("jbpm").target("CUSTOM").build()));
+
+        kieServerDataSetManager.registerQueriesWithRetry("template",
+                                                         "instance",
+                                                         definitions);
+
+        verify(queryClient,
+               never()).replaceQuery(unchanged);
+        verify(queryClient).replaceQuery(modified);
+        verify(queryClient).replaceQuery(added);
+        assertEquals(1,
+                     receivedEvents.size());
+    }
+
+    @Test
+    public void testRegisterQueriesRetriesOnlyFailedDefinitions() throws Exception {
+        QueryDefinition first = QueryDefinition.builder().name("first").expression("expression").source("jbpm").target("CUSTOM").build();
+        QueryDefinition second = QueryDefinition.builder().name("second").expression("expression").source("jbpm").target("CUSTOM").build();
+        Set<QueryDefinition> definitions = new HashSet<>(Arrays.asList(first,
+                                                                       second));
+
+        when(kieServerIntegration.getAdminServerClientCheckEndpoints(anyString())).thenReturn(kieClient);
+        when(queryClient.replaceQuery(second))
+                .thenThrow(new KieServerHttpRequestException("KieServer endpoint down"))
+                .thenReturn(second);
+
+        kieServerDataSetManager.registerQueriesWithRetry("template",
+                                                         "instance",
+                                                         definitions);
+
+        verify(queryClient,
+               times(1)).replaceQuery(first);
+        verify(queryClient,
+               times(2)).replaceQuery(second);
+        assertEquals(1,
+                     receivedEvents.size());
+    }
+
+    @Test
+    public void testRetryDelayGrowsExponentiallyWithJitter() {
+        for (int attempt = 0; attempt < 10; attempt++) {
+            final long max = Math.min(KieServerDataSetManager.RETRY_MAX_DELAY,
+                                      KieServerDataSetManager.RETRY_INITIAL_DELAY << attempt);
+            final long delay = kieServerDataSetManager.getRetryDelay(attempt);
+            assertTrue(delay >= max / 2);
+            assertTrue(delay <= max);
+        }
+        assertTrue(kieServerDataSetManager.getRetryDelay(100) <= KieServerDataSetManager.RETRY_MAX_DELAY);
+    }
+
+    @Test
+    public void testDigestDependsOnContent() {
+        QueryDefinition query = QueryDefinition.builder().name("test").expression("expression").source("jbpm").target("CUSTOM").build();
+
+        assertEquals(KieServerDataSetManager.digest(query),
+                     KieServerDataSetManager.digest(QueryDefinition.builder().name("test").expression("expression").source("jbpm").target("CUSTOM").build()));
+        assertNotEquals(KieServerDataSetManager.digest(query),
+                        KieServerDataSetManager.digest(QueryDefinition.builder().name("test").expression("expression").source("jbpm").target("PROCESS").build()));
+    }
+
+    @Test
+    public void testReplaceQueryOnlyWhenDefinitionChanged() throws Exception {
+        when(kieServerIntegration.broadcastToKieServerInstances(anyString(),
+                                                                any())).thenAnswer(invocation -> {
+            BiFunction<String, KieServicesClient, Object> operation = (BiFunction<String, KieServicesClient, Object>) invocation.getArguments()[1];
+            return CompletableFuture.completedFuture(Arrays.asList(KieServerBroadcastResult.success("instance",
+                                                                                                    "http://instance",
+                                                                                                    operation.apply("instance",
+                                                                                                                    kieClient))));
+        });
+
+        RemoteDataSetDef def = new RemoteDataSetDef();
+        def.setUUID("test");
+        def.setServerTemplateId("template");
+        def.setDataSource("jbpm");
+        def.setQueryTarget("CUSTOM");
+        def.setDbSQL("expression");
+
+        kieServerDataSetManager.replaceQueryInKieServers(def);
+        kieServerDataSetManager.replaceQueryInKieServers(def);
+        verify(queryClient,
+               times(1)).replaceQuery(any());
+
+        def.setDbSQL("modified expression");
+        kieServerDataSetManager.replaceQueryInKieServers(def);
+        verify(queryClient,
+               times(2)).replaceQuery(any());
+
+        kieServerDataSetManager.onServerInstanceDisconnected(new ServerInstanceDisconnected("instance"));
+        kieServerDataSetManager.replaceQueryInKieServers(def);
+        verify(queryClient,
+               times(3)).replaceQuery(any());
+    }
+
+    @Test
+    public void testRegisteredQueriesTrackedAfterConnect() throws Exception {
+        QueryDefinition query = QueryDefinition.builder().name("test").expression("expression").source("jbpm").target("CUSTOM").build();
+        when(queryClient.getQueries(0,
+                                    KieServerDataSetManager.QUERIES_PAGE_SIZE)).thenReturn(Arrays.asList(query));
+
+        kieServerDataSetManager.registerQueriesWithRetry("template",
+                                                         "instance",
+                                                         new HashSet<>(Arrays.asList(query)));
+
+        assertTrue(kieServerDataSetManager.isRegistered("instance",
+                                                        "test",
+                                                        KieServerDataSetManager.digest(query)));
+        verify(queryClient,
+               never()).replaceQuery(any());
+    }
+
+    @Test
+    public void testRegisterQueriesWarmsMetadataCache() throws Exception {
+        Map<String, String> columns = new HashMap<>();
+        columns.put("id",
+                    "NUMBER");
+        QueryDefinition query = QueryDefinition.builder().name("test").expression("expression").source("jbpm").target("CUSTOM").build();
+        QueryDefinition registered = QueryDefinition.builder().name("test").expression("expression").source("jbpm").target("CUSTOM").columns(columns).build();
+        when(queryClient.replaceQuery(query)).thenReturn(registered);
+
+        kieServerDataSetManager.registerQueriesWithRetry("template",
+                                                         "instance",
+                                                         new HashSet<>(Arrays.asList(query)));
+
+        assertEquals(columns,
+                     metadataCache.getColumns("template",
+                                              "test"));
+        assertNull(metadataCache.getColumns("otherTemplate",
+                                            "test"));
+
+        RemoteDataSetDef def = new RemoteDataSetDef();
+        def.setUUID("test");
+        metadataCache.onDataSetDefModifiedEvent(new DataSetDefModifiedEvent(def,
+                                                                            def));
+        assertNull(metadataCache.getColumns("template",
+                                            "test"));
+    }
 }
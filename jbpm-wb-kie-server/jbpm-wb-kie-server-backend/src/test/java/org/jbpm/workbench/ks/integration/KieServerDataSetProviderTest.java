@@ -16,14 +16,20 @@
 package org.jbpm.workbench.ks.integration;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
 import org.dashbuilder.dataset.ColumnType;
 import org.dashbuilder.dataset.DataColumn;
+import org.dashbuilder.dataset.DataSet;
 import org.dashbuilder.dataset.DataSetLookup;
+import org.dashbuilder.dataset.def.DataColumnDef;
 import org.dashbuilder.dataset.def.DataSetDef;
+import org.dashbuilder.dataset.def.DataSetDefRegistry;
 import org.dashbuilder.dataset.filter.ColumnFilter;
 import org.dashbuilder.dataset.filter.CoreFunctionFilter;
 import org.dashbuilder.dataset.filter.DataSetFilter;
@@ -34,9 +40,13 @@ import org.dashbuilder.dataset.group.GroupFunction;
 import org.dashbuilder.dataset.group.GroupStrategy;
 import org.dashbuilder.dataset.group.Interval;
 import org.dashbuilder.dataset.impl.DataSetImpl;
+import org.dashbuilder.dataset.sort.ColumnSort;
+import org.dashbuilder.dataset.sort.DataSetSort;
+import org.dashbuilder.dataset.sort.SortOrder;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.kie.internal.identity.IdentityProvider;
 import org.kie.server.api.model.definition.QueryDefinition;
 import org.kie.server.api.model.definition.QueryFilterSpec;
 import org.kie.server.api.model.definition.QueryParam;
@@ -46,9 +56,12 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
+import org.mockito.Spy;
 import org.mockito.runners.MockitoJUnitRunner;
 
 import static org.dashbuilder.dataset.filter.FilterFactory.OR;
+import static org.dashbuilder.dataset.filter.FilterFactory.equalsTo;
+import static org.dashbuilder.dataset.filter.FilterFactory.greaterThan;
 import static org.dashbuilder.dataset.filter.FilterFactory.likeTo;
 import static org.junit.Assert.*;
 import static org.mockito.Matchers.any;
@@ -80,6 +93,22 @@ public class KieServerDataSetProviderTest {
     @Mock
     RemoteDataSetDef dataSetDef;
 
+    @Mock
+    IdentityProvider identityProvider;
+
+    @Mock
+    DataSetDefRegistry dataSetDefRegistry;
+
+    @Mock
+    RemoteDataSetDef variablesDataSetDef;
+
+    @Spy
+    KieServerDataSetCache dataSetCache = new KieServerDataSetCache(60000,
+                                                                   10);
+
+    @Spy
+    QueryDefinitionMetadataCache metadataCache = new QueryDefinitionMetadataCache();
+
     @Before
     public void setUp() {
         when(kieServerIntegration.getServerClient("servereTemplateId")).thenReturn(kieServicesClient);
@@ -188,6 +217,745 @@ public class KieServerDataSetProviderTest {
                      expr.get(1).toString());
     }
     
+    @Test
+    public void testLookupDataSetServedFromCache() throws Exception {
+        DataSetLookup lookup = new DataSetLookup();
+        lookup.setDataSetUUID("uuid");
+        lookup.setRowOffset(0);
+        lookup.setNumberOfRows(10);
+        when(dataSetDef.getUUID()).thenReturn("uuid");
+        when(dataSetDef.getColumns()).thenReturn(new ArrayList<>());
+
+        kieServerDataSetProvider.lookupDataSet(dataSetDef,
+                                               ConsoleDataSetLookup.fromInstance(lookup,
+                                                                                 "servereTemplateId"));
+        kieServerDataSetProvider.lookupDataSet(dataSetDef,
+                                               ConsoleDataSetLookup.fromInstance(lookup,
+                                                                                 "servereTemplateId"));
+
+        verify(queryServicesClient,
+               times(1)).query(anyString(),
+                               anyString(),
+                               any(QueryFilterSpec.class),
+                               anyInt(),
+                               anyInt(),
+                               any());
+        assertEquals(1,
+                     dataSetCache.getHits());
+        assertEquals(1,
+                     dataSetCache.getMisses());
+
+        dataSetCache.invalidateDataSet("uuid");
+        kieServerDataSetProvider.lookupDataSet(dataSetDef,
+                                               ConsoleDataSetLookup.fromInstance(lookup,
+                                                                                 "servereTemplateId"));
+
+        verify(queryServicesClient,
+               times(2)).query(anyString(),
+                               anyString(),
+                               any(QueryFilterSpec.class),
+                               anyInt(),
+                               anyInt(),
+                               any());
+    }
+
+    @Test
+    public void testCachePartitionForFilteredQueries() {
+        when(identityProvider.getName()).thenReturn("user");
+
+        when(dataSetDef.getQueryTarget()).thenReturn("CUSTOM");
+        assertNull(kieServerDataSetProvider.getCachePartition(dataSetDef));
+
+        when(dataSetDef.getQueryTarget()).thenReturn("FILTERED_PO_TASK");
+        assertEquals("user",
+                     kieServerDataSetProvider.getCachePartition(dataSetDef));
+    }
+
+    @Test
+    public void testPivotDataSet() throws Exception {
+        final DataSetDef def = new DataSetDef();
+        def.setUUID("uuid");
+        def.addColumn("processInstanceId",
+                      ColumnType.NUMBER);
+        def.addColumn("variableId",
+                      ColumnType.LABEL);
+        def.addColumn("value",
+                      ColumnType.LABEL);
+
+        final List<List> rows = new ArrayList<>();
+        rows.add(Arrays.asList(1L,
+                               "orderId",
+                               "A1"));
+        rows.add(Arrays.asList(1L,
+                               "amount",
+                               "10"));
+        rows.add(Arrays.asList(2L,
+                               "orderId",
+                               "B2"));
+        final DataSet dataSet = kieServerDataSetProvider.buildDataSet(def,
+                                                                      rows,
+                                                                      new ArrayList<>());
+
+        final ConsoleDataSetLookup lookup = new ConsoleDataSetLookup().pivot("processInstanceId",
+                                                                             "variableId",
+                                                                             "value");
+        final DataSet pivoted = kieServerDataSetProvider.pivotDataSet(dataSet,
+                                                                      lookup);
+
+        assertEquals(2,
+                     pivoted.getRowCount());
+        assertEquals(3,
+                     pivoted.getColumns().size());
+        assertEquals("processInstanceId",
+                     pivoted.getColumnByIndex(0).getId());
+        assertEquals(ColumnType.NUMBER,
+                     pivoted.getColumnByIndex(0).getColumnType());
+        assertEquals(1L,
+                     pivoted.getValueAt(0,
+                                        "processInstanceId"));
+        assertEquals("A1",
+                     pivoted.getValueAt(0,
+                                        "orderId"));
+        assertEquals("10",
+                     pivoted.getValueAt(0,
+                                        "amount"));
+        assertEquals(2L,
+                     pivoted.getValueAt(1,
+                                        "processInstanceId"));
+        assertEquals("B2",
+                     pivoted.getValueAt(1,
+                                        "orderId"));
+        assertNull(pivoted.getValueAt(1,
+                                      "amount"));
+    }
+
+    @Test
+    public void testPivotLookupReadInPartsOfLimit() throws Exception {
+        kieServerDataSetProvider.pivotMaxRows = 100;
+        when(dataSetDef.getColumns()).thenReturn(Arrays.asList(new DataColumnDef("processInstanceId",
+                                                                                 ColumnType.NUMBER),
+                                                               new DataColumnDef("variableId",
+                                                                                 ColumnType.LABEL),
+                                                               new DataColumnDef("value",
+                                                                                 ColumnType.LABEL)));
+        final ConsoleDataSetLookup lookup = new ConsoleDataSetLookup().pivot("processInstanceId",
+                                                                             "variableId",
+                                                                             "value");
+        lookup.setDataSetUUID("uuid");
+        lookup.setServerTemplateId("servereTemplateId");
+        lookup.setNumberOfRows(-1);
+
+        kieServerDataSetProvider.lookupDataSet(dataSetDef,
+                                               lookup);
+
+        verify(queryServicesClient).query(anyString(),
+                                          anyString(),
+                                          any(QueryFilterSpec.class),
+                                          eq(0),
+                                          eq(100),
+                                          any());
+    }
+
+    @Test
+    public void testPageScopedPivotLookupReadCompletely() throws Exception {
+        kieServerDataSetProvider.pivotMaxRows = 2;
+        final ConsoleDataSetLookup lookup = mockPivotLookup();
+        lookup.addOperation(new DataSetFilter());
+        lookup.getFirstFilterOp().addFilterColumn(equalsTo("processInstanceId",
+                                                           Arrays.asList(1L,
+                                                                         2L)));
+
+        final DataSet result = kieServerDataSetProvider.lookupDataSet(dataSetDef,
+                                                                      lookup);
+
+        // the rows past the limit belong to the instances of the page so they are read as well
+        assertEquals(2,
+                     result.getRowCount());
+        assertEquals("B2",
+                     result.getValueAt(1,
+                                       "orderId"));
+        verify(queryServicesClient).query(anyString(),
+                                          anyString(),
+                                          any(QueryFilterSpec.class),
+                                          eq(1),
+                                          eq(2),
+                                          any());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnscopedPivotLookupOverLimit() throws Exception {
+        kieServerDataSetProvider.pivotMaxRows = 2;
+        final ConsoleDataSetLookup lookup = mockPivotLookup();
+
+        kieServerDataSetProvider.lookupDataSet(dataSetDef,
+                                               lookup);
+    }
+
+    private ConsoleDataSetLookup mockPivotLookup() {
+        when(dataSetDef.getColumns()).thenReturn(Arrays.asList(new DataColumnDef("processInstanceId",
+                                                                                 ColumnType.NUMBER),
+                                                               new DataColumnDef("variableId",
+                                                                                 ColumnType.LABEL),
+                                                               new DataColumnDef("value",
+                                                                                 ColumnType.LABEL)));
+        final List<List> rows = new ArrayList<>();
+        rows.add(Arrays.asList(1L,
+                               "orderId",
+                               "A1"));
+        rows.add(Arrays.asList(1L,
+                               "amount",
+                               "10"));
+        rows.add(Arrays.asList(2L,
+                               "orderId",
+                               "B2"));
+        when(queryServicesClient.query(anyString(),
+                                       anyString(),
+                                       any(QueryFilterSpec.class),
+                                       anyInt(),
+                                       anyInt(),
+                                       any())).thenAnswer(invocation -> {
+            final int page = (Integer) invocation.getArguments()[3];
+            final int pageSize = (Integer) invocation.getArguments()[4];
+            return new ArrayList<>(rows.subList(Math.min(page * pageSize,
+                                                         rows.size()),
+                                                Math.min((page + 1) * pageSize,
+                                                         rows.size())));
+        });
+
+        final ConsoleDataSetLookup lookup = new ConsoleDataSetLookup().pivot("processInstanceId",
+                                                                             "variableId",
+                                                                             "value");
+        lookup.setDataSetUUID("uuid");
+        lookup.setServerTemplateId("servereTemplateId");
+        lookup.setNumberOfRows(-1);
+        return lookup;
+    }
+
+    @Test
+    public void testLookupWithVariablesSortedByVariable() throws Exception {
+        kieServerDataSetProvider.pivotMaxRows = 100;
+        mockInstancesWithVariables();
+        final ConsoleDataSetLookup lookup = createLookupWithVariables();
+        lookup.addOperation(new DataSetFilter());
+        lookup.getFirstFilterOp().addFilterColumn(equalsTo("processId",
+                                                           "process"));
+        final DataSetSort sort = new DataSetSort();
+        sort.addSortColumn(new ColumnSort("orderId",
+                                          SortOrder.ASCENDING));
+        lookup.addOperation(sort);
+        lookup.setRowOffset(0);
+        lookup.setNumberOfRows(2);
+
+        final DataSet result = kieServerDataSetProvider.lookupDataSet(dataSetDef,
+                                                                      lookup);
+
+        // whole numbers sort numerically, instances without the variable last
+        assertEquals(2,
+                     result.getRowCount());
+        assertEquals(3,
+                     result.getRowCountNonTrimmed());
+        assertEquals(ColumnType.NUMBER,
+                     result.getColumnById("orderId").getColumnType());
+        assertEquals(ColumnType.LABEL,
+                     result.getColumnById("customer").getColumnType());
+        assertEquals(2L,
+                     result.getValueAt(0,
+                                       "processInstanceId"));
+        assertEquals(9L,
+                     result.getValueAt(0,
+                                       "orderId"));
+        assertEquals(1L,
+                     result.getValueAt(1,
+                                       "processInstanceId"));
+        assertEquals("x",
+                     result.getValueAt(1,
+                                       "customer"));
+        // one row above the limit is read to tell a complete read from a capped one
+        verify(queryServicesClient).query(eq("instances"),
+                                          anyString(),
+                                          any(QueryFilterSpec.class),
+                                          eq(0),
+                                          eq(101),
+                                          any());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testLookupWithVariablesSortedByVariableOverLimit() throws Exception {
+        kieServerDataSetProvider.pivotMaxRows = 2;
+        mockInstancesWithVariables();
+        final ConsoleDataSetLookup lookup = createLookupWithVariables();
+        lookup.addOperation(new DataSetFilter());
+        lookup.getFirstFilterOp().addFilterColumn(equalsTo("processId",
+                                                           "process"));
+        final DataSetSort sort = new DataSetSort();
+        sort.addSortColumn(new ColumnSort("orderId",
+                                          SortOrder.ASCENDING));
+        lookup.addOperation(sort);
+
+        kieServerDataSetProvider.lookupDataSet(dataSetDef,
+                                               lookup);
+    }
+
+    @Test
+    public void testUnfilteredLookupSortedByVariableRejected() throws Exception {
+        kieServerDataSetProvider.pivotMaxRows = 100;
+        mockInstancesWithVariables();
+        final ConsoleDataSetLookup lookup = createLookupWithVariables();
+        final DataSetSort sort = new DataSetSort();
+        sort.addSortColumn(new ColumnSort("orderId",
+                                          SortOrder.ASCENDING));
+        lookup.addOperation(sort);
+
+        try {
+            kieServerDataSetProvider.lookupDataSet(dataSetDef,
+                                                   lookup);
+            fail("Sorting all instances on a variable must be rejected");
+        } catch (IllegalArgumentException e) {
+            assertTrue(e.getMessage().contains(KieServerDataSetProvider.PIVOT_MAX_ROWS));
+        }
+        verify(queryServicesClient,
+               never()).query(anyString(),
+                              anyString(),
+                              any(QueryFilterSpec.class),
+                              anyInt(),
+                              anyInt(),
+                              any());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testLookupWithVariablesFilterOverLimit() throws Exception {
+        kieServerDataSetProvider.pivotMaxRows = 1;
+        mockInstancesWithVariables();
+        final ConsoleDataSetLookup lookup = createLookupWithVariables();
+        lookup.addOperation(new DataSetFilter());
+        lookup.getFirstFilterOp().addFilterColumn(equalsTo("orderId",
+                                                           Arrays.asList("9",
+                                                                         "10")));
+
+        kieServerDataSetProvider.lookupDataSet(dataSetDef,
+                                               lookup);
+    }
+
+    @Test
+    public void testPartitionJoinValues() {
+        final List<Long> values = new ArrayList<>();
+        for (long i = 0; i < KieServerDataSetProvider.JOIN_VALUES_PER_QUERY * 2 + 1; i++) {
+            values.add(i);
+        }
+
+        final List<List<Comparable>> parts = KieServerDataSetProvider.partition(values);
+
+        assertEquals(3,
+                     parts.size());
+        assertEquals(KieServerDataSetProvider.JOIN_VALUES_PER_QUERY,
+                     parts.get(0).size());
+        assertEquals(Arrays.asList(KieServerDataSetProvider.JOIN_VALUES_PER_QUERY * 2L),
+                     parts.get(2));
+        assertEquals(Collections.singletonList(null),
+                     KieServerDataSetProvider.partition(null));
+    }
+
+    @Test
+    public void testLookupWithVariablesFilteredByVariable() throws Exception {
+        mockInstancesWithVariables();
+        final ConsoleDataSetLookup lookup = createLookupWithVariables();
+        lookup.addOperation(new DataSetFilter());
+        lookup.getFirstFilterOp().addFilterColumn(equalsTo("customer",
+                                                           "x"));
+
+        final DataSet result = kieServerDataSetProvider.lookupDataSet(dataSetDef,
+                                                                      lookup);
+
+        assertEquals(1,
+                     result.getRowCount());
+        assertEquals(1L,
+                     result.getValueAt(0,
+                                       "processInstanceId"));
+        assertEquals(10L,
+                     result.getValueAt(0,
+                                       "orderId"));
+        assertEquals("x",
+                     result.getValueAt(0,
+                                       "customer"));
+    }
+
+    @Test
+    public void testLookupWithVariablesNoMatch() throws Exception {
+        mockInstancesWithVariables();
+        final ConsoleDataSetLookup lookup = createLookupWithVariables();
+        lookup.addOperation(new DataSetFilter());
+        lookup.getFirstFilterOp().addFilterColumn(equalsTo("customer",
+                                                           "z"));
+
+        final DataSet result = kieServerDataSetProvider.lookupDataSet(dataSetDef,
+                                                                      lookup);
+
+        assertEquals(0,
+                     result.getRowCount());
+        verify(queryServicesClient,
+               never()).query(eq("instances"),
+                              anyString(),
+                              any(QueryFilterSpec.class),
+                              anyInt(),
+                              anyInt(),
+                              any());
+    }
+
+    private ConsoleDataSetLookup createLookupWithVariables() {
+        final ConsoleDataSetLookup variablesLookup = new ConsoleDataSetLookup().pivot("processInstanceId",
+                                                                                      "variableId",
+                                                                                      "value");
+        variablesLookup.setDataSetUUID("variables");
+        final ConsoleDataSetLookup lookup = new ConsoleDataSetLookup().withVariables(variablesLookup,
+                                                                                     "processInstanceId");
+        lookup.setDataSetUUID("instances");
+        lookup.setServerTemplateId("servereTemplateId");
+        return lookup;
+    }
+
+    private void mockInstancesWithVariables() {
+        when(dataSetDef.getUUID()).thenReturn("instances");
+        when(dataSetDef.getColumns()).thenReturn(Arrays.asList(new DataColumnDef("processInstanceId",
+                                                                                 ColumnType.NUMBER),
+                                                               new DataColumnDef("processId",
+                                                                                 ColumnType.LABEL)));
+        when(variablesDataSetDef.getUUID()).thenReturn("variables");
+        when(variablesDataSetDef.getColumns()).thenReturn(Arrays.asList(new DataColumnDef("processInstanceId",
+                                                                                          ColumnType.NUMBER),
+                                                                        new DataColumnDef("variableId",
+                                                                                          ColumnType.LABEL),
+                                                                        new DataColumnDef("value",
+                                                                                          ColumnType.LABEL)));
+        when(dataSetDefRegistry.getDataSetDef("variables")).thenReturn(variablesDataSetDef);
+
+        final List<List> instances = new ArrayList<>();
+        instances.add(Arrays.asList(1L,
+                                    "process"));
+        instances.add(Arrays.asList(2L,
+                                    "process"));
+        instances.add(Arrays.asList(3L,
+                                    "process"));
+        final List<List> variables = new ArrayList<>();
+        variables.add(Arrays.asList(1L,
+                                    "orderId",
+                                    "10"));
+        variables.add(Arrays.asList(2L,
+                                    "orderId",
+                                    "9"));
+        variables.add(Arrays.asList(1L,
+                                    "customer",
+                                    "x"));
+        variables.add(Arrays.asList(3L,
+                                    "customer",
+                                    "y"));
+
+        when(queryServicesClient.query(anyString(),
+                                       anyString(),
+                                       any(QueryFilterSpec.class),
+                                       anyInt(),
+                                       anyInt(),
+                                       any())).thenAnswer(invocation -> {
+            final QueryFilterSpec spec = (QueryFilterSpec) invocation.getArguments()[2];
+            final boolean instancesQuery = "instances".equals(invocation.getArguments()[0]);
+            final List<List> rows = new ArrayList<>();
+            for (List row : instancesQuery ? instances : variables) {
+                if (matches(row,
+                            spec,
+                            instancesQuery ? Arrays.asList("processInstanceId",
+                                                           "processId") : Arrays.asList("processInstanceId",
+                                                                                        "variableId",
+                                                                                        "value"))) {
+                    rows.add(row);
+                }
+            }
+            return rows;
+        });
+    }
+
+    private boolean matches(List row,
+                            QueryFilterSpec spec,
+                            List<String> columns) {
+        if (spec.getParameters() == null) {
+            return true;
+        }
+        for (QueryParam param : spec.getParameters()) {
+            final int column = columns.indexOf(param.getColumn());
+            if (column >= 0 && !param.getValue().contains(row.get(column))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Test
+    public void testBuildDataSet() throws Exception {
+        final DataSetDef def = new DataSetDef();
+        def.setUUID("uuid");
+        def.addColumn("id",
+                      ColumnType.NUMBER);
+        def.addColumn("name",
+                      ColumnType.LABEL);
+        def.addColumn("date",
+                      ColumnType.DATE);
+
+        final Date date = new Date();
+        final List<List> rows = new ArrayList<>();
+        rows.add(Arrays.asList(1,
+                               "first",
+                               date.getTime()));
+        rows.add(Arrays.asList(2,
+                               "second",
+                               date));
+
+        final DataSet dataSet = kieServerDataSetProvider.buildDataSet(def,
+                                                                      rows,
+                                                                      new ArrayList<>());
+
+        assertEquals("uuid",
+                     dataSet.getUUID());
+        assertEquals(3,
+                     dataSet.getColumns().size());
+        assertEquals(2,
+                     dataSet.getRowCount());
+        assertEquals(2,
+                     dataSet.getRowCountNonTrimmed());
+        assertEquals(1,
+                     dataSet.getValueAt(0,
+                                        "id"));
+        assertEquals("second",
+                     dataSet.getValueAt(1,
+                                        "name"));
+        assertEquals(date,
+                     dataSet.getValueAt(0,
+                                        "date"));
+        assertEquals(date,
+                     dataSet.getValueAt(1,
+                                        "date"));
+    }
+
+    @Test
+    public void testKeysetLookup() throws Exception {
+        DataSetLookup lookup = new DataSetLookup();
+        lookup.setDataSetUUID("uuid");
+        lookup.setRowOffset(5000);
+        lookup.setNumberOfRows(10);
+        DataSetSort sort = new DataSetSort();
+        sort.addSortColumn(new ColumnSort("start_date",
+                                          SortOrder.DESCENDING));
+        lookup.addOperation(sort);
+        when(dataSetDef.getUUID()).thenReturn("uuid");
+        when(dataSetDef.getKeysetColumn()).thenReturn("processInstanceId");
+
+        ConsoleDataSetLookup consoleLookup = (ConsoleDataSetLookup) ConsoleDataSetLookup.fromInstance(lookup,
+                                                                                                      "servereTemplateId");
+        consoleLookup.seekAfter("2018-01-01",
+                                100L);
+        kieServerDataSetProvider.lookupDataSet(dataSetDef,
+                                               consoleLookup);
+
+        final ArgumentCaptor<QueryFilterSpec> captor = ArgumentCaptor.forClass(QueryFilterSpec.class);
+        verify(queryServicesClient).query(anyString(),
+                                          anyString(),
+                                          captor.capture(),
+                                          eq(0),
+                                          eq(10),
+                                          any());
+
+        assertEquals("start_date,processInstanceId",
+                     captor.getValue().getOrderBy());
+        assertFalse(captor.getValue().isAscending());
+        QueryParam[] parameters = captor.getValue().getParameters();
+        assertEquals(1,
+                     parameters.length);
+        assertEquals("OR",
+                     parameters[0].getOperator());
+        assertEquals(2,
+                     parameters[0].getValue().size());
+    }
+
+    @Test
+    public void testOffsetLookupOrderedLikeKeysetLookup() throws Exception {
+        DataSetLookup lookup = new DataSetLookup();
+        lookup.setDataSetUUID("uuid");
+        lookup.setRowOffset(0);
+        lookup.setNumberOfRows(10);
+        DataSetSort sort = new DataSetSort();
+        sort.addSortColumn(new ColumnSort("start_date",
+                                          SortOrder.DESCENDING));
+        lookup.addOperation(sort);
+        when(dataSetDef.getUUID()).thenReturn("uuid");
+        when(dataSetDef.getKeysetColumn()).thenReturn("processInstanceId");
+
+        kieServerDataSetProvider.lookupDataSet(dataSetDef,
+                                               ConsoleDataSetLookup.fromInstance(lookup,
+                                                                                 "servereTemplateId"));
+
+        final ArgumentCaptor<QueryFilterSpec> captor = ArgumentCaptor.forClass(QueryFilterSpec.class);
+        verify(queryServicesClient).query(anyString(),
+                                          anyString(),
+                                          captor.capture(),
+                                          eq(0),
+                                          eq(10),
+                                          any());
+
+        // ties on the start date are broken the same way as on the following pages read by keyset
+        assertEquals("start_date,processInstanceId",
+                     captor.getValue().getOrderBy());
+        assertFalse(captor.getValue().isAscending());
+        assertNull(captor.getValue().getParameters());
+    }
+
+    @Test
+    public void testKeysetLookupMixedSortOrderUsesOffset() throws Exception {
+        DataSetLookup lookup = new DataSetLookup();
+        lookup.setDataSetUUID("uuid");
+        lookup.setRowOffset(20);
+        lookup.setNumberOfRows(10);
+        DataSetSort sort = new DataSetSort();
+        sort.addSortColumn(new ColumnSort("processName",
+                                          SortOrder.ASCENDING));
+        sort.addSortColumn(new ColumnSort("start_date",
+                                          SortOrder.DESCENDING));
+        lookup.addOperation(sort);
+        when(dataSetDef.getUUID()).thenReturn("uuid");
+        when(dataSetDef.getKeysetColumn()).thenReturn("processInstanceId");
+
+        ConsoleDataSetLookup consoleLookup = (ConsoleDataSetLookup) ConsoleDataSetLookup.fromInstance(lookup,
+                                                                                                      "servereTemplateId");
+        consoleLookup.seekAfter("process",
+                                "2018-01-01",
+                                100L);
+        kieServerDataSetProvider.lookupDataSet(dataSetDef,
+                                               consoleLookup);
+
+        final ArgumentCaptor<QueryFilterSpec> captor = ArgumentCaptor.forClass(QueryFilterSpec.class);
+        verify(queryServicesClient).query(anyString(),
+                                          anyString(),
+                                          captor.capture(),
+                                          eq(2),
+                                          eq(10),
+                                          any());
+
+        assertEquals("processName,start_date",
+                     captor.getValue().getOrderBy());
+        assertNull(captor.getValue().getParameters());
+    }
+
+    @Test
+    public void testQueryUnalignedWindow() {
+        ConsoleDataSetLookup dataSetLookup = newLookup(5,
+                                                       10);
+        when(dataSetDef.getUUID()).thenReturn("uuid");
+        when(queryServicesClient.query(anyString(),
+                                       anyString(),
+                                       any(QueryFilterSpec.class),
+                                       eq(0),
+                                       eq(10),
+                                       any())).thenReturn(rows(0,
+                                                               10));
+        when(queryServicesClient.query(anyString(),
+                                       anyString(),
+                                       any(QueryFilterSpec.class),
+                                       eq(1),
+                                       eq(10),
+                                       any())).thenReturn(rows(10,
+                                                               20));
+
+        List<List> window = kieServerDataSetProvider.performQuery(dataSetDef,
+                                                                  dataSetLookup,
+                                                                  queryServicesClient,
+                                                                  new QueryFilterSpec());
+
+        assertEquals(10,
+                     window.size());
+        assertEquals(5,
+                     window.get(0).get(0));
+        assertEquals(14,
+                     window.get(9).get(0));
+
+        // pages are cached, moving the window back does not query again
+        dataSetLookup.setRowOffset(3);
+        window = kieServerDataSetProvider.performQuery(dataSetDef,
+                                                       dataSetLookup,
+                                                       queryServicesClient,
+                                                       new QueryFilterSpec());
+        assertEquals(3,
+                     window.get(0).get(0));
+        verify(queryServicesClient,
+               times(2)).query(anyString(),
+                               anyString(),
+                               any(QueryFilterSpec.class),
+                               anyInt(),
+                               anyInt(),
+                               any());
+    }
+
+    @Test
+    public void testQueryUnalignedWindowOnLastPage() {
+        ConsoleDataSetLookup dataSetLookup = newLookup(5,
+                                                       10);
+        when(queryServicesClient.query(anyString(),
+                                       anyString(),
+                                       any(QueryFilterSpec.class),
+                                       eq(0),
+                                       eq(10),
+                                       any())).thenReturn(rows(0,
+                                                               7));
+
+        List<List> window = kieServerDataSetProvider.performQuery(dataSetDef,
+                                                                  dataSetLookup,
+                                                                  queryServicesClient,
+                                                                  new QueryFilterSpec());
+
+        assertEquals(2,
+                     window.size());
+        verify(queryServicesClient,
+               never()).query(anyString(),
+                              anyString(),
+                              any(QueryFilterSpec.class),
+                              eq(1),
+                              anyInt(),
+                              any());
+    }
+
+    protected ConsoleDataSetLookup newLookup(int rowOffset,
+                                             int numberOfRows) {
+        DataSetLookup lookup = new DataSetLookup();
+        lookup.setDataSetUUID("uuid");
+        lookup.setRowOffset(rowOffset);
+        lookup.setNumberOfRows(numberOfRows);
+        return (ConsoleDataSetLookup) ConsoleDataSetLookup.fromInstance(lookup,
+                                                                        "servereTemplateId");
+    }
+
+    protected List rows(int from,
+                        int to) {
+        List<List> rows = new ArrayList<>();
+        for (int i = from; i < to; i++) {
+            rows.add(Arrays.asList(i));
+        }
+        return rows;
+    }
+
+    @Test
+    public void testSeekFilterSingleColumn() {
+        ColumnFilter filter = kieServerDataSetProvider.buildSeekFilter(Arrays.asList("id"),
+                                                                       Arrays.<Comparable>asList(10L),
+                                                                       true);
+
+        assertEquals(greaterThan("id",
+                                 10L).toString(),
+                     filter.toString());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSeekFilterRequiresValueForEachColumn() {
+        kieServerDataSetProvider.buildSeekFilter(Arrays.asList("start_date",
+                                                               "id"),
+                                                 Arrays.<Comparable>asList(10L),
+                                                 true);
+    }
+
     @Test
     public void testGroupWithInterval() {
         
@@ -319,6 +1087,26 @@ public class KieServerDataSetProviderTest {
         
         verify(queryServicesClient).getQuery(anyString());
     }
+
+    @Test
+    public void testDataSetMetaDataFromCache() throws Exception {
+        Map<String, String> columns = new HashMap<>();
+        columns.put("test", "NUMBER");
+        metadataCache.put("servereTemplateId",
+                          QueryDefinition.builder()
+                                  .name("q1")
+                                  .columns(columns)
+                                  .build());
+
+        when(dataSetDef.getUUID()).thenReturn("q1");
+        when(dataSetDef.getColumns()).thenReturn(null, new ArrayList<>());
+        when(dataSetDef.getServerTemplateId()).thenReturn("servereTemplateId");
+
+        kieServerDataSetProvider.getDataSetMetadata(dataSetDef);
+
+        verify(dataSetDef, times(1)).addColumn(eq("test"), eq(ColumnType.NUMBER));
+        verify(queryServicesClient, never()).getQuery(anyString());
+    }
     
     @Test
     public void testNoAdoptLookup() throws Exception {
@@ -0,0 +1,115 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jbpm.workbench.ks.integration;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.kie.server.client.KieServicesClient;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.mock;
+
+public class KieServerEndpointPoolTest {
+
+    private static final String URL = "http://localhost:8080/kie-server/services/rest/server";
+
+    private ExecutorService executorService;
+
+    private KieServerEndpointPool pool;
+
+    @Before
+    public void setup() {
+        executorService = Executors.newFixedThreadPool(4);
+        pool = new KieServerEndpointPool(1);
+    }
+
+    @After
+    public void cleanup() {
+        executorService.shutdownNow();
+    }
+
+    @Test
+    public void testClientIsReusedPerEndpoint() {
+        final AtomicInteger created = new AtomicInteger();
+
+        final KieServicesClient client = pool.getClient(URL,
+                                                        url -> {
+                                                            created.incrementAndGet();
+                                                            return mock(KieServicesClient.class);
+                                                        });
+        assertSame(client,
+                   pool.getClient(URL,
+                                  url -> mock(KieServicesClient.class)));
+        assertEquals(1,
+                     created.get());
+        assertEquals(1,
+                     pool.getEndpointCount());
+
+        pool.remove(URL);
+        assertNotSame(client,
+                      pool.getClient(URL,
+                                     url -> mock(KieServicesClient.class)));
+    }
+
+    @Test
+    public void testConcurrentRequestsAreBoundedPerEndpoint() throws Exception {
+        final CountDownLatch release = new CountDownLatch(1);
+
+        final Future<String> first = executorService.submit(() -> pool.execute(URL,
+                                                                               () -> {
+                                                                                   release.await(5,
+                                                                                                 TimeUnit.SECONDS);
+                                                                                   return "first";
+                                                                               }));
+        while (pool.getLeased(URL) == 0) {
+            Thread.sleep(5);
+        }
+        final Future<String> second = executorService.submit(() -> pool.execute(URL,
+                                                                                () -> "second"));
+        while (pool.getPending(URL) == 0) {
+            Thread.sleep(5);
+        }
+
+        assertEquals(1,
+                     pool.getLeased(URL));
+        assertEquals(0,
+                     pool.getIdle(URL));
+        assertFalse(second.isDone());
+
+        release.countDown();
+        assertEquals("first",
+                     first.get(5,
+                               TimeUnit.SECONDS));
+        assertEquals("second",
+                     second.get(5,
+                                TimeUnit.SECONDS));
+        assertEquals(0,
+                     pool.getLeased(URL));
+        assertEquals(1,
+                     pool.getIdle(URL));
+        assertEquals(0,
+                     pool.getPending(URL));
+    }
+}
@@ -0,0 +1,247 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jbpm.workbench.ks.integration;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class KieServerExecutorTest {
+
+    private ExecutorService executorService;
+
+    private KieServerExecutor kieServerExecutor;
+
+    @Before
+    public void setup() {
+        executorService = Executors.newCachedThreadPool();
+        kieServerExecutor = new KieServerExecutor(executorService,
+                                                  1);
+    }
+
+    @After
+    public void cleanup() {
+        kieServerExecutor.shutdown();
+        executorService.shutdownNow();
+    }
+
+    @Test
+    public void testLimitsConcurrentCalls() throws Exception {
+        final CountDownLatch release = new CountDownLatch(1);
+        final Future<String> first = kieServerExecutor.submit(() -> {
+            release.await(5,
+                          TimeUnit.SECONDS);
+            return "first";
+        });
+        final Future<String> second = kieServerExecutor.submit(() -> "second");
+
+        assertEquals(1,
+                     kieServerExecutor.getRunning());
+        assertEquals(1,
+                     kieServerExecutor.getPending());
+        assertFalse(second.isDone());
+
+        release.countDown();
+        assertEquals("first",
+                     first.get(5,
+                               TimeUnit.SECONDS));
+        assertEquals("second",
+                     second.get(5,
+                                TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testNestedCallRunsOnSameThread() throws Exception {
+        final Future<String> outer = kieServerExecutor.submit(() -> {
+            final Thread caller = Thread.currentThread();
+            return kieServerExecutor.submit(() -> Thread.currentThread() == caller ? "inline" : "queued").get(5,
+                                                                                                              TimeUnit.SECONDS);
+        });
+
+        assertEquals("inline",
+                     outer.get(5,
+                               TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testTimeoutCountsFromSubmission() throws Exception {
+        final CountDownLatch release = new CountDownLatch(1);
+        kieServerExecutor.submit(() -> release.await(5,
+                                                     TimeUnit.SECONDS));
+        final AtomicBoolean ran = new AtomicBoolean();
+        final CompletableFuture<String> queued = kieServerExecutor.submit(() -> {
+                                                                              ran.set(true);
+                                                                              return "done";
+                                                                          },
+                                                                          100);
+
+        // waiting for a free slot longer than the timeout fails the call
+        try {
+            queued.get(5,
+                       TimeUnit.SECONDS);
+            fail("Call should time out");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof TimeoutException);
+        }
+        while (kieServerExecutor.getPending() > 0) {
+            Thread.sleep(5);
+        }
+        release.countDown();
+
+        // the timed out call was dropped from the queue
+        assertEquals("next",
+                     kieServerExecutor.submit(() -> "next").get(5,
+                                                                TimeUnit.SECONDS));
+        assertFalse(ran.get());
+    }
+
+    @Test
+    public void testTimedOutCallGivesUpItsSlot() throws Exception {
+        final CountDownLatch release = new CountDownLatch(1);
+        // ignores interrupts like a blocked socket read
+        final CompletableFuture<String> blocked = kieServerExecutor.submit(() -> {
+                                                                               while (release.getCount() > 0) {
+                                                                                   try {
+                                                                                       release.await(5,
+                                                                                                     TimeUnit.SECONDS);
+                                                                                   } catch (InterruptedException e) {
+                                                                                       // keep blocking
+                                                                                   }
+                                                                               }
+                                                                               return "late";
+                                                                           },
+                                                                           100);
+        try {
+            blocked.get(5,
+                        TimeUnit.SECONDS);
+            fail("Call should time out");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof TimeoutException);
+        }
+
+        assertEquals("next",
+                     kieServerExecutor.submit(() -> "next").get(5,
+                                                                TimeUnit.SECONDS));
+        release.countDown();
+    }
+
+    @Test
+    public void testNestedCallWithTimeoutTimesOut() throws Exception {
+        final CountDownLatch release = new CountDownLatch(1);
+        final Future<Boolean> outer = kieServerExecutor.submit(() -> {
+            try {
+                kieServerExecutor.submit(() -> release.await(5,
+                                                             TimeUnit.SECONDS),
+                                         100).get(5,
+                                                  TimeUnit.SECONDS);
+                return false;
+            } catch (ExecutionException e) {
+                return e.getCause() instanceof TimeoutException;
+            }
+        });
+
+        assertTrue(outer.get(2,
+                             TimeUnit.SECONDS));
+        release.countDown();
+    }
+
+    @Test
+    public void testRejectsWhenTooManyCallsWait() throws Exception {
+        kieServerExecutor = new KieServerExecutor(executorService,
+                                                  1,
+                                                  1,
+                                                  1);
+        final CountDownLatch release = new CountDownLatch(1);
+        kieServerExecutor.submit(() -> release.await(5,
+                                                     TimeUnit.SECONDS));
+        final Future<String> queued = kieServerExecutor.submit(() -> "queued");
+
+        try {
+            kieServerExecutor.submit(() -> "rejected");
+            fail("Call should be rejected");
+        } catch (RejectedExecutionException e) {
+            // expected
+        }
+        final CompletableFuture<String> rejected = kieServerExecutor.submit(() -> "rejected",
+                                                                            5000);
+        assertTrue(rejected.isCompletedExceptionally());
+
+        release.countDown();
+        assertEquals("queued",
+                     queued.get(5,
+                                TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testBroadcastsDoNotHoldUpCalls() throws Exception {
+        final CountDownLatch release = new CountDownLatch(1);
+        kieServerExecutor.submitBroadcast(() -> release.await(5,
+                                                              TimeUnit.SECONDS));
+        final Future<String> queuedBroadcast = kieServerExecutor.submitBroadcast(() -> "broadcast");
+
+        assertEquals(1,
+                     kieServerExecutor.getBroadcastsRunning());
+        assertEquals(1,
+                     kieServerExecutor.getBroadcastsPending());
+        assertEquals("call",
+                     kieServerExecutor.submit(() -> "call").get(5,
+                                                                TimeUnit.SECONDS));
+
+        release.countDown();
+        assertEquals("broadcast",
+                     queuedBroadcast.get(5,
+                                         TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testTimeout() throws Exception {
+        final CountDownLatch interrupted = new CountDownLatch(1);
+        final CompletableFuture<String> hanging = kieServerExecutor.submit(() -> {
+                                                                               try {
+                                                                                   Thread.sleep(5000);
+                                                                               } catch (InterruptedException e) {
+                                                                                   interrupted.countDown();
+                                                                               }
+                                                                               return "late";
+                                                                           },
+                                                                           100);
+
+        try {
+            hanging.get(5,
+                        TimeUnit.SECONDS);
+            fail("Call should time out");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof TimeoutException);
+        }
+        assertTrue(interrupted.await(5,
+                                     TimeUnit.SECONDS));
+    }
+}
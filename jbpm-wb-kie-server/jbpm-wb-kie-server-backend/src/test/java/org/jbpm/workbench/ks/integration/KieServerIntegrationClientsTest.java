@@ -19,6 +19,7 @@ package org.jbpm.workbench.ks.integration;
 import javax.enterprise.event.Event;
 
 import org.jbpm.workbench.ks.integration.event.ServerInstanceRegistered;
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -36,6 +37,7 @@ import org.kie.workbench.common.screens.server.management.service.SpecManagement
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
+import org.mockito.Spy;
 import org.mockito.runners.MockitoJUnitRunner;
 
 import static org.jbpm.workbench.ks.integration.KieServerIntegration.SERVER_TEMPLATE_KEY;
@@ -45,6 +47,11 @@ import static org.mockito.Mockito.*;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.function.Function;
 
 @RunWith(MockitoJUnitRunner.class)
@@ -59,6 +66,12 @@ public class KieServerIntegrationClientsTest {
     @Mock
     Event<ServerInstanceRegistered> serverInstanceRegisteredEvent;
 
+    ExecutorService executorService = Executors.newCachedThreadPool();
+
+    @Spy
+    KieServerExecutor kieServerExecutor = new KieServerExecutor(executorService,
+                                                                8);
+
     @InjectMocks
     KieServerIntegration kieServerIntegration;
 
@@ -67,6 +80,12 @@ public class KieServerIntegrationClientsTest {
         when(kieServices.newKieContainer(any())).thenReturn(mock(KieContainer.class));
     }
 
+    @After
+    public void cleanup() {
+        kieServerExecutor.shutdown();
+        executorService.shutdownNow();
+    }
+
     @Test
     public void testServerTemplateClients() {
         final String serverTemplateId = "kie-server-test";
@@ -193,5 +212,75 @@ public class KieServerIntegrationClientsTest {
         kieServerIntegration.broadcastToKieServers(serverTemplateId, operation);
                 
         verify(operation, times(2)).apply(any());
+
+        kieServerIntegration.broadcastToKieServers(serverTemplateId,
+                                                   operation);
+
+        verify(operation, times(4)).apply(any());
+        verify(provider, times(2)).get(anyString());
+        assertEquals(2,
+                     kieServerIntegration.getEndpointPool().getEndpointCount());
+    }
+
+    @Test
+    public void testBroadcastToKieServersAsyncReportsFailuresPerInstance() throws Exception {
+        final String serverTemplateId = "kie-server-test";
+        final ServerTemplate serverTemplate = new ServerTemplate(serverTemplateId,
+                                                                 serverTemplateId);
+        for (int i = 1; i <= 3; i++) {
+            final ServerInstance serverInstance = new ServerInstance();
+            serverInstance.setServerTemplateId(serverTemplateId);
+            serverInstance.setUrl("http://" + i);
+            serverInstance.setServerInstanceId(serverTemplateId + "@" + i);
+            serverTemplate.addServerInstance(serverInstance);
+        }
+
+        final KieServicesClient client1 = Mockito.mock(KieServicesClient.class);
+        final KieServicesClient client2 = Mockito.mock(KieServicesClient.class);
+        final KieServicesClient client3 = Mockito.mock(KieServicesClient.class);
+        KieServicesClientProvider provider = Mockito.mock(KieServicesClientProvider.class);
+        List<KieServicesClientProvider> providers = new ArrayList<>();
+        providers.add(provider);
+        kieServerIntegration.setKieServicesClientProviders(providers);
+        kieServerIntegration.setBroadcastTimeout(200);
+
+        when(provider.supports(anyString())).thenReturn(true);
+        when(provider.get("http://1")).thenReturn(client1);
+        when(provider.get("http://2")).thenReturn(client2);
+        when(provider.get("http://3")).thenReturn(client3);
+        when(specManagementService.getServerTemplate(serverTemplateId)).thenReturn(serverTemplate);
+
+        final CountDownLatch hang = new CountDownLatch(1);
+        final List<KieServerBroadcastResult> results = kieServerIntegration.broadcastToKieServersAsync(serverTemplateId,
+                                                                                                       client -> {
+                                                                                                           if (client == client2) {
+                                                                                                               throw new RuntimeException("failed");
+                                                                                                           }
+                                                                                                           if (client == client3) {
+                                                                                                               try {
+                                                                                                                   hang.await(5,
+                                                                                                                              TimeUnit.SECONDS);
+                                                                                                               } catch (InterruptedException e) {
+                                                                                                                   Thread.currentThread().interrupt();
+                                                                                                               }
+                                                                                                           }
+                                                                                                           return "ok";
+                                                                                                       })
+                .get(2,
+                     TimeUnit.SECONDS);
+        hang.countDown();
+
+        assertEquals(3,
+                     results.size());
+        assertTrue(results.get(0).isSuccess());
+        assertEquals("ok",
+                     results.get(0).getResult());
+        assertEquals("http://1",
+                     results.get(0).getUrl());
+        assertFalse(results.get(1).isSuccess());
+        assertEquals("failed",
+                     results.get(1).getError().getMessage());
+        assertFalse(results.get(2).isSuccess());
+        assertTrue(results.get(2).getError() instanceof TimeoutException);
     }
 }
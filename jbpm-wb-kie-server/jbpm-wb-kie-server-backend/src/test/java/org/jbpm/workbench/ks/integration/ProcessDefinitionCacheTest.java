@@ -0,0 +1,218 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jbpm.workbench.ks.integration;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.junit.Test;
+import org.kie.server.api.model.ReleaseId;
+import org.kie.server.controller.api.model.events.ServerTemplateDeleted;
+import org.kie.server.controller.api.model.events.ServerTemplateUpdated;
+import org.kie.server.controller.api.model.spec.ContainerSpec;
+import org.kie.server.controller.api.model.spec.ServerTemplate;
+
+import static org.junit.Assert.*;
+
+public class ProcessDefinitionCacheTest {
+
+    private static final String SERVER_TEMPLATE_ID = "serverTemplateId";
+    private static final String CONTAINER_ID = "containerId";
+    private static final String PROCESS_ID = "processId";
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private final Supplier<Map<String, String>> loader = () -> {
+        loads.incrementAndGet();
+        return Collections.singletonMap("var1",
+                                        "String");
+    };
+
+    @Test
+    public void testDefinitionsAreLoadedOnce() {
+        final ProcessDefinitionCache cache = new ProcessDefinitionCache(10);
+
+        final Map<String, String> definitions = cache.getProcessVariableDefinitions(SERVER_TEMPLATE_ID,
+                                                                                    CONTAINER_ID,
+                                                                                    PROCESS_ID,
+                                                                                    loader);
+        assertEquals("String",
+                     definitions.get("var1"));
+        assertSame(definitions,
+                   cache.getProcessVariableDefinitions(SERVER_TEMPLATE_ID,
+                                                       CONTAINER_ID,
+                                                       PROCESS_ID,
+                                                       loader));
+        assertEquals(1,
+                     loads.get());
+
+        // task inputs and outputs of the same process are separate entries
+        cache.getUserTaskInputDefinitions(SERVER_TEMPLATE_ID,
+                                          CONTAINER_ID,
+                                          PROCESS_ID,
+                                          "task",
+                                          loader);
+        cache.getUserTaskOutputDefinitions(SERVER_TEMPLATE_ID,
+                                           CONTAINER_ID,
+                                           PROCESS_ID,
+                                           "task",
+                                           loader);
+        assertEquals(3,
+                     loads.get());
+        assertEquals(3,
+                     cache.getSize());
+    }
+
+    @Test
+    public void testFailedLoadIsNotCached() {
+        final ProcessDefinitionCache cache = new ProcessDefinitionCache(10);
+
+        try {
+            cache.getProcessVariableDefinitions(SERVER_TEMPLATE_ID,
+                                                CONTAINER_ID,
+                                                PROCESS_ID,
+                                                () -> {
+                                                    throw new IllegalStateException("container stopped");
+                                                });
+            fail("Loader exception should be propagated");
+        } catch (IllegalStateException e) {
+            assertEquals(0,
+                         cache.getSize());
+        }
+        assertTrue(cache.getProcessVariableDefinitions(SERVER_TEMPLATE_ID,
+                                                       CONTAINER_ID,
+                                                       PROCESS_ID,
+                                                       () -> null).isEmpty());
+    }
+
+    @Test
+    public void testDisabledCache() {
+        final ProcessDefinitionCache cache = new ProcessDefinitionCache(0);
+
+        cache.getProcessVariableDefinitions(SERVER_TEMPLATE_ID,
+                                            CONTAINER_ID,
+                                            PROCESS_ID,
+                                            loader);
+        cache.getProcessVariableDefinitions(SERVER_TEMPLATE_ID,
+                                            CONTAINER_ID,
+                                            PROCESS_ID,
+                                            loader);
+
+        assertEquals(2,
+                     loads.get());
+        assertEquals(0,
+                     cache.getSize());
+    }
+
+    @Test
+    public void testInvalidateOnReleaseIdChange() {
+        final ProcessDefinitionCache cache = new ProcessDefinitionCache(10);
+        cache.onServerTemplateUpdated(new ServerTemplateUpdated(newServerTemplate("1.0")));
+
+        cache.getProcessVariableDefinitions(SERVER_TEMPLATE_ID,
+                                            CONTAINER_ID,
+                                            PROCESS_ID,
+                                            loader);
+        cache.getProcessVariableDefinitions(SERVER_TEMPLATE_ID,
+                                            "otherContainerId",
+                                            PROCESS_ID,
+                                            loader);
+
+        // same release, e.g. a server instance was added to the template
+        cache.onServerTemplateUpdated(new ServerTemplateUpdated(newServerTemplate("1.0")));
+        assertEquals(2,
+                     cache.getSize());
+
+        cache.onServerTemplateUpdated(new ServerTemplateUpdated(newServerTemplate("1.1")));
+        assertEquals(1,
+                     cache.getSize());
+        cache.getProcessVariableDefinitions(SERVER_TEMPLATE_ID,
+                                            CONTAINER_ID,
+                                            PROCESS_ID,
+                                            loader);
+        assertEquals(3,
+                     loads.get());
+    }
+
+    @Test
+    public void testInvalidateOnServerTemplateDeleted() {
+        final ProcessDefinitionCache cache = new ProcessDefinitionCache(10);
+        cache.getProcessVariableDefinitions(SERVER_TEMPLATE_ID,
+                                            CONTAINER_ID,
+                                            PROCESS_ID,
+                                            loader);
+        cache.getProcessVariableDefinitions("otherServerTemplateId",
+                                            CONTAINER_ID,
+                                            PROCESS_ID,
+                                            loader);
+
+        cache.onServerTemplateDeleted(new ServerTemplateDeleted(SERVER_TEMPLATE_ID));
+
+        assertEquals(1,
+                     cache.getSize());
+    }
+
+    @Test
+    public void testLeastRecentlyUsedEviction() {
+        final ProcessDefinitionCache cache = new ProcessDefinitionCache(2);
+        cache.getProcessVariableDefinitions(SERVER_TEMPLATE_ID,
+                                            CONTAINER_ID,
+                                            "p1",
+                                            loader);
+        cache.getProcessVariableDefinitions(SERVER_TEMPLATE_ID,
+                                            CONTAINER_ID,
+                                            "p2",
+                                            loader);
+        cache.getProcessVariableDefinitions(SERVER_TEMPLATE_ID,
+                                            CONTAINER_ID,
+                                            "p1",
+                                            loader);
+        cache.getProcessVariableDefinitions(SERVER_TEMPLATE_ID,
+                                            CONTAINER_ID,
+                                            "p3",
+                                            loader);
+        cache.getProcessVariableDefinitions(SERVER_TEMPLATE_ID,
+                                            CONTAINER_ID,
+                                            "p1",
+                                            loader);
+
+        assertEquals(3,
+                     loads.get());
+        assertEquals(2,
+                     cache.getSize());
+    }
+
+    private ServerTemplate newServerTemplate(final String version) {
+        final ServerTemplate serverTemplate = new ServerTemplate(SERVER_TEMPLATE_ID,
+                                                                 SERVER_TEMPLATE_ID);
+        final ContainerSpec containerSpec = new ContainerSpec();
+        containerSpec.setId(CONTAINER_ID);
+        containerSpec.setReleasedId(new ReleaseId("org.jbpm",
+                                                  "evaluation",
+                                                  version));
+        serverTemplate.addContainerSpec(containerSpec);
+        final ContainerSpec otherContainerSpec = new ContainerSpec();
+        otherContainerSpec.setId("otherContainerId");
+        otherContainerSpec.setReleasedId(new ReleaseId("org.jbpm",
+                                                       "other",
+                                                       "1.0"));
+        serverTemplate.addContainerSpec(otherContainerSpec);
+        return serverTemplate;
+    }
+}
@@ -36,6 +36,7 @@ public class RemoteDefJSONMarshallerTest {
         json.put(RemoteDefJSONMarshaller.DB_SQL, "select * from test");
         json.put(RemoteDefJSONMarshaller.QUERY_TARGET, "PROCESS");
         json.put(RemoteDefJSONMarshaller.SERVER_TEMPLATE_ID, "server1");
+        json.put(RemoteDefJSONMarshaller.KEYSET_COLUMN, "id");
         
         RemoteDefJSONMarshaller marhsaller = new RemoteDefJSONMarshaller();
         marhsaller.fromJson(remoteDataSetDef, json);
@@ -45,6 +46,7 @@ public class RemoteDefJSONMarshallerTest {
         assertEquals("select * from test", remoteDataSetDef.getDbSQL());        
         assertEquals("PROCESS", remoteDataSetDef.getQueryTarget());     
         assertEquals("server1", remoteDataSetDef.getServerTemplateId());
+        assertEquals("id", remoteDataSetDef.getKeysetColumn());
     }
     
     @Test
@@ -56,6 +58,7 @@ public class RemoteDefJSONMarshallerTest {
         remoteDataSetDef.setDbSQL("select * from test");
         remoteDataSetDef.setQueryTarget("PROCESS");
         remoteDataSetDef.setServerTemplateId("server1");
+        remoteDataSetDef.setKeysetColumn("id");
         JsonObject json = new JsonObject(new JsonFactory());
         
         RemoteDefJSONMarshaller marhsaller = new RemoteDefJSONMarshaller();
@@ -66,5 +69,6 @@ public class RemoteDefJSONMarshallerTest {
         assertEquals("select * from test", json.getString(RemoteDefJSONMarshaller.DB_SQL));        
         assertEquals("PROCESS", json.getString(RemoteDefJSONMarshaller.QUERY_TARGET));     
         assertEquals("server1", json.getString(RemoteDefJSONMarshaller.SERVER_TEMPLATE_ID));
+        assertEquals("id", json.getString(RemoteDefJSONMarshaller.KEYSET_COLUMN));
     }
 }
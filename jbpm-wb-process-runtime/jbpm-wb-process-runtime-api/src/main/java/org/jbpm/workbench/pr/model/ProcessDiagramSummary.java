@@ -0,0 +1,74 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jbpm.workbench.pr.model;
+
+import org.jboss.errai.common.client.api.annotations.Portable;
+
+/**
+ * Process instance diagram together with the entity tag identifying its content. When the diagram did not change
+ * since the tag known by the caller only the tag is returned.
+ */
+@Portable
+public class ProcessDiagramSummary {
+
+    private String etag;
+    private String svgContent;
+    private boolean modified;
+
+    public ProcessDiagramSummary() {
+    }
+
+    public ProcessDiagramSummary(final String etag,
+                                 final String svgContent,
+                                 final boolean modified) {
+        this.etag = etag;
+        this.svgContent = svgContent;
+        this.modified = modified;
+    }
+
+    public String getEtag() {
+        return etag;
+    }
+
+    public void setEtag(String etag) {
+        this.etag = etag;
+    }
+
+    public String getSvgContent() {
+        return svgContent;
+    }
+
+    public void setSvgContent(String svgContent) {
+        this.svgContent = svgContent;
+    }
+
+    public boolean isModified() {
+        return modified;
+    }
+
+    public void setModified(boolean modified) {
+        this.modified = modified;
+    }
+
+    @Override
+    public String toString() {
+        return "ProcessDiagramSummary{" +
+                "etag='" + etag + '\'' +
+                ", modified=" + modified +
+                '}';
+    }
+}
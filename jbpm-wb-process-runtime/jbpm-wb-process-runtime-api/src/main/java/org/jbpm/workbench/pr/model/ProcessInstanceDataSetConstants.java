@@ -20,6 +20,7 @@ public final class ProcessInstanceDataSetConstants {
 
     public static final String PROCESS_INSTANCE_DATASET = "jbpmProcessInstances";
     public static final String PROCESS_INSTANCE_WITH_VARIABLES_DATASET = "jbpmProcessInstancesWithVariables";
+    public static final String PROCESS_VARIABLES_DATASET = "jbpmProcessVariables";
     public static final String COLUMN_PROCESS_INSTANCE_ID = "processInstanceId";
     public static final String COLUMN_PROCESS_ID = "processId";
     public static final String COLUMN_START = "start_date";
@@ -44,6 +45,8 @@ public final class ProcessInstanceDataSetConstants {
     public static final String VARIABLE_NAME = "variableId";
     public static final String VARIABLE_VALUE = "value";
     public static final String VARIABLE_ID = "id";
+    public static final String VARIABLE_OLD_VALUE = "oldValue";
+    public static final String VARIABLE_LAST_MODIFICATION = "log_date";
 
     private ProcessInstanceDataSetConstants() {
     }
@@ -17,6 +17,7 @@
 package org.jbpm.workbench.pr.service;
 
 import org.jboss.errai.bus.server.annotations.Remote;
+import org.jbpm.workbench.pr.model.ProcessDiagramSummary;
 
 @Remote
 public interface ProcessImageService {
@@ -25,6 +26,17 @@ public interface ProcessImageService {
                                      String containerId,
                                      Long processInstanceId);
 
+    /**
+     * Returns the process instance diagram unless its content still matches the given entity tag, in which case
+     * the returned summary carries the tag only.
+     * @param etag entity tag of the diagram already held by the caller, null if none
+     * @return the diagram summary or null if the diagram is not available
+     */
+    ProcessDiagramSummary getProcessInstanceDiagramIfModified(String serverTemplateId,
+                                                              String containerId,
+                                                              Long processInstanceId,
+                                                              String etag);
+
     String getProcessDiagram(String serverTemplateId,
                              String containerId,
                              String processId);
@@ -30,7 +30,8 @@ public class DataSetDefsBootstrap extends AbstractDataSetDefsBootstrap {
         if (event.getDefinition().getName().equals(PROCESS_INSTANCE_DATASET)) {
             registerDataSetDefinition(event.getDefinition(),
                                       builder ->
-                                              builder.number(COLUMN_PROCESS_INSTANCE_ID)
+                                              builder.keysetColumn(COLUMN_PROCESS_INSTANCE_ID)
+                                                      .number(COLUMN_PROCESS_INSTANCE_ID)
                                                       .label(COLUMN_PROCESS_ID)
                                                       .date(COLUMN_START)
                                                       .date(COLUMN_END)
@@ -58,6 +59,16 @@ public class DataSetDefsBootstrap extends AbstractDataSetDefsBootstrap {
                                                       .label(VARIABLE_NAME)
                                                       .label(VARIABLE_VALUE)
             );
+        } else if (event.getDefinition().getName().equals(PROCESS_VARIABLES_DATASET)) {
+            registerDataSetDefinition(event.getDefinition(),
+                                      builder ->
+                                              builder.number(PROCESS_INSTANCE_ID)
+                                                      .label(VARIABLE_NAME)
+                                                      .label(VARIABLE_VALUE)
+                                                      .label(VARIABLE_OLD_VALUE)
+                                                      .date(VARIABLE_LAST_MODIFICATION)
+                                                      .number(VARIABLE_ID)
+            );
         }
     }
 }
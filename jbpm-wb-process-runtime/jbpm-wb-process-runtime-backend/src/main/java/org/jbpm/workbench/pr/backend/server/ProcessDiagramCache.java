@@ -0,0 +1,147 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jbpm.workbench.pr.backend.server;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Observes;
+
+import org.jbpm.workbench.ks.integration.BoundedCache;
+import org.kie.server.controller.api.model.events.ServerInstanceConnected;
+import org.kie.server.controller.api.model.events.ServerTemplateDeleted;
+import org.kie.server.controller.api.model.events.ServerTemplateUpdated;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * {@link BoundedCache} of sanitized process definition diagrams keyed by server template, container and process,
+ * limited in number of diagrams and in total number of characters. Definition diagrams only change when a
+ * container is redeployed, which is reported by the controller as a server template update, or when a server
+ * instance connects, so all diagrams of the template are dropped then.
+ */
+@ApplicationScoped
+public class ProcessDiagramCache {
+
+    public static final String CACHE_MAX_SIZE = "org.jbpm.wb.process.diagram.cache.size";
+    public static final String CACHE_MAX_CHARS = "org.jbpm.wb.process.diagram.cache.chars";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ProcessDiagramCache.class);
+
+    private final BoundedCache<DiagramKey, String> diagrams;
+
+    public ProcessDiagramCache() {
+        this(Integer.getInteger(CACHE_MAX_SIZE,
+                                100),
+             Long.getLong(CACHE_MAX_CHARS,
+                          16 * 1024 * 1024L));
+    }
+
+    public ProcessDiagramCache(final int maxSize,
+                               final long maxChars) {
+        this.diagrams = new BoundedCache<>(maxSize,
+                                           Long.MAX_VALUE,
+                                           maxChars,
+                                           String::length);
+    }
+
+    public boolean isEnabled() {
+        return diagrams.isEnabled();
+    }
+
+    public String get(final String serverTemplateId,
+                      final String containerId,
+                      final String processId) {
+        return diagrams.get(new DiagramKey(serverTemplateId,
+                                           containerId,
+                                           processId));
+    }
+
+    public void put(final String serverTemplateId,
+                    final String containerId,
+                    final String processId,
+                    final String svg) {
+        if (svg == null) {
+            return;
+        }
+        diagrams.put(new DiagramKey(serverTemplateId,
+                                    containerId,
+                                    processId),
+                     svg);
+    }
+
+    public void invalidate(final String serverTemplateId) {
+        diagrams.removeIf((key, svg) -> key.serverTemplateId.equals(String.valueOf(serverTemplateId)));
+        LOGGER.debug("Process diagram cache invalidated for server template {}",
+                     serverTemplateId);
+    }
+
+    public int getSize() {
+        return diagrams.size();
+    }
+
+    public long getChars() {
+        return diagrams.getWeight();
+    }
+
+    public void onServerTemplateUpdated(@Observes ServerTemplateUpdated event) {
+        invalidate(event.getServerTemplate().getId());
+    }
+
+    public void onServerTemplateDeleted(@Observes ServerTemplateDeleted event) {
+        invalidate(event.getServerTemplateId());
+    }
+
+    public void onServerInstanceConnected(@Observes ServerInstanceConnected event) {
+        invalidate(event.getServerInstance().getServerTemplateId());
+    }
+
+    private static class DiagramKey {
+
+        private final String serverTemplateId;
+        private final String containerId;
+        private final String processId;
+
+        DiagramKey(final String serverTemplateId,
+                   final String containerId,
+                   final String processId) {
+            this.serverTemplateId = String.valueOf(serverTemplateId);
+            this.containerId = String.valueOf(containerId);
+            this.processId = String.valueOf(processId);
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof DiagramKey)) {
+                return false;
+            }
+            final DiagramKey other = (DiagramKey) o;
+            return serverTemplateId.equals(other.serverTemplateId)
+                    && containerId.equals(other.containerId)
+                    && processId.equals(other.processId);
+        }
+
+        @Override
+        public int hashCode() {
+            int hash = serverTemplateId.hashCode();
+            hash = 31 * hash + containerId.hashCode();
+            hash = 31 * hash + processId.hashCode();
+            return hash;
+        }
+    }
+}
@@ -15,8 +15,26 @@
  */
 package org.jbpm.workbench.pr.backend.server;
 
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.URLEncoder;
 import java.text.MessageFormat;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 import javax.inject.Inject;
 import javax.servlet.ServletException;
 import javax.servlet.annotation.WebServlet;
@@ -25,13 +43,22 @@ import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
 import org.jbpm.workbench.ks.integration.KieServerIntegration;
+import org.jbpm.workbench.ks.utils.KieServerUtils;
 import org.kie.server.api.model.instance.DocumentInstance;
+import org.kie.server.client.CredentialsProvider;
 import org.kie.server.client.DocumentServicesClient;
 import org.kie.server.client.KieServicesClient;
+import org.kie.server.client.impl.AbstractKieServicesClientImpl;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.uberfire.server.util.FileServletUtil;
 
+/**
+ * Downloads process documents from KIE Server. The document content is piped from the KIE Server response to the
+ * servlet output through a fixed size buffer, so documents are never held in memory as a whole. Range requests are
+ * forwarded to KIE Server and its partial responses passed through, so resuming a download doesn't read the skipped
+ * bytes. The number of concurrent downloads per server template is limited.
+ */
 @WebServlet(name = "ProcessDocumentServlet", urlPatterns = "/jbpm/documents")
 public class ProcessDocumentServlet extends HttpServlet {
 
@@ -40,11 +67,49 @@ public class ProcessDocumentServlet extends HttpServlet {
     public static final String INVALID_SERVICES_CLIENT = "Unable to retrieve services client with template id \"{0}\"";
     public static final String INVALID_DOCUMENT = "Unable to retrieve document with id \"{0}\"";
     public static final String INVALID_PARAMS = "Invalid parameters to servlet: templateid: \"{0}\", docid: \"{1}\"";
+    public static final String TOO_MANY_DOWNLOADS = "Too many concurrent document downloads for template id \"{0}\"";
+
+    public static final String MAX_DOWNLOADS = "org.jbpm.wb.document.download.max";
+    public static final String DOWNLOAD_WAIT = "org.jbpm.wb.document.download.wait";
+
+    protected static final String DOCUMENT_CONTENT_URI = "/documents/{0}/content";
+    protected static final int BUFFER_SIZE = 8192;
+    protected static final int TIMEOUT = 60000;
+
+    private static final long[] UNSATISFIABLE_RANGE = new long[0];
+
+    /**
+     * Conditional range request headers forwarded to KIE Server.
+     */
+    protected static final List<String> RANGE_REQUEST_HEADERS = Collections.unmodifiableList(Arrays.asList("Range",
+                                                                                                           "If-Range"));
+
+    /**
+     * Headers of a streamed KIE Server response passed through to the client.
+     */
+    protected static final List<String> STREAMED_RESPONSE_HEADERS = Collections.unmodifiableList(Arrays.asList("Accept-Ranges",
+                                                                                                               "Content-Range",
+                                                                                                               "ETag",
+                                                                                                               "Last-Modified"));
 
     @Inject
     private KieServerIntegration kieServerIntegration;
 
+    private final int maxDownloads;
+    private final long downloadWait;
+    private final ConcurrentMap<String, Semaphore> downloadPermits = new ConcurrentHashMap<>();
+
     public ProcessDocumentServlet() {
+        this(Integer.getInteger(MAX_DOWNLOADS,
+                                4),
+             Long.getLong(DOWNLOAD_WAIT,
+                          30000L));
+    }
+
+    public ProcessDocumentServlet(final int maxDownloads,
+                                  final long downloadWait) {
+        this.maxDownloads = maxDownloads;
+        this.downloadWait = downloadWait;
     }
 
     protected void doGet(HttpServletRequest request,
@@ -62,17 +127,30 @@ public class ProcessDocumentServlet extends HttpServlet {
 
             KieServicesClient kieServicesClient = kieServerIntegration.getServerClient(templateId);
             if (kieServicesClient != null) {
-                DocumentServicesClient documentServicesClient = kieServicesClient.getServicesClient(DocumentServicesClient.class);
-                DocumentInstance documentInstance = documentServicesClient.getDocument(docId);
-
-                if (documentInstance != null) {
-                    response.setContentType("application/octet-stream");
-                    response.setHeader("Content-Disposition",
-                                       "attachment; filename=\"" + documentInstance.getName() + "\"");
-                    response.getOutputStream().write(documentInstance.getContent());
-                } else {
-                    logger.error(MessageFormat.format(INVALID_DOCUMENT,
-                                                      docId));
+                final Semaphore permits = getDownloadPermits(templateId);
+                if (!permits.tryAcquire(downloadWait,
+                                        TimeUnit.MILLISECONDS)) {
+                    logger.warn(MessageFormat.format(TOO_MANY_DOWNLOADS,
+                                                     templateId));
+                    response.setHeader("Retry-After",
+                                       String.valueOf(Math.max(1,
+                                                               TimeUnit.MILLISECONDS.toSeconds(downloadWait))));
+                    response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+                    return;
+                }
+                try (DocumentContent documentContent = openDocument(kieServicesClient,
+                                                                    docId,
+                                                                    request)) {
+                    if (documentContent != null) {
+                        writeDocument(request,
+                                      response,
+                                      documentContent);
+                    } else {
+                        logger.error(MessageFormat.format(INVALID_DOCUMENT,
+                                                          docId));
+                    }
+                } finally {
+                    permits.release();
                 }
             } else {
                 logger.error(MessageFormat.format(INVALID_SERVICES_CLIENT,
@@ -86,8 +164,391 @@ public class ProcessDocumentServlet extends HttpServlet {
         }
     }
 
+    protected Semaphore getDownloadPermits(final String templateId) {
+        return downloadPermits.computeIfAbsent(templateId,
+                                               id -> new Semaphore(maxDownloads,
+                                                                   true));
+    }
+
+    /**
+     * Opens the document content, streamed from KIE Server when possible, otherwise read through the document
+     * services client. The latter is only used when streaming isn't supported, a missing document or a failing
+     * KIE Server is not requested a second time.
+     * @return the document content or null if the document does not exist
+     */
+    protected DocumentContent openDocument(final KieServicesClient kieServicesClient,
+                                           final String docId,
+                                           final HttpServletRequest request) throws IOException {
+        try {
+            final DocumentContent streamedContent = openDocumentStream(kieServicesClient,
+                                                                       docId,
+                                                                       request);
+            if (streamedContent != null) {
+                return streamedContent;
+            }
+        } catch (FileNotFoundException e) {
+            return null;
+        }
+
+        DocumentServicesClient documentServicesClient = kieServicesClient.getServicesClient(DocumentServicesClient.class);
+        DocumentInstance documentInstance = documentServicesClient.getDocument(docId);
+        if (documentInstance == null) {
+            return null;
+        }
+        final byte[] content = documentInstance.getContent() == null ? new byte[0] : documentInstance.getContent();
+        return new DocumentContent(documentInstance.getName(),
+                                   content.length,
+                                   new ByteArrayInputStream(content));
+    }
+
+    /**
+     * Requests the raw document content from the KIE Server endpoint currently used by the client, forwarding the
+     * range headers of the request.
+     * @return the document content or null if KIE Server can't stream it, e.g. the client is not a REST client or the
+     * server doesn't provide the content endpoint
+     * @throws FileNotFoundException if the document does not exist
+     * @throws IOException if KIE Server fails or doesn't respond in time
+     */
+    protected DocumentContent openDocumentStream(final KieServicesClient kieServicesClient,
+                                                 final String docId,
+                                                 final HttpServletRequest request) throws IOException {
+        final String endpoint = getEndpoint(kieServicesClient);
+        if (endpoint == null) {
+            return null;
+        }
+        final HttpURLConnection connection = openConnection(endpoint + MessageFormat.format(DOCUMENT_CONTENT_URI,
+                                                                                            encodePathSegment(docId)));
+        try {
+            connection.setConnectTimeout(TIMEOUT);
+            connection.setReadTimeout(TIMEOUT);
+            connection.setRequestProperty("Accept",
+                                          "application/octet-stream");
+            for (String header : RANGE_REQUEST_HEADERS) {
+                final String value = request.getHeader(header);
+                if (value != null) {
+                    connection.setRequestProperty(header,
+                                                  value);
+                }
+            }
+            final CredentialsProvider credentialsProvider = getCredentialsProvider();
+            final String authorization = credentialsProvider.getAuthorization();
+            if (authorization != null) {
+                connection.setRequestProperty(credentialsProvider.getHeaderName(),
+                                              authorization);
+            }
+
+            final int status = connection.getResponseCode();
+            switch (status) {
+                case HttpURLConnection.HTTP_OK:
+                case HttpServletResponse.SC_PARTIAL_CONTENT:
+                    return new DocumentContent(getFileName(connection.getHeaderField("Content-Disposition"),
+                                                           docId),
+                                               status,
+                                               connection.getContentLengthLong(),
+                                               getStreamedResponseHeaders(connection),
+                                               connection.getInputStream());
+                case HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE:
+                    final Map<String, String> headers = getStreamedResponseHeaders(connection);
+                    connection.disconnect();
+                    return new DocumentContent(docId,
+                                               status,
+                                               -1,
+                                               headers,
+                                               new ByteArrayInputStream(new byte[0]));
+                case HttpURLConnection.HTTP_NOT_FOUND:
+                    connection.disconnect();
+                    throw new FileNotFoundException(docId);
+                case HttpURLConnection.HTTP_BAD_METHOD:
+                case HttpURLConnection.HTTP_NOT_ACCEPTABLE:
+                case HttpURLConnection.HTTP_NOT_IMPLEMENTED:
+                    logger.debug("Document {} content not streamed, KIE Server responded with {}",
+                                 docId,
+                                 status);
+                    connection.disconnect();
+                    return null;
+                default:
+                    connection.disconnect();
+                    throw new IOException("KIE Server responded with " + status + " to document " + docId + " request");
+            }
+        } catch (IOException | RuntimeException e) {
+            connection.disconnect();
+            throw e;
+        }
+    }
+
+    /**
+     * @return URL of the KIE Server endpoint used by the client, null if it is not a REST client
+     */
+    protected String getEndpoint(final KieServicesClient kieServicesClient) {
+        if (!(kieServicesClient instanceof AbstractKieServicesClientImpl)) {
+            return null;
+        }
+        return ((AbstractKieServicesClientImpl) kieServicesClient).getLoadBalancer().getUrl();
+    }
+
+    protected CredentialsProvider getCredentialsProvider() {
+        return KieServerUtils.getCredentialsProvider();
+    }
+
+    protected HttpURLConnection openConnection(final String url) throws IOException {
+        return (HttpURLConnection) new URL(url).openConnection();
+    }
+
+    protected static Map<String, String> getStreamedResponseHeaders(final HttpURLConnection connection) {
+        final Map<String, String> headers = new LinkedHashMap<>();
+        for (String header : STREAMED_RESPONSE_HEADERS) {
+            final String value = connection.getHeaderField(header);
+            if (value != null) {
+                headers.put(header,
+                            value);
+            }
+        }
+        return headers;
+    }
+
+    protected void writeDocument(final HttpServletRequest request,
+                                 final HttpServletResponse response,
+                                 final DocumentContent documentContent) throws IOException {
+        response.setContentType("application/octet-stream");
+        response.setHeader("Content-Disposition",
+                           "attachment; filename=\"" + documentContent.getName() + "\"");
+
+        if (documentContent.isStreamed()) {
+            // KIE Server already applied the range, if it supports ranges at all
+            documentContent.getHeaders().forEach(response::setHeader);
+            if (documentContent.getStatus() != HttpServletResponse.SC_OK) {
+                response.setStatus(documentContent.getStatus());
+            }
+            if (documentContent.getLength() >= 0) {
+                response.setContentLengthLong(documentContent.getLength());
+            }
+            if (documentContent.getStatus() != HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE) {
+                copy(documentContent.getInputStream(),
+                     response.getOutputStream(),
+                     0,
+                     documentContent.getLength());
+            }
+            return;
+        }
+
+        final long length = documentContent.getLength();
+        long start = 0;
+        long count = -1;
+        if (length >= 0) {
+            response.setHeader("Accept-Ranges",
+                               "bytes");
+            count = length;
+            final String range = request.getHeader("Range");
+            // without validators to compare, a conditional range request always gets the whole document
+            if (range != null && request.getHeader("If-Range") == null) {
+                final long[] bounds = parseRange(range,
+                                                 length);
+                if (bounds == UNSATISFIABLE_RANGE) {
+                    response.setHeader("Content-Range",
+                                       "bytes */" + length);
+                    response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                    return;
+                } else if (bounds != null) {
+                    start = bounds[0];
+                    count = bounds[1] - bounds[0] + 1;
+                    response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                    response.setHeader("Content-Range",
+                                       "bytes " + bounds[0] + "-" + bounds[1] + "/" + length);
+                }
+            }
+            response.setContentLengthLong(count);
+        }
+
+        copy(documentContent.getInputStream(),
+             response.getOutputStream(),
+             start,
+             count);
+    }
+
+    /**
+     * Parses a single byte range of a <code>Range</code> header.
+     * @return first and last byte positions, {@link #UNSATISFIABLE_RANGE} if the range lies outside the document
+     * or null if the header is malformed or asks for several ranges, in which case the whole document is sent
+     */
+    protected static long[] parseRange(final String range,
+                                       final long length) {
+        final String unit = "bytes=";
+        if (!range.startsWith(unit) || range.indexOf(',') >= 0) {
+            return null;
+        }
+        final String spec = range.substring(unit.length()).trim();
+        final int dash = spec.indexOf('-');
+        if (dash < 0) {
+            return null;
+        }
+        try {
+            if (dash == 0) {
+                final long suffix = Long.parseLong(spec.substring(1));
+                if (suffix <= 0 || length == 0) {
+                    return UNSATISFIABLE_RANGE;
+                }
+                return new long[]{Math.max(0,
+                                           length - suffix), length - 1};
+            }
+            final long first = Long.parseLong(spec.substring(0,
+                                                             dash));
+            final String lastSpec = spec.substring(dash + 1);
+            final long last = lastSpec.isEmpty() ? length - 1 : Long.parseLong(lastSpec);
+            if (first < 0 || last < first) {
+                return null;
+            }
+            if (first >= length) {
+                return UNSATISFIABLE_RANGE;
+            }
+            return new long[]{first, Math.min(last,
+                                               length - 1)};
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Copies count bytes, or everything if count is negative, starting at the given offset of the input.
+     */
+    protected static void copy(final InputStream input,
+                               final OutputStream output,
+                               final long offset,
+                               final long count) throws IOException {
+        final byte[] buffer = new byte[BUFFER_SIZE];
+        long toSkip = offset;
+        while (toSkip > 0) {
+            final long skipped = input.skip(toSkip);
+            if (skipped > 0) {
+                toSkip -= skipped;
+            } else if (input.read() >= 0) {
+                toSkip--;
+            } else {
+                return;
+            }
+        }
+        long remaining = count < 0 ? Long.MAX_VALUE : count;
+        while (remaining > 0) {
+            final int read = input.read(buffer,
+                                        0,
+                                        (int) Math.min(buffer.length,
+                                                       remaining));
+            if (read < 0) {
+                break;
+            }
+            output.write(buffer,
+                         0,
+                         read);
+            remaining -= read;
+        }
+        output.flush();
+    }
+
+    /**
+     * Percent-encodes a value so it can be used as a single segment of a URL path.
+     */
+    protected static String encodePathSegment(final String value) throws UnsupportedEncodingException {
+        return URLEncoder.encode(value,
+                                 "UTF-8").replace("+",
+                                                  "%20");
+    }
+
+    protected static String getFileName(final String contentDisposition,
+                                        final String defaultName) {
+        if (contentDisposition == null) {
+            return defaultName;
+        }
+        final int index = contentDisposition.indexOf("filename=");
+        if (index < 0) {
+            return defaultName;
+        }
+        String fileName = contentDisposition.substring(index + "filename=".length());
+        final int separator = fileName.indexOf(';');
+        if (separator >= 0) {
+            fileName = fileName.substring(0,
+                                          separator);
+        }
+        fileName = fileName.trim();
+        if (fileName.length() > 1 && fileName.startsWith("\"") && fileName.endsWith("\"")) {
+            fileName = fileName.substring(1,
+                                          fileName.length() - 1);
+        }
+        return fileName.isEmpty() ? defaultName : fileName;
+    }
+
     // for testing
     public void setKieServerIntegration(KieServerIntegration kieServerIntegration) {
         this.kieServerIntegration = kieServerIntegration;
     }
+
+    protected static class DocumentContent implements Closeable {
+
+        private final String name;
+        private final int status;
+        private final long length;
+        private final Map<String, String> headers;
+        private final InputStream inputStream;
+
+        /**
+         * Complete document content read into memory, ranges are applied when it's written.
+         */
+        public DocumentContent(final String name,
+                               final long length,
+                               final InputStream inputStream) {
+            this(name,
+                 -1,
+                 length,
+                 Collections.emptyMap(),
+                 inputStream);
+        }
+
+        /**
+         * Document content streamed from KIE Server, with the status and headers of its response.
+         */
+        public DocumentContent(final String name,
+                               final int status,
+                               final long length,
+                               final Map<String, String> headers,
+                               final InputStream inputStream) {
+            this.name = name;
+            this.status = status;
+            this.length = length;
+            this.headers = headers;
+            this.inputStream = inputStream;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public boolean isStreamed() {
+            return status > 0;
+        }
+
+        /**
+         * @return status of the KIE Server response the content is streamed from, -1 if the content is in memory
+         */
+        public int getStatus() {
+            return status;
+        }
+
+        public Map<String, String> getHeaders() {
+            return headers;
+        }
+
+        /**
+         * @return content length in bytes, -1 if unknown
+         */
+        public long getLength() {
+            return length;
+        }
+
+        public InputStream getInputStream() {
+            return inputStream;
+        }
+
+        @Override
+        public void close() throws IOException {
+            inputStream.close();
+        }
+    }
 }
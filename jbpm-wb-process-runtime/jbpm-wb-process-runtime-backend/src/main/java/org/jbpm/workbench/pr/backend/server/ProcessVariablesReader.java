@@ -0,0 +1,146 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jbpm.workbench.pr.backend.server;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+
+import org.jbpm.workbench.common.model.QueryFilter;
+import org.jbpm.workbench.ks.integration.AbstractKieServerService;
+import org.jbpm.workbench.ks.integration.ProcessDefinitionCache;
+import org.jbpm.workbench.pr.backend.server.model.VariableHelper;
+import org.jbpm.workbench.pr.model.ProcessInstanceKey;
+import org.jbpm.workbench.pr.model.ProcessVariableSummary;
+import org.kie.server.api.exception.KieServicesHttpException;
+import org.kie.server.api.model.definition.VariablesDefinition;
+import org.kie.server.api.model.instance.VariableInstance;
+import org.kie.server.client.ProcessServicesClient;
+import org.kie.server.client.QueryServicesClient;
+
+/**
+ * Reads all current variables of a process instance through the {@link ProcessVariablesSnapshotCache}, so the
+ * process variables and the process documents services share the same snapshot of an instance.
+ */
+@ApplicationScoped
+public class ProcessVariablesReader extends AbstractKieServerService {
+
+    // variables holding a value first, then the declared ones without any value, both ordered by name
+    protected static final Comparator<ProcessVariableSummary> VARIABLES_ORDER = Comparator.comparing((ProcessVariableSummary variable) -> variable.getVariableInstanceId() == null || variable.getVariableInstanceId().isEmpty())
+            .thenComparing(ProcessVariableSummary::getVariableId);
+
+    @Inject
+    protected ProcessVariablesSnapshotCache snapshotCache;
+
+    @Inject
+    protected ProcessDefinitionCache definitionCache;
+
+    /**
+     * Returns the current variables of the process instance whose name contains the text search of the filter,
+     * ignoring case.
+     */
+    public List<ProcessVariableSummary> getProcessVariables(QueryFilter filter) {
+        List<ProcessVariableSummary> processVariables = getProcessVariablesSnapshot(filter);
+
+        List<ProcessVariableSummary> processVariablesSums = new ArrayList<ProcessVariableSummary>(processVariables.size());
+        for (ProcessVariableSummary pv : processVariables) {
+
+            if (filter.getParams().get("textSearch") == null || ((String) filter.getParams().get("textSearch")).isEmpty()) {
+                processVariablesSums.add(pv);
+            } else if (pv.getVariableId().toLowerCase().contains(((String) filter.getParams().get("textSearch")).toLowerCase())) {
+                processVariablesSums.add(pv);
+            }
+        }
+        return processVariablesSums;
+    }
+
+    /**
+     * Returns all current variables of the process instance identified by the filter parameters, reusing a recent
+     * snapshot when available. The variables are in the same order as the pages read from KIE Server.
+     */
+    public List<ProcessVariableSummary> getProcessVariablesSnapshot(QueryFilter filter) {
+        Long processInstanceId = null;
+        String processId = "";
+        String deploymentId = "";
+        String serverTemplateId = "";
+        if (filter.getParams() != null) {
+            processInstanceId = Long.valueOf((String) filter.getParams().get("processInstanceId"));
+            processId = (String) filter.getParams().get("processDefId");
+            deploymentId = (String) filter.getParams().get("deploymentId");
+            serverTemplateId = (String) filter.getParams().get("serverTemplateId");
+        }
+
+        final ProcessInstanceKey key = new ProcessInstanceKey(serverTemplateId,
+                                                              deploymentId,
+                                                              processInstanceId);
+        final List<ProcessVariableSummary> snapshot = snapshotCache.get(key);
+        if (snapshot != null) {
+            return snapshot;
+        }
+
+        Map<String, String> properties = getProcessVariableDefinitions(serverTemplateId,
+                                                                       deploymentId,
+                                                                       processId);
+        QueryServicesClient queryServicesClient = getClient(serverTemplateId,
+                                                            QueryServicesClient.class);
+
+        List<VariableInstance> variables = queryServicesClient.findVariablesCurrentState(processInstanceId);
+
+        Collection<ProcessVariableSummary> processVariables = VariableHelper.adaptCollection(variables,
+                                                                                             properties,
+                                                                                             processInstanceId,
+                                                                                             deploymentId,
+                                                                                             serverTemplateId);
+        final List<ProcessVariableSummary> sortedVariables = new ArrayList<>(processVariables);
+        sortedVariables.sort(VARIABLES_ORDER);
+        final List<ProcessVariableSummary> processVariablesSnapshot = Collections.unmodifiableList(sortedVariables);
+        snapshotCache.put(key,
+                          processVariablesSnapshot);
+        return processVariablesSnapshot;
+    }
+
+    /**
+     * Returns the variables declared by the process definition and their types, empty if they can't be retrieved.
+     */
+    public Map<String, String> getProcessVariableDefinitions(String serverTemplateId,
+                                                                String deploymentId,
+                                                                String processId) {
+        Map<String, String> properties = new HashMap<String, String>();
+        try {
+            //try to add all the process definitions available variables if it is available
+            properties.putAll(definitionCache.getProcessVariableDefinitions(serverTemplateId,
+                                                                            deploymentId,
+                                                                            processId,
+                                                                            () -> {
+                                                                                ProcessServicesClient processClient = getClient(serverTemplateId,
+                                                                                                                                ProcessServicesClient.class);
+                                                                                VariablesDefinition vars = processClient.getProcessVariableDefinitions(deploymentId,
+                                                                                                                                                       processId);
+                                                                                return vars.getVariables();
+                                                                            }));
+        } catch (KieServicesHttpException kieException) {
+            // It that vars can not be retrieve only the ones with associated value will be returned
+        }
+        return properties;
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jbpm.workbench.pr.backend.server;
+
+import java.util.Collections;
+import java.util.List;
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Observes;
+
+import org.jbpm.workbench.ks.integration.BoundedCache;
+import org.jbpm.workbench.pr.model.ProcessInstanceKey;
+import org.jbpm.workbench.pr.model.ProcessVariableSummary;
+import org.kie.server.controller.api.model.events.ServerTemplateDeleted;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Short lived snapshots of the current variables of process instances. Paging through the variables or the
+ * documents of an instance reads the snapshot instead of fetching every variable again. Snapshots are kept in a
+ * {@link BoundedCache} with a short time to live, so changes made outside of the workbench show up quickly.
+ */
+@ApplicationScoped
+public class ProcessVariablesSnapshotCache {
+
+    public static final String CACHE_TTL = "org.jbpm.wb.process.variables.snapshot.ttl";
+    public static final String CACHE_MAX_SIZE = "org.jbpm.wb.process.variables.snapshot.size";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ProcessVariablesSnapshotCache.class);
+
+    private final BoundedCache<ProcessInstanceKey, List<ProcessVariableSummary>> snapshots;
+
+    public ProcessVariablesSnapshotCache() {
+        this(Long.getLong(CACHE_TTL,
+                          10000L),
+             Integer.getInteger(CACHE_MAX_SIZE,
+                                200));
+    }
+
+    public ProcessVariablesSnapshotCache(final long timeToLive,
+                                         final int maxSize) {
+        this.snapshots = new BoundedCache<>(maxSize,
+                                            timeToLive);
+    }
+
+    public boolean isEnabled() {
+        return snapshots.isEnabled();
+    }
+
+    /**
+     * @return the variables of the process instance or null if there is no valid snapshot
+     */
+    public List<ProcessVariableSummary> get(final ProcessInstanceKey key) {
+        return snapshots.get(key);
+    }
+
+    public void put(final ProcessInstanceKey key,
+                    final List<ProcessVariableSummary> variables) {
+        snapshots.put(key,
+                      Collections.unmodifiableList(variables));
+    }
+
+    public void invalidate(final ProcessInstanceKey key) {
+        snapshots.remove(key);
+    }
+
+    public void invalidate(final String serverTemplateId) {
+        snapshots.removeIf((key, variables) -> key.getServerTemplateId() != null && key.getServerTemplateId().equals(serverTemplateId));
+        LOGGER.debug("Process variable snapshots invalidated for server template {}",
+                     serverTemplateId);
+    }
+
+    public int getSize() {
+        return snapshots.size();
+    }
+
+    public void onServerTemplateDeleted(@Observes ServerTemplateDeleted event) {
+        invalidate(event.getServerTemplateId());
+    }
+}
@@ -31,7 +31,6 @@ import org.jbpm.workbench.common.model.QueryFilter;
 import org.jbpm.workbench.pr.model.DocumentSummary;
 import org.jbpm.workbench.pr.model.ProcessVariableSummary;
 import org.jbpm.workbench.pr.service.ProcessDocumentsService;
-import org.jbpm.workbench.pr.service.ProcessVariablesService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.uberfire.paging.PageResponse;
@@ -44,7 +43,7 @@ public class RemoteProcessDocumentsServiceImpl implements ProcessDocumentsServic
     protected static final String JBPM_DOCUMENT = "org.jbpm.document.Document";
 
     @Inject
-    private ProcessVariablesService processVariablesService;
+    private ProcessVariablesReader variablesReader;
 
     @Override
     public PageResponse<DocumentSummary> getData(QueryFilter filter) {
@@ -76,7 +75,8 @@ public class RemoteProcessDocumentsServiceImpl implements ProcessDocumentsServic
 
         String serverTemplateId = (String) filter.getParams().get("serverTemplateId");
 
-        Collection<ProcessVariableSummary> processVariables = processVariablesService.getData(filter).getPageRowList();
+        // the filter pages documents, so documents are looked up among all variables of the instance
+        Collection<ProcessVariableSummary> processVariables = variablesReader.getProcessVariables(filter);
         SimpleDateFormat sdf = new SimpleDateFormat(Document.DOCUMENT_DATE_PATTERN);
         List<DocumentSummary> documents = new ArrayList<DocumentSummary>();
         for (ProcessVariableSummary pv : processVariables) {
@@ -16,12 +16,29 @@
 
 package org.jbpm.workbench.pr.backend.server;
 
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
 import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
 
 import org.jboss.errai.bus.server.annotations.Service;
 import org.jbpm.workbench.ks.integration.AbstractKieServerService;
+import org.jbpm.workbench.pr.model.ProcessDiagramSummary;
 import org.jbpm.workbench.pr.service.ProcessImageService;
 import org.kie.server.api.exception.KieServicesHttpException;
+import org.kie.server.api.model.KieContainerResource;
+import org.kie.server.api.model.ReleaseId;
+import org.kie.server.api.model.ServiceResponse;
+import org.kie.server.api.model.instance.NodeInstance;
+import org.kie.server.api.model.instance.ProcessInstance;
+import org.kie.server.client.KieServicesClient;
+import org.kie.server.client.QueryServicesClient;
 import org.kie.server.client.UIServicesClient;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -32,6 +49,100 @@ public class RemoteProcessImageServiceImpl extends AbstractKieServerService impl
 
     private static final Logger LOGGER = LoggerFactory.getLogger(RemoteProcessImageServiceImpl.class);
 
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    @Inject
+    protected ProcessDiagramCache diagramCache;
+
+    @Override
+    public ProcessDiagramSummary getProcessInstanceDiagramIfModified(final String serverTemplateId,
+                                                                     final String containerId,
+                                                                     final Long processInstanceId,
+                                                                     final String etag) {
+        final String currentETag = computeInstanceETag(serverTemplateId,
+                                                       containerId,
+                                                       processInstanceId);
+        if (currentETag == null) {
+            return null;
+        }
+        if (currentETag.equals(etag)) {
+            return new ProcessDiagramSummary(currentETag,
+                                             null,
+                                             false);
+        }
+        final String svg = getProcessInstanceDiagram(serverTemplateId,
+                                                     containerId,
+                                                     processInstanceId);
+        if (svg == null) {
+            return null;
+        }
+        return new ProcessDiagramSummary(currentETag,
+                                         svg,
+                                         true);
+    }
+
+    /**
+     * Tags the instance diagram by what it is rendered from: the container release, the instance state and the
+     * active and completed node instances. Reading these is much cheaper than rendering the SVG, which is then
+     * only fetched once they change. Returns <code>null</code> if the process instance is not found.
+     */
+    protected String computeInstanceETag(final String serverTemplateId,
+                                         final String containerId,
+                                         final Long processInstanceId) {
+        final KieServicesClient client = getKieServicesClient(serverTemplateId,
+                                                              containerId);
+        final QueryServicesClient queryServicesClient = client.getServicesClient(QueryServicesClient.class);
+
+        final StringBuilder state = new StringBuilder();
+        try {
+            final ProcessInstance processInstance = queryServicesClient.findProcessInstanceById(processInstanceId);
+            state.append(processInstance.getState());
+            state.append('|').append(getContainerRelease(client,
+                                                         containerId));
+            appendNodeInstanceIds(state.append("|a:"),
+                                  queryServicesClient.findActiveNodeInstances(processInstanceId,
+                                                                              0,
+                                                                              Integer.MAX_VALUE));
+            appendNodeInstanceIds(state.append("|c:"),
+                                  queryServicesClient.findCompletedNodeInstances(processInstanceId,
+                                                                                 0,
+                                                                                 Integer.MAX_VALUE));
+        } catch (KieServicesHttpException ex) {
+            LOGGER.warn("Failed to retrieve process instance state: {}",
+                        ex.getMessage());
+            if (ex.getHttpCode() == 404) {
+                return null;
+            } else {
+                throw ex;
+            }
+        }
+        return computeETag(state.toString());
+    }
+
+    protected String getContainerRelease(final KieServicesClient client,
+                                         final String containerId) {
+        final ServiceResponse<KieContainerResource> response = client.getContainerInfo(containerId);
+        final KieContainerResource container = response == null ? null : response.getResult();
+        if (container == null) {
+            return containerId;
+        }
+        final ReleaseId releaseId = container.getResolvedReleaseId() != null ? container.getResolvedReleaseId() : container.getReleaseId();
+        if (releaseId == null) {
+            return containerId;
+        }
+        return releaseId.getGroupId() + ":" + releaseId.getArtifactId() + ":" + releaseId.getVersion();
+    }
+
+    private static void appendNodeInstanceIds(final StringBuilder state,
+                                              final List<NodeInstance> nodeInstances) {
+        if (nodeInstances == null) {
+            return;
+        }
+        for (NodeInstance nodeInstance : nodeInstances) {
+            state.append(nodeInstance.getId()).append(',');
+        }
+    }
+
     @Override
     public String getProcessInstanceDiagram(String serverTemplateId,
                                             String containerId,
@@ -58,13 +169,25 @@ public class RemoteProcessImageServiceImpl extends AbstractKieServerService impl
     public String getProcessDiagram(String serverTemplateId,
                                     String containerId,
                                     String processId) {
+        final String cached = diagramCache.get(serverTemplateId,
+                                               containerId,
+                                               processId);
+        if (cached != null) {
+            return cached;
+        }
+
         UIServicesClient uiServicesClient = getClient(serverTemplateId,
                                                       containerId,
                                                       UIServicesClient.class);
 
         try {
-            return removeActionsFromSVG(uiServicesClient.getProcessImage(containerId,
-                                                                         processId));
+            final String svg = removeActionsFromSVG(uiServicesClient.getProcessImage(containerId,
+                                                                                     processId));
+            diagramCache.put(serverTemplateId,
+                             containerId,
+                             processId,
+                             svg);
+            return svg;
         } catch (KieServicesHttpException ex) {
             LOGGER.warn("Failed to retrieve process definition image: {}",
                         ex.getMessage());
@@ -81,7 +204,28 @@ public class RemoteProcessImageServiceImpl extends AbstractKieServerService impl
             return null;
         }
 
-        return originalHTML.replaceAll("onclick=\".*?\"|onmouseover=\".*?\"",
-                                       "");
+        final StringWriter sanitized = new StringWriter(originalHTML.length());
+        try (Writer writer = new SVGActionsFilterWriter(sanitized)) {
+            writer.write(originalHTML);
+        } catch (IOException e) {
+            // not expected when writing to memory
+            throw new UncheckedIOException(e);
+        }
+        return sanitized.toString();
+    }
+
+    protected String computeETag(final String content) {
+        try {
+            final byte[] digest = MessageDigest.getInstance("SHA-1").digest(content.getBytes(StandardCharsets.UTF_8));
+            final char[] hex = new char[digest.length * 2];
+            for (int i = 0; i < digest.length; i++) {
+                hex[i * 2] = HEX_DIGITS[(digest[i] >> 4) & 0xf];
+                hex[i * 2 + 1] = HEX_DIGITS[digest[i] & 0xf];
+            }
+            return new String(hex);
+        } catch (NoSuchAlgorithmException e) {
+            // SHA-1 is available on every Java platform, fall back to a weaker but stable tag anyway
+            return content.length() + "-" + Integer.toHexString(content.hashCode());
+        }
     }
 }
\ No newline at end of file
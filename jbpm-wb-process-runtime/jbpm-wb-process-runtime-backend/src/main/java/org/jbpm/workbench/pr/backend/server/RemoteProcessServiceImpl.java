@@ -16,14 +16,17 @@
 
 package org.jbpm.workbench.pr.backend.server;
 
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
 
 import org.jboss.errai.bus.server.annotations.Service;
 import org.jbpm.workbench.ks.integration.AbstractKieServerService;
+import org.jbpm.workbench.ks.integration.KieServerBulkExecutor;
+import org.jbpm.workbench.ks.integration.KieServerDataSetCache;
 import org.jbpm.workbench.pr.backend.server.model.RemoteCorrelationKey;
+import org.jbpm.workbench.pr.model.ProcessInstanceKey;
 import org.jbpm.workbench.pr.service.ProcessService;
 import org.kie.internal.process.CorrelationKey;
 import org.kie.server.client.ProcessServicesClient;
@@ -32,6 +35,15 @@ import org.kie.server.client.ProcessServicesClient;
 @ApplicationScoped
 public class RemoteProcessServiceImpl extends AbstractKieServerService implements ProcessService {
 
+    @Inject
+    protected ProcessVariablesSnapshotCache variablesSnapshotCache;
+
+    @Inject
+    protected KieServerBulkExecutor bulkExecutor;
+
+    @Inject
+    protected KieServerDataSetCache dataSetCache;
+
     @Override
     public void abortProcessInstance(String serverTemplateId,
                                      String containerId,
@@ -42,27 +54,23 @@ public class RemoteProcessServiceImpl extends AbstractKieServerService implement
 
         client.abortProcessInstance(containerId,
                                     processInstanceId);
+        dataSetCache.invalidate(serverTemplateId);
     }
 
     @Override
     public void abortProcessInstances(String serverTemplateId,
                                       List<String> containers,
                                       List<Long> processInstanceId) {
-        if (new HashSet<String>(containers).size() == 1) {
-            ProcessServicesClient client = getClient(serverTemplateId,
-                                                     containers.get(0),
-                                                     ProcessServicesClient.class);
-            client.abortProcessInstances(containers.get(0),
-                                         processInstanceId);
-        } else {
-            for (int i = 0; i < processInstanceId.size(); i++) {
-                ProcessServicesClient client = getClient(serverTemplateId,
-                                                         containers.get(i),
-                                                         ProcessServicesClient.class);
-                client.abortProcessInstance(containers.get(i),
-                                            processInstanceId.get(i));
-            }
-        }
+        final Map<Long, Throwable> failures = bulkExecutor.execute(containers,
+                                                                   processInstanceId,
+                                                                   (containerId, batch) -> getClient(serverTemplateId,
+                                                                                                     containerId,
+                                                                                                     ProcessServicesClient.class).abortProcessInstances(containerId,
+                                                                                                                                                        batch),
+                                                                   null);
+        dataSetCache.invalidate(serverTemplateId);
+        checkBulkOperationFailures("abort",
+                                   failures);
     }
 
     @Override
@@ -75,19 +83,22 @@ public class RemoteProcessServiceImpl extends AbstractKieServerService implement
                                                  containerId,
                                                  ProcessServicesClient.class);
 
+        final Long processInstanceId;
         if (correlationKey != null && !correlationKey.isEmpty()) {
 
             CorrelationKey actualCorrelationKey = new RemoteCorrelationKey(correlationKey);
 
-            return client.startProcess(containerId,
-                                       processId,
-                                       actualCorrelationKey,
-                                       params);
+            processInstanceId = client.startProcess(containerId,
+                                                    processId,
+                                                    actualCorrelationKey,
+                                                    params);
+        } else {
+            processInstanceId = client.startProcess(containerId,
+                                                    processId,
+                                                    params);
         }
-
-        return client.startProcess(containerId,
-                                   processId,
-                                   params);
+        dataSetCache.invalidate(serverTemplateId);
+        return processInstanceId;
     }
 
     @Override
@@ -116,6 +127,7 @@ public class RemoteProcessServiceImpl extends AbstractKieServerService implement
                                      processInstanceId,
                                      signal,
                                      event);
+        dataSetCache.invalidate(serverTemplateId);
     }
 
     @Override
@@ -124,24 +136,26 @@ public class RemoteProcessServiceImpl extends AbstractKieServerService implement
                                        List<Long> processInstanceId,
                                        String signal,
                                        Object event) {
-        if (new HashSet<String>(containers).size() == 1) {
-            ProcessServicesClient client = getClient(serverTemplateId,
-                                                     containers.get(0),
-                                                     ProcessServicesClient.class);
-            client.signalProcessInstances(containers.get(0),
-                                          processInstanceId,
-                                          signal,
-                                          event);
-        } else {
-            for (int i = 0; i < processInstanceId.size(); i++) {
-                ProcessServicesClient client = getClient(serverTemplateId,
-                                                         containers.get(i),
-                                                         ProcessServicesClient.class);
-                client.signalProcessInstance(containers.get(i),
-                                             processInstanceId.get(i),
-                                             signal,
-                                             event);
-            }
+        final Map<Long, Throwable> failures = bulkExecutor.execute(containers,
+                                                                   processInstanceId,
+                                                                   (containerId, batch) -> getClient(serverTemplateId,
+                                                                                                     containerId,
+                                                                                                     ProcessServicesClient.class).signalProcessInstances(containerId,
+                                                                                                                                                         batch,
+                                                                                                                                                         signal,
+                                                                                                                                                         event),
+                                                                   null);
+        dataSetCache.invalidate(serverTemplateId);
+        checkBulkOperationFailures("signal",
+                                   failures);
+    }
+
+    protected void checkBulkOperationFailures(String operation,
+                                              Map<Long, Throwable> failures) {
+        if (!failures.isEmpty()) {
+            final Throwable cause = failures.values().iterator().next();
+            throw new RuntimeException("Unable to " + operation + " process instances " + failures.keySet() + ": " + cause.getMessage(),
+                                       cause);
         }
     }
 
@@ -159,5 +173,9 @@ public class RemoteProcessServiceImpl extends AbstractKieServerService implement
                                   processInstanceId,
                                   variableName,
                                   value);
+        variablesSnapshotCache.invalidate(new ProcessInstanceKey(serverTemplateId,
+                                                                 containerId,
+                                                                 processInstanceId));
+        dataSetCache.invalidate(serverTemplateId);
     }
 }
\ No newline at end of file
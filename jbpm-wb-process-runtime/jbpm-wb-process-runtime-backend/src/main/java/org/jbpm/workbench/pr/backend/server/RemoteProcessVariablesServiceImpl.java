@@ -16,33 +16,72 @@
 package org.jbpm.workbench.pr.backend.server;
 
 import java.util.ArrayList;
-import java.util.Collection;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
 
+import org.dashbuilder.dataset.filter.ColumnFilter;
+import org.dashbuilder.dataset.filter.CoreFunctionFilter;
+import org.dashbuilder.dataset.filter.FilterFactory;
 import org.jboss.errai.bus.server.annotations.Service;
 import org.jbpm.workbench.pr.backend.server.model.VariableHelper;
 import org.jbpm.workbench.ks.integration.AbstractKieServerService;
+import org.jbpm.workbench.pr.model.ProcessInstanceKey;
 import org.jbpm.workbench.pr.model.ProcessVariableSummary;
 import org.jbpm.workbench.common.model.QueryFilter;
 import org.jbpm.workbench.pr.service.ProcessVariablesService;
-import org.kie.server.api.exception.KieServicesHttpException;
-import org.kie.server.api.model.definition.VariablesDefinition;
+import org.kie.server.api.exception.KieServicesException;
+import org.kie.server.api.model.definition.QueryFilterSpec;
+import org.kie.server.api.model.definition.QueryParam;
 import org.kie.server.api.model.instance.VariableInstance;
-import org.kie.server.client.ProcessServicesClient;
 import org.kie.server.client.QueryServicesClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.uberfire.paging.PageResponse;
 
+import static org.jbpm.workbench.pr.model.ProcessInstanceDataSetConstants.*;
+
 @Service
 @ApplicationScoped
 public class RemoteProcessVariablesServiceImpl extends AbstractKieServerService implements ProcessVariablesService {
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(RemoteProcessVariablesServiceImpl.class);
+
+    protected static final String EXCLUDED_VARIABLE = "processId";
+
+    // positions of the columns of the process variables query
+    private static final int NAME_INDEX = 1;
+    private static final int VALUE_INDEX = 2;
+    private static final int OLD_VALUE_INDEX = 3;
+    private static final int DATE_INDEX = 4;
+
+    @Inject
+    protected ProcessVariablesSnapshotCache snapshotCache;
+
+    @Inject
+    protected ProcessVariablesReader variablesReader;
+
     @Override
     public PageResponse<ProcessVariableSummary> getData(QueryFilter filter) {
+        if (isPagedQuery(filter)) {
+            try {
+                return getProcessVariablesPage(filter);
+            } catch (KieServicesException | IllegalStateException e) {
+                // e.g. the process variables query is not registered on the KIE Server yet
+                LOGGER.debug("Paged process variables query not available, reading all variables: {}",
+                             e.getMessage());
+            }
+        }
+
         PageResponse<ProcessVariableSummary> response = new PageResponse<ProcessVariableSummary>();
-        List<ProcessVariableSummary> processVariablesSums = getProcessVariables(filter);
+        List<ProcessVariableSummary> processVariablesSums = variablesReader.getProcessVariables(filter);
 
         response.setStartRowIndex(filter.getOffset());
         response.setTotalRowSize(processVariablesSums.size());
@@ -65,50 +104,209 @@ public class RemoteProcessVariablesServiceImpl extends AbstractKieServerService
         return response;
     }
 
-    protected List<ProcessVariableSummary> getProcessVariables(QueryFilter filter) {
-        Long processInstanceId = null;
-        String processId = "";
-        String deploymentId = "";
-        String serverTemplateId = "";
-        if (filter.getParams() != null) {
-            processInstanceId = Long.valueOf((String) filter.getParams().get("processInstanceId"));
-            processId = (String) filter.getParams().get("processDefId");
-            deploymentId = (String) filter.getParams().get("deploymentId");
-            serverTemplateId = (String) filter.getParams().get("serverTemplateId");
+    /**
+     * The page is read from KIE Server unless a snapshot of the instance is at hand. Searches containing LIKE
+     * wildcards are matched literally in memory.
+     */
+    protected boolean isPagedQuery(QueryFilter filter) {
+        if (filter.getParams() == null || filter.getParams().get("processInstanceId") == null || filter.getCount() <= 0) {
+            return false;
+        }
+        final String textSearch = (String) filter.getParams().get("textSearch");
+        if (textSearch != null && (textSearch.contains("%") || textSearch.contains("_"))) {
+            return false;
+        }
+        return snapshotCache.get(new ProcessInstanceKey((String) filter.getParams().get("serverTemplateId"),
+                                                        (String) filter.getParams().get("deploymentId"),
+                                                        Long.valueOf((String) filter.getParams().get("processInstanceId")))) == null;
+    }
+
+    /**
+     * Reads one page of variables, pushing the name search and the paging to KIE Server. Variables holding a value
+     * come first, ordered by name, followed by the declared variables without any value, also ordered by name.
+     */
+    protected PageResponse<ProcessVariableSummary> getProcessVariablesPage(QueryFilter filter) {
+        final Long processInstanceId = Long.valueOf((String) filter.getParams().get("processInstanceId"));
+        final String processId = (String) filter.getParams().get("processDefId");
+        final String deploymentId = (String) filter.getParams().get("deploymentId");
+        final String serverTemplateId = (String) filter.getParams().get("serverTemplateId");
+        final String textSearch = (String) filter.getParams().get("textSearch");
+
+        final List<QueryParam> params = new ArrayList<>();
+        params.add(toQueryParam(FilterFactory.equalsTo(PROCESS_INSTANCE_ID,
+                                                       processInstanceId)));
+        params.add(toQueryParam(FilterFactory.notEqualsTo(VARIABLE_NAME,
+                                                          EXCLUDED_VARIABLE)));
+        if (textSearch != null && !textSearch.isEmpty()) {
+            params.add(toQueryParam(FilterFactory.likeTo(VARIABLE_NAME,
+                                                         "%" + textSearch + "%",
+                                                         false)));
         }
 
-        Map<String, String> properties = new HashMap<String, String>();
-        QueryServicesClient queryServicesClient = getClient(serverTemplateId,
-                                                            QueryServicesClient.class);
-        ProcessServicesClient processClient = getClient(serverTemplateId,
-                                                        ProcessServicesClient.class);
-        try {
-            //try to add all the process definitions available variables if it is available
-            VariablesDefinition vars = processClient.getProcessVariableDefinitions(deploymentId,
-                                                                                   processId);
-            properties.putAll(vars.getVariables());
-        } catch (KieServicesHttpException kieException) {
-            // It that vars can not be retrieve only the ones with associated value will be returned
+        final List<List> countRows = queryVariables(serverTemplateId,
+                                                    withParam(params,
+                                                              new QueryParam(VARIABLE_ID,
+                                                                             "COUNT",
+                                                                             Arrays.asList(VARIABLE_ID))),
+                                                    false,
+                                                    0,
+                                                    1);
+        if (countRows.size() != 1 || countRows.get(0).size() != 1 || !(countRows.get(0).get(0) instanceof Number)) {
+            throw new IllegalStateException("Unexpected result of the process variables count query: " + countRows);
         }
+        final int valued = ((Number) countRows.get(0).get(0)).intValue();
 
-        List<VariableInstance> variables = queryServicesClient.findVariablesCurrentState(processInstanceId);
+        final Map<String, String> definitions = variablesReader.getProcessVariableDefinitions(serverTemplateId,
+                                                                                              deploymentId,
+                                                                                              processId);
+        final List<String> unset = getUnsetVariables(serverTemplateId,
+                                                     processInstanceId,
+                                                     definitions.keySet(),
+                                                     textSearch);
 
-        Collection<ProcessVariableSummary> processVariables = VariableHelper.adaptCollection(variables,
-                                                                                             properties,
-                                                                                             processInstanceId,
-                                                                                             deploymentId,
-                                                                                             serverTemplateId);
+        final int offset = filter.getOffset();
+        final int count = filter.getCount();
+        final List<ProcessVariableSummary> page = new ArrayList<>(count);
+        if (offset < valued) {
+            final int last = Math.min(offset + count,
+                                      valued);
+            final List<List> rows;
+            if (offset % count == 0) {
+                rows = queryVariables(serverTemplateId,
+                                      params,
+                                      true,
+                                      offset / count,
+                                      count);
+            } else {
+                final List<List> leading = queryVariables(serverTemplateId,
+                                                          params,
+                                                          true,
+                                                          0,
+                                                          last);
+                rows = leading.subList(Math.min(offset,
+                                                leading.size()),
+                                       leading.size());
+            }
+            for (List row : rows.subList(0,
+                                         Math.min(rows.size(),
+                                                  last - offset))) {
+                final String name = String.valueOf(row.get(NAME_INDEX));
+                page.add(new ProcessVariableSummary(name,
+                                                    name,
+                                                    processInstanceId,
+                                                    toString(row.get(OLD_VALUE_INDEX)),
+                                                    toString(row.get(VALUE_INDEX)),
+                                                    toTime(row.get(DATE_INDEX)),
+                                                    definitions.get(name),
+                                                    deploymentId,
+                                                    serverTemplateId));
+            }
+        }
+        final long now = new Date().getTime();
+        for (int i = Math.max(offset,
+                              valued); i < Math.min(offset + count,
+                                                    valued + unset.size()); i++) {
+            final String name = unset.get(i - valued);
+            page.add(new ProcessVariableSummary(name,
+                                                "",
+                                                processInstanceId,
+                                                "",
+                                                "",
+                                                now,
+                                                definitions.get(name),
+                                                deploymentId,
+                                                serverTemplateId));
+        }
 
-        List<ProcessVariableSummary> processVariablesSums = new ArrayList<ProcessVariableSummary>(processVariables.size());
-        for (ProcessVariableSummary pv : processVariables) {
+        final int total = valued + unset.size();
+        final PageResponse<ProcessVariableSummary> response = new PageResponse<ProcessVariableSummary>();
+        response.setStartRowIndex(offset);
+        response.setTotalRowSize(total);
+        response.setTotalRowSizeExact(true);
+        response.setPageRowList(page);
+        response.setLastPage(offset + count >= total);
+        return response;
+    }
 
-            if (filter.getParams().get("textSearch") == null || ((String) filter.getParams().get("textSearch")).isEmpty()) {
-                processVariablesSums.add(pv);
-            } else if (pv.getVariableId().toLowerCase().contains((String) filter.getParams().get("textSearch"))) {
-                processVariablesSums.add(pv);
+    /**
+     * Returns the declared variables matching the search that don't hold any value yet, ordered by name.
+     */
+    protected List<String> getUnsetVariables(String serverTemplateId,
+                                             Long processInstanceId,
+                                             Set<String> declared,
+                                             String textSearch) {
+        final List<String> candidates = new ArrayList<>();
+        for (String name : declared) {
+            if (!EXCLUDED_VARIABLE.equals(name) && (textSearch == null || textSearch.isEmpty() || name.toLowerCase().contains(textSearch.toLowerCase()))) {
+                candidates.add(name);
             }
         }
-        return processVariablesSums;
+        if (candidates.isEmpty()) {
+            return candidates;
+        }
+        final List<List> rows = queryVariables(serverTemplateId,
+                                               Arrays.asList(toQueryParam(FilterFactory.equalsTo(PROCESS_INSTANCE_ID,
+                                                                                                 processInstanceId)),
+                                                             toQueryParam(FilterFactory.equalsTo(VARIABLE_NAME,
+                                                                                                 new ArrayList<Comparable>(candidates)))),
+                                               false,
+                                               0,
+                                               candidates.size());
+        final Set<String> valued = new HashSet<>();
+        for (List row : rows) {
+            valued.add(String.valueOf(row.get(NAME_INDEX)));
+        }
+        candidates.removeAll(valued);
+        Collections.sort(candidates);
+        return candidates;
+    }
+
+    protected List<List> queryVariables(String serverTemplateId,
+                                        List<QueryParam> params,
+                                        boolean orderByName,
+                                        int page,
+                                        int pageSize) {
+        final QueryServicesClient queryServicesClient = getClient(serverTemplateId,
+                                                                  QueryServicesClient.class);
+        final QueryFilterSpec filterSpec = new QueryFilterSpec();
+        if (orderByName) {
+            filterSpec.setOrderBy(VARIABLE_NAME);
+            filterSpec.setAscending(true);
+        }
+        filterSpec.setParameters(params.toArray(new QueryParam[params.size()]));
+        return queryServicesClient.query(PROCESS_VARIABLES_DATASET,
+                                         QueryServicesClient.QUERY_MAP_RAW,
+                                         filterSpec,
+                                         page,
+                                         pageSize,
+                                         List.class);
+    }
+
+    private static List<QueryParam> withParam(List<QueryParam> params,
+                                              QueryParam param) {
+        final List<QueryParam> result = new ArrayList<>(params);
+        result.add(param);
+        return result;
+    }
+
+    private static QueryParam toQueryParam(ColumnFilter columnFilter) {
+        final CoreFunctionFilter coreFunctionFilter = (CoreFunctionFilter) columnFilter;
+        return new QueryParam(coreFunctionFilter.getColumnId(),
+                              coreFunctionFilter.getType().toString(),
+                              coreFunctionFilter.getParameters());
+    }
+
+    private static String toString(Object value) {
+        return value == null ? "" : value.toString();
+    }
+
+    private static long toTime(Object value) {
+        if (value instanceof Date) {
+            return ((Date) value).getTime();
+        } else if (value instanceof Number) {
+            return ((Number) value).longValue();
+        }
+        return new Date().getTime();
     }
 
     @Override
@@ -129,4 +327,4 @@ public class RemoteProcessVariablesServiceImpl extends AbstractKieServerService
                                               deploymentId,
                                               serverTemplateId);
     }
-}
\ No newline at end of file
+}
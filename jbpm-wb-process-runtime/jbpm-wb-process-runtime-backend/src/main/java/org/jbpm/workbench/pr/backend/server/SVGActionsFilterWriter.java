@@ -0,0 +1,166 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jbpm.workbench.pr.backend.server;
+
+import java.io.FilterWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.CharBuffer;
+
+/**
+ * Writer that strips the <code>onclick</code> and <code>onmouseover</code> handlers from the SVG written through it.
+ * Characters are inspected one at a time and only a possible handler is held back, so diagrams of any size are
+ * sanitized in a single pass. A handler value ends at the first double quote and may not span lines, anything
+ * else is written unchanged.
+ */
+public class SVGActionsFilterWriter extends FilterWriter {
+
+    private static final String[] ACTIONS = {"onclick=\"", "onmouseover=\""};
+
+    private final StringBuilder pending = new StringBuilder();
+    private boolean inValue = false;
+
+    public SVGActionsFilterWriter(final Writer out) {
+        super(out);
+    }
+
+    @Override
+    public void write(final int c) throws IOException {
+        synchronized (lock) {
+            filter(String.valueOf((char) c),
+                   0,
+                   1);
+        }
+    }
+
+    @Override
+    public void write(final char[] cbuf,
+                      final int off,
+                      final int len) throws IOException {
+        synchronized (lock) {
+            filter(CharBuffer.wrap(cbuf),
+                   off,
+                   len);
+        }
+    }
+
+    @Override
+    public void write(final String str,
+                      final int off,
+                      final int len) throws IOException {
+        synchronized (lock) {
+            filter(str,
+                   off,
+                   len);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (lock) {
+            // an unterminated handler or a partial handler name at the end is regular content
+            out.append(pending);
+            pending.setLength(0);
+            inValue = false;
+        }
+        super.close();
+    }
+
+    private void filter(final CharSequence chars,
+                        final int off,
+                        final int len) throws IOException {
+        final int end = off + len;
+        int runStart = off;
+        for (int i = off; i < end; i++) {
+            final char c = chars.charAt(i);
+            if (!inValue && pending.length() == 0 && c != 'o') {
+                continue;
+            }
+            if (runStart < i) {
+                out.append(chars,
+                           runStart,
+                           i);
+            }
+            process(c);
+            runStart = i + 1;
+        }
+        if (runStart < end) {
+            out.append(chars,
+                       runStart,
+                       end);
+        }
+    }
+
+    private void process(final char c) throws IOException {
+        if (inValue) {
+            if (c == '"') {
+                pending.setLength(0);
+                inValue = false;
+            } else {
+                pending.append(c);
+                if (isLineTerminator(c)) {
+                    reject();
+                }
+            }
+            return;
+        }
+        if (pending.length() == 0 && c != 'o') {
+            out.write(c);
+            return;
+        }
+        pending.append(c);
+        final int match = matchAction();
+        if (match < 0) {
+            reject();
+        } else if (match > 0) {
+            inValue = true;
+        }
+    }
+
+    /**
+     * @return 1 when the held back characters are a complete handler name, 0 when they may still become one and
+     * -1 otherwise
+     */
+    private int matchAction() {
+        for (String action : ACTIONS) {
+            if (pending.length() <= action.length() && action.regionMatches(0,
+                                                                            pending.toString(),
+                                                                            0,
+                                                                            pending.length())) {
+                return pending.length() == action.length() ? 1 : 0;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * The held back characters are not a handler: the first one is content, the others may still start one.
+     */
+    private void reject() throws IOException {
+        out.write(pending.charAt(0));
+        final String rest = pending.substring(1);
+        pending.setLength(0);
+        inValue = false;
+        for (int i = 0; i < rest.length(); i++) {
+            process(rest.charAt(i));
+        }
+    }
+
+    private static boolean isLineTerminator(final char c) {
+        return c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029';
+    }
+}
@@ -29,6 +29,7 @@ import org.mockito.runners.MockitoJUnitRunner;
 
 import static org.jbpm.workbench.pr.model.ProcessInstanceDataSetConstants.PROCESS_INSTANCE_DATASET;
 import static org.jbpm.workbench.pr.model.ProcessInstanceDataSetConstants.PROCESS_INSTANCE_WITH_VARIABLES_DATASET;
+import static org.jbpm.workbench.pr.model.ProcessInstanceDataSetConstants.PROCESS_VARIABLES_DATASET;
 import static org.junit.Assert.*;
 import static org.mockito.Mockito.*;
 
@@ -82,4 +83,21 @@ public class DataSetDefsBootstrapTest {
         assertEquals(5,
                      dataSetDef.getColumns().size());
     }
+
+    @Test
+    public void testProcessVariablesDataSet() {
+        QueryDefinition qd = QueryDefinition.builder().name(PROCESS_VARIABLES_DATASET).expression("SELECT *").source("source").target("target").build();
+        dataSetsBootstrap.registerDataSetDefinitions(new QueryDefinitionLoaded(qd));
+
+        ArgumentCaptor<SQLDataSetDef> argument = ArgumentCaptor.forClass(SQLDataSetDef.class);
+        verify(dataSetRegistry).registerDataSetDef(argument.capture());
+
+        SQLDataSetDef dataSetDef = argument.getValue();
+        assertEquals(PROCESS_VARIABLES_DATASET,
+                     dataSetDef.getUUID());
+        assertEquals(KieServerDataSetProvider.TYPE,
+                     dataSetDef.getProvider());
+        assertEquals(6,
+                     dataSetDef.getColumns().size());
+    }
 }
@@ -15,11 +15,16 @@
  */
 package org.jbpm.workbench.pr.backend.server;
 
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.net.SocketTimeoutException;
 import java.text.MessageFormat;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.Semaphore;
 import javax.servlet.ServletOutputStream;
 import javax.servlet.WriteListener;
 import javax.servlet.http.HttpServletRequest;
@@ -35,6 +40,7 @@ import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.kie.server.api.model.instance.DocumentInstance;
+import org.kie.server.client.CredentialsProvider;
 import org.kie.server.client.DocumentServicesClient;
 import org.kie.server.client.KieServicesClient;
 import org.mockito.ArgumentCaptor;
@@ -182,6 +188,309 @@ public class ProcessDocumentServletTest {
                      new String(((ProcessDocumentServletTest.StubServletOutputStream) response.getOutputStream()).getContent()));
     }
 
+    @Test
+    public void testRetrieveDocumentRange() throws Exception {
+        final HttpServletResponse response = mock(HttpServletResponse.class);
+        final StubServletOutputStream outputStream = retrieveValidDocument("bytes=2-5",
+                                                                           response);
+
+        assertEquals("mple",
+                     new String(outputStream.getContent()));
+        verify(response).setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+        verify(response).setHeader("Content-Range",
+                                   "bytes 2-5/13");
+        verify(response).setContentLengthLong(4);
+    }
+
+    @Test
+    public void testRetrieveDocumentSuffixRange() throws Exception {
+        final HttpServletResponse response = mock(HttpServletResponse.class);
+        final StubServletOutputStream outputStream = retrieveValidDocument("bytes=-7",
+                                                                           response);
+
+        assertEquals("Content",
+                     new String(outputStream.getContent()));
+        verify(response).setHeader("Content-Range",
+                                   "bytes 6-12/13");
+    }
+
+    @Test
+    public void testRetrieveDocumentUnsatisfiableRange() throws Exception {
+        final HttpServletResponse response = mock(HttpServletResponse.class);
+        final StubServletOutputStream outputStream = retrieveValidDocument("bytes=13-",
+                                                                           response);
+
+        assertEquals(0,
+                     outputStream.getContent().length);
+        verify(response).setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+        verify(response).setHeader("Content-Range",
+                                   "bytes */13");
+    }
+
+    @Test
+    public void testRetrieveDocumentMultipleRanges() throws Exception {
+        final HttpServletResponse response = mock(HttpServletResponse.class);
+        final StubServletOutputStream outputStream = retrieveValidDocument("bytes=0-1,4-5",
+                                                                           response);
+
+        assertEquals("sampleContent",
+                     new String(outputStream.getContent()));
+        verify(response,
+               never()).setStatus(anyInt());
+        verify(response).setContentLengthLong(13);
+    }
+
+    @Test
+    public void testEncodePathSegment() throws Exception {
+        assertEquals("AAAA-BBBB-CCCC-DDDD",
+                     ProcessDocumentServlet.encodePathSegment("AAAA-BBBB-CCCC-DDDD"));
+        assertEquals("a%20b%2Fc%3Fd%23e",
+                     ProcessDocumentServlet.encodePathSegment("a b/c?d#e"));
+    }
+
+    @Test
+    public void testParseRange() {
+        assertArrayEquals(new long[]{0, 9},
+                          ProcessDocumentServlet.parseRange("bytes=0-",
+                                                            10));
+        assertArrayEquals(new long[]{5, 9},
+                          ProcessDocumentServlet.parseRange("bytes=5-100",
+                                                            10));
+        assertArrayEquals(new long[]{0, 9},
+                          ProcessDocumentServlet.parseRange("bytes=-20",
+                                                            10));
+        assertNull(ProcessDocumentServlet.parseRange("bytes=5-1",
+                                                     10));
+        assertNull(ProcessDocumentServlet.parseRange("items=0-1",
+                                                     10));
+        assertNull(ProcessDocumentServlet.parseRange("bytes=a-b",
+                                                     10));
+        assertEquals(0,
+                     ProcessDocumentServlet.parseRange("bytes=10-",
+                                                       10).length);
+        assertEquals(0,
+                     ProcessDocumentServlet.parseRange("bytes=-0",
+                                                       10).length);
+    }
+
+    @Test
+    public void testRetrieveStreamedDocument() throws Exception {
+        when(kieServerIntegration.getServerClient(anyString())).thenReturn(kieServicesClient);
+
+        HttpServletRequest request = mock(HttpServletRequest.class);
+        HttpServletResponse response = mock(HttpServletResponse.class);
+        when(request.getParameter("templateid")).thenReturn("kie-server-id");
+        when(request.getParameter("docid")).thenReturn("AAAA-BBBB-CCCC-DDDD");
+        StubServletOutputStream stubServletOutputStream = new StubServletOutputStream();
+        when(response.getOutputStream()).thenReturn(stubServletOutputStream);
+
+        final ByteArrayInputStream content = spy(new ByteArrayInputStream("streamedContent".getBytes()));
+        ProcessDocumentServlet processDocServlet = new ProcessDocumentServlet() {
+            @Override
+            protected DocumentContent openDocumentStream(KieServicesClient kieServicesClient,
+                                                         String docId,
+                                                         HttpServletRequest request) {
+                return new DocumentContent("testdoc.properties",
+                                           HttpServletResponse.SC_OK,
+                                           -1,
+                                           Collections.emptyMap(),
+                                           content);
+            }
+        };
+        processDocServlet.setKieServerIntegration(kieServerIntegration);
+        processDocServlet.doGet(request,
+                                response);
+
+        assertEquals("streamedContent",
+                     new String(stubServletOutputStream.getContent()));
+        verify(content).close();
+        verify(response).setHeader("Content-Disposition",
+                                   "attachment; filename=\"testdoc.properties\"");
+        verify(response,
+               never()).setContentLengthLong(anyLong());
+        verify(kieServicesClient,
+               never()).getServicesClient(any());
+    }
+
+    @Test
+    public void testTooManyDownloads() throws Exception {
+        when(kieServerIntegration.getServerClient(anyString())).thenReturn(kieServicesClient);
+
+        HttpServletRequest request = mock(HttpServletRequest.class);
+        HttpServletResponse response = mock(HttpServletResponse.class);
+        when(request.getParameter("templateid")).thenReturn("kie-server-id");
+        when(request.getParameter("docid")).thenReturn("AAAA-BBBB-CCCC-DDDD");
+
+        ProcessDocumentServlet processDocServlet = new ProcessDocumentServlet(1,
+                                                                              0);
+        processDocServlet.setKieServerIntegration(kieServerIntegration);
+        final Semaphore permits = processDocServlet.getDownloadPermits("kie-server-id");
+        permits.acquire();
+
+        processDocServlet.doGet(request,
+                                response);
+
+        verify(response).sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+        verify(kieServicesClient,
+               never()).getServicesClient(any());
+
+        permits.release();
+        assertEquals(1,
+                     permits.availablePermits());
+    }
+
+    @Test
+    public void testStreamedRangeForwardedAndPassedThrough() throws Exception {
+        final HttpURLConnection connection = mock(HttpURLConnection.class);
+        when(connection.getResponseCode()).thenReturn(HttpServletResponse.SC_PARTIAL_CONTENT);
+        when(connection.getContentLengthLong()).thenReturn(4L);
+        when(connection.getHeaderField("Content-Range")).thenReturn("bytes 2-5/13");
+        when(connection.getHeaderField("Accept-Ranges")).thenReturn("bytes");
+        when(connection.getInputStream()).thenReturn(new ByteArrayInputStream("mple".getBytes()));
+        final HttpServletResponse response = mock(HttpServletResponse.class);
+
+        final StubServletOutputStream outputStream = retrieveStreamedDocument("bytes=2-5",
+                                                                              connection,
+                                                                              response);
+
+        verify(connection).setRequestProperty("Range",
+                                              "bytes=2-5");
+        assertEquals("mple",
+                     new String(outputStream.getContent()));
+        verify(response).setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+        verify(response).setHeader("Content-Range",
+                                   "bytes 2-5/13");
+        verify(response).setHeader("Accept-Ranges",
+                                   "bytes");
+        verify(response).setContentLengthLong(4);
+        verify(kieServicesClient,
+               never()).getServicesClient(any());
+    }
+
+    @Test
+    public void testStreamedUnsatisfiableRangePassedThrough() throws Exception {
+        final HttpURLConnection connection = mock(HttpURLConnection.class);
+        when(connection.getResponseCode()).thenReturn(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+        when(connection.getHeaderField("Content-Range")).thenReturn("bytes */13");
+        final HttpServletResponse response = mock(HttpServletResponse.class);
+
+        final StubServletOutputStream outputStream = retrieveStreamedDocument("bytes=13-",
+                                                                              connection,
+                                                                              response);
+
+        assertEquals(0,
+                     outputStream.getContent().length);
+        verify(response).setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+        verify(response).setHeader("Content-Range",
+                                   "bytes */13");
+        verify(connection,
+               never()).getInputStream();
+    }
+
+    @Test
+    public void testMissingStreamedDocumentNotRequestedAgain() throws Exception {
+        final HttpURLConnection connection = mock(HttpURLConnection.class);
+        when(connection.getResponseCode()).thenReturn(HttpURLConnection.HTTP_NOT_FOUND);
+
+        retrieveStreamedDocument(null,
+                                 connection,
+                                 mock(HttpServletResponse.class));
+
+        verify(kieServicesClient,
+               never()).getServicesClient(any());
+        verify(loggingAppender).doAppend(loggingEventArgumentCaptor.capture());
+        assertEquals(MessageFormat.format(ProcessDocumentServlet.INVALID_DOCUMENT,
+                                          "AAAA-BBBB-CCCC-DDDD"),
+                     loggingEventArgumentCaptor.getValue().getFormattedMessage());
+    }
+
+    @Test
+    public void testStreamingTimeoutNotRequestedAgain() throws Exception {
+        final HttpURLConnection connection = mock(HttpURLConnection.class);
+        when(connection.getResponseCode()).thenThrow(new SocketTimeoutException("Read timed out"));
+
+        retrieveStreamedDocument(null,
+                                 connection,
+                                 mock(HttpServletResponse.class));
+
+        verify(connection).disconnect();
+        verify(kieServicesClient,
+               never()).getServicesClient(any());
+    }
+
+    @Test
+    public void testStreamingNotSupportedReadsDocument() throws Exception {
+        final HttpURLConnection connection = mock(HttpURLConnection.class);
+        when(connection.getResponseCode()).thenReturn(HttpURLConnection.HTTP_BAD_METHOD);
+        when(kieServicesClient.getServicesClient(any())).thenReturn(documentServicesClient);
+        when(documentServicesClient.getDocument(anyString())).thenReturn(documentInstance);
+        when(documentInstance.getName()).thenReturn("testdoc.properties");
+        when(documentInstance.getContent()).thenReturn("sampleContent".getBytes());
+
+        final StubServletOutputStream outputStream = retrieveStreamedDocument(null,
+                                                                              connection,
+                                                                              mock(HttpServletResponse.class));
+
+        assertEquals("sampleContent",
+                     new String(outputStream.getContent()));
+    }
+
+    private StubServletOutputStream retrieveStreamedDocument(final String range,
+                                                             final HttpURLConnection connection,
+                                                             final HttpServletResponse response) throws Exception {
+        when(kieServerIntegration.getServerClient(anyString())).thenReturn(kieServicesClient);
+
+        HttpServletRequest request = mock(HttpServletRequest.class);
+        when(request.getParameter("templateid")).thenReturn("kie-server-id");
+        when(request.getParameter("docid")).thenReturn("AAAA-BBBB-CCCC-DDDD");
+        when(request.getHeader("Range")).thenReturn(range);
+        StubServletOutputStream stubServletOutputStream = new StubServletOutputStream();
+        when(response.getOutputStream()).thenReturn(stubServletOutputStream);
+
+        ProcessDocumentServlet processDocServlet = new ProcessDocumentServlet() {
+            @Override
+            protected String getEndpoint(KieServicesClient kieServicesClient) {
+                return "http://localhost:8080/kie-server/services/rest/server";
+            }
+
+            @Override
+            protected HttpURLConnection openConnection(String url) {
+                return connection;
+            }
+
+            @Override
+            protected CredentialsProvider getCredentialsProvider() {
+                return mock(CredentialsProvider.class);
+            }
+        };
+        processDocServlet.setKieServerIntegration(kieServerIntegration);
+        processDocServlet.doGet(request,
+                                response);
+        return stubServletOutputStream;
+    }
+
+    private StubServletOutputStream retrieveValidDocument(final String range,
+                                                          final HttpServletResponse response) throws Exception {
+        when(kieServerIntegration.getServerClient(anyString())).thenReturn(kieServicesClient);
+        when(kieServicesClient.getServicesClient(any())).thenReturn(documentServicesClient);
+        when(documentServicesClient.getDocument(anyString())).thenReturn(documentInstance);
+        when(documentInstance.getName()).thenReturn("testdoc.properties");
+        when(documentInstance.getContent()).thenReturn("sampleContent".getBytes());
+
+        HttpServletRequest request = mock(HttpServletRequest.class);
+        when(request.getParameter("templateid")).thenReturn("kie-server-id");
+        when(request.getParameter("docid")).thenReturn("AAAA-BBBB-CCCC-DDDD");
+        when(request.getHeader("Range")).thenReturn(range);
+        StubServletOutputStream stubServletOutputStream = new StubServletOutputStream();
+        when(response.getOutputStream()).thenReturn(stubServletOutputStream);
+
+        ProcessDocumentServlet processDocServlet = new ProcessDocumentServlet();
+        processDocServlet.setKieServerIntegration(kieServerIntegration);
+        processDocServlet.doGet(request,
+                                response);
+        return stubServletOutputStream;
+    }
+
     protected class StubServletOutputStream extends ServletOutputStream {
 
         public ByteArrayOutputStream baos = new ByteArrayOutputStream();
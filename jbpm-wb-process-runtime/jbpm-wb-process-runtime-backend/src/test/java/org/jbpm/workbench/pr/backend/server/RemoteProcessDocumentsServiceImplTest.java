@@ -19,6 +19,7 @@ package org.jbpm.workbench.pr.backend.server;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Date;
+import java.util.List;
 import java.util.stream.IntStream;
 
 import org.jbpm.document.Document;
@@ -26,7 +27,6 @@ import org.jbpm.workbench.common.model.PortableQueryFilter;
 import org.jbpm.workbench.common.model.QueryFilter;
 import org.jbpm.workbench.pr.model.DocumentSummary;
 import org.jbpm.workbench.pr.model.ProcessVariableSummary;
-import org.jbpm.workbench.pr.service.ProcessVariablesService;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.InjectMocks;
@@ -45,7 +45,7 @@ public class RemoteProcessDocumentsServiceImplTest {
     private final String serverTemplateId = "serverTemplateId";
 
     @Mock
-    private ProcessVariablesService processVariablesService;
+    private ProcessVariablesReader variablesReader;
 
     @InjectMocks
     private RemoteProcessDocumentsServiceImpl processDocumentsService;
@@ -62,10 +62,7 @@ public class RemoteProcessDocumentsServiceImplTest {
 
     @Test
     public void testGetData() {
-        PageResponse<ProcessVariableSummary> variablesResponse = new PageResponse<>();
-        variablesResponse.setPageRowList(singletonList(newDocumentVariable()));
-
-        when(processVariablesService.getData(any())).thenReturn(variablesResponse);
+        when(variablesReader.getProcessVariables(any())).thenReturn(singletonList(newDocumentVariable()));
 
         QueryFilter queryFilter = new PortableQueryFilter(0,
                                                           10,
@@ -92,12 +89,11 @@ public class RemoteProcessDocumentsServiceImplTest {
     public void testGetDataPaginated() {
         int totalItems = 12;
 
-        PageResponse<ProcessVariableSummary> variablesResponse = new PageResponse<>();
-        variablesResponse.setPageRowList(new ArrayList<>());
+        final List<ProcessVariableSummary> variables = new ArrayList<>();
         IntStream.range(0,
-                        totalItems).forEach(i -> variablesResponse.getPageRowList().add(newDocumentVariable()));
+                        totalItems).forEach(i -> variables.add(newDocumentVariable()));
 
-        when(processVariablesService.getData(any())).thenReturn(variablesResponse);
+        when(variablesReader.getProcessVariables(any())).thenReturn(variables);
 
         QueryFilter queryFilter = new PortableQueryFilter(0,
                                                           10,
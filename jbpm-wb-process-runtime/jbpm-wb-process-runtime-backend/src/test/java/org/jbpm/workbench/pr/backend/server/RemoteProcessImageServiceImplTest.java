@@ -16,15 +16,30 @@
 
 package org.jbpm.workbench.pr.backend.server;
 
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
 import org.jbpm.workbench.ks.integration.KieServerIntegration;
+import org.jbpm.workbench.pr.model.ProcessDiagramSummary;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.kie.server.api.exception.KieServicesHttpException;
+import org.kie.server.api.model.KieContainerResource;
+import org.kie.server.api.model.ReleaseId;
+import org.kie.server.api.model.ServiceResponse;
+import org.kie.server.api.model.instance.NodeInstance;
+import org.kie.server.api.model.instance.ProcessInstance;
 import org.kie.server.client.KieServicesClient;
+import org.kie.server.client.QueryServicesClient;
 import org.kie.server.client.UIServicesClient;
+import org.kie.server.controller.api.model.events.ServerTemplateUpdated;
+import org.kie.server.controller.api.model.spec.ServerTemplate;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.runners.MockitoJUnitRunner;
 
 import static org.junit.Assert.*;
@@ -44,6 +59,15 @@ public class RemoteProcessImageServiceImplTest {
     @Mock
     UIServicesClient uiServicesClient;
 
+    @Mock
+    QueryServicesClient queryServicesClient;
+
+    KieServicesClient servicesClient;
+
+    @Spy
+    ProcessDiagramCache diagramCache = new ProcessDiagramCache(10,
+                                                               1024 * 1024);
+
     @InjectMocks
     RemoteProcessImageServiceImpl service;
 
@@ -56,8 +80,9 @@ public class RemoteProcessImageServiceImplTest {
 
     @Before
     public void setup() {
-        final KieServicesClient servicesClient = mock(KieServicesClient.class);
+        servicesClient = mock(KieServicesClient.class);
         when(servicesClient.getServicesClient(UIServicesClient.class)).thenReturn(uiServicesClient);
+        when(servicesClient.getServicesClient(QueryServicesClient.class)).thenReturn(queryServicesClient);
         when(kieServerIntegration.getServerClient("",
                                                   "")).thenReturn(servicesClient);
     }
@@ -159,4 +184,276 @@ public class RemoteProcessImageServiceImplTest {
                          ex.getHttpCode());
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testProcessDiagramCached() {
+        when(uiServicesClient.getProcessImage("",
+                                              "process")).thenReturn(SVG_WITH_ACTIONS);
+
+        validateHTMLContent(service.getProcessDiagram("",
+                                                      "",
+                                                      "process"));
+        validateHTMLContent(service.getProcessDiagram("",
+                                                      "",
+                                                      "process"));
+
+        verify(uiServicesClient,
+               times(1)).getProcessImage("",
+                                         "process");
+        assertEquals(1,
+                     diagramCache.getSize());
+    }
+
+    @Test
+    public void testProcessDiagramCacheInvalidatedOnServerTemplateUpdate() {
+        when(uiServicesClient.getProcessImage("",
+                                              "process")).thenReturn(SVG_WITH_ACTIONS);
+
+        service.getProcessDiagram("",
+                                  "",
+                                  "process");
+        diagramCache.onServerTemplateUpdated(new ServerTemplateUpdated(new ServerTemplate("",
+                                                                                          "")));
+        validateHTMLContent(service.getProcessDiagram("",
+                                                      "",
+                                                      "process"));
+
+        verify(uiServicesClient,
+               times(2)).getProcessImage("",
+                                         "process");
+    }
+
+    @Test
+    public void testProcessDiagramCacheEviction() {
+        final ProcessDiagramCache cache = new ProcessDiagramCache(2,
+                                                                  10);
+
+        cache.put("template",
+                  "container",
+                  "p1",
+                  "12345");
+        cache.put("template",
+                  "container",
+                  "p2",
+                  "123");
+        // touch p1 so that p2 is the least recently used one
+        assertEquals("12345",
+                     cache.get("template",
+                               "container",
+                               "p1"));
+        cache.put("template",
+                  "container",
+                  "p3",
+                  "1234");
+
+        assertNull(cache.get("template",
+                             "container",
+                             "p2"));
+        assertEquals(2,
+                     cache.getSize());
+        assertEquals(9,
+                     cache.getChars());
+
+        // larger than the whole cache, not kept
+        cache.put("template",
+                  "container",
+                  "p4",
+                  "12345678901");
+        assertNull(cache.get("template",
+                             "container",
+                             "p4"));
+
+        cache.invalidate("template");
+        assertEquals(0,
+                     cache.getSize());
+        assertEquals(0,
+                     cache.getChars());
+    }
+
+    @Test
+    public void testProcessInstanceDiagramIfModified() {
+        mockInstanceState(1,
+                          "1.0",
+                          nodeInstances(3l),
+                          nodeInstances(1l,
+                                        2l));
+        when(uiServicesClient.getProcessInstanceImage("",
+                                                      1l)).thenReturn(SVG_WITH_ACTIONS);
+
+        final ProcessDiagramSummary diagram = service.getProcessInstanceDiagramIfModified("",
+                                                                                          "",
+                                                                                          1l,
+                                                                                          null);
+        assertTrue(diagram.isModified());
+        assertNotNull(diagram.getEtag());
+        validateHTMLContent(diagram.getSvgContent());
+
+        final ProcessDiagramSummary notModified = service.getProcessInstanceDiagramIfModified("",
+                                                                                              "",
+                                                                                              1l,
+                                                                                              diagram.getEtag());
+        assertFalse(notModified.isModified());
+        assertEquals(diagram.getEtag(),
+                     notModified.getEtag());
+        assertNull(notModified.getSvgContent());
+        // the diagram is not rendered again while the instance state is unchanged
+        verify(uiServicesClient,
+               times(1)).getProcessInstanceImage("",
+                                                 1l);
+
+        final ProcessDiagramSummary otherTag = service.getProcessInstanceDiagramIfModified("",
+                                                                                           "",
+                                                                                           1l,
+                                                                                           "other");
+        assertTrue(otherTag.isModified());
+        validateHTMLContent(otherTag.getSvgContent());
+    }
+
+    @Test
+    public void testProcessInstanceDiagramModifiedByInstanceState() {
+        when(uiServicesClient.getProcessInstanceImage("",
+                                                      1l)).thenReturn(SVG_WITH_ACTIONS);
+        mockInstanceState(1,
+                          "1.0",
+                          nodeInstances(3l),
+                          nodeInstances(1l,
+                                        2l));
+        final String etag = service.getProcessInstanceDiagramIfModified("",
+                                                                        "",
+                                                                        1l,
+                                                                        null).getEtag();
+
+        mockInstanceState(1,
+                          "1.0",
+                          nodeInstances(4l),
+                          nodeInstances(1l,
+                                        2l,
+                                        3l));
+        final ProcessDiagramSummary nodesChanged = service.getProcessInstanceDiagramIfModified("",
+                                                                                               "",
+                                                                                               1l,
+                                                                                               etag);
+        assertTrue(nodesChanged.isModified());
+        assertNotEquals(etag,
+                        nodesChanged.getEtag());
+        validateHTMLContent(nodesChanged.getSvgContent());
+
+        mockInstanceState(2,
+                          "1.0",
+                          nodeInstances(),
+                          nodeInstances(1l,
+                                        2l,
+                                        3l,
+                                        4l));
+        final ProcessDiagramSummary completed = service.getProcessInstanceDiagramIfModified("",
+                                                                                             "",
+                                                                                             1l,
+                                                                                             nodesChanged.getEtag());
+        assertTrue(completed.isModified());
+
+        mockInstanceState(2,
+                          "1.1",
+                          nodeInstances(),
+                          nodeInstances(1l,
+                                        2l,
+                                        3l,
+                                        4l));
+        final ProcessDiagramSummary released = service.getProcessInstanceDiagramIfModified("",
+                                                                                            "",
+                                                                                            1l,
+                                                                                            completed.getEtag());
+        assertTrue(released.isModified());
+        assertNotEquals(completed.getEtag(),
+                        released.getEtag());
+        verify(uiServicesClient,
+               times(4)).getProcessInstanceImage("",
+                                                 1l);
+    }
+
+    @Test
+    public void testProcessInstanceDiagramIfModifiedNotFound() {
+        when(queryServicesClient.findProcessInstanceById(1l)).thenThrow(new KieServicesHttpException(null,
+                                                                                                   404,
+                                                                                                   null,
+                                                                                                   null));
+
+        assertNull(service.getProcessInstanceDiagramIfModified("",
+                                                               "",
+                                                               1l,
+                                                               "etag"));
+        verify(uiServicesClient,
+               never()).getProcessInstanceImage(anyString(),
+                                                anyLong());
+    }
+
+    private void mockInstanceState(final Integer state,
+                                   final String version,
+                                   final List<NodeInstance> active,
+                                   final List<NodeInstance> completed) {
+        final ProcessInstance processInstance = new ProcessInstance();
+        processInstance.setId(1l);
+        processInstance.setState(state);
+        when(queryServicesClient.findProcessInstanceById(1l)).thenReturn(processInstance);
+        when(queryServicesClient.findActiveNodeInstances(1l,
+                                                         0,
+                                                         Integer.MAX_VALUE)).thenReturn(active);
+        when(queryServicesClient.findCompletedNodeInstances(1l,
+                                                            0,
+                                                            Integer.MAX_VALUE)).thenReturn(completed);
+        final KieContainerResource container = new KieContainerResource();
+        container.setResolvedReleaseId(new ReleaseId("org.jbpm",
+                                                     "evaluation",
+                                                     version));
+        when(servicesClient.getContainerInfo("")).thenReturn(new ServiceResponse<>(ServiceResponse.ResponseType.SUCCESS,
+                                                                                   null,
+                                                                                   container));
+    }
+
+    private static List<NodeInstance> nodeInstances(final Long... ids) {
+        if (ids.length == 0) {
+            return Collections.emptyList();
+        }
+        final List<NodeInstance> nodeInstances = new ArrayList<>();
+        for (Long id : ids) {
+            final NodeInstance nodeInstance = new NodeInstance();
+            nodeInstance.setId(id);
+            nodeInstances.add(nodeInstance);
+        }
+        return nodeInstances;
+    }
+
+    @Test
+    public void testRemoveActionsFromSVG() {
+        assertNull(service.removeActionsFromSVG(null));
+        assertEquals("",
+                     service.removeActionsFromSVG(""));
+        assertEquals("<a  id=\"x\">on</a>",
+                     service.removeActionsFromSVG("<a onclick=\"go()\" id=\"x\">on</a>"));
+        assertEquals("<a on >",
+                     service.removeActionsFromSVG("<a ononclick=\"go()\"onmouseover=\"\" >"));
+        // handler names without a value or with a value spanning lines are kept as they are
+        assertEquals("<a onclick='go()' onmouse=\"x\">",
+                     service.removeActionsFromSVG("<a onclick='go()' onmouse=\"x\">"));
+        assertEquals("<a onclick=\"go(\n)\" >",
+                     service.removeActionsFromSVG("<a onclick=\"go(\n)\" onclick=\"x\">"));
+        assertEquals("<a onclick=\"go()",
+                     service.removeActionsFromSVG("<a onclick=\"go()"));
+        assertEquals("<a onmouseov",
+                     service.removeActionsFromSVG("<a onmouseov"));
+    }
+
+    @Test
+    public void testSVGActionsFilterWriterWithChunks() throws Exception {
+        final StringWriter sanitized = new StringWriter();
+        try (SVGActionsFilterWriter writer = new SVGActionsFilterWriter(sanitized)) {
+            // split the handlers across writes
+            for (int i = 0; i < SVG_WITH_ACTIONS.length(); i += 7) {
+                writer.write(SVG_WITH_ACTIONS.toCharArray(),
+                             i,
+                             Math.min(7,
+                                      SVG_WITH_ACTIONS.length() - i));
+            }
+        }
+        validateHTMLContent(sanitized.toString());
+    }
+}
@@ -16,21 +16,34 @@
 
 package org.jbpm.workbench.pr.backend.server;
 
+import org.jbpm.workbench.ks.integration.KieServerBulkExecutor;
+import org.jbpm.workbench.ks.integration.KieServerDataSetCache;
+import org.jbpm.workbench.ks.integration.KieServerExecutor;
 import org.jbpm.workbench.ks.integration.KieServerIntegration;
+import org.jbpm.workbench.pr.model.ProcessInstanceKey;
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.kie.server.api.exception.KieServicesException;
 import org.kie.server.client.KieServicesClient;
 import org.kie.server.client.ProcessServicesClient;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.runners.MockitoJUnitRunner;
 
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
+import static java.util.Collections.emptyMap;
 import static java.util.Collections.singletonList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 import static org.mockito.Matchers.anyString;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.*;
@@ -45,6 +58,18 @@ public class RemoteProcessServiceImplTest {
     @Mock
     private KieServerIntegration kieServerIntegration;
 
+    @Mock
+    private ProcessVariablesSnapshotCache variablesSnapshotCache;
+
+    @Mock
+    private KieServerDataSetCache dataSetCache;
+
+    private ExecutorService executorService = Executors.newCachedThreadPool();
+
+    @Spy
+    private KieServerBulkExecutor bulkExecutor = new KieServerBulkExecutor(new KieServerExecutor(executorService,
+                                                                                                 8));
+
     @InjectMocks
     private RemoteProcessServiceImpl remoteProcessService;
 
@@ -57,6 +82,11 @@ public class RemoteProcessServiceImplTest {
         when(kieServicesClientMock.getServicesClient(ProcessServicesClient.class)).thenReturn(processServicesClientMock);
     }
 
+    @After
+    public void tearDown() {
+        executorService.shutdownNow();
+    }
+
     @Test
     public void bulkAbortProcessInstancesTest_singleProcessInstance() {
         final String containerId = "containerId";
@@ -67,6 +97,7 @@ public class RemoteProcessServiceImplTest {
                                                    singletonList(processInstanceId));
         verify(processServicesClientMock).abortProcessInstances(containerId,
                                                                 singletonList(processInstanceId));
+        verify(dataSetCache).invalidate(SERVER_TEMPLATE_ID);
     }
 
     @Test
@@ -93,13 +124,35 @@ public class RemoteProcessServiceImplTest {
         remoteProcessService.abortProcessInstances(SERVER_TEMPLATE_ID,
                                                    containerIds,
                                                    processInstanceIds);
-        verify(processServicesClientMock).abortProcessInstance(containerIds.get(0),
-                                                               processInstanceIds.get(0));
-        verify(processServicesClientMock).abortProcessInstance(containerIds.get(1),
-                                                               processInstanceIds.get(1));
+        verify(processServicesClientMock).abortProcessInstances(containerIds.get(0),
+                                                                singletonList(processInstanceIds.get(0)));
+        verify(processServicesClientMock).abortProcessInstances(containerIds.get(1),
+                                                                singletonList(processInstanceIds.get(1)));
         verifyNoMoreInteractions(processServicesClientMock);
     }
 
+    @Test
+    public void bulkAbortProcessInstancesTest_failedContainer() {
+        final List<String> containerIds = new ArrayList<>(Arrays.asList("containerId_1",
+                                                                        "containerId_2"));
+        final List<Long> processInstanceIds = new ArrayList<>(Arrays.asList(1L,
+                                                                            2L));
+        doThrow(new KieServicesException("Not found")).when(processServicesClientMock).abortProcessInstances("containerId_2",
+                                                                                                             singletonList(2L));
+
+        try {
+            remoteProcessService.abortProcessInstances(SERVER_TEMPLATE_ID,
+                                                       containerIds,
+                                                       processInstanceIds);
+            fail("Failed abort should be reported");
+        } catch (RuntimeException e) {
+            assertTrue(e.getMessage().contains("[2]"));
+        }
+        verify(processServicesClientMock).abortProcessInstances("containerId_1",
+                                                                singletonList(1L));
+        verify(dataSetCache).invalidate(SERVER_TEMPLATE_ID);
+    }
+
     private final String signal = "signal";
 
     private final Object event = new Object();
@@ -118,6 +171,7 @@ public class RemoteProcessServiceImplTest {
                                                                  singletonList(processInstanceId),
                                                                  signal,
                                                                  event);
+        verify(dataSetCache).invalidate(SERVER_TEMPLATE_ID);
     }
 
     @Test
@@ -150,14 +204,47 @@ public class RemoteProcessServiceImplTest {
                                                     processInstanceIds,
                                                     signal,
                                                     event);
-        verify(processServicesClientMock).signalProcessInstance(containerIds.get(0),
-                                                                processInstanceIds.get(0),
-                                                                signal,
-                                                                event);
-        verify(processServicesClientMock).signalProcessInstance(containerIds.get(1),
-                                                                processInstanceIds.get(1),
-                                                                signal,
-                                                                event);
+        verify(processServicesClientMock).signalProcessInstances(containerIds.get(0),
+                                                                 singletonList(processInstanceIds.get(0)),
+                                                                 signal,
+                                                                 event);
+        verify(processServicesClientMock).signalProcessInstances(containerIds.get(1),
+                                                                 singletonList(processInstanceIds.get(1)),
+                                                                 signal,
+                                                                 event);
         verifyNoMoreInteractions(processServicesClientMock);
     }
+
+    @Test
+    public void setProcessVariableInvalidatesSnapshotTest() {
+        remoteProcessService.setProcessVariable(SERVER_TEMPLATE_ID,
+                                                "containerId",
+                                                1L,
+                                                "var",
+                                                "value");
+
+        verify(processServicesClientMock).setProcessVariable("containerId",
+                                                             1L,
+                                                             "var",
+                                                             "value");
+        verify(variablesSnapshotCache).invalidate(new ProcessInstanceKey(SERVER_TEMPLATE_ID,
+                                                                         "containerId",
+                                                                         1L));
+        verify(dataSetCache).invalidate(SERVER_TEMPLATE_ID);
+    }
+
+    @Test
+    public void startProcessInvalidatesDataSetCacheTest() {
+        when(processServicesClientMock.startProcess("containerId",
+                                                    "processId",
+                                                    emptyMap())).thenReturn(1L);
+
+        assertEquals(Long.valueOf(1L),
+                     remoteProcessService.startProcess(SERVER_TEMPLATE_ID,
+                                                       "containerId",
+                                                       "processId",
+                                                       null,
+                                                       emptyMap()));
+        verify(dataSetCache).invalidate(SERVER_TEMPLATE_ID);
+    }
 }
@@ -16,19 +16,25 @@
 
 package org.jbpm.workbench.pr.backend.server;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
+import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
 import org.jbpm.workbench.common.model.PortableQueryFilter;
 import org.jbpm.workbench.common.model.QueryFilter;
 import org.jbpm.workbench.ks.integration.KieServerIntegration;
+import org.jbpm.workbench.ks.integration.ProcessDefinitionCache;
 import org.jbpm.workbench.pr.model.ProcessVariableSummary;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.kie.server.api.exception.KieServicesHttpException;
+import org.kie.server.api.model.definition.QueryFilterSpec;
+import org.kie.server.api.model.definition.QueryParam;
 import org.kie.server.api.model.definition.VariablesDefinition;
 import org.kie.server.api.model.instance.VariableInstance;
 import org.kie.server.client.KieServicesClient;
@@ -36,11 +42,14 @@ import org.kie.server.client.ProcessServicesClient;
 import org.kie.server.client.QueryServicesClient;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.runners.MockitoJUnitRunner;
 import org.uberfire.paging.PageResponse;
 
+import static java.util.Collections.emptyList;
 import static java.util.Collections.singletonList;
 import static java.util.Collections.singletonMap;
+import static org.jbpm.workbench.pr.model.ProcessInstanceDataSetConstants.PROCESS_VARIABLES_DATASET;
 import static org.junit.Assert.*;
 import static org.mockito.Mockito.*;
 
@@ -61,6 +70,16 @@ public class RemoteProcessVariablesServiceImplTest {
     @Mock
     private ProcessServicesClient processServicesClient;
 
+    @Spy
+    private ProcessVariablesSnapshotCache snapshotCache = new ProcessVariablesSnapshotCache(60000,
+                                                                                            10);
+
+    @Spy
+    private ProcessDefinitionCache definitionCache = new ProcessDefinitionCache(10);
+
+    @Spy
+    private ProcessVariablesReader variablesReader = new ProcessVariablesReader();
+
     private QueryFilter queryFilter;
 
     @InjectMocks
@@ -68,6 +87,10 @@ public class RemoteProcessVariablesServiceImplTest {
 
     @Before
     public void setup() {
+        variablesReader.kieServerIntegration = kieServerIntegration;
+        variablesReader.snapshotCache = snapshotCache;
+        variablesReader.definitionCache = definitionCache;
+
         final KieServicesClient kieServicesClient = mock(KieServicesClient.class);
         when(kieServerIntegration.getServerClient(any())).thenReturn(kieServicesClient);
         when(kieServicesClient.getServicesClient(QueryServicesClient.class)).thenReturn(queryServicesClient);
@@ -118,7 +141,7 @@ public class RemoteProcessVariablesServiceImplTest {
         when(processServicesClient.getProcessVariableDefinitions(containerId,
                                                                  processId)).thenReturn(variablesDefinition);
 
-        List<ProcessVariableSummary> processInstanceVariables = processVariablesService.getProcessVariables(queryFilter);
+        List<ProcessVariableSummary> processInstanceVariables = variablesReader.getProcessVariables(queryFilter);
 
         verify(processServicesClient).getProcessVariableDefinitions(containerId,
                                                                     processId);
@@ -152,11 +175,13 @@ public class RemoteProcessVariablesServiceImplTest {
                                                                  processId)).thenThrow(new KieServicesHttpException());
         when(queryServicesClient.findVariablesCurrentState(any())).thenReturn(singletonList(variableInstance));
 
-        List<ProcessVariableSummary> processInstanceVariables = processVariablesService.getProcessVariables(queryFilter);
+        List<ProcessVariableSummary> processInstanceVariables = variablesReader.getProcessVariables(queryFilter);
 
         verify(processServicesClient).getProcessVariableDefinitions(containerId,
                                                                     processId);
         verify(queryServicesClient).findVariablesCurrentState(Long.valueOf(processInstanceId));
+        assertEquals(0,
+                     definitionCache.getSize());
         assertEquals(1,
                      processInstanceVariables.size());
         assertEquals(var1,
@@ -196,6 +221,41 @@ public class RemoteProcessVariablesServiceImplTest {
         assertTrue(response.isLastPage());
     }
 
+    @Test
+    public void testGetProcessVariablesSnapshotOrder() {
+        final HashMap<String, String> definitions = new HashMap<>();
+        definitions.put("c",
+                        "");
+        definitions.put("a",
+                        "");
+        definitions.put("d",
+                        "");
+        definitions.put("b",
+                        "");
+        when(processServicesClient.getProcessVariableDefinitions(containerId,
+                                                                 processId)).thenReturn(new VariablesDefinition(definitions));
+        when(queryServicesClient.findVariablesCurrentState(any())).thenReturn(Arrays.asList(VariableInstance.builder()
+                                                                                                    .name("d")
+                                                                                                    .value("valueD")
+                                                                                                    .processInstanceId(Long.valueOf(processInstanceId))
+                                                                                                    .date(new Date())
+                                                                                                    .build(),
+                                                                                            VariableInstance.builder()
+                                                                                                    .name("b")
+                                                                                                    .value("valueB")
+                                                                                                    .processInstanceId(Long.valueOf(processInstanceId))
+                                                                                                    .date(new Date())
+                                                                                                    .build()));
+
+        final List<ProcessVariableSummary> variables = variablesReader.getProcessVariablesSnapshot(queryFilter);
+
+        assertEquals(Arrays.asList("b",
+                                   "d",
+                                   "a",
+                                   "c"),
+                     variables.stream().map(ProcessVariableSummary::getName).collect(Collectors.toList()));
+    }
+
     @Test
     public void testGetDataPaginated() {
         int totalItems = 12;
@@ -219,4 +279,145 @@ public class RemoteProcessVariablesServiceImplTest {
         assertTrue(response.isFirstPage());
         assertFalse(response.isLastPage());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testGetDataReusesSnapshot() {
+        VariableInstance variableInstance =
+                VariableInstance.builder()
+                        .name("var1")
+                        .value("valueVar1")
+                        .processInstanceId(Long.valueOf(processInstanceId))
+                        .date(new Date())
+                        .build();
+        when(processServicesClient.getProcessVariableDefinitions(containerId,
+                                                                 processId)).thenReturn(new VariablesDefinition(new HashMap<>()));
+        when(queryServicesClient.findVariablesCurrentState(any())).thenReturn(singletonList(variableInstance));
+
+        processVariablesService.getData(queryFilter);
+        // the snapshot is searched ignoring case, like the paged query
+        queryFilter.getParams().put("textSearch",
+                                    "VAR");
+        final PageResponse<ProcessVariableSummary> response = processVariablesService.getData(queryFilter);
+
+        assertEquals(1,
+                     response.getPageRowList().size());
+        verify(queryServicesClient,
+               times(1)).findVariablesCurrentState(Long.valueOf(processInstanceId));
+        verify(processServicesClient,
+               times(1)).getProcessVariableDefinitions(containerId,
+                                                       processId);
+
+        snapshotCache.invalidate(serverTemplateId);
+        processVariablesService.getData(queryFilter);
+        verify(queryServicesClient,
+               times(2)).findVariablesCurrentState(Long.valueOf(processInstanceId));
+        // definitions are kept until the container changes
+        verify(processServicesClient,
+               times(1)).getProcessVariableDefinitions(containerId,
+                                                       processId);
+
+        definitionCache.invalidate(serverTemplateId,
+                                   containerId);
+        snapshotCache.invalidate(serverTemplateId);
+        processVariablesService.getData(queryFilter);
+        verify(processServicesClient,
+               times(2)).getProcessVariableDefinitions(containerId,
+                                                       processId);
+    }
+
+    @Test
+    public void testGetDataPagedQuery() {
+        final HashMap<String, String> definitions = new HashMap<>();
+        definitions.put("var1",
+                        "String");
+        definitions.put("var3",
+                        "Integer");
+        when(processServicesClient.getProcessVariableDefinitions(containerId,
+                                                                 processId)).thenReturn(new VariablesDefinition(definitions));
+        final List<List> valued = Arrays.asList(variableRow("var1"),
+                                                variableRow("var2"));
+        when(queryServicesClient.query(eq(PROCESS_VARIABLES_DATASET),
+                                       eq(QueryServicesClient.QUERY_MAP_RAW),
+                                       any(QueryFilterSpec.class),
+                                       anyInt(),
+                                       anyInt(),
+                                       eq(List.class))).thenAnswer(invocation -> {
+            final QueryFilterSpec spec = (QueryFilterSpec) invocation.getArguments()[2];
+            if (hasParam(spec,
+                         "id",
+                         "COUNT")) {
+                return singletonList(singletonList(valued.size()));
+            } else if (hasParam(spec,
+                                "variableId",
+                                "EQUALS_TO")) {
+                // declared variables holding a value
+                return singletonList(valued.get(0));
+            }
+            return valued;
+        });
+
+        final PageResponse<ProcessVariableSummary> response = processVariablesService.getData(queryFilter);
+
+        verify(queryServicesClient,
+               never()).findVariablesCurrentState(any());
+        assertEquals(3,
+                     response.getTotalRowSize());
+        assertTrue(response.isTotalRowSizeExact());
+        assertTrue(response.isLastPage());
+        assertEquals(3,
+                     response.getPageRowList().size());
+        assertEquals("var1",
+                     response.getPageRowList().get(0).getName());
+        assertEquals("String",
+                     response.getPageRowList().get(0).getType());
+        assertEquals("value_var1",
+                     response.getPageRowList().get(0).getNewValue());
+        assertEquals("var2",
+                     response.getPageRowList().get(1).getName());
+        assertEquals("var3",
+                     response.getPageRowList().get(2).getName());
+        assertEquals("Integer",
+                     response.getPageRowList().get(2).getType());
+        assertEquals("",
+                     response.getPageRowList().get(2).getNewValue());
+    }
+
+    @Test
+    public void testGetDataPagedQueryNotAvailable() {
+        when(processServicesClient.getProcessVariableDefinitions(containerId,
+                                                                 processId)).thenReturn(new VariablesDefinition(new HashMap<>()));
+        when(queryServicesClient.query(anyString(),
+                                       anyString(),
+                                       any(QueryFilterSpec.class),
+                                       anyInt(),
+                                       anyInt(),
+                                       eq(List.class))).thenThrow(new KieServicesHttpException());
+        when(queryServicesClient.findVariablesCurrentState(any())).thenReturn(emptyList());
+
+        final PageResponse<ProcessVariableSummary> response = processVariablesService.getData(queryFilter);
+
+        assertEquals(0,
+                     response.getTotalRowSize());
+        verify(queryServicesClient).findVariablesCurrentState(Long.valueOf(processInstanceId));
+    }
+
+    private List<Object> variableRow(final String name) {
+        return new ArrayList<>(Arrays.asList(Long.valueOf(processInstanceId),
+                                             name,
+                                             "value_" + name,
+                                             "",
+                                             new Date(),
+                                             1L));
+    }
+
+    private static boolean hasParam(final QueryFilterSpec spec,
+                                    final String column,
+                                    final String operator) {
+        for (QueryParam param : spec.getParameters()) {
+            if (column.equals(param.getColumn()) && operator.equals(param.getOperator())) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
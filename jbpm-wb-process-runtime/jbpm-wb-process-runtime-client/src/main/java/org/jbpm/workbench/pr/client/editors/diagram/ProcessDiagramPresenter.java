@@ -25,6 +25,8 @@ import org.jboss.errai.common.client.api.Caller;
 import org.jbpm.workbench.pr.client.resources.i18n.Constants;
 import org.jbpm.workbench.pr.events.ProcessDefSelectionEvent;
 import org.jbpm.workbench.pr.events.ProcessInstanceSelectionEvent;
+import org.jbpm.workbench.pr.model.ProcessDiagramSummary;
+import org.jbpm.workbench.pr.model.ProcessInstanceKey;
 import org.jbpm.workbench.pr.service.ProcessImageService;
 import org.uberfire.client.annotations.WorkbenchPartTitle;
 import org.uberfire.client.annotations.WorkbenchPartView;
@@ -40,20 +42,49 @@ public class ProcessDiagramPresenter {
 
     private Constants constants = Constants.INSTANCE;
 
+    private ProcessInstanceKey diagramInstanceKey;
+
+    private ProcessDiagramSummary instanceDiagram;
+
     @Inject
     public void setProcessImageService(final Caller<ProcessImageService> processImageService) {
         this.processImageService = processImageService;
     }
 
     public void onProcessInstanceSelectionEvent(@Observes final ProcessInstanceSelectionEvent event) {
-        String containerId = event.getDeploymentId();
-        Long processInstanceId = event.getProcessInstanceId();
-        String serverTemplateId = event.getServerTemplateId();
+        final ProcessInstanceKey instanceKey = new ProcessInstanceKey(event.getServerTemplateId(),
+                                                                      event.getDeploymentId(),
+                                                                      event.getProcessInstanceId());
+        loadProcessInstanceDiagram(instanceKey,
+                                   instanceKey.equals(diagramInstanceKey) && instanceDiagram != null ? instanceDiagram.getEtag() : null);
+    }
 
-        processImageService.call((String svgContent) -> displayImage(svgContent,
-                                                                     containerId)).getProcessInstanceDiagram(serverTemplateId,
-                                                                                                             containerId,
-                                                                                                             processInstanceId);
+    protected void loadProcessInstanceDiagram(final ProcessInstanceKey instanceKey,
+                                              final String etag) {
+        processImageService.call((ProcessDiagramSummary diagram) -> onProcessInstanceDiagram(instanceKey,
+                                                                                             diagram)).getProcessInstanceDiagramIfModified(instanceKey.getServerTemplateId(),
+                                                                                                                                           instanceKey.getDeploymentId(),
+                                                                                                                                           instanceKey.getProcessInstanceId(),
+                                                                                                                                           etag);
+    }
+
+    protected void onProcessInstanceDiagram(final ProcessInstanceKey instanceKey,
+                                            final ProcessDiagramSummary diagram) {
+        if (diagram != null && !diagram.isModified()) {
+            if (instanceKey.equals(diagramInstanceKey) && instanceDiagram != null) {
+                displayImage(instanceDiagram.getSvgContent(),
+                             instanceKey.getDeploymentId());
+            } else {
+                // the diagram held when the request was sent has been replaced meanwhile
+                loadProcessInstanceDiagram(instanceKey,
+                                           null);
+            }
+            return;
+        }
+        diagramInstanceKey = instanceKey;
+        instanceDiagram = diagram;
+        displayImage(diagram == null ? null : diagram.getSvgContent(),
+                     instanceKey.getDeploymentId());
     }
 
     public void onProcessSelectionEvent(@Observes final ProcessDefSelectionEvent event) {
@@ -16,6 +16,7 @@
 package org.jbpm.workbench.pr.client.editors.instance.list;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
@@ -26,6 +27,8 @@ import javax.enterprise.event.Event;
 import javax.enterprise.event.Observes;
 import javax.inject.Inject;
 
+import com.google.gwt.user.cellview.client.ColumnSortList;
+import com.google.gwt.view.client.Range;
 import org.dashbuilder.common.client.error.ClientRuntimeError;
 import org.dashbuilder.dataset.DataSet;
 import org.dashbuilder.dataset.DataSetOp;
@@ -35,17 +38,17 @@ import org.dashbuilder.dataset.filter.ColumnFilter;
 import org.dashbuilder.dataset.filter.CoreFunctionFilter;
 import org.dashbuilder.dataset.filter.CoreFunctionType;
 import org.dashbuilder.dataset.filter.DataSetFilter;
-import org.dashbuilder.dataset.sort.SortOrder;
 import org.jboss.errai.common.client.api.Caller;
 import org.jbpm.workbench.common.client.dataset.AbstractDataSetReadyCallback;
+import org.jbpm.workbench.common.client.dataset.DomainDataJoin;
 import org.jbpm.workbench.common.client.list.AbstractMultiGridPresenter;
 import org.jbpm.workbench.common.client.list.ExtendedPagedTable;
 import org.jbpm.workbench.common.client.list.MultiGridView;
 import org.jbpm.workbench.common.client.menu.PrimaryActionMenuBuilder;
 import org.jbpm.workbench.common.client.menu.RefreshMenuBuilder;
 import org.jbpm.workbench.df.client.filter.FilterSettings;
-import org.jbpm.workbench.df.client.list.DataSetQueryHelper;
 import org.jbpm.workbench.forms.client.display.process.QuickNewProcessInstancePopup;
+import org.jbpm.workbench.ks.integration.ConsoleDataSetLookup;
 import org.jbpm.workbench.pr.client.editors.instance.signal.ProcessInstanceSignalPresenter;
 import org.jbpm.workbench.pr.client.resources.i18n.Constants;
 import org.jbpm.workbench.pr.events.NewProcessInstanceEvent;
@@ -73,15 +76,34 @@ import static org.jbpm.workbench.pr.model.ProcessInstanceDataSetConstants.*;
 @WorkbenchScreen(identifier = PROCESS_INSTANCE_LIST_SCREEN)
 public class ProcessInstanceListPresenter extends AbstractMultiGridPresenter<ProcessInstanceSummary, ProcessInstanceListPresenter.ProcessInstanceListView> {
 
+    /**
+     * Columns of the process instances data set, the other columns of a lookup with variables hold variables.
+     */
+    protected static final Set<String> PROCESS_INSTANCE_COLUMNS = new HashSet<String>(Arrays.asList(COLUMN_PROCESS_INSTANCE_ID,
+                                                                                                    COLUMN_PROCESS_ID,
+                                                                                                    COLUMN_START,
+                                                                                                    COLUMN_END,
+                                                                                                    COLUMN_STATUS,
+                                                                                                    COLUMN_PARENT_PROCESS_INSTANCE_ID,
+                                                                                                    COLUMN_OUTCOME,
+                                                                                                    COLUMN_DURATION,
+                                                                                                    COLUMN_IDENTITY,
+                                                                                                    COLUMN_PROCESS_VERSION,
+                                                                                                    COLUMN_PROCESS_NAME,
+                                                                                                    COLUMN_CORRELATION_KEY,
+                                                                                                    COLUMN_EXTERNAL_ID,
+                                                                                                    COLUMN_PROCESS_INSTANCE_DESCRIPTION,
+                                                                                                    COLUMN_LAST_MODIFICATION_DATE,
+                                                                                                    COLUMN_SLA_DUE_DATE,
+                                                                                                    COLUMN_SLA_COMPLIANCE,
+                                                                                                    COLUMN_ERROR_COUNT));
+
     protected final List<ProcessInstanceSummary> myProcessInstancesFromDataSet = new ArrayList<ProcessInstanceSummary>();
 
     private final Constants constants = Constants.INSTANCE;
 
     private final org.jbpm.workbench.common.client.resources.i18n.Constants commonConstants = org.jbpm.workbench.common.client.resources.i18n.Constants.INSTANCE;
 
-    @Inject
-    private DataSetQueryHelper dataSetQueryHelperDomainSpecific;
-
     @Inject
     private ErrorPopupPresenter errorPopup;
 
@@ -110,46 +132,32 @@ public class ProcessInstanceListPresenter extends AbstractMultiGridPresenter<Pro
                               PROCESS_INSTANCE_DETAILS_SCREEN);
     }
 
-    protected DataSetReadyCallback createDataSetDomainSpecificCallback(final int startRange,
-                                                                       final FilterSettings tableSettings,
-                                                                       boolean lastPage) {
-        return new AbstractDataSetReadyCallback(errorPopup,
-                                                view,
-                                                tableSettings.getUUID()) {
-            @Override
-            public void callback(DataSet dataSet) {
-                Set<String> columns = new HashSet<String>();
-                for (int i = 0; i < dataSet.getRowCount(); i++) {
-                    Long processInstanceId = getColumnLongValue(dataSet,
-                                                                PROCESS_INSTANCE_ID,
-                                                                i);
-                    String variableName = getColumnStringValue(dataSet,
-                                                               VARIABLE_NAME,
-                                                               i);
-                    String variableValue = getColumnStringValue(dataSet,
-                                                                VARIABLE_VALUE,
-                                                                i);
-
-                    for (ProcessInstanceSummary pis : myProcessInstancesFromDataSet) {
-                        String initiator = pis.getInitiator();
-                        if (pis.getProcessInstanceId().equals(processInstanceId) && !filterInitiator(variableName,
-                                                                                                     variableValue,
-                                                                                                     initiator)) {
-                            pis.addDomainData(variableName,
-                                              variableValue);
-                            columns.add(variableName);
-                        }
-                    }
-                }
-                view.addDomainSpecifColumns(view.getListGrid(),
-                                            columns);
-
-                updateDataOnCallback(myProcessInstancesFromDataSet,
-                                     startRange,
-                                     startRange + myProcessInstancesFromDataSet.size(),
-                                     lastPage);
-            }
-        };
+    /**
+     * Attaches the variables, read as columns of the process instances lookup, and shows them as domain columns.
+     */
+    protected void joinDomainData(final DataSet dataSet) {
+        final Set<String> columns = new DomainDataJoin<ProcessInstanceSummary>(myProcessInstancesFromDataSet,
+                                                                              ProcessInstanceSummary::getProcessInstanceId,
+                                                                              this::addDomainData)
+                .joinColumns(dataSet,
+                             COLUMN_PROCESS_INSTANCE_ID,
+                             PROCESS_INSTANCE_COLUMNS)
+                .getColumns();
+        view.addDomainSpecifColumns(view.getListGrid(),
+                                    columns);
+    }
+
+    protected boolean addDomainData(ProcessInstanceSummary pis,
+                                    String variableName,
+                                    String variableValue) {
+        if (filterInitiator(variableName,
+                            variableValue,
+                            pis.getInitiator())) {
+            return false;
+        }
+        pis.addDomainData(variableName,
+                          variableValue);
+        return true;
     }
 
     protected boolean filterInitiator(String variableName,
@@ -158,6 +166,50 @@ public class ProcessInstanceListPresenter extends AbstractMultiGridPresenter<Pro
         return variableName.equals("initiator") && variableValue.equals(initiator);
     }
 
+    /**
+     * Instances filtered by process are read together with their variables, which can then be sorted on. Variables
+     * are sorted on the server up to a limited number of instances, so a sort on a variable is dropped once the
+     * instances are no longer filtered by process.
+     */
+    @Override
+    public void getData(final Range visibleRange) {
+        final FilterSettings currentTableSettings = dataSetQueryHelper.getCurrentTableSettings();
+        final String processId = currentTableSettings == null || currentTableSettings.getDataSetLookup() == null ? null :
+                isFilteredByProcessId(currentTableSettings.getDataSetLookup().getOperationList());
+        if (processId != null) {
+            dataSetQueryHelper.setVariablesLookup(getVariablesLookup(processId),
+                                                  COLUMN_PROCESS_INSTANCE_ID);
+        } else {
+            dataSetQueryHelper.setVariablesLookup(null,
+                                                  null);
+            clearVariableSort();
+        }
+        super.getData(visibleRange);
+    }
+
+    protected ConsoleDataSetLookup getVariablesLookup(final String processId) {
+        final FilterSettings variablesTableSettings = filterSettingsManager.getVariablesFilterSettings(processId);
+        return ((ConsoleDataSetLookup) ConsoleDataSetLookup.fromInstance(variablesTableSettings.getDataSetLookup(),
+                                                                         getSelectedServerTemplate()))
+                .pivot(PROCESS_INSTANCE_ID,
+                       VARIABLE_NAME,
+                       VARIABLE_VALUE);
+    }
+
+    protected void clearVariableSort() {
+        final ColumnSortList columnSortList = view.getListGrid().getColumnSortList();
+        if (columnSortList != null && columnSortList.size() > 0 &&
+                !PROCESS_INSTANCE_COLUMNS.contains(columnSortList.get(0).getColumn().getDataStoreName())) {
+            columnSortList.clear();
+            dataSetQueryHelper.setLastOrderedColumn(null);
+        }
+    }
+
+    @Override
+    protected String getKeysetColumn() {
+        return COLUMN_PROCESS_INSTANCE_ID;
+    }
+
     @Override
     protected DataSetReadyCallback getDataSetReadyCallback(final Integer startRange,
                                                            final FilterSettings tableSettings) {
@@ -180,17 +232,13 @@ public class ProcessInstanceListPresenter extends AbstractMultiGridPresenter<Pro
                         lastPage = true;
                     }
 
-                    final String filterValue = isFilteredByProcessId(tableSettings.getDataSetLookup().getOperationList());
-                    if (filterValue != null) {
-                        getDomainSpecifDataForProcessInstances(startRange,
-                                                               filterValue,
-                                                               lastPage);
-                    } else {
-                        updateDataOnCallback(myProcessInstancesFromDataSet,
-                                             startRange,
-                                             startRange + myProcessInstancesFromDataSet.size(),
-                                             lastPage);
+                    if (isFilteredByProcessId(tableSettings.getDataSetLookup().getOperationList()) != null) {
+                        joinDomainData(dataSet);
                     }
+                    updateDataOnCallback(myProcessInstancesFromDataSet,
+                                         startRange,
+                                         startRange + myProcessInstancesFromDataSet.size(),
+                                         lastPage);
                 }
                 view.hideBusyIndicator();
             }
@@ -235,23 +283,6 @@ public class ProcessInstanceListPresenter extends AbstractMultiGridPresenter<Pro
         return null;
     }
 
-    public void getDomainSpecifDataForProcessInstances(final int startRange,
-                                                       String filterValue,
-                                                       boolean lastPage) {
-        FilterSettings variablesTableSettings = filterSettingsManager.getVariablesFilterSettings(filterValue);
-        variablesTableSettings.setServerTemplateId(getSelectedServerTemplate());
-        variablesTableSettings.setTablePageSize(-1);
-
-        dataSetQueryHelperDomainSpecific.setDataSetHandler(variablesTableSettings);
-        dataSetQueryHelperDomainSpecific.setCurrentTableSettings(variablesTableSettings);
-        dataSetQueryHelperDomainSpecific.setLastOrderedColumn(PROCESS_INSTANCE_ID);
-        dataSetQueryHelperDomainSpecific.setLastSortOrder(SortOrder.ASCENDING);
-        dataSetQueryHelperDomainSpecific.lookupDataSet(0,
-                                                       createDataSetDomainSpecificCallback(startRange,
-                                                                                           variablesTableSettings,
-                                                                                           lastPage));
-    }
-
     protected ProcessInstanceSummary createProcessInstanceSummaryFromDataSet(DataSet dataSet,
                                                                              int i) {
         return new ProcessInstanceSummary(
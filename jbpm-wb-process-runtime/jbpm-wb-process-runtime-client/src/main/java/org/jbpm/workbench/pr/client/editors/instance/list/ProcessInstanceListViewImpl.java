@@ -170,7 +170,6 @@ public class ProcessInstanceListViewImpl extends AbstractMultiGridView<ProcessIn
             if (!isColumnAdded(columnMetas,
                                colPref.getName())) {
                 Column genericColumn = initGenericColumn(colPref.getName());
-                genericColumn.setSortable(false);
                 columnMetas.add(new ColumnMeta<>(genericColumn,
                                                  colPref.getName(),
                                                  true,
@@ -225,7 +224,6 @@ public class ProcessInstanceListViewImpl extends AbstractMultiGridView<ProcessIn
                 caption = (String) modifiedCaptions.get(c);
             }
             Column genericColumn = initGenericColumn(c);
-            genericColumn.setSortable(false);
 
             columnMetas.add(new ColumnMeta<ProcessInstanceSummary>(genericColumn,
                                                                    caption,
@@ -236,6 +234,9 @@ public class ProcessInstanceListViewImpl extends AbstractMultiGridView<ProcessIn
         extendedPagedTable.addColumns(columnMetas);
     }
 
+    /**
+     * Variable columns sort on the server, which only applies the sort while the instances are filtered by process.
+     */
     private Column initGenericColumn(final String key) {
 
         Column<ProcessInstanceSummary, String> genericColumn = new Column<ProcessInstanceSummary, String>(new TextCell()) {
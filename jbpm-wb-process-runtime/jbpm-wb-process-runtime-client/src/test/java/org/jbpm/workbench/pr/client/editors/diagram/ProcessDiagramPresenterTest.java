@@ -20,6 +20,7 @@ import com.google.gwtmockito.GwtMockitoTestRunner;
 import org.jbpm.workbench.pr.client.resources.i18n.Constants;
 import org.jbpm.workbench.pr.events.ProcessDefSelectionEvent;
 import org.jbpm.workbench.pr.events.ProcessInstanceSelectionEvent;
+import org.jbpm.workbench.pr.model.ProcessDiagramSummary;
 import org.jbpm.workbench.pr.service.ProcessImageService;
 import org.junit.Before;
 import org.junit.Test;
@@ -29,6 +30,7 @@ import org.mockito.Mock;
 import org.uberfire.mocks.CallerMock;
 
 import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.*;
 
 @RunWith(GwtMockitoTestRunner.class)
@@ -78,23 +80,16 @@ public class ProcessDiagramPresenterTest {
 
     @Test
     public void testEmptyProcessInstanceDiagram() {
-        when(imageService.getProcessInstanceDiagram(any(),
-                                                    any(),
-                                                    any())).thenReturn("",
-                                                                       null);
-
-        presenter.onProcessInstanceSelectionEvent(new ProcessInstanceSelectionEvent(null,
-                                                                                    1l,
-                                                                                    null,
-                                                                                    null,
-                                                                                    null,
-                                                                                    null));
-        presenter.onProcessInstanceSelectionEvent(new ProcessInstanceSelectionEvent(null,
-                                                                                    1l,
-                                                                                    null,
-                                                                                    null,
-                                                                                    null,
-                                                                                    null));
+        when(imageService.getProcessInstanceDiagramIfModified(any(),
+                                                              any(),
+                                                              any(),
+                                                              any())).thenReturn(new ProcessDiagramSummary("etag",
+                                                                                                           "",
+                                                                                                           true),
+                                                                                 null);
+
+        presenter.onProcessInstanceSelectionEvent(createProcessInstanceSelectionEvent(1l));
+        presenter.onProcessInstanceSelectionEvent(createProcessInstanceSelectionEvent(1l));
 
         verify(view,
                times(2)).displayMessage(Constants.INSTANCE.Process_Diagram_Not_FoundContainerShouldBeAvailable(anyString()));
@@ -103,20 +98,78 @@ public class ProcessDiagramPresenterTest {
     @Test
     public void testProcessInstanceDiagram() {
         final String svgContent = "<svg></svg>";
-        when(imageService.getProcessInstanceDiagram(any(),
-                                                    any(),
-                                                    any())).thenReturn(svgContent,
-                                                                       null);
-
-        presenter.onProcessInstanceSelectionEvent(new ProcessInstanceSelectionEvent(null,
-                                                                                    1l,
-                                                                                    null,
-                                                                                    null,
-                                                                                    null,
-                                                                                    null));
+        when(imageService.getProcessInstanceDiagramIfModified(any(),
+                                                              any(),
+                                                              any(),
+                                                              any())).thenReturn(new ProcessDiagramSummary("etag",
+                                                                                                           svgContent,
+                                                                                                           true),
+                                                                                 null);
+
+        presenter.onProcessInstanceSelectionEvent(createProcessInstanceSelectionEvent(1l));
 
         verify(view,
                never()).displayMessage(Constants.INSTANCE.Process_Diagram_Not_FoundContainerShouldBeAvailable(anyString()));
         verify(view).displayImage(svgContent);
     }
+
+    @Test
+    public void testProcessInstanceDiagramNotModified() {
+        final String svgContent = "<svg></svg>";
+        when(imageService.getProcessInstanceDiagramIfModified(any(),
+                                                              any(),
+                                                              eq(1l),
+                                                              eq((String) null))).thenReturn(new ProcessDiagramSummary("etag",
+                                                                                                                          svgContent,
+                                                                                                                          true));
+        when(imageService.getProcessInstanceDiagramIfModified(any(),
+                                                              any(),
+                                                              eq(1l),
+                                                              eq("etag"))).thenReturn(new ProcessDiagramSummary("etag",
+                                                                                                                null,
+                                                                                                                false));
+
+        presenter.onProcessInstanceSelectionEvent(createProcessInstanceSelectionEvent(1l));
+        presenter.onProcessInstanceSelectionEvent(createProcessInstanceSelectionEvent(1l));
+
+        verify(imageService).getProcessInstanceDiagramIfModified(any(),
+                                                                 any(),
+                                                                 eq(1l),
+                                                                 eq((String) null));
+        verify(imageService).getProcessInstanceDiagramIfModified(any(),
+                                                                 any(),
+                                                                 eq(1l),
+                                                                 eq("etag"));
+        verify(view,
+               times(2)).displayImage(svgContent);
+        verify(view,
+               never()).displayMessage(Constants.INSTANCE.Process_Diagram_Not_FoundContainerShouldBeAvailable(anyString()));
+    }
+
+    @Test
+    public void testOtherProcessInstanceDiagramIsNotConditional() {
+        when(imageService.getProcessInstanceDiagramIfModified(any(),
+                                                              any(),
+                                                              any(),
+                                                              any())).thenReturn(new ProcessDiagramSummary("etag",
+                                                                                                           "<svg></svg>",
+                                                                                                           true));
+
+        presenter.onProcessInstanceSelectionEvent(createProcessInstanceSelectionEvent(1l));
+        presenter.onProcessInstanceSelectionEvent(createProcessInstanceSelectionEvent(2l));
+
+        verify(imageService).getProcessInstanceDiagramIfModified(any(),
+                                                                 any(),
+                                                                 eq(2l),
+                                                                 eq((String) null));
+    }
+
+    private ProcessInstanceSelectionEvent createProcessInstanceSelectionEvent(final Long processInstanceId) {
+        return new ProcessInstanceSelectionEvent(null,
+                                                 processInstanceId,
+                                                 null,
+                                                 null,
+                                                 null,
+                                                 null);
+    }
 }
@@ -25,17 +25,20 @@ import java.util.function.Predicate;
 
 import com.google.common.collect.Lists;
 import com.google.gwt.dev.util.collect.HashSet;
+import com.google.gwt.user.cellview.client.Column;
+import com.google.gwt.user.cellview.client.ColumnSortList;
 import com.google.gwt.view.client.Range;
 import com.google.gwtmockito.GwtMockitoTestRunner;
 import org.apache.commons.lang3.StringUtils;
 import org.dashbuilder.common.client.error.ClientRuntimeError;
+import org.dashbuilder.dataset.ColumnType;
 import org.dashbuilder.dataset.DataSet;
 import org.dashbuilder.dataset.DataSetLookup;
 import org.dashbuilder.dataset.DataSetOp;
 import org.dashbuilder.dataset.client.DataSetReadyCallback;
 import org.dashbuilder.dataset.filter.ColumnFilter;
 import org.dashbuilder.dataset.filter.DataSetFilter;
-import org.dashbuilder.dataset.sort.SortOrder;
+import org.dashbuilder.dataset.impl.DataColumnImpl;
 import org.jboss.errai.common.client.api.Caller;
 import org.jboss.errai.security.shared.api.identity.User;
 import org.jbpm.workbench.common.client.PerspectiveIds;
@@ -49,6 +52,7 @@ import org.jbpm.workbench.df.client.filter.FilterSettings;
 import org.jbpm.workbench.df.client.filter.FilterSettingsJSONMarshaller;
 import org.jbpm.workbench.df.client.filter.FilterSettingsManager;
 import org.jbpm.workbench.df.client.list.DataSetQueryHelper;
+import org.jbpm.workbench.ks.integration.ConsoleDataSetLookup;
 import org.jbpm.workbench.pr.client.editors.instance.signal.ProcessInstanceSignalPresenter;
 import org.jbpm.workbench.pr.client.resources.i18n.Constants;
 import org.jbpm.workbench.pr.events.ProcessInstanceSelectionEvent;
@@ -112,12 +116,6 @@ public class ProcessInstanceListPresenterTest {
     @Mock
     private DataSet dataSet;
 
-    @Mock
-    private DataSet dataSetProcessVar;
-
-    @Mock
-    private DataSetQueryHelper dataSetQueryHelperDomainSpecific;
-
     @Mock
     private ListTable extendedPagedTable;
 
@@ -229,15 +227,6 @@ public class ProcessInstanceListPresenterTest {
         }).when(dataSetQueryHelper).lookupDataSet(anyInt(),
                                                   any(DataSetReadyCallback.class));
 
-        doAnswer(new Answer() {
-
-            @Override
-            public Object answer(InvocationOnMock invocation) throws Throwable {
-                ((DataSetReadyCallback) invocation.getArguments()[1]).callback(dataSetProcessVar);
-                return null;
-            }
-        }).when(dataSetQueryHelperDomainSpecific).lookupDataSet(anyInt(),
-                                                                any(DataSetReadyCallback.class));
         commonConstants = org.jbpm.workbench.common.client.resources.i18n.Constants.INSTANCE;
 
         presenter.setProcessService(remoteProcessServiceCaller);
@@ -248,11 +237,14 @@ public class ProcessInstanceListPresenterTest {
         presenter.getData(new Range(0,
                                     5));
 
+        verify(dataSetQueryHelper).setKeysetColumn(COLUMN_PROCESS_INSTANCE_ID);
+        verify(dataSetQueryHelper).setVariablesLookup(null,
+                                                      null);
         verify(dataSetQueryHelper).lookupDataSet(anyInt(),
                                                  any(DataSetReadyCallback.class));
-        verify(dataSetQueryHelperDomainSpecific,
-               never()).lookupDataSet(anyInt(),
-                                      any(DataSetReadyCallback.class));
+        verify(viewMock,
+               never()).addDomainSpecifColumns(any(ExtendedPagedTable.class),
+                                               any(Set.class));
         verify(viewMock,
                times(2)).hideBusyIndicator();
     }
@@ -392,26 +384,26 @@ public class ProcessInstanceListPresenterTest {
                                         "testProc"));
         filterSettings.getDataSetLookup().addOperation(filter);
 
-        when(dataSet.getRowCount()).thenReturn(1);//1 process instance
-        when(dataSet.getValueAt(0,
-                                COLUMN_PROCESS_INSTANCE_ID)).thenReturn(Long.valueOf(1));
-
-        when(dataSetProcessVar.getRowCount()).thenReturn(2); //two domain variables associated
-        when(dataSetProcessVar.getValueAt(0,
-                                          PROCESS_INSTANCE_ID)).thenReturn(Long.valueOf(1));
+        //1 process instance with two domain variables, joined as columns by the server
         String processVariable1 = "var1";
-        when(dataSetProcessVar.getValueAt(0,
-                                          VARIABLE_NAME)).thenReturn(processVariable1);
-        when(dataSetProcessVar.getValueAt(0,
-                                          VARIABLE_VALUE)).thenReturn("value1");
-
-        when(dataSetProcessVar.getValueAt(1,
-                                          PROCESS_INSTANCE_ID)).thenReturn(Long.valueOf(1));
         String processVariable2 = "var2";
-        when(dataSetProcessVar.getValueAt(1,
-                                          VARIABLE_NAME)).thenReturn(processVariable2);
-        when(dataSetProcessVar.getValueAt(1,
-                                          VARIABLE_VALUE)).thenReturn("value2");
+        when(dataSet.getRowCount()).thenReturn(1);
+        when(dataSet.getColumns()).thenReturn(asList(new DataColumnImpl(COLUMN_PROCESS_INSTANCE_ID,
+                                                                        ColumnType.NUMBER),
+                                                     new DataColumnImpl(COLUMN_PROCESS_ID,
+                                                                        ColumnType.LABEL),
+                                                     new DataColumnImpl(processVariable1,
+                                                                        ColumnType.LABEL),
+                                                     new DataColumnImpl(processVariable2,
+                                                                        ColumnType.LABEL)));
+        when(dataSet.getValueAt(0,
+                                COLUMN_PROCESS_INSTANCE_ID)).thenReturn(Long.valueOf(1));
+        when(dataSet.getValueAt(0,
+                                COLUMN_PROCESS_ID)).thenReturn("testProc");
+        when(dataSet.getValueAt(0,
+                                processVariable1)).thenReturn("value1");
+        when(dataSet.getValueAt(0,
+                                processVariable2)).thenReturn("value2");
 
         Set<String> expectedColumns = new HashSet<String>();
         expectedColumns.add(processVariable1);
@@ -429,19 +421,26 @@ public class ProcessInstanceListPresenterTest {
 
         verify(dataSetQueryHelper).lookupDataSet(anyInt(),
                                                  any(DataSetReadyCallback.class));
-        verify(dataSetQueryHelperDomainSpecific).lookupDataSet(anyInt(),
-                                                               any(DataSetReadyCallback.class));
-        verify(dataSetQueryHelperDomainSpecific).setLastOrderedColumn(PROCESS_INSTANCE_ID);
-        verify(dataSetQueryHelperDomainSpecific).setLastSortOrder(SortOrder.ASCENDING);
 
-        when(dataSetProcessVar.getRowCount()).thenReturn(1); //one domain variables associated
-        when(dataSetProcessVar.getValueAt(0,
-                                          PROCESS_INSTANCE_ID)).thenReturn(Long.valueOf(1));
+        ArgumentCaptor<ConsoleDataSetLookup> variablesLookup = ArgumentCaptor.forClass(ConsoleDataSetLookup.class);
+        verify(dataSetQueryHelper).setVariablesLookup(variablesLookup.capture(),
+                                                      eq(COLUMN_PROCESS_INSTANCE_ID));
+        assertTrue(variablesLookup.getValue().isPivot());
+        assertEquals(PROCESS_INSTANCE_ID,
+                     variablesLookup.getValue().getPivotRowColumn());
+        assertEquals(VARIABLE_NAME,
+                     variablesLookup.getValue().getPivotNameColumn());
+        assertEquals(VARIABLE_VALUE,
+                     variablesLookup.getValue().getPivotValueColumn());
+
+        //one domain variable associated
         processVariable1 = "varTest1";
-        when(dataSetProcessVar.getValueAt(0,
-                                          VARIABLE_NAME)).thenReturn(processVariable1);
-        when(dataSetProcessVar.getValueAt(0,
-                                          VARIABLE_VALUE)).thenReturn("value1");
+        when(dataSet.getColumns()).thenReturn(asList(new DataColumnImpl(COLUMN_PROCESS_INSTANCE_ID,
+                                                                        ColumnType.NUMBER),
+                                                     new DataColumnImpl(processVariable1,
+                                                                        ColumnType.LABEL)));
+        when(dataSet.getValueAt(0,
+                                processVariable1)).thenReturn("value1");
 
         expectedColumns = Collections.singleton(processVariable1);
 
@@ -458,9 +457,38 @@ public class ProcessInstanceListPresenterTest {
         verify(dataSetQueryHelper,
                times(2)).lookupDataSet(anyInt(),
                                        any(DataSetReadyCallback.class));
-        verify(dataSetQueryHelperDomainSpecific,
-               times(2)).lookupDataSet(anyInt(),
-                                       any(DataSetReadyCallback.class));
+    }
+
+    @Test
+    public void testVariableSortDroppedWithoutProcessFilter() {
+        final Column variableColumn = mock(Column.class);
+        when(variableColumn.getDataStoreName()).thenReturn("orderId");
+        final ColumnSortList columnSortList = new ColumnSortList();
+        columnSortList.push(variableColumn);
+        when(extendedPagedTable.getColumnSortList()).thenReturn(columnSortList);
+
+        presenter.getData(new Range(0,
+                                    5));
+
+        assertEquals(0,
+                     columnSortList.size());
+        verify(dataSetQueryHelper).setLastOrderedColumn(null);
+    }
+
+    @Test
+    public void testInstanceSortKeptWithoutProcessFilter() {
+        final Column startColumn = mock(Column.class);
+        when(startColumn.getDataStoreName()).thenReturn(COLUMN_START);
+        final ColumnSortList columnSortList = new ColumnSortList();
+        columnSortList.push(startColumn);
+        when(extendedPagedTable.getColumnSortList()).thenReturn(columnSortList);
+
+        presenter.getData(new Range(0,
+                                    5));
+
+        assertEquals(1,
+                     columnSortList.size());
+        verify(dataSetQueryHelper).setLastOrderedColumn(COLUMN_START);
     }
 
     public ArrayList<ProcessInstanceSummary> createProcessInstanceSummaryList(int listSize) {